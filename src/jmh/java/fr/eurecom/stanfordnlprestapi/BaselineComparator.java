@@ -0,0 +1,189 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compare the JSON results of a JMH run with a baseline run. A benchmark regresses when its
+ * score is worse than the baseline by more than the threshold and by more than the errors of
+ * both scores. The exit status is 1 when at least one benchmark regresses or when the baseline
+ * is missing, and a warning is logged when both runs do not use the same JVM.
+ *
+ * <p>Usage: {@code BaselineComparator baseline.json current.json [threshold percent]}
+ *
+ * @author Julien Plu
+ */
+public final class BaselineComparator {
+  static final Logger LOGGER = LoggerFactory.getLogger(BaselineComparator.class);
+
+  private BaselineComparator() {
+  }
+
+  /**
+   * Compare two JMH result files.
+   *
+   * @param args The baseline file, the current file and an optional threshold in percent.
+   *
+   * @throws IOException if a result file cannot be read.
+   */
+  public static void main(final String[] args) throws IOException {
+    final File baselineFile = new File(args[0]);
+    final double threshold;
+
+    if (args.length > 2) {
+      threshold = Double.parseDouble(args[2]);
+    } else {
+      threshold = 10;
+    }
+
+    if (!baselineFile.exists()) {
+      BaselineComparator.LOGGER.error("No baseline {}, copy the results of a run made on the "
+          + "reference machine there, or skip the comparison with -Djmh.skipBaseline=true",
+          baselineFile);
+
+      System.exit(1);
+    }
+
+    final JsonNode baselineResults = new ObjectMapper().readTree(baselineFile);
+    final JsonNode currentResults = new ObjectMapper().readTree(new File(args[1]));
+    final Map<String, JsonNode> baseline = BaselineComparator.scores(baselineResults);
+    final Map<String, JsonNode> current = BaselineComparator.scores(currentResults);
+    final String baselineJvm = BaselineComparator.jvm(baselineResults);
+    final String currentJvm = BaselineComparator.jvm(currentResults);
+    int regressions = 0;
+
+    if (!baselineJvm.equals(currentJvm)) {
+      BaselineComparator.LOGGER.warn("The baseline ran on {} and the current run on {}, the "
+          + "scores may not be comparable", baselineJvm, currentJvm);
+    }
+
+    for (final Map.Entry<String, JsonNode> entry : current.entrySet()) {
+      final JsonNode before = baseline.get(entry.getKey());
+
+      if (before == null) {
+        BaselineComparator.LOGGER.info(String.format(Locale.ENGLISH, "%-90s %12s %12.3f %s",
+            entry.getKey(), "new", entry.getValue().get("score").asDouble(),
+            entry.getValue().get("scoreUnit").asText()));
+
+        continue;
+      }
+
+      final double base = before.get("score").asDouble();
+      final double score = entry.getValue().get("score").asDouble();
+      final double error = BaselineComparator.error(before) + BaselineComparator.error(
+          entry.getValue());
+      final boolean higherIsBetter = entry.getValue().get("scoreUnit").asText().startsWith(
+          "ops/");
+      final double worse;
+
+      if (higherIsBetter) {
+        worse = base - score;
+      } else {
+        worse = score - base;
+      }
+
+      final boolean regression = worse > error && worse > base * threshold / 100;
+
+      if (regression) {
+        regressions++;
+      }
+
+      BaselineComparator.LOGGER.info(String.format(Locale.ENGLISH,
+          "%-90s %12.3f %12.3f %+8.1f%% %s%s", entry.getKey(), base, score, (score - base)
+              / base * 100, entry.getValue().get("scoreUnit").asText(), regression
+              ? " REGRESSION" : ""));
+    }
+
+    if (regressions > 0) {
+      BaselineComparator.LOGGER.error("{} benchmarks regress by more than {}%", regressions,
+          threshold);
+
+      System.exit(1);
+    }
+  }
+
+  private static double error(final JsonNode metric) {
+    final double error = metric.get("scoreError").asDouble();
+
+    if (Double.isNaN(error)) {
+      return 0;
+    }
+
+    return error;
+  }
+
+  /**
+   * The JVM that ran the benchmarks of a JMH result file.
+   *
+   * @param results JMH results.
+   *
+   * @return The version of the JVM, empty if the results do not give it.
+   */
+  private static String jvm(final JsonNode results) {
+    if (results.size() == 0) {
+      return "";
+    }
+
+    return results.get(0).path("vmName").asText() + ' ' + results.get(0).path("vmVersion")
+        .asText();
+  }
+
+  /**
+   * Read the primary metric of each benchmark of JMH results.
+   *
+   * @param results JMH results.
+   *
+   * @return The primary metrics, by benchmark name and parameters.
+   */
+  private static Map<String, JsonNode> scores(final JsonNode results) {
+    final Map<String, JsonNode> scores = new TreeMap<>();
+
+    for (final JsonNode result : results) {
+      final StringBuilder sb = new StringBuilder(result.get("benchmark").asText());
+
+      if (result.has("params")) {
+        final Map<String, String> params = new TreeMap<>();
+        final Iterator<Map.Entry<String, JsonNode>> fields = result.get("params").fields();
+
+        while (fields.hasNext()) {
+          final Map.Entry<String, JsonNode> field = fields.next();
+
+          params.put(field.getKey(), field.getValue().asText());
+        }
+
+        sb.append(params);
+      }
+
+      scores.put(sb.toString(), result.get("primaryMetric"));
+    }
+
+    return scores;
+  }
+}
@@ -0,0 +1,161 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.core;
+
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.ling.CoreLabel;
+
+import edu.stanford.nlp.util.ArrayCoreMap;
+import edu.stanford.nlp.util.CoreMap;
+
+import fr.eurecom.stanfordnlprestapi.datatypes.Context;
+import fr.eurecom.stanfordnlprestapi.datatypes.SentenceImpl;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
+
+import fr.eurecom.stanfordnlprestapi.nullobjects.NullSentence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of the token and entity builders of {@link StanfordNlp} on a synthetic sentence,
+ * without running any annotator.
+ *
+ * @author Julien Plu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BuildersBenchmark {
+  static final Logger LOGGER = LoggerFactory.getLogger(BuildersBenchmark.class);
+  private static final String[] TAGS = {"PERSON", "PERSON", "O", "LOCATION", "O", "O",
+      "ORGANIZATION", "ORGANIZATION", "ORGANIZATION", "O"};
+  @Param({"10", "100", "1000"})
+  int tokens;
+  private StanfordNlp pipeline;
+  private CoreMap stanfordSentence;
+  private Context context;
+
+  /**
+   * Load a tokenizer pipeline and build a sentence whose tokens alternate entities of several
+   * types with untagged tokens.
+   */
+  @Setup
+  public final void setUp() {
+    final List<CoreLabel> labels = new ArrayList<>();
+    final StringBuilder sb = new StringBuilder();
+
+    for (int i = 0; i < this.tokens; i++) {
+      final CoreLabel label = new CoreLabel();
+      final String word = "word" + i;
+
+      if (sb.length() > 0) {
+        sb.append(' ');
+      }
+
+      label.set(CoreAnnotations.TextAnnotation.class, word);
+      label.set(CoreAnnotations.CharacterOffsetBeginAnnotation.class, sb.length());
+      label.set(CoreAnnotations.CharacterOffsetEndAnnotation.class, sb.length() + word.length());
+      label.set(CoreAnnotations.IndexAnnotation.class, i + 1);
+      label.set(CoreAnnotations.PartOfSpeechAnnotation.class, "NNP");
+      label.set(CoreAnnotations.NamedEntityTagAnnotation.class,
+          BuildersBenchmark.TAGS[i % BuildersBenchmark.TAGS.length]);
+      labels.add(label);
+      sb.append(word);
+    }
+
+    this.stanfordSentence = new ArrayCoreMap();
+    this.stanfordSentence.set(CoreAnnotations.TokensAnnotation.class, labels);
+    this.context = new Context(sb.toString(), 0, sb.length());
+    this.pipeline = new StanfordNlp(BuildersBenchmark.class.getClassLoader().getResource(
+        "tokenize_en_test.properties").getFile(), "stanfordnlp");
+  }
+
+  @TearDown
+  public final void tearDown() {
+    this.pipeline.release();
+  }
+
+  private Sentence sentence() {
+    return new SentenceImpl(this.context.text(), this.context, 0, this.context.end(), 0,
+        NullSentence.getInstance());
+  }
+
+  /**
+   * Build the tokens of the sentence.
+   *
+   * @return The sentence with its tokens.
+   */
+  @Benchmark
+  public final Sentence buildTokens() {
+    final Sentence sentence = this.sentence();
+
+    this.pipeline.buildTokensFromSentence(this.stanfordSentence, this.context, sentence);
+
+    return sentence;
+  }
+
+  /**
+   * Build the tagged tokens of the sentence.
+   *
+   * @return The sentence with its tokens.
+   */
+  @Benchmark
+  public final Sentence buildPosTokens() {
+    final Sentence sentence = this.sentence();
+
+    this.pipeline.buildPosTokensFromSentence(this.stanfordSentence, this.context, sentence);
+
+    return sentence;
+  }
+
+  /**
+   * Build the entities of the sentence.
+   *
+   * @return The sentence with its entities.
+   */
+  @Benchmark
+  public final Sentence buildEntities() {
+    final Sentence sentence = this.sentence();
+
+    this.pipeline.buildEntitiesFromSentence(this.stanfordSentence, this.context, sentence);
+
+    return sentence;
+  }
+}
@@ -0,0 +1,84 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.core;
+
+import fr.eurecom.stanfordnlprestapi.corpus.CorpusGenerator;
+
+import fr.eurecom.stanfordnlprestapi.datatypes.Context;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of {@link StanfordNlp#run(String)} for each test profile on generated documents.
+ *
+ * @author Julien Plu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StanfordNlpBenchmark {
+  static final Logger LOGGER = LoggerFactory.getLogger(StanfordNlpBenchmark.class);
+  @Param({"tokenize_en_test", "pos_en_test", "ner_en_test", "number_en_test",
+      "gazetteer_en_test", "date_en_test", "coref_en_test"})
+  String profile;
+  @Param({"1000", "10000"})
+  int chars;
+  @Param("0.5")
+  double entityRatio;
+  private StanfordNlp pipeline;
+  private String text;
+
+  /**
+   * Load the pipeline of the profile and generate the document.
+   */
+  @Setup
+  public final void setUp() {
+    this.pipeline = new StanfordNlp(StanfordNlpBenchmark.class.getClassLoader().getResource(
+        this.profile + ".properties").getFile(), "stanfordnlp");
+    this.text = new CorpusGenerator(42, this.entityRatio).document(this.chars);
+  }
+
+  @TearDown
+  public final void tearDown() {
+    this.pipeline.release();
+  }
+
+  @Benchmark
+  public final Context run() {
+    return this.pipeline.run(this.text);
+  }
+}
@@ -0,0 +1,99 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.datatypes;
+
+import fr.eurecom.stanfordnlprestapi.core.StanfordNlp;
+
+import fr.eurecom.stanfordnlprestapi.corpus.CorpusGenerator;
+
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.NullOutputStream;
+
+import org.apache.jena.rdf.model.Model;
+
+import org.apache.jena.riot.RDFFormat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of the RDF serialization of contexts of growing size.
+ *
+ * @author Julien Plu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ContextBenchmark {
+  static final Logger LOGGER = LoggerFactory.getLogger(ContextBenchmark.class);
+  @Param({"pos_en_test", "ner_en_test"})
+  String profile;
+  @Param({"1000", "10000", "100000"})
+  int chars;
+  private Context context;
+  private NlpProcess process;
+
+  /**
+   * Annotate a generated document once, the benchmarks only serialize its context.
+   */
+  @Setup
+  public final void setUp() {
+    final StanfordNlp pipeline = new StanfordNlp(ContextBenchmark.class.getClassLoader()
+        .getResource(this.profile + ".properties").getFile(), "stanfordnlp");
+
+    this.process = NlpProcess.valueOf(this.profile.split("_")[0].toUpperCase(Locale.ENGLISH));
+    this.context = pipeline.run(new CorpusGenerator(42, 0.5).document(this.chars));
+
+    pipeline.release();
+  }
+
+  @Benchmark
+  public final Model rdfModel() {
+    return this.context.rdfModel("stanfordnlp", this.process, "http://localhost");
+  }
+
+  @Benchmark
+  public final String rdfString() {
+    return this.context.rdfString("stanfordnlp", this.process, "http://localhost");
+  }
+
+  @Benchmark
+  public final void rdfStream() {
+    this.context.rdfStream(NullOutputStream.NULL_OUTPUT_STREAM, "stanfordnlp", this.process,
+        "http://localhost", RDFFormat.TURTLE_BLOCKS);
+  }
+}
@@ -0,0 +1,79 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.resources;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.eurecom.stanfordnlprestapi.corpus.CorpusGenerator;
+
+import fr.eurecom.stanfordnlprestapi.datatypes.Query;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of the decoding and the validation of a request body by {@link PipelineResource}.
+ *
+ * @author Julien Plu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DecodeBenchmark {
+  static final Logger LOGGER = LoggerFactory.getLogger(DecodeBenchmark.class);
+  @Param({"1000", "100000"})
+  int chars;
+  private PipelineResource resource;
+  private byte[] body;
+
+  /**
+   * Create a resource without any profile and the body of a request.
+   *
+   * @throws JsonProcessingException if the body cannot be written.
+   */
+  @Setup
+  public final void setUp() throws JsonProcessingException {
+    this.resource = new PipelineResource("stanfordnlp", new java.nio.file.Path[0]);
+    this.body = new ObjectMapper().writeValueAsBytes(Collections.singletonMap("content",
+        new CorpusGenerator(42, 0.5).document(this.chars)));
+  }
+
+  @Benchmark
+  public final Query decode() {
+    return this.resource.query(this.body);
+  }
+}
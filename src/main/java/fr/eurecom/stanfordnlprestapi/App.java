@@ -17,9 +17,11 @@
  */
 package fr.eurecom.stanfordnlprestapi;
 
+import fr.eurecom.stanfordnlprestapi.cli.CompileGazetteerCommand;
 import fr.eurecom.stanfordnlprestapi.cli.CorefCommand;
 import fr.eurecom.stanfordnlprestapi.cli.DateCommand;
 import fr.eurecom.stanfordnlprestapi.cli.GazetteerCommand;
+import fr.eurecom.stanfordnlprestapi.cli.LoadTestCommand;
 import fr.eurecom.stanfordnlprestapi.cli.NerCommand;
 import fr.eurecom.stanfordnlprestapi.cli.NumberCommand;
 import fr.eurecom.stanfordnlprestapi.cli.PosCommand;
@@ -27,15 +29,27 @@ import fr.eurecom.stanfordnlprestapi.cli.PosCommand;
 import fr.eurecom.stanfordnlprestapi.cli.TokenizeCommand;
 import fr.eurecom.stanfordnlprestapi.configurations.PipelineConfiguration;
 
+import fr.eurecom.stanfordnlprestapi.core.AnnotatorRegistry;
+
+import fr.eurecom.stanfordnlprestapi.gazetteer.GazetteerRegistry;
+
 import fr.eurecom.stanfordnlprestapi.healthchecks.ModelHealthCheck;
 import fr.eurecom.stanfordnlprestapi.resources.PipelineResource;
 
+import fr.eurecom.stanfordnlprestapi.servlets.AnnotatorsServlet;
+import fr.eurecom.stanfordnlprestapi.servlets.GazetteersServlet;
+
 import io.dropwizard.Application;
 
 import io.dropwizard.cli.Command;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -65,6 +79,8 @@ public class App extends Application<PipelineConfiguration> {
     bootstrap.addCommand((Command) new DateCommand());
     bootstrap.addCommand((Command) new NumberCommand());
     bootstrap.addCommand((Command) new GazetteerCommand());
+    bootstrap.addCommand((Command) new LoadTestCommand());
+    bootstrap.addCommand(new CompileGazetteerCommand());
   }
 
   @Override
@@ -81,7 +97,41 @@ public class App extends Application<PipelineConfiguration> {
     newEnvironment.healthChecks().register("FR models for NER and POS", new ModelHealthCheck(
         "properties/ner_fr.properties"));
 
-    newEnvironment.jersey().register(new PipelineResource(newT.getName()));
+    final ExecutorService executor = newEnvironment.lifecycle().executorService("annotation-%d")
+        .minThreads(newT.getExecutor().getThreads()).maxThreads(newT.getExecutor().getThreads())
+        .workQueue(new ArrayBlockingQueue<>(newT.getExecutor().getQueueSize())).build();
+
+    final ExecutorService loader = newEnvironment.lifecycle().executorService(
+        "profile-loader-%d").minThreads(newT.getProfiles().getLoaderThreads()).maxThreads(
+        newT.getProfiles().getLoaderThreads()).build();
+
+    final PipelineResource resource = new PipelineResource(newT, newEnvironment.metrics(),
+        executor, loader);
+
+    newEnvironment.jersey().register(resource);
+    newEnvironment.lifecycle().manage(resource.store());
+
+    final long compactSeconds = newT.getStore().getCompactSeconds();
+
+    if (resource.store().enabled() && compactSeconds > 0) {
+      newEnvironment.lifecycle().scheduledExecutorService("store-%d").threads(1).build()
+          .scheduleWithFixedDelay(resource.store()::compact, compactSeconds, compactSeconds,
+              TimeUnit.SECONDS);
+    }
+    newEnvironment.admin().addServlet("annotators", new AnnotatorsServlet(
+        AnnotatorRegistry.getInstance())).addMapping("/annotators");
+
+    final ScheduledExecutorService gazetteers = newEnvironment.lifecycle()
+        .scheduledExecutorService("gazetteer-%d").threads(1).build();
+    final long watchSeconds = newT.getGazetteer().getWatchSeconds();
+
+    if (watchSeconds > 0) {
+      gazetteers.scheduleWithFixedDelay(() -> GazetteerRegistry.getInstance().reloadModified(),
+          watchSeconds, watchSeconds, TimeUnit.SECONDS);
+    }
+
+    newEnvironment.admin().addServlet("gazetteers", new GazetteersServlet(
+        GazetteerRegistry.getInstance(), gazetteers)).addMapping("/gazetteers");
   }
 
   /**
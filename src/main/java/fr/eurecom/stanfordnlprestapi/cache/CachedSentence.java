@@ -0,0 +1,138 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.cache;
+
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.ling.CoreLabel;
+
+import edu.stanford.nlp.util.CoreMap;
+
+import fr.eurecom.stanfordnlprestapi.datatypes.TagDictionary;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The tags of the tokens of an annotated sentence, with the offsets of the tokens relative to
+ * the start of the sentence, so they can be restored on the same sentence anywhere in another
+ * text.
+ *
+ * @author Julien Plu
+ */
+public final class CachedSentence {
+  static final Logger LOGGER = LoggerFactory.getLogger(CachedSentence.class);
+  private final int[] starts;
+  private final int[] ends;
+  private final String[] posTags;
+  private final String[] nerTags;
+
+  private CachedSentence(final int size) {
+    this.starts = new int[size];
+    this.ends = new int[size];
+    this.posTags = new String[size];
+    this.nerTags = new String[size];
+  }
+
+  /**
+   * Keep the tags of an annotated sentence.
+   *
+   * @param sentence Annotated sentence.
+   *
+   * @return The tags of the sentence.
+   */
+  public static CachedSentence of(final CoreMap sentence) {
+    final List<CoreLabel> tokens = sentence.get(CoreAnnotations.TokensAnnotation.class);
+    final int begin = sentence.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class);
+    final CachedSentence cached = new CachedSentence(tokens.size());
+
+    for (int i = 0; i < tokens.size(); i++) {
+      final CoreLabel token = tokens.get(i);
+
+      cached.starts[i] = token.beginPosition() - begin;
+      cached.ends[i] = token.endPosition() - begin;
+      cached.posTags[i] = CachedSentence.intern(token.get(
+          CoreAnnotations.PartOfSpeechAnnotation.class));
+      cached.nerTags[i] = CachedSentence.intern(token.get(
+          CoreAnnotations.NamedEntityTagAnnotation.class));
+    }
+
+    return cached;
+  }
+
+  private static String intern(final String tag) {
+    return tag == null ? null : TagDictionary.getInstance().intern(tag);
+  }
+
+  /**
+   * Restore the tags on the tokens of a sentence that has the same text, as long as the tokens
+   * are at the same places.
+   *
+   * @param sentence Sentence split but not tagged.
+   *
+   * @return True if the tags have been restored.
+   */
+  public boolean restore(final CoreMap sentence) {
+    final List<CoreLabel> tokens = sentence.get(CoreAnnotations.TokensAnnotation.class);
+    final int begin = sentence.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class);
+
+    if (tokens.size() != this.starts.length) {
+      return false;
+    }
+
+    for (int i = 0; i < this.starts.length; i++) {
+      if (tokens.get(i).beginPosition() - begin != this.starts[i]
+          || tokens.get(i).endPosition() - begin != this.ends[i]) {
+        return false;
+      }
+    }
+
+    for (int i = 0; i < this.starts.length; i++) {
+      if (this.posTags[i] != null) {
+        tokens.get(i).set(CoreAnnotations.PartOfSpeechAnnotation.class, this.posTags[i]);
+      }
+
+      if (this.nerTags[i] != null) {
+        tokens.get(i).set(CoreAnnotations.NamedEntityTagAnnotation.class, this.nerTags[i]);
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Estimated size of the sentence in the heap, the tags are shared between all the sentences.
+   *
+   * @return The size in bytes.
+   */
+  public int weight() {
+    return 64 + 24 * this.starts.length;
+  }
+
+  public int size() {
+    return this.starts.length;
+  }
+
+  @Override
+  public String toString() {
+    return "CachedSentence{"
+        + "tokens=" + this.starts.length
+        + '}';
+  }
+}
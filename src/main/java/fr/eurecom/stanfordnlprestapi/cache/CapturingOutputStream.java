@@ -0,0 +1,100 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Output stream that keeps a copy of what is written into it, as long as the copy does not
+ * exceed a given size.
+ *
+ * @author Julien Plu
+ */
+public class CapturingOutputStream extends FilterOutputStream {
+  static final Logger LOGGER = LoggerFactory.getLogger(CapturingOutputStream.class);
+  private final int limit;
+  private ByteArrayOutputStream copy;
+  private long count;
+
+  /**
+   * CapturingOutputStream constructor.
+   *
+   * @param newOut   Output stream that receives the bytes.
+   * @param newLimit Maximum size of the copy.
+   */
+  public CapturingOutputStream(final OutputStream newOut, final int newLimit) {
+    super(newOut);
+
+    this.limit = newLimit;
+    this.copy = new ByteArrayOutputStream();
+  }
+
+  @Override
+  public final void write(final int b) throws IOException {
+    this.out.write(b);
+    this.capture(new byte[] {(byte) b}, 0, 1);
+  }
+
+  @Override
+  public final void write(final byte[] b, final int off, final int len) throws IOException {
+    this.out.write(b, off, len);
+    this.capture(b, off, len);
+  }
+
+  private void capture(final byte[] b, final int off, final int len) {
+    this.count += len;
+
+    if (this.copy == null) {
+      return;
+    }
+
+    if (this.copy.size() + len > this.limit) {
+      this.copy = null;
+    } else {
+      this.copy.write(b, off, len);
+    }
+  }
+
+  /**
+   * Copy of the written bytes.
+   *
+   * @return The written bytes, null if they exceed the limit.
+   */
+  public final byte[] captured() {
+    if (this.copy == null) {
+      return null;
+    }
+
+    return this.copy.toByteArray();
+  }
+
+  /**
+   * Number of written bytes, captured or not.
+   *
+   * @return The number of written bytes.
+   */
+  public final long count() {
+    return this.count;
+  }
+}
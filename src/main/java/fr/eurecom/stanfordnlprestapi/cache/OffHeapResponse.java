@@ -0,0 +1,105 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serialized response stored in an {@link OffHeapResponseCache}. A response returned by
+ * {@link OffHeapResponseCache#get(String)} pins its segment, so it has to be closed once it has
+ * been written.
+ *
+ * @author Julien Plu
+ */
+public final class OffHeapResponse implements Closeable {
+  static final Logger LOGGER = LoggerFactory.getLogger(OffHeapResponse.class);
+  private final OffHeapSegment segment;
+  private final int offset;
+  private final int length;
+
+  /**
+   * OffHeapResponse constructor.
+   *
+   * @param newSegment Segment where the response is stored.
+   * @param newOffset  Offset of the response in the segment.
+   * @param newLength  Length of the response.
+   */
+  OffHeapResponse(final OffHeapSegment newSegment, final int newOffset, final int newLength) {
+    this.segment = newSegment;
+    this.offset = newOffset;
+    this.length = newLength;
+  }
+
+  /**
+   * Copy the response from the off-heap memory to an output stream.
+   *
+   * @param out Output stream that receives the response.
+   *
+   * @throws IOException if the output stream cannot be written.
+   */
+  public void writeTo(final OutputStream out) throws IOException {
+    final ByteBuffer bytes = this.segment.slice(this.offset, this.length);
+    final WritableByteChannel channel = Channels.newChannel(out);
+
+    while (bytes.hasRemaining()) {
+      channel.write(bytes);
+    }
+  }
+
+  /**
+   * Copy the response from the off-heap memory to the heap.
+   *
+   * @return The serialized response.
+   */
+  public byte[] bytes() {
+    final byte[] bytes = new byte[this.length];
+
+    this.segment.slice(this.offset, this.length).get(bytes);
+
+    return bytes;
+  }
+
+  public int length() {
+    return this.length;
+  }
+
+  OffHeapSegment segment() {
+    return this.segment;
+  }
+
+  @Override
+  public void close() {
+    this.segment.unpin();
+  }
+
+  @Override
+  public String toString() {
+    return "OffHeapResponse{"
+        + "offset=" + this.offset
+        + ", length=" + this.length
+        + '}';
+  }
+}
@@ -0,0 +1,217 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import fr.eurecom.stanfordnlprestapi.configurations.CacheConfiguration;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of serialized responses kept out of the heap, in direct buffers split into segments of
+ * the same size. The responses are appended to the current segment, and when it is full the
+ * oldest segment is emptied to become the current one, so the eviction is FIFO by segment and
+ * never walks or compacts the responses.
+ *
+ * @author Julien Plu
+ */
+public class OffHeapResponseCache {
+  static final Logger LOGGER = LoggerFactory.getLogger(OffHeapResponseCache.class);
+  private final Map<String, OffHeapResponse> index;
+  private final OffHeapSegment[] segments;
+  private final int segmentBytes;
+  private final AtomicLong weight;
+  private final AtomicLong hits;
+  private final AtomicLong misses;
+  private final AtomicLong evictions;
+  private final AtomicLong allocations;
+  private int current;
+
+  /**
+   * OffHeapResponseCache constructor. The segments are allocated when they are first needed.
+   *
+   * @param configuration Sizing of the cache.
+   */
+  public OffHeapResponseCache(final CacheConfiguration configuration) {
+    this.segmentBytes = configuration.getOffHeapSegmentBytes();
+    this.segments = new OffHeapSegment[(int) Math.min(Integer.MAX_VALUE,
+        configuration.getOffHeapMaximumBytes() / this.segmentBytes)];
+    this.index = new ConcurrentHashMap<>();
+    this.weight = new AtomicLong();
+    this.hits = new AtomicLong();
+    this.misses = new AtomicLong();
+    this.evictions = new AtomicLong();
+    this.allocations = new AtomicLong();
+    this.current = -1;
+  }
+
+  public final boolean enabled() {
+    return this.segments.length > 0;
+  }
+
+  /**
+   * Get a response from the cache. The returned response must be closed once it has been
+   * written, until then the memory where it is stored is not reused.
+   *
+   * @param key Key of the response.
+   *
+   * @return The response, null if it is not cached.
+   */
+  public final OffHeapResponse get(final String key) {
+    if (!this.enabled()) {
+      return null;
+    }
+
+    final OffHeapResponse response = this.index.get(key);
+
+    if (response != null && response.segment().pin()) {
+      this.hits.incrementAndGet();
+
+      return response;
+    }
+
+    this.misses.incrementAndGet();
+
+    return null;
+  }
+
+  /**
+   * Copy a response in the cache, unless it is bigger than a segment or already cached.
+   *
+   * @param key   Key of the response.
+   * @param value Serialized response.
+   */
+  public final synchronized void put(final String key, final byte[] value) {
+    if (!this.enabled() || value == null || value.length > this.segmentBytes
+        || this.index.containsKey(key)) {
+      return;
+    }
+
+    int offset = -1;
+
+    if (this.current >= 0) {
+      offset = this.segments[this.current].append(key, value);
+    }
+
+    if (offset < 0) {
+      this.advance();
+
+      offset = this.segments[this.current].append(key, value);
+    }
+
+    this.index.put(key, new OffHeapResponse(this.segments[this.current], offset, value.length));
+    this.weight.addAndGet(value.length);
+  }
+
+  /**
+   * Remove a response from the cache. Its bytes stay in their segment until the segment is
+   * emptied.
+   *
+   * @param key Key of the response.
+   */
+  public final void remove(final String key) {
+    final OffHeapResponse response = this.index.remove(key);
+
+    if (response != null) {
+      this.weight.addAndGet(-response.length());
+    }
+  }
+
+  private void advance() {
+    this.current = (this.current + 1) % this.segments.length;
+
+    final OffHeapSegment oldest = this.segments[this.current];
+    ByteBuffer buffer = null;
+
+    if (oldest != null) {
+      for (final String key : oldest.keys()) {
+        final OffHeapResponse response = this.index.get(key);
+
+        if (response != null && response.segment() == oldest && this.index.remove(key,
+            response)) {
+          this.evictions.incrementAndGet();
+          this.weight.addAndGet(-response.length());
+        }
+      }
+
+      if (oldest.retire()) {
+        buffer = oldest.buffer();
+      }
+    }
+
+    if (buffer == null) {
+      OffHeapResponseCache.LOGGER.debug("Allocate an off-heap segment of {} bytes",
+          this.segmentBytes);
+
+      buffer = ByteBuffer.allocateDirect(this.segmentBytes);
+
+      this.allocations.incrementAndGet();
+    }
+
+    this.segments[this.current] = new OffHeapSegment(buffer);
+  }
+
+  public final int maximumEntryBytes() {
+    return this.enabled() ? this.segmentBytes : 0;
+  }
+
+  public final int size() {
+    return this.index.size();
+  }
+
+  /**
+   * Register the hit, miss and eviction gauges of the cache.
+   *
+   * @param metrics Registry where the gauges are registered.
+   */
+  public final void registerMetrics(final MetricRegistry metrics) {
+    metrics.register(MetricRegistry.name(OffHeapResponseCache.class, "hits"),
+        (Gauge<Long>) this.hits::get);
+    metrics.register(MetricRegistry.name(OffHeapResponseCache.class, "misses"),
+        (Gauge<Long>) this.misses::get);
+    metrics.register(MetricRegistry.name(OffHeapResponseCache.class, "evictions"),
+        (Gauge<Long>) this.evictions::get);
+    metrics.register(MetricRegistry.name(OffHeapResponseCache.class, "allocations"),
+        (Gauge<Long>) this.allocations::get);
+    metrics.register(MetricRegistry.name(OffHeapResponseCache.class, "entries"),
+        (Gauge<Integer>) this.index::size);
+    metrics.register(MetricRegistry.name(OffHeapResponseCache.class, "bytes"),
+        (Gauge<Long>) this.weight::get);
+  }
+
+  @Override
+  public final String toString() {
+    return "OffHeapResponseCache{"
+        + "entries=" + this.index.size()
+        + ", bytes=" + this.weight.get()
+        + ", segments=" + this.segments.length
+        + ", segmentBytes=" + this.segmentBytes
+        + ", hits=" + this.hits.get()
+        + ", misses=" + this.misses.get()
+        + ", evictions=" + this.evictions.get()
+        + '}';
+  }
+}
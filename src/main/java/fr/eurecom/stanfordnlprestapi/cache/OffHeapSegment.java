@@ -0,0 +1,146 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fixed size area of off-heap memory where the responses are appended one after the other. A
+ * segment is retired as a whole when the cache needs its room, and its buffer is only reused if
+ * no reader still copies a response out of it.
+ *
+ * @author Julien Plu
+ */
+final class OffHeapSegment {
+  static final Logger LOGGER = LoggerFactory.getLogger(OffHeapSegment.class);
+  private final ByteBuffer buffer;
+  private final AtomicInteger readers;
+  private final List<String> keys;
+  private volatile boolean retired;
+  private int position;
+
+  /**
+   * OffHeapSegment constructor.
+   *
+   * @param newBuffer Direct buffer of the segment, its previous content is discarded.
+   */
+  OffHeapSegment(final ByteBuffer newBuffer) {
+    this.buffer = newBuffer;
+    this.readers = new AtomicInteger();
+    this.keys = new ArrayList<>();
+  }
+
+  /**
+   * Append a response at the end of the segment. Only one thread appends at a time.
+   *
+   * @param key   Key of the response.
+   * @param value Serialized response.
+   *
+   * @return The offset of the response, -1 if the segment has no room left for it.
+   */
+  int append(final String key, final byte[] value) {
+    if (this.position + value.length > this.buffer.capacity()) {
+      return -1;
+    }
+
+    final ByteBuffer target = this.buffer.duplicate();
+    final int offset = this.position;
+
+    target.position(offset);
+    target.put(value);
+
+    this.keys.add(key);
+    this.position += value.length;
+
+    return offset;
+  }
+
+  /**
+   * Read-only view of a response stored in the segment.
+   *
+   * @param offset Offset of the response.
+   * @param length Length of the response.
+   *
+   * @return The bytes of the response, without copy.
+   */
+  ByteBuffer slice(final int offset, final int length) {
+    final ByteBuffer view = this.buffer.asReadOnlyBuffer();
+
+    view.limit(offset + length);
+    view.position(offset);
+
+    return view;
+  }
+
+  /**
+   * Prevent the buffer from being reused while a response is read from it.
+   *
+   * @return false if the segment has been retired, its responses must not be read anymore.
+   */
+  boolean pin() {
+    this.readers.incrementAndGet();
+
+    if (this.retired) {
+      this.unpin();
+
+      return false;
+    }
+
+    return true;
+  }
+
+  void unpin() {
+    this.readers.decrementAndGet();
+  }
+
+  /**
+   * Retire the segment, the responses it holds cannot be pinned anymore.
+   *
+   * @return true if no reader holds the segment, so its buffer can be reused.
+   */
+  boolean retire() {
+    this.retired = true;
+
+    return this.readers.get() == 0;
+  }
+
+  ByteBuffer buffer() {
+    return this.buffer;
+  }
+
+  List<String> keys() {
+    return this.keys;
+  }
+
+  @Override
+  public String toString() {
+    return "OffHeapSegment{"
+        + "capacity=" + this.buffer.capacity()
+        + ", position=" + this.position
+        + ", responses=" + this.keys.size()
+        + ", readers=" + this.readers.get()
+        + ", retired=" + this.retired
+        + '}';
+  }
+}
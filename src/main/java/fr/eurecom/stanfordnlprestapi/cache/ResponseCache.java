@@ -0,0 +1,197 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.Weigher;
+import com.google.common.hash.Hashing;
+
+import fr.eurecom.stanfordnlprestapi.configurations.CacheConfiguration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * LRU cache of serialized responses bounded by their size in bytes. An entry is identified by
+ * the profile, the version of its gazetteers, the output format, the base URI and a SHA-256 hash
+ * of the processed text. The evicted responses can be handed to a second tier.
+ *
+ * @author Julien Plu
+ */
+public class ResponseCache {
+  static final Logger LOGGER = LoggerFactory.getLogger(ResponseCache.class);
+  private final Cache<String, byte[]> cache;
+  private final AtomicLong weight;
+  private final int maximumEntryBytes;
+
+  /**
+   * ResponseCache constructor.
+   *
+   * @param configuration Sizing of the cache.
+   */
+  public ResponseCache(final CacheConfiguration configuration) {
+    this(configuration, (key, value) -> { });
+  }
+
+  /**
+   * ResponseCache constructor.
+   *
+   * @param configuration Sizing of the cache.
+   * @param newEvicted    Receives the responses evicted to make room for the others.
+   */
+  public ResponseCache(final CacheConfiguration configuration,
+                       final BiConsumer<String, byte[]> newEvicted) {
+    this.weight = new AtomicLong();
+    this.maximumEntryBytes = (int) Math.min(configuration.getMaximumEntryBytes(),
+        configuration.getMaximumBytes());
+    this.cache = CacheBuilder.newBuilder().maximumWeight(configuration.getMaximumBytes())
+        .weigher((Weigher<String, byte[]>) ResponseCache::weigh)
+        .removalListener((RemovalListener<String, byte[]>) notification -> {
+          this.weight.addAndGet(-ResponseCache.weigh(notification.getKey(),
+              notification.getValue()));
+
+          if (notification.wasEvicted()) {
+            newEvicted.accept(notification.getKey(), notification.getValue());
+          }
+        }).recordStats().build();
+  }
+
+  private static int weigh(final String key, final byte[] value) {
+    return key.length() * 2 + value.length;
+  }
+
+  /**
+   * Build the key of a response.
+   *
+   * @param profile Profile used to process the text.
+   * @param version Version of the gazetteers of the profile.
+   * @param format  Output format of the response.
+   * @param host    Base URI of the response.
+   * @param text    Processed text.
+   *
+   * @return The key of the response.
+   */
+  public static String key(final String profile, final String version, final String format,
+                           final String host, final String text) {
+    return profile + '\n' + version + '\n' + format + '\n' + host + '\n'
+        + Hashing.sha256().hashString(text, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Build the entity tag of a response from its key.
+   *
+   * @param key Key of the response.
+   *
+   * @return The entity tag, without quotes.
+   */
+  public static String etag(final String key) {
+    return Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString();
+  }
+
+  /**
+   * Check if an If-None-Match header matches an entity tag.
+   *
+   * @param ifNoneMatch Value of the If-None-Match header, can be null.
+   * @param etag        Entity tag, without quotes.
+   *
+   * @return true if the header matches the entity tag.
+   */
+  public static boolean matches(final String ifNoneMatch, final String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+
+    for (final String tag : ifNoneMatch.split(",")) {
+      final String value = tag.trim().replaceFirst("^W/", "").replace("\"", "");
+
+      if ("*".equals(value) || etag.equals(value)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Get a response from the cache.
+   *
+   * @param key Key of the response.
+   *
+   * @return The serialized response, null if it is not cached.
+   */
+  public final byte[] get(final String key) {
+    return this.cache.getIfPresent(key);
+  }
+
+  /**
+   * Put a response in the cache, unless it is bigger than the maximum size of an entry.
+   *
+   * @param key   Key of the response.
+   * @param value Serialized response.
+   */
+  public final void put(final String key, final byte[] value) {
+    if (value == null || value.length > this.maximumEntryBytes) {
+      return;
+    }
+
+    this.weight.addAndGet(ResponseCache.weigh(key, value));
+    this.cache.put(key, value);
+  }
+
+  public final int maximumEntryBytes() {
+    return this.maximumEntryBytes;
+  }
+
+  /**
+   * Register the hit, miss and eviction gauges of the cache.
+   *
+   * @param metrics Registry where the gauges are registered.
+   */
+  public final void registerMetrics(final MetricRegistry metrics) {
+    metrics.register(MetricRegistry.name(ResponseCache.class, "hits"),
+        (Gauge<Long>) () -> this.cache.stats().hitCount());
+    metrics.register(MetricRegistry.name(ResponseCache.class, "misses"),
+        (Gauge<Long>) () -> this.cache.stats().missCount());
+    metrics.register(MetricRegistry.name(ResponseCache.class, "evictions"),
+        (Gauge<Long>) () -> this.cache.stats().evictionCount());
+    metrics.register(MetricRegistry.name(ResponseCache.class, "hitRate"),
+        (Gauge<Double>) () -> this.cache.stats().hitRate());
+    metrics.register(MetricRegistry.name(ResponseCache.class, "entries"),
+        (Gauge<Long>) this.cache::size);
+    metrics.register(MetricRegistry.name(ResponseCache.class, "bytes"),
+        (Gauge<Long>) this.weight::get);
+  }
+
+  @Override
+  public final String toString() {
+    return "ResponseCache{"
+        + "entries=" + this.cache.size()
+        + ", bytes=" + this.weight.get()
+        + ", stats=" + this.cache.stats()
+        + '}';
+  }
+}
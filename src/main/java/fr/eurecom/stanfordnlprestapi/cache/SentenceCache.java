@@ -0,0 +1,142 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.Weigher;
+
+import fr.eurecom.stanfordnlprestapi.configurations.CacheConfiguration;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * LRU cache of the tags of annotated sentences bounded by their estimated size in bytes. An
+ * entry is identified by the profile and the text of the sentence, so a sentence repeated in
+ * many documents is only tagged once per profile.
+ *
+ * @author Julien Plu
+ */
+public class SentenceCache {
+  static final Logger LOGGER = LoggerFactory.getLogger(SentenceCache.class);
+  private final Cache<String, CachedSentence> cache;
+  private final AtomicLong weight;
+  private final boolean enabled;
+
+  /**
+   * SentenceCache constructor.
+   *
+   * @param configuration Sizing of the cache.
+   */
+  public SentenceCache(final CacheConfiguration configuration) {
+    this.weight = new AtomicLong();
+    this.enabled = configuration.getSentenceMaximumBytes() > 0;
+    this.cache = CacheBuilder.newBuilder().maximumWeight(configuration.getSentenceMaximumBytes())
+        .weigher((Weigher<String, CachedSentence>) SentenceCache::weigh)
+        .removalListener((RemovalListener<String, CachedSentence>) notification ->
+            this.weight.addAndGet(-SentenceCache.weigh(notification.getKey(),
+                notification.getValue())))
+        .recordStats().build();
+  }
+
+  private static int weigh(final String key, final CachedSentence value) {
+    return key.length() * 2 + value.weight();
+  }
+
+  private static String key(final String profile, final String text) {
+    return profile + '\n' + text;
+  }
+
+  public final boolean enabled() {
+    return this.enabled;
+  }
+
+  /**
+   * Get the tags of a sentence from the cache.
+   *
+   * @param profile Profile used to tag the sentence.
+   * @param text    Text of the sentence.
+   *
+   * @return The tags of the sentence, null if it is not cached.
+   */
+  public final CachedSentence get(final String profile, final String text) {
+    if (!this.enabled) {
+      return null;
+    }
+
+    return this.cache.getIfPresent(SentenceCache.key(profile, text));
+  }
+
+  /**
+   * Put the tags of a sentence in the cache.
+   *
+   * @param profile  Profile used to tag the sentence.
+   * @param text     Text of the sentence.
+   * @param sentence Tags of the sentence.
+   */
+  public final void put(final String profile, final String text, final CachedSentence sentence) {
+    if (!this.enabled) {
+      return;
+    }
+
+    final String key = SentenceCache.key(profile, text);
+
+    this.weight.addAndGet(SentenceCache.weigh(key, sentence));
+    this.cache.put(key, sentence);
+  }
+
+  public final long size() {
+    return this.cache.size();
+  }
+
+  /**
+   * Register the hit, miss and eviction gauges of the cache.
+   *
+   * @param metrics Registry where the gauges are registered.
+   */
+  public final void registerMetrics(final MetricRegistry metrics) {
+    metrics.register(MetricRegistry.name(SentenceCache.class, "hits"),
+        (Gauge<Long>) () -> this.cache.stats().hitCount());
+    metrics.register(MetricRegistry.name(SentenceCache.class, "misses"),
+        (Gauge<Long>) () -> this.cache.stats().missCount());
+    metrics.register(MetricRegistry.name(SentenceCache.class, "evictions"),
+        (Gauge<Long>) () -> this.cache.stats().evictionCount());
+    metrics.register(MetricRegistry.name(SentenceCache.class, "hitRate"),
+        (Gauge<Double>) () -> this.cache.stats().hitRate());
+    metrics.register(MetricRegistry.name(SentenceCache.class, "entries"),
+        (Gauge<Long>) this.cache::size);
+    metrics.register(MetricRegistry.name(SentenceCache.class, "bytes"),
+        (Gauge<Long>) this.weight::get);
+  }
+
+  @Override
+  public final String toString() {
+    return "SentenceCache{"
+        + "entries=" + this.cache.size()
+        + ", bytes=" + this.weight.get()
+        + ", stats=" + this.cache.stats()
+        + '}';
+  }
+}
@@ -0,0 +1,83 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.cli;
+
+import fr.eurecom.stanfordnlprestapi.gazetteer.CompiledDictionary;
+import fr.eurecom.stanfordnlprestapi.gazetteer.TrieDictionary;
+
+import io.dropwizard.cli.Command;
+
+import io.dropwizard.setup.Bootstrap;
+
+import java.io.File;
+
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compile a gazetteer TSV mapping into a {@link CompiledDictionary} file, that the gazetteer
+ * annotator memory maps instead of parsing the mapping at each start.
+ *
+ * @author Julien Plu
+ */
+public class CompileGazetteerCommand extends Command {
+  static final Logger LOGGER = LoggerFactory.getLogger(CompileGazetteerCommand.class);
+
+  /**
+   * CompileGazetteerCommand constructor.
+   */
+  public CompileGazetteerCommand() {
+    super("compilegazetteer", "Compile a gazetteer mapping into a memory mapped dictionary");
+  }
+
+  @Override
+  public final void configure(final Subparser subparser) {
+    subparser.addArgument("mapping")
+        .dest("mapping")
+        .type(Arguments.fileType().verifyExists().verifyIsFile().verifyCanRead())
+        .help("Gazetteer mapping to compile");
+    subparser.addArgument("-i", "--ignorecase")
+        .dest("ignorecase")
+        .action(Arguments.storeTrue())
+        .help("Lower case the entries, for the profiles with gazetteer.ignorecase=true");
+    subparser.addArgument("-o", "--output-file")
+        .dest("ofile")
+        .type(Arguments.fileType().verifyCanWriteParent())
+        .help("Compiled gazetteer, the mapping with the " + CompiledDictionary.EXTENSION
+            + " extension if absent");
+  }
+
+  @Override
+  public final void run(final Bootstrap<?> newBootstrap, final Namespace newNamespace)
+      throws Exception {
+    final File mapping = newNamespace.get("mapping");
+    final boolean ignoreCase = newNamespace.getBoolean("ignorecase");
+    final File output = newNamespace.get("ofile") == null ? new File(mapping.getPath()
+        .replaceFirst("\\.tsv$", "") + CompiledDictionary.EXTENSION) : newNamespace.get("ofile");
+    final TrieDictionary dictionary = TrieDictionary.load(mapping.getPath(), ignoreCase);
+
+    CompiledDictionary.write(dictionary, ignoreCase, output.toPath());
+
+    CompileGazetteerCommand.LOGGER.info("Gazetteer {} compiled into {} ({} bytes)", mapping,
+        output, output.length());
+  }
+}
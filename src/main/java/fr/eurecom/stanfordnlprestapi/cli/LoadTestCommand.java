@@ -0,0 +1,287 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.cli;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.eurecom.stanfordnlprestapi.configurations.PipelineConfiguration;
+
+import fr.eurecom.stanfordnlprestapi.corpus.CorpusGenerator;
+
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.LoadTarget;
+
+import fr.eurecom.stanfordnlprestapi.loadtest.HttpLoadTarget;
+import fr.eurecom.stanfordnlprestapi.loadtest.LoadRequest;
+import fr.eurecom.stanfordnlprestapi.loadtest.LoadResult;
+import fr.eurecom.stanfordnlprestapi.loadtest.LoadTester;
+import fr.eurecom.stanfordnlprestapi.loadtest.RequestLogReader;
+import fr.eurecom.stanfordnlprestapi.loadtest.ResourceLoadTarget;
+
+import fr.eurecom.stanfordnlprestapi.resources.PipelineResource;
+
+import io.dropwizard.cli.ConfiguredCommand;
+
+import io.dropwizard.setup.Bootstrap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+import org.apache.commons.io.FileUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load test of the annotation. The requests are either generated or replayed from a request
+ * log, and are sent to a {@link PipelineResource} in process or to a running instance, at each
+ * concurrency level. The results are lines of values separated by tabulations, one per profile
+ * and level, so the results of two builds can be compared with diff.
+ *
+ * @param <T> Read a {@link PipelineConfiguration}
+ *
+ * @author Julien Plu
+ */
+public class LoadTestCommand<T extends PipelineConfiguration> extends ConfiguredCommand<T> {
+  static final Logger LOGGER = LoggerFactory.getLogger(LoadTestCommand.class);
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /**
+   * LoadTestCommand constructor.
+   */
+  public LoadTestCommand() {
+    super("loadtest", "Load test of the annotation");
+  }
+
+  @Override
+  public final void configure(final Subparser subparser) {
+    super.configure(subparser);
+
+    subparser.addArgument("-p", "--processes")
+        .dest("processes")
+        .type(String.class)
+        .nargs("+")
+        .setDefault(Collections.singletonList("ner"))
+        .help("Processes of the generated requests, a comma separated list of processes runs "
+            + "them with a single pipeline");
+    subparser.addArgument("-l", "--lang")
+        .dest("lang")
+        .type(String.class)
+        .setDefault("en")
+        .help("Language of the generated requests");
+    subparser.addArgument("-s", "--setting")
+        .dest("setting")
+        .type(String.class)
+        .setDefault("none")
+        .help("Setting of the generated requests");
+    subparser.addArgument("-f", "--format")
+        .dest("format")
+        .type(String.class)
+        .setDefault("turtle-blocks")
+        .help("Output format of the generated requests");
+    subparser.addArgument("-n", "--requests")
+        .dest("requests")
+        .type(Integer.class)
+        .setDefault(100)
+        .help("Number of generated requests per profile");
+    subparser.addArgument("-c", "--chars")
+        .dest("chars")
+        .type(Integer.class)
+        .setDefault(2000)
+        .help("Minimum size in characters of a generated text");
+    subparser.addArgument("--entity-ratio")
+        .dest("entityRatio")
+        .type(Double.class)
+        .setDefault(0.5)
+        .help("Share of the generated sentences that mention entities");
+    subparser.addArgument("--seed")
+        .dest("seed")
+        .type(Long.class)
+        .setDefault(42L)
+        .help("Seed of the generated texts");
+    subparser.addArgument("-r", "--request-log")
+        .dest("requestLog")
+        .type(Arguments.fileType().verifyExists().verifyIsFile().verifyCanRead())
+        .help("Request log to replay instead of generating the requests");
+    subparser.addArgument("-b", "--bodies")
+        .dest("bodies")
+        .type(Arguments.fileType().verifyExists().verifyIsFile().verifyCanRead())
+        .help("JSON bodies, one per line, of the replayed requests, generated if absent");
+    subparser.addArgument("-t", "--threads")
+        .dest("threads")
+        .type(String.class)
+        .setDefault("1,2,4,8")
+        .help("Comma separated concurrency levels");
+    subparser.addArgument("-w", "--warmup")
+        .dest("warmup")
+        .type(Integer.class)
+        .setDefault(10)
+        .help("Number of requests sent to each profile before it is measured");
+    subparser.addArgument("-u", "--url")
+        .dest("url")
+        .type(String.class)
+        .help("Base URL of a running instance, the requests are annotated in process if absent");
+    subparser.addArgument("--cache")
+        .dest("cache")
+        .action(Arguments.storeTrue())
+        .help("Keep the caches and the store of the in process annotation");
+    subparser.addArgument("-o", "--output-file")
+        .dest("ofile")
+        .type(Arguments.fileType().verifyCanWriteParent())
+        .help("Output file name which will contain the results");
+  }
+
+  @Override
+  protected final void run(final Bootstrap<T> newBootstrap, final Namespace newNamespace,
+                           final T newT) throws Exception {
+    final List<LoadRequest> requests = this.requests(newNamespace);
+    final List<Integer> levels = new ArrayList<>();
+
+    for (final String level : newNamespace.getString("threads").split(",")) {
+      levels.add(Integer.parseInt(level.trim()));
+    }
+
+    final List<String> lines = new ArrayList<>();
+
+    lines.add(LoadResult.header());
+
+    if (newNamespace.getString("url") != null) {
+      try (HttpLoadTarget target = new HttpLoadTarget(newNamespace.getString("url"),
+          Collections.max(levels))) {
+        this.sweep(target, newNamespace, requests, levels, lines);
+      }
+    } else {
+      final ExecutorService executor = Executors.newSingleThreadExecutor();
+      final ExecutorService loader = Executors.newFixedThreadPool(
+          newT.getProfiles().getLoaderThreads());
+
+      if (!newNamespace.getBoolean("cache")) {
+        newT.getCache().setMaximumBytes(0);
+        newT.getCache().setMaximumEntryBytes(0);
+        newT.getCache().setOffHeapMaximumBytes(0);
+        newT.getCache().setSentenceMaximumBytes(0);
+        newT.getStore().setDirectory("");
+      }
+
+      try {
+        this.sweep(new ResourceLoadTarget(new PipelineResource(newT, new MetricRegistry(),
+            executor, loader), "http://127.0.0.1"), newNamespace, requests, levels, lines);
+      } finally {
+        executor.shutdownNow();
+        loader.shutdownNow();
+      }
+    }
+
+    if (newNamespace.getString("ofile") != null) {
+      FileUtils.writeLines(new File(newNamespace.getString("ofile")), "UTF-8", lines, "\n");
+    } else {
+      LoadTestCommand.LOGGER.info("{}{}", System.lineSeparator(), String.join(
+          System.lineSeparator(), lines));
+    }
+  }
+
+  private void sweep(final LoadTarget target, final Namespace newNamespace,
+                     final List<LoadRequest> requests, final List<Integer> levels,
+                     final List<String> lines) throws InterruptedException {
+    for (final LoadResult result : new LoadTester(target, newNamespace.getInt("warmup")).sweep(
+        requests, levels)) {
+      lines.add(result.line());
+    }
+  }
+
+  private List<LoadRequest> requests(final Namespace newNamespace) throws IOException {
+    final Supplier<byte[]> bodies = this.bodies(newNamespace);
+
+    if (newNamespace.getString("requestLog") != null) {
+      return new RequestLogReader(bodies).read(new File(newNamespace.getString(
+          "requestLog")).toPath());
+    }
+
+    final List<LoadRequest> requests = new ArrayList<>();
+
+    for (final String processes : newNamespace.<String>getList("processes")) {
+      final Set<NlpProcess> nlpProcesses = EnumSet.noneOf(NlpProcess.class);
+
+      for (final String process : processes.split(",")) {
+        nlpProcesses.add(NlpProcess.valueOf(process.trim().toUpperCase(Locale.ENGLISH)));
+      }
+
+      for (int i = 0; i < newNamespace.getInt("requests"); i++) {
+        requests.add(new LoadRequest(nlpProcesses, newNamespace.getString("lang"),
+            newNamespace.getString("setting"), newNamespace.getString("format"), bodies.get()));
+      }
+    }
+
+    return requests;
+  }
+
+  private Supplier<byte[]> bodies(final Namespace newNamespace) throws IOException {
+    if (newNamespace.getString("bodies") != null) {
+      final List<String> lines = new ArrayList<>();
+      final AtomicInteger next = new AtomicInteger();
+
+      for (final String line : Files.readAllLines(new File(newNamespace.getString("bodies"))
+          .toPath(), StandardCharsets.UTF_8)) {
+        if (!line.trim().isEmpty()) {
+          lines.add(line);
+        }
+      }
+
+      return () -> lines.get(next.getAndIncrement() % lines.size()).getBytes(
+          StandardCharsets.UTF_8);
+    }
+
+    final CorpusGenerator generator = new CorpusGenerator(newNamespace.getLong("seed"),
+        newNamespace.getDouble("entityRatio"));
+    final int chars = newNamespace.getInt("chars");
+
+    return () -> {
+      try {
+        return LoadTestCommand.MAPPER.writeValueAsBytes(Collections.singletonMap("content",
+            generator.document(chars)));
+      } catch (final JsonProcessingException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    };
+  }
+
+  @Override
+  public final String toString() {
+    return "LoadTestCommand{}";
+  }
+}
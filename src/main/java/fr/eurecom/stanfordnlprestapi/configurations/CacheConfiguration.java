@@ -0,0 +1,104 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.configurations;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sizing of the caches of serialized responses, on and off the heap, and of the cache of annotated
+ * sentences. A maximum of 0 bytes disables a cache.
+ *
+ * @author Julien Plu
+ */
+public class CacheConfiguration {
+  static final Logger LOGGER = LoggerFactory.getLogger(CacheConfiguration.class);
+  @JsonProperty
+  @Min(0)
+  private long maximumBytes = 64L * 1024 * 1024;
+  @JsonProperty
+  @Min(0)
+  private int maximumEntryBytes = 1024 * 1024;
+  @JsonProperty
+  @Min(0)
+  private long sentenceMaximumBytes;
+  @JsonProperty
+  @Min(0)
+  private long offHeapMaximumBytes;
+  @JsonProperty
+  @Min(1)
+  private int offHeapSegmentBytes = 64 * 1024 * 1024;
+
+  public CacheConfiguration() {
+  }
+
+  public final long getMaximumBytes() {
+    return this.maximumBytes;
+  }
+
+  public final void setMaximumBytes(final long newMaximumBytes) {
+    this.maximumBytes = newMaximumBytes;
+  }
+
+  public final int getMaximumEntryBytes() {
+    return this.maximumEntryBytes;
+  }
+
+  public final void setMaximumEntryBytes(final int newMaximumEntryBytes) {
+    this.maximumEntryBytes = newMaximumEntryBytes;
+  }
+
+  public final long getSentenceMaximumBytes() {
+    return this.sentenceMaximumBytes;
+  }
+
+  public final void setSentenceMaximumBytes(final long newSentenceMaximumBytes) {
+    this.sentenceMaximumBytes = newSentenceMaximumBytes;
+  }
+
+  public final long getOffHeapMaximumBytes() {
+    return this.offHeapMaximumBytes;
+  }
+
+  public final void setOffHeapMaximumBytes(final long newOffHeapMaximumBytes) {
+    this.offHeapMaximumBytes = newOffHeapMaximumBytes;
+  }
+
+  public final int getOffHeapSegmentBytes() {
+    return this.offHeapSegmentBytes;
+  }
+
+  public final void setOffHeapSegmentBytes(final int newOffHeapSegmentBytes) {
+    this.offHeapSegmentBytes = newOffHeapSegmentBytes;
+  }
+
+  @Override
+  public final String toString() {
+    return "CacheConfiguration{"
+        + "maximumBytes=" + this.maximumBytes
+        + ", maximumEntryBytes=" + this.maximumEntryBytes
+        + ", sentenceMaximumBytes=" + this.sentenceMaximumBytes
+        + ", offHeapMaximumBytes=" + this.offHeapMaximumBytes
+        + ", offHeapSegmentBytes=" + this.offHeapSegmentBytes
+        + '}';
+  }
+}
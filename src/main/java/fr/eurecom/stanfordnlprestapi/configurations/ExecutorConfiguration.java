@@ -0,0 +1,79 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.configurations;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sizing of the executor that runs the annotations outside of the HTTP threads.
+ *
+ * @author Julien Plu
+ */
+public class ExecutorConfiguration {
+  static final Logger LOGGER = LoggerFactory.getLogger(ExecutorConfiguration.class);
+  @JsonProperty
+  @Min(1)
+  private int threads = 8;
+  @JsonProperty
+  @Min(1)
+  private int queueSize = 256;
+  @JsonProperty
+  @Min(1)
+  private long requestTimeoutMillis = 60000;
+
+  public ExecutorConfiguration() {
+  }
+
+  public final int getThreads() {
+    return this.threads;
+  }
+
+  public final void setThreads(final int newThreads) {
+    this.threads = newThreads;
+  }
+
+  public final int getQueueSize() {
+    return this.queueSize;
+  }
+
+  public final void setQueueSize(final int newQueueSize) {
+    this.queueSize = newQueueSize;
+  }
+
+  public final long getRequestTimeoutMillis() {
+    return this.requestTimeoutMillis;
+  }
+
+  public final void setRequestTimeoutMillis(final long newRequestTimeoutMillis) {
+    this.requestTimeoutMillis = newRequestTimeoutMillis;
+  }
+
+  @Override
+  public final String toString() {
+    return "ExecutorConfiguration{"
+        + "threads=" + this.threads
+        + ", queueSize=" + this.queueSize
+        + ", requestTimeoutMillis=" + this.requestTimeoutMillis
+        + '}';
+  }
+}
@@ -0,0 +1,127 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.configurations;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Settings of the fetching of the documents given by URL.
+ *
+ * @author Julien Plu
+ */
+public class FetcherConfiguration {
+  static final Logger LOGGER = LoggerFactory.getLogger(FetcherConfiguration.class);
+  @JsonProperty
+  @Min(1)
+  private int connectTimeoutMillis = 5000;
+  @JsonProperty
+  @Min(1)
+  private int readTimeoutMillis = 10000;
+  @JsonProperty
+  @Min(1)
+  private int waitTimeoutMillis = 5000;
+  @JsonProperty
+  @Min(1)
+  private int maxBytes = 5 * 1024 * 1024;
+  @JsonProperty
+  @Min(1)
+  private int maxConnections = 64;
+  @JsonProperty
+  @Min(1)
+  private int maxConnectionsPerHost = 4;
+  @JsonProperty
+  @Min(0)
+  private long cacheMaximumBytes = 32L * 1024 * 1024;
+
+  public FetcherConfiguration() {
+  }
+
+  public final int getConnectTimeoutMillis() {
+    return this.connectTimeoutMillis;
+  }
+
+  public final void setConnectTimeoutMillis(final int newConnectTimeoutMillis) {
+    this.connectTimeoutMillis = newConnectTimeoutMillis;
+  }
+
+  public final int getReadTimeoutMillis() {
+    return this.readTimeoutMillis;
+  }
+
+  public final void setReadTimeoutMillis(final int newReadTimeoutMillis) {
+    this.readTimeoutMillis = newReadTimeoutMillis;
+  }
+
+  public final int getWaitTimeoutMillis() {
+    return this.waitTimeoutMillis;
+  }
+
+  public final void setWaitTimeoutMillis(final int newWaitTimeoutMillis) {
+    this.waitTimeoutMillis = newWaitTimeoutMillis;
+  }
+
+  public final int getMaxBytes() {
+    return this.maxBytes;
+  }
+
+  public final void setMaxBytes(final int newMaxBytes) {
+    this.maxBytes = newMaxBytes;
+  }
+
+  public final int getMaxConnections() {
+    return this.maxConnections;
+  }
+
+  public final void setMaxConnections(final int newMaxConnections) {
+    this.maxConnections = newMaxConnections;
+  }
+
+  public final int getMaxConnectionsPerHost() {
+    return this.maxConnectionsPerHost;
+  }
+
+  public final void setMaxConnectionsPerHost(final int newMaxConnectionsPerHost) {
+    this.maxConnectionsPerHost = newMaxConnectionsPerHost;
+  }
+
+  public final long getCacheMaximumBytes() {
+    return this.cacheMaximumBytes;
+  }
+
+  public final void setCacheMaximumBytes(final long newCacheMaximumBytes) {
+    this.cacheMaximumBytes = newCacheMaximumBytes;
+  }
+
+  @Override
+  public final String toString() {
+    return "FetcherConfiguration{"
+        + "connectTimeoutMillis=" + this.connectTimeoutMillis
+        + ", readTimeoutMillis=" + this.readTimeoutMillis
+        + ", waitTimeoutMillis=" + this.waitTimeoutMillis
+        + ", maxBytes=" + this.maxBytes
+        + ", maxConnections=" + this.maxConnections
+        + ", maxConnectionsPerHost=" + this.maxConnectionsPerHost
+        + ", cacheMaximumBytes=" + this.cacheMaximumBytes
+        + '}';
+  }
+}
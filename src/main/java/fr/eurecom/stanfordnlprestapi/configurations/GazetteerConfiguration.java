@@ -0,0 +1,56 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.configurations;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reloading of the gazetteers. Their mapping files are checked every watchSeconds seconds and
+ * reloaded when they have been modified, 0 disables the checks.
+ *
+ * @author Julien Plu
+ */
+public class GazetteerConfiguration {
+  static final Logger LOGGER = LoggerFactory.getLogger(GazetteerConfiguration.class);
+  @JsonProperty
+  @Min(0)
+  private long watchSeconds = 60;
+
+  public GazetteerConfiguration() {
+  }
+
+  public final long getWatchSeconds() {
+    return this.watchSeconds;
+  }
+
+  public final void setWatchSeconds(final long newWatchSeconds) {
+    this.watchSeconds = newWatchSeconds;
+  }
+
+  @Override
+  public final String toString() {
+    return "GazetteerConfiguration{"
+        + "watchSeconds=" + this.watchSeconds
+        + '}';
+  }
+}
@@ -21,6 +21,13 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import io.dropwizard.Configuration;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
 import org.hibernate.validator.constraints.NotEmpty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +41,41 @@ public class PipelineConfiguration extends Configuration {
   @JsonProperty
   @NotEmpty
   private String name;
+  @JsonProperty
+  @Valid
+  @NotNull
+  private PoolConfiguration pool = new PoolConfiguration();
+  @JsonProperty
+  @Valid
+  @NotNull
+  private Map<String, PoolConfiguration> profilePools = new HashMap<>();
+  @JsonProperty
+  @Valid
+  @NotNull
+  private ExecutorConfiguration executor = new ExecutorConfiguration();
+  @JsonProperty
+  @Valid
+  @NotNull
+  private CacheConfiguration cache = new CacheConfiguration();
+  @JsonProperty
+  @Valid
+  @NotNull
+  private ProfilesConfiguration profiles = new ProfilesConfiguration();
+  @JsonProperty
+  @Valid
+  @NotNull
+  private FetcherConfiguration fetcher = new FetcherConfiguration();
+  @JsonProperty
+  @Valid
+  @NotNull
+  private GazetteerConfiguration gazetteer = new GazetteerConfiguration();
+  @JsonProperty
+  @Valid
+  @NotNull
+  private StoreConfiguration store = new StoreConfiguration();
+  @JsonProperty
+  @Min(1)
+  private int maxBodyBytes = 10 * 1024 * 1024;
 
   public PipelineConfiguration() {
   }
@@ -46,10 +88,121 @@ public class PipelineConfiguration extends Configuration {
     this.name = newName;
   }
 
+  public final PoolConfiguration getPool() {
+    return this.pool;
+  }
+
+  public final void setPool(final PoolConfiguration newPool) {
+    this.pool = newPool;
+  }
+
+  public final Map<String, PoolConfiguration> getProfilePools() {
+    return this.profilePools;
+  }
+
+  public final void setProfilePools(final Map<String, PoolConfiguration> newProfilePools) {
+    this.profilePools = newProfilePools;
+  }
+
+  public final ExecutorConfiguration getExecutor() {
+    return this.executor;
+  }
+
+  public final void setExecutor(final ExecutorConfiguration newExecutor) {
+    this.executor = newExecutor;
+  }
+
+  public final CacheConfiguration getCache() {
+    return this.cache;
+  }
+
+  public final void setCache(final CacheConfiguration newCache) {
+    this.cache = newCache;
+  }
+
+  public final ProfilesConfiguration getProfiles() {
+    return this.profiles;
+  }
+
+  public final void setProfiles(final ProfilesConfiguration newProfiles) {
+    this.profiles = newProfiles;
+  }
+
+  public final FetcherConfiguration getFetcher() {
+    return this.fetcher;
+  }
+
+  public final void setFetcher(final FetcherConfiguration newFetcher) {
+    this.fetcher = newFetcher;
+  }
+
+  public final GazetteerConfiguration getGazetteer() {
+    return this.gazetteer;
+  }
+
+  public final void setGazetteer(final GazetteerConfiguration newGazetteer) {
+    this.gazetteer = newGazetteer;
+  }
+
+  public final StoreConfiguration getStore() {
+    return this.store;
+  }
+
+  public final void setStore(final StoreConfiguration newStore) {
+    this.store = newStore;
+  }
+
+  public final int getMaxBodyBytes() {
+    return this.maxBodyBytes;
+  }
+
+  public final void setMaxBodyBytes(final int newMaxBodyBytes) {
+    this.maxBodyBytes = newMaxBodyBytes;
+  }
+
+  /**
+   * Pool configuration of a profile: its own one if it has been configured in profilePools,
+   * the default pool configuration otherwise.
+   *
+   * @param profile Name of the profile.
+   *
+   * @return The pool configuration to apply to the profile.
+   */
+  public final PoolConfiguration poolFor(final String profile) {
+    return this.profilePools.getOrDefault(profile, this.pool);
+  }
+
+  /**
+   * Maximum time allowed to answer a request on a profile: its own timeout if it has been
+   * configured in its pool, the request timeout of the executor otherwise.
+   *
+   * @param profile Name of the profile.
+   *
+   * @return The timeout in milliseconds.
+   */
+  public final long timeoutFor(final String profile) {
+    final Long timeout = this.poolFor(profile).getTimeoutMillis();
+
+    if (timeout == null) {
+      return this.executor.getRequestTimeoutMillis();
+    }
+
+    return timeout;
+  }
+
   @Override
   public final String toString() {
     return "PipelineConfiguration{"
         + "name=" + this.name
+        + ", pool=" + this.pool
+        + ", profilePools=" + this.profilePools
+        + ", executor=" + this.executor
+        + ", cache=" + this.cache
+        + ", profiles=" + this.profiles
+        + ", fetcher=" + this.fetcher
+        + ", gazetteer=" + this.gazetteer
+        + ", store=" + this.store
+        + ", maxBodyBytes=" + this.maxBodyBytes
         + '}';
   }
 }
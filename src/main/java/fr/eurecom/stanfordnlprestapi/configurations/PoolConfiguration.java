@@ -0,0 +1,187 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.configurations;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sizing of the pool of Stanford CoreNLP pipelines that serves a profile.
+ *
+ * @author Julien Plu
+ */
+public class PoolConfiguration {
+  static final Logger LOGGER = LoggerFactory.getLogger(PoolConfiguration.class);
+  @JsonProperty
+  @Min(1)
+  private int instances = 1;
+  @JsonProperty
+  @Min(1)
+  private int maxConcurrent = 4;
+  @JsonProperty
+  @Min(0)
+  private int maxWaiting = 32;
+  @JsonProperty
+  @Min(0)
+  private long maxWaitMillis = 30000;
+  @JsonProperty
+  @Min(1)
+  private int retryAfter = 5;
+  @JsonProperty
+  @Min(1)
+  private int batchThreads = 4;
+  @JsonProperty
+  @Min(1)
+  private int maxBatchSize = 1000;
+  @JsonProperty
+  @Min(1)
+  private Long timeoutMillis;
+  @JsonProperty
+  @Min(0)
+  private int chunkChars;
+  @JsonProperty
+  @Min(0)
+  private long microBatchMillis;
+  @JsonProperty
+  @Min(1)
+  private int microBatchSize = 32;
+  @JsonProperty
+  @Min(0)
+  private int microBatchChars = 1000;
+
+  public PoolConfiguration() {
+  }
+
+  public final int getInstances() {
+    return this.instances;
+  }
+
+  public final void setInstances(final int newInstances) {
+    this.instances = newInstances;
+  }
+
+  public final int getMaxConcurrent() {
+    return this.maxConcurrent;
+  }
+
+  public final void setMaxConcurrent(final int newMaxConcurrent) {
+    this.maxConcurrent = newMaxConcurrent;
+  }
+
+  public final int getMaxWaiting() {
+    return this.maxWaiting;
+  }
+
+  public final void setMaxWaiting(final int newMaxWaiting) {
+    this.maxWaiting = newMaxWaiting;
+  }
+
+  public final long getMaxWaitMillis() {
+    return this.maxWaitMillis;
+  }
+
+  public final void setMaxWaitMillis(final long newMaxWaitMillis) {
+    this.maxWaitMillis = newMaxWaitMillis;
+  }
+
+  public final int getRetryAfter() {
+    return this.retryAfter;
+  }
+
+  public final void setRetryAfter(final int newRetryAfter) {
+    this.retryAfter = newRetryAfter;
+  }
+
+  public final int getBatchThreads() {
+    return this.batchThreads;
+  }
+
+  public final void setBatchThreads(final int newBatchThreads) {
+    this.batchThreads = newBatchThreads;
+  }
+
+  public final int getMaxBatchSize() {
+    return this.maxBatchSize;
+  }
+
+  public final void setMaxBatchSize(final int newMaxBatchSize) {
+    this.maxBatchSize = newMaxBatchSize;
+  }
+
+  public final Long getTimeoutMillis() {
+    return this.timeoutMillis;
+  }
+
+  public final void setTimeoutMillis(final Long newTimeoutMillis) {
+    this.timeoutMillis = newTimeoutMillis;
+  }
+
+  public final int getChunkChars() {
+    return this.chunkChars;
+  }
+
+  public final void setChunkChars(final int newChunkChars) {
+    this.chunkChars = newChunkChars;
+  }
+
+  public final long getMicroBatchMillis() {
+    return this.microBatchMillis;
+  }
+
+  public final void setMicroBatchMillis(final long newMicroBatchMillis) {
+    this.microBatchMillis = newMicroBatchMillis;
+  }
+
+  public final int getMicroBatchSize() {
+    return this.microBatchSize;
+  }
+
+  public final void setMicroBatchSize(final int newMicroBatchSize) {
+    this.microBatchSize = newMicroBatchSize;
+  }
+
+  public final int getMicroBatchChars() {
+    return this.microBatchChars;
+  }
+
+  public final void setMicroBatchChars(final int newMicroBatchChars) {
+    this.microBatchChars = newMicroBatchChars;
+  }
+
+  @Override
+  public final String toString() {
+    return "PoolConfiguration{"
+        + "instances=" + this.instances
+        + ", maxConcurrent=" + this.maxConcurrent
+        + ", maxWaiting=" + this.maxWaiting
+        + ", maxWaitMillis=" + this.maxWaitMillis
+        + ", retryAfter=" + this.retryAfter
+        + ", batchThreads=" + this.batchThreads
+        + ", maxBatchSize=" + this.maxBatchSize
+        + ", timeoutMillis=" + this.timeoutMillis
+        + ", chunkChars=" + this.chunkChars
+        + ", microBatchMillis=" + this.microBatchMillis
+        + ", microBatchSize=" + this.microBatchSize
+        + ", microBatchChars=" + this.microBatchChars
+        + '}';
+  }
+}
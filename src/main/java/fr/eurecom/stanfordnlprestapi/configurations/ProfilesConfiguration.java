@@ -0,0 +1,84 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.configurations;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loading policy of the profiles. In lazy mode a profile is only registered from its properties
+ * file at boot, and its pipelines are loaded on its first request, except for the warm profiles
+ * that are loaded at boot.
+ *
+ * @author Julien Plu
+ */
+public class ProfilesConfiguration {
+  static final Logger LOGGER = LoggerFactory.getLogger(ProfilesConfiguration.class);
+  @JsonProperty
+  private boolean lazy;
+  @JsonProperty
+  @NotNull
+  private List<String> warm = new ArrayList<>();
+  @JsonProperty
+  @Min(1)
+  private int loaderThreads = 2;
+
+  public ProfilesConfiguration() {
+  }
+
+  public final boolean isLazy() {
+    return this.lazy;
+  }
+
+  public final void setLazy(final boolean newLazy) {
+    this.lazy = newLazy;
+  }
+
+  public final List<String> getWarm() {
+    return this.warm;
+  }
+
+  public final void setWarm(final List<String> newWarm) {
+    this.warm = newWarm;
+  }
+
+  public final int getLoaderThreads() {
+    return this.loaderThreads;
+  }
+
+  public final void setLoaderThreads(final int newLoaderThreads) {
+    this.loaderThreads = newLoaderThreads;
+  }
+
+  @Override
+  public final String toString() {
+    return "ProfilesConfiguration{"
+        + "lazy=" + this.lazy
+        + ", warm=" + this.warm
+        + ", loaderThreads=" + this.loaderThreads
+        + '}';
+  }
+}
@@ -0,0 +1,91 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.configurations;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent store of the annotated documents. An empty directory disables the store. The store
+ * is compacted every compactSeconds seconds down to maximumBytes, 0 disables the compaction.
+ *
+ * @author Julien Plu
+ */
+public class StoreConfiguration {
+  static final Logger LOGGER = LoggerFactory.getLogger(StoreConfiguration.class);
+  @JsonProperty
+  private String directory = "";
+  @JsonProperty
+  @Min(0)
+  private long maximumBytes = 8L * 1024 * 1024 * 1024;
+  @JsonProperty
+  @Min(1)
+  private int segmentBytes = 128 * 1024 * 1024;
+  @JsonProperty
+  @Min(0)
+  private long compactSeconds = 300;
+
+  public StoreConfiguration() {
+  }
+
+  public final String getDirectory() {
+    return this.directory;
+  }
+
+  public final void setDirectory(final String newDirectory) {
+    this.directory = newDirectory;
+  }
+
+  public final long getMaximumBytes() {
+    return this.maximumBytes;
+  }
+
+  public final void setMaximumBytes(final long newMaximumBytes) {
+    this.maximumBytes = newMaximumBytes;
+  }
+
+  public final int getSegmentBytes() {
+    return this.segmentBytes;
+  }
+
+  public final void setSegmentBytes(final int newSegmentBytes) {
+    this.segmentBytes = newSegmentBytes;
+  }
+
+  public final long getCompactSeconds() {
+    return this.compactSeconds;
+  }
+
+  public final void setCompactSeconds(final long newCompactSeconds) {
+    this.compactSeconds = newCompactSeconds;
+  }
+
+  @Override
+  public final String toString() {
+    return "StoreConfiguration{"
+        + "directory='" + this.directory + '\''
+        + ", maximumBytes=" + this.maximumBytes
+        + ", segmentBytes=" + this.segmentBytes
+        + ", compactSeconds=" + this.compactSeconds
+        + '}';
+  }
+}
@@ -0,0 +1,125 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.core;
+
+import edu.stanford.nlp.pipeline.Annotator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of the annotators shared across the profiles. Two pipelines get the same annotator
+ * when they ask for the same annotator name with the same properties signature, as computed by
+ * Stanford CoreNLP, and for the same instance slot of their pool.
+ *
+ * @author Julien Plu
+ */
+public class AnnotatorRegistry {
+  static final Logger LOGGER = LoggerFactory.getLogger(AnnotatorRegistry.class);
+  private static final AnnotatorRegistry INSTANCE = new AnnotatorRegistry();
+  private final Map<String, SharedAnnotator> annotators;
+
+  public AnnotatorRegistry() {
+    this.annotators = new ConcurrentHashMap<>();
+  }
+
+  public static AnnotatorRegistry getInstance() {
+    return AnnotatorRegistry.INSTANCE;
+  }
+
+  private static String key(final String name, final String signature, final int slot) {
+    return name + '#' + slot + '#' + signature;
+  }
+
+  /**
+   * Get a shared annotator, it is created with the factory if no pipeline uses it yet.
+   *
+   * @param name      Name of the annotator.
+   * @param signature Signature of the properties of the annotator.
+   * @param slot      Index of the pipeline instance in its pool.
+   * @param factory   Factory that creates the annotator.
+   *
+   * @return The shared annotator.
+   */
+  public final Annotator acquire(final String name, final String signature, final int slot,
+                                 final Supplier<Annotator> factory) {
+    while (true) {
+      final SharedAnnotator shared = this.annotators.computeIfAbsent(AnnotatorRegistry.key(name,
+          signature, slot), key -> new SharedAnnotator(name, signature, slot, factory));
+
+      synchronized (shared) {
+        if (this.annotators.get(AnnotatorRegistry.key(name, signature, slot)) == shared) {
+          return shared.acquire();
+        }
+      }
+    }
+  }
+
+  /**
+   * Release a shared annotator, it is dropped from the registry when no pipeline uses it
+   * anymore.
+   *
+   * @param name      Name of the annotator.
+   * @param signature Signature of the properties of the annotator.
+   * @param slot      Index of the pipeline instance in its pool.
+   */
+  public final void release(final String name, final String signature, final int slot) {
+    final String key = AnnotatorRegistry.key(name, signature, slot);
+    final SharedAnnotator shared = this.annotators.get(key);
+
+    if (shared == null) {
+      return;
+    }
+
+    synchronized (shared) {
+      if (shared.release() <= 0) {
+        this.annotators.remove(key, shared);
+
+        AnnotatorRegistry.LOGGER.info("Annotator {} of the slot {} released", name, slot);
+      }
+    }
+  }
+
+  /**
+   * All the shared annotators, ordered by name and slot.
+   *
+   * @return The shared annotators.
+   */
+  public final List<SharedAnnotator> annotators() {
+    final List<SharedAnnotator> result = new ArrayList<>(this.annotators.values());
+
+    result.sort(Comparator.comparing(SharedAnnotator::name).thenComparingInt(
+        SharedAnnotator::slot));
+
+    return result;
+  }
+
+  @Override
+  public final String toString() {
+    return "AnnotatorRegistry{"
+        + "annotators=" + this.annotators.values()
+        + '}';
+  }
+}
@@ -0,0 +1,283 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.core;
+
+import fr.eurecom.stanfordnlprestapi.configurations.PoolConfiguration;
+
+import fr.eurecom.stanfordnlprestapi.datatypes.Context;
+
+import fr.eurecom.stanfordnlprestapi.nullobjects.NullContextListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Micro-batcher of the short texts of a pool. When the pool is busy, the first text of a window
+ * waits up to the window duration for other texts, or until the window is full, then the thread
+ * of this first text annotates all of them as a single batch, and each text gets its own context
+ * back. When the pool is idle, a text is annotated right away, so the batching only adds latency
+ * when there is a throughput to gain. When a batch fails on one of its texts, each text is
+ * annotated again alone by the thread that sent it, so a text that cannot be annotated fails its
+ * request only. When the pool has no slot for the batch, its requests are all rejected.
+ *
+ * @author Julien Plu
+ */
+public class MicroBatcher {
+  static final Logger LOGGER = LoggerFactory.getLogger(MicroBatcher.class);
+  private final StanfordNlpPool pool;
+  private final Function<List<String>, List<Context>> annotator;
+  private final long windowNanos;
+  private final int size;
+  private final Object lock;
+  private Window window;
+
+  /**
+   * MicroBatcher constructor.
+   *
+   * @param newPool          Pool that annotates the batches.
+   * @param newConfiguration Window duration and size of the batches.
+   */
+  public MicroBatcher(final StanfordNlpPool newPool, final PoolConfiguration newConfiguration) {
+    this(newPool, newConfiguration, newPool::run);
+  }
+
+  /**
+   * MicroBatcher constructor with the annotation of the batches.
+   *
+   * @param newPool          Pool that annotates the texts alone.
+   * @param newConfiguration Window duration and size of the batches.
+   * @param newAnnotator     Annotation of a batch.
+   */
+  MicroBatcher(final StanfordNlpPool newPool, final PoolConfiguration newConfiguration,
+               final Function<List<String>, List<Context>> newAnnotator) {
+    this.pool = newPool;
+    this.annotator = newAnnotator;
+    this.windowNanos = TimeUnit.MILLISECONDS.toNanos(newConfiguration.getMicroBatchMillis());
+    this.size = Math.min(newConfiguration.getMicroBatchSize(),
+        newConfiguration.getMaxBatchSize());
+    this.lock = new Object();
+  }
+
+  /**
+   * Create a context from a text, annotated in a batch with the texts received at the same time.
+   *
+   * @param newText Text to process.
+   *
+   * @return The corresponding context of the text.
+   */
+  public final Context run(final String newText) {
+    return this.run(newText, 0);
+  }
+
+  /**
+   * Create a context from a text, annotated in a batch with the texts received at the same time,
+   * within the time left to answer the request.
+   *
+   * @param newText       Text to process.
+   * @param timeoutMillis Time after which the request fails with a 503 status, 0 for none.
+   *
+   * @return The corresponding context of the text.
+   */
+  public final Context run(final String newText, final long timeoutMillis) {
+    final long begin = System.nanoTime();
+    final CompletableFuture<Context> future = new CompletableFuture<>();
+    final Window joined;
+    final boolean first;
+
+    synchronized (this.lock) {
+      first = this.window == null;
+
+      if (first) {
+        this.window = new Window();
+      }
+
+      joined = this.window;
+      joined.texts.add(newText);
+      joined.futures.add(future);
+
+      if (joined.texts.size() >= this.size) {
+        this.window = null;
+        this.lock.notifyAll();
+      }
+    }
+
+    if (first) {
+      final boolean interrupted = this.await(joined);
+
+      this.annotate(joined);
+
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    final Context context = this.join(future, begin, timeoutMillis);
+
+    if (context != null) {
+      return context;
+    }
+
+    long remaining = 0;
+
+    if (timeoutMillis > 0) {
+      remaining = timeoutMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+
+      if (remaining <= 0) {
+        throw this.timeout(timeoutMillis);
+      }
+    }
+
+    try (StanfordNlpPool.Lease lease = this.pool.lease(newText, remaining)) {
+      return lease.run(NullContextListener.getInstance());
+    }
+  }
+
+  /**
+   * Wait until the window is full or its duration is elapsed, then close it. The wait is
+   * skipped when the pool is idle.
+   *
+   * @param joined Window to close.
+   *
+   * @return true if the thread has been interrupted while it was waiting.
+   */
+  private boolean await(final Window joined) {
+    boolean interrupted = false;
+
+    synchronized (this.lock) {
+      final long deadline = System.nanoTime() + this.windowNanos;
+      long remaining = this.windowNanos;
+
+      while (this.window == joined && remaining > 0 && this.pool.active() > 0) {
+        try {
+          TimeUnit.NANOSECONDS.timedWait(this.lock, remaining);
+        } catch (final InterruptedException ex) {
+          interrupted = true;
+
+          break;
+        }
+
+        remaining = deadline - System.nanoTime();
+      }
+
+      if (this.window == joined) {
+        this.window = null;
+      }
+    }
+
+    return interrupted;
+  }
+
+  private void annotate(final Window joined) {
+    this.pool.stages().histogram("microbatch").update(joined.texts.size());
+
+    try {
+      final List<Context> contexts = this.annotator.apply(joined.texts);
+
+      for (int i = 0; i < contexts.size(); i++) {
+        joined.futures.get(i).complete(contexts.get(i));
+      }
+    } catch (final RuntimeException | Error ex) {
+      if (joined.texts.size() == 1 || MicroBatcher.unavailable(ex)) {
+        joined.futures.forEach(future -> future.completeExceptionally(ex));
+      } else {
+        MicroBatcher.LOGGER.debug("A batch of the profile {} failed, its texts are annotated "
+            + "alone", this.pool.profile(), ex);
+
+        joined.futures.forEach(future -> future.complete(null));
+      }
+    }
+  }
+
+  private static boolean unavailable(final Throwable ex) {
+    return ex instanceof WebApplicationException && ((WebApplicationException) ex).getResponse()
+        .getStatus() == Response.Status.SERVICE_UNAVAILABLE.getStatusCode();
+  }
+
+  private WebApplicationException timeout(final long timeoutMillis) {
+    return this.pool.unavailable("The profile " + this.pool.profile() + " did not answer within "
+        + timeoutMillis + " ms");
+  }
+
+  /**
+   * Wait for the context of a text, as long as the time left to answer the request.
+   *
+   * @param future        Context of the text.
+   * @param begin         Time when the request has been received, in the time of
+   *                      {@link System#nanoTime()}.
+   * @param timeoutMillis Time after which the request fails with a 503 status, 0 for none.
+   *
+   * @return The context of the text, null if it must be annotated alone.
+   */
+  private Context join(final CompletableFuture<Context> future, final long begin,
+                       final long timeoutMillis) {
+    try {
+      if (timeoutMillis == 0) {
+        return future.get();
+      }
+
+      return future.get(begin + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) - System.nanoTime(),
+          TimeUnit.NANOSECONDS);
+    } catch (final TimeoutException ex) {
+      throw this.timeout(timeoutMillis);
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+
+      throw this.pool.unavailable("Interrupted while waiting for the profile "
+          + this.pool.profile());
+    } catch (final ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+
+      if (ex.getCause() instanceof Error) {
+        throw (Error) ex.getCause();
+      }
+
+      throw new WebApplicationException("Failed to annotate a batch of the profile "
+          + this.pool.profile(), ex.getCause(), Response.Status.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  @Override
+  public final String toString() {
+    return "MicroBatcher{"
+        + "profile='" + this.pool.profile() + '\''
+        + ", windowNanos=" + this.windowNanos
+        + ", size=" + this.size
+        + '}';
+  }
+
+  /**
+   * Texts received during the same window, with the futures of their contexts.
+   */
+  private static final class Window {
+    private final List<String> texts = new ArrayList<>();
+    private final List<CompletableFuture<Context>> futures = new ArrayList<>();
+  }
+}
@@ -0,0 +1,125 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.core;
+
+import edu.stanford.nlp.pipeline.Annotator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Annotator shared by several pipelines. It is created by the first pipeline that needs it and
+ * counts the pipelines that use it.
+ *
+ * @author Julien Plu
+ */
+public class SharedAnnotator {
+  static final Logger LOGGER = LoggerFactory.getLogger(SharedAnnotator.class);
+  private final String name;
+  private final String signature;
+  private final int slot;
+  private final Supplier<Annotator> factory;
+  private final AtomicInteger references;
+  private volatile Annotator annotator;
+  private volatile long approximateBytes;
+
+  /**
+   * SharedAnnotator constructor.
+   *
+   * @param newName      Name of the annotator.
+   * @param newSignature Signature of the properties of the annotator.
+   * @param newSlot      Index of the pipeline instance in its pool.
+   * @param newFactory   Factory that creates the annotator.
+   */
+  public SharedAnnotator(final String newName, final String newSignature, final int newSlot,
+                         final Supplier<Annotator> newFactory) {
+    this.name = newName;
+    this.signature = newSignature;
+    this.slot = newSlot;
+    this.factory = newFactory;
+    this.references = new AtomicInteger();
+  }
+
+  /**
+   * Get the annotator and count one more reference. The annotator is created on the first call,
+   * and the heap used by its creation is approximated by the growth of the used heap meanwhile.
+   * This approximation also counts the garbage left by the loading and what the other threads
+   * allocate at the same time, and it misses what a garbage collection frees during the loading,
+   * so it only gives an order of magnitude.
+   *
+   * @return The shared annotator.
+   */
+  public final synchronized Annotator acquire() {
+    if (this.annotator == null) {
+      final Runtime runtime = Runtime.getRuntime();
+      final long before = runtime.totalMemory() - runtime.freeMemory();
+
+      this.annotator = this.factory.get();
+      this.approximateBytes = Math.max(0, runtime.totalMemory() - runtime.freeMemory() - before);
+
+      SharedAnnotator.LOGGER.info("Annotator {} loaded for the slot {}, roughly {} bytes of heap",
+          this.name, this.slot, this.approximateBytes);
+    }
+
+    this.references.incrementAndGet();
+
+    return this.annotator;
+  }
+
+  /**
+   * Count one less reference.
+   *
+   * @return The remaining references.
+   */
+  public final int release() {
+    return this.references.decrementAndGet();
+  }
+
+  public final String name() {
+    return this.name;
+  }
+
+  public final String signature() {
+    return this.signature;
+  }
+
+  public final int slot() {
+    return this.slot;
+  }
+
+  public final int references() {
+    return this.references.get();
+  }
+
+  public final long approximateBytes() {
+    return this.approximateBytes;
+  }
+
+  @Override
+  public final String toString() {
+    return "SharedAnnotator{"
+        + "name='" + this.name + '\''
+        + ", slot=" + this.slot
+        + ", references=" + this.references.get()
+        + ", approximateBytes=" + this.approximateBytes
+        + '}';
+  }
+}
@@ -0,0 +1,133 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.core;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timers and histograms of the stages of a profile: each annotator of the pipeline, the context
+ * construction, the RDF model build, the serialization and the URL fetch. The metrics are
+ * created on demand and registered as soon as the registry of the profile is known.
+ *
+ * @author Julien Plu
+ */
+public class StageMetrics {
+  static final Logger LOGGER = LoggerFactory.getLogger(StageMetrics.class);
+  private final String profile;
+  private final Map<String, Timer> timers;
+  private final Map<String, Histogram> histograms;
+  private MetricRegistry metrics;
+
+  /**
+   * StageMetrics constructor.
+   *
+   * @param newProfile Name of the profile.
+   */
+  public StageMetrics(final String newProfile) {
+    this.profile = newProfile;
+    this.timers = new ConcurrentHashMap<>();
+    this.histograms = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Register the metrics of the profile, and those created later on.
+   *
+   * @param newMetrics Registry where the metrics are registered.
+   */
+  public final synchronized void registerMetrics(final MetricRegistry newMetrics) {
+    this.metrics = newMetrics;
+
+    this.timers.forEach((stage, timer) -> newMetrics.register(this.name(stage), timer));
+    this.histograms.forEach((stage, histogram) -> newMetrics.register(this.name(stage),
+        histogram));
+  }
+
+  /**
+   * Timer of a stage, such as "context" or "annotator.ner".
+   *
+   * @param stage Name of the stage.
+   *
+   * @return The timer of the stage.
+   */
+  public final Timer timer(final String stage) {
+    final Timer timer = this.timers.get(stage);
+
+    if (timer != null) {
+      return timer;
+    }
+
+    synchronized (this) {
+      return this.timers.computeIfAbsent(stage, name -> this.register(name, new Timer()));
+    }
+  }
+
+  /**
+   * Histogram of a size measured along the stages, such as "chars" or "bytes".
+   *
+   * @param stage Name of the measure.
+   *
+   * @return The histogram of the measure.
+   */
+  public final Histogram histogram(final String stage) {
+    final Histogram histogram = this.histograms.get(stage);
+
+    if (histogram != null) {
+      return histogram;
+    }
+
+    synchronized (this) {
+      return this.histograms.computeIfAbsent(stage, name -> this.register(name, new Histogram(
+          new ExponentiallyDecayingReservoir())));
+    }
+  }
+
+  private <T extends Metric> T register(final String stage, final T metric) {
+    if (this.metrics != null) {
+      this.metrics.register(this.name(stage), metric);
+    }
+
+    return metric;
+  }
+
+  private String name(final String stage) {
+    return MetricRegistry.name(StanfordNlpPool.class, this.profile, "stages", stage);
+  }
+
+  public final String profile() {
+    return this.profile;
+  }
+
+  @Override
+  public final String toString() {
+    return "StageMetrics{"
+        + "profile='" + this.profile + '\''
+        + ", timers=" + this.timers.keySet()
+        + ", histograms=" + this.histograms.keySet()
+        + '}';
+  }
+}
@@ -17,41 +17,73 @@
  */
 package fr.eurecom.stanfordnlprestapi.core;
 
+import com.codahale.metrics.Timer;
+
+import com.google.common.hash.Hashing;
+
 import edu.stanford.nlp.coref.CorefCoreAnnotations;
 import edu.stanford.nlp.coref.data.CorefChain;
 import edu.stanford.nlp.ling.CoreAnnotations;
 import edu.stanford.nlp.ling.CoreLabel;
 
 import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.AnnotatorImplementations;
+import edu.stanford.nlp.pipeline.AnnotatorPool;
+import edu.stanford.nlp.pipeline.CoreNLPProtos;
+import edu.stanford.nlp.pipeline.ProtobufAnnotationSerializer;
 import edu.stanford.nlp.pipeline.StanfordCoreNLP;
 
 import edu.stanford.nlp.time.TimeAnnotations;
 import edu.stanford.nlp.time.TimeAnnotator;
 import edu.stanford.nlp.util.CoreMap;
+import edu.stanford.nlp.util.Lazy;
+import edu.stanford.nlp.util.PropertiesUtils;
+
+import fr.eurecom.stanfordnlprestapi.cache.CachedSentence;
+import fr.eurecom.stanfordnlprestapi.cache.SentenceCache;
+
+import fr.eurecom.stanfordnlprestapi.configurations.CacheConfiguration;
+import fr.eurecom.stanfordnlprestapi.configurations.StoreConfiguration;
 
 import fr.eurecom.stanfordnlprestapi.datatypes.Context;
 import fr.eurecom.stanfordnlprestapi.datatypes.Coref;
 import fr.eurecom.stanfordnlprestapi.datatypes.Entity;
 import fr.eurecom.stanfordnlprestapi.datatypes.SentenceImpl;
-import fr.eurecom.stanfordnlprestapi.datatypes.TokenImpl;
+import fr.eurecom.stanfordnlprestapi.datatypes.TagDictionary;
 
 import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import fr.eurecom.stanfordnlprestapi.gazetteer.Gazetteer;
+import fr.eurecom.stanfordnlprestapi.gazetteer.GazetteerAnnotator;
+import fr.eurecom.stanfordnlprestapi.gazetteer.GazetteerRegistry;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.ContextListener;
 import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
-import fr.eurecom.stanfordnlprestapi.interfaces.Token;
 
+import fr.eurecom.stanfordnlprestapi.nullobjects.NullContextListener;
 import fr.eurecom.stanfordnlprestapi.nullobjects.NullSentence;
-import fr.eurecom.stanfordnlprestapi.nullobjects.NullToken;
+
+import fr.eurecom.stanfordnlprestapi.store.AnnotationStore;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
@@ -66,9 +98,21 @@ import org.slf4j.LoggerFactory;
  */
 public class StanfordNlp {
   static final Logger LOGGER = LoggerFactory.getLogger(StanfordNlp.class);
+  private static final ProtobufAnnotationSerializer SERIALIZER =
+      new ProtobufAnnotationSerializer(false);
   private StanfordCoreNLP pipeline;
+  private StanfordCoreNLP splitter;
+  private StanfordCoreNLP tagger;
   private final String name;
-  private final NlpProcess process;
+  private final Set<NlpProcess> processes;
+  private final AnnotatorRegistry registry;
+  private final int slot;
+  private final Map<String, String> signatures;
+  private final StageMetrics stages;
+  private final SentenceCache sentenceCache;
+  private final AnnotationStore store;
+  private final List<Gazetteer> gazetteers;
+  private String storeKey;
 
   /**
    * StanfordNlp constructor.
@@ -77,22 +121,121 @@ public class StanfordNlp {
    * @param propertyFile a property file that contains the pipeline properties.
    */
   public StanfordNlp(final String propertyFile, final String newName) {
+    this(propertyFile, newName, AnnotatorRegistry.getInstance(), 0);
+  }
+  
+  /**
+   * StanfordNlp constructor that shares its annotators through a registry.
+   *
+   * @param propertyFile a property file that contains the pipeline properties.
+   * @param newName      a name.
+   * @param newRegistry  Registry of the shared annotators.
+   * @param newSlot      Index of the pipeline instance in its pool.
+   */
+  public StanfordNlp(final String propertyFile, final String newName,
+                     final AnnotatorRegistry newRegistry, final int newSlot) {
+    this(Collections.singletonList(propertyFile), EnumSet.of(StanfordNlp.process(propertyFile)),
+        newName, newRegistry, newSlot);
+  }
+  
+  /**
+   * StanfordNlp constructor that runs several processes with a single pipeline. The annotators
+   * of all the property files are merged, so an annotator needed by more than one process runs
+   * only once per text.
+   *
+   * @param propertyFiles Property files that contain the pipeline properties of each process.
+   * @param newProcesses  Processes extracted from the annotated texts.
+   * @param newName       a name.
+   * @param newRegistry   Registry of the shared annotators.
+   * @param newSlot       Index of the pipeline instance in its pool.
+   */
+  public StanfordNlp(final List<String> propertyFiles, final Set<NlpProcess> newProcesses,
+                     final String newName, final AnnotatorRegistry newRegistry,
+                     final int newSlot) {
+    this(propertyFiles, newProcesses, newName, newRegistry, newSlot, new StageMetrics(newName));
+  }
+  
+  /**
+   * StanfordNlp constructor that records the time spent in each stage of the annotation.
+   *
+   * @param propertyFiles Property files that contain the pipeline properties of each process.
+   * @param newProcesses  Processes extracted from the annotated texts.
+   * @param newName       a name.
+   * @param newRegistry   Registry of the shared annotators.
+   * @param newSlot       Index of the pipeline instance in its pool.
+   * @param newStages     Metrics of the stages of the profile.
+   */
+  public StanfordNlp(final List<String> propertyFiles, final Set<NlpProcess> newProcesses,
+                     final String newName, final AnnotatorRegistry newRegistry,
+                     final int newSlot, final StageMetrics newStages) {
+    this(propertyFiles, newProcesses, newName, newRegistry, newSlot, newStages,
+        new SentenceCache(new CacheConfiguration()));
+  }
+  
+  /**
+   * StanfordNlp constructor that reuses the tags of the sentences already annotated by the
+   * profile. A text is first split into sentences, and only the sentences that are not in the
+   * cache go through the other annotators. The dates and the coreferences depend on the whole
+   * text, and the custom annotators, such as the gazetteers, can change without a change of
+   * their properties, so a pipeline that uses them never uses the cache.
+   *
+   * @param propertyFiles    Property files that contain the pipeline properties of each process.
+   * @param newProcesses     Processes extracted from the annotated texts.
+   * @param newName          a name.
+   * @param newRegistry      Registry of the shared annotators.
+   * @param newSlot          Index of the pipeline instance in its pool.
+   * @param newStages        Metrics of the stages of the profile.
+   * @param newSentenceCache Cache of the annotated sentences.
+   */
+  public StanfordNlp(final List<String> propertyFiles, final Set<NlpProcess> newProcesses,
+                     final String newName, final AnnotatorRegistry newRegistry,
+                     final int newSlot, final StageMetrics newStages,
+                     final SentenceCache newSentenceCache) {
+    this(propertyFiles, newProcesses, newName, newRegistry, newSlot, newStages, newSentenceCache,
+        new AnnotationStore(new StoreConfiguration()));
+  }
+  
+  /**
+   * StanfordNlp constructor that keeps the annotated documents in a persistent store, so a text
+   * already annotated by the same annotators, even before a restart, is read from the store
+   * instead of being annotated again. The dates are not kept by the serialized annotations, and
+   * the custom annotators, such as the gazetteers, can change without a change of their
+   * properties, so a pipeline that uses them never uses the store.
+   *
+   * @param propertyFiles    Property files that contain the pipeline properties of each process.
+   * @param newProcesses     Processes extracted from the annotated texts.
+   * @param newName          a name.
+   * @param newRegistry      Registry of the shared annotators.
+   * @param newSlot          Index of the pipeline instance in its pool.
+   * @param newStages        Metrics of the stages of the profile.
+   * @param newSentenceCache Cache of the annotated sentences.
+   * @param newStore         Persistent store of the annotated documents.
+   */
+  public StanfordNlp(final List<String> propertyFiles, final Set<NlpProcess> newProcesses,
+                     final String newName, final AnnotatorRegistry newRegistry,
+                     final int newSlot, final StageMetrics newStages,
+                     final SentenceCache newSentenceCache, final AnnotationStore newStore) {
     this.name = newName;
+    this.processes = EnumSet.copyOf(newProcesses);
+    this.registry = newRegistry;
+    this.slot = newSlot;
+    this.signatures = new LinkedHashMap<>();
+    this.stages = newStages;
+    this.sentenceCache = newSentenceCache;
+    this.store = newStore;
+    this.gazetteers = new ArrayList<>();
     
-    this.process = NlpProcess.valueOf(propertyFile.split(
+    this.createPipelineProperties(propertyFiles);
+  }
+  
+  static NlpProcess process(final String propertyFile) {
+    return NlpProcess.valueOf(propertyFile.split(
         FileSystems.getDefault().getSeparator())[propertyFile.split(
         FileSystems.getDefault().getSeparator()).length - 1].split("_")[0].toUpperCase(
             Locale.ENGLISH));
-    
-    this.createPipelineProperties(propertyFile);
   }
   
-  /**
-   * Define a new pipeline for Stanford.
-   *
-   * @param propertyFile Property file that contains the pipeline properties.
-   */
-  private void createPipelineProperties(final String propertyFile) {
+  private static Properties properties(final String propertyFile) {
     final Properties props = new Properties();
     
     try (FileInputStream fileInputStream = new FileInputStream(propertyFile)) {
@@ -103,15 +246,159 @@ public class StanfordNlp {
           Response.Status.PRECONDITION_FAILED);
     }
     
+    return props;
+  }
+  
+  /**
+   * Merge the properties of several profiles. The annotators are the union of the annotators of
+   * each profile, in their first order of appearance. Any other property keeps the value of the
+   * first profile that defines it.
+   *
+   * @param propertyFiles Property files to merge.
+   *
+   * @return The merged properties.
+   */
+  private static Properties merge(final List<String> propertyFiles) {
+    final Properties merged = new Properties();
+    final Set<String> annotators = new LinkedHashSet<>();
+    
+    for (final String propertyFile : propertyFiles) {
+      final Properties props = StanfordNlp.properties(propertyFile);
+      
+      for (final String annotator : props.getProperty("annotators", "").split("[, \\t]+")) {
+        if (!annotator.isEmpty()) {
+          annotators.add(annotator);
+        }
+      }
+      
+      for (final String key : props.stringPropertyNames()) {
+        if (!merged.containsKey(key)) {
+          merged.setProperty(key, props.getProperty(key));
+        } else if (!"annotators".equals(key)
+            && !merged.getProperty(key).equals(props.getProperty(key))) {
+          StanfordNlp.LOGGER.warn("The property {} of {} is ignored, {} is kept", key,
+              propertyFile, merged.getProperty(key));
+        }
+      }
+    }
+    
+    merged.setProperty("annotators", String.join(",", annotators));
+    
+    return merged;
+  }
+  
+  /**
+   * The annotators of a profile with their prerequisites. Stanford CoreNLP cannot infer the
+   * prerequisites of a custom annotator, declared with a customAnnotatorClass property, so the
+   * custom annotators come after the prerequisites of the other ones, in their order.
+   *
+   * @param props Properties of the profile.
+   *
+   * @return The annotators to load.
+   */
+  private static List<String> annotators(final Properties props) {
+    final List<String> known = new ArrayList<>();
+    final List<String> custom = new ArrayList<>();
+    
+    for (final String annotator : props.getProperty("annotators", "").split("[, \\t]+")) {
+      if (props.containsKey("customAnnotatorClass." + annotator)) {
+        custom.add(annotator);
+      } else if (!annotator.isEmpty()) {
+        known.add(annotator);
+      }
+    }
+    
+    final List<String> annotators = new ArrayList<>(Arrays.asList(
+        StanfordCoreNLP.ensurePrerequisiteAnnotators(known.toArray(new String[known.size()]),
+            props).split("[, \\t]+")));
+    
+    annotators.addAll(custom);
+    
+    return annotators;
+  }
+  
+  /**
+   * Define a new pipeline for Stanford. Each annotator is taken from the registry, so an
+   * annotator already loaded by another profile with the same properties is reused, and is timed
+   * on behalf of this profile.
+   *
+   * @param propertyFiles Property files that contain the pipeline properties.
+   */
+  private void createPipelineProperties(final List<String> propertyFiles) {
+    final Properties props = StanfordNlp.merge(propertyFiles);
+    
     StanfordNlp.LOGGER.info("Run Stanford core NLP with: {}", props);
     
-    this.pipeline = new StanfordCoreNLP(props);
+    final AnnotatorPool source = StanfordCoreNLP.constructAnnotatorPool(props,
+        new AnnotatorImplementations());
+    final AnnotatorPool shared = new AnnotatorPool();
+    
+    for (final String annotator : StanfordNlp.annotators(props)) {
+      if (!annotator.isEmpty()) {
+        final String signature = PropertiesUtils.getSignature(annotator, props);
+        
+        this.signatures.put(annotator, signature);
+        shared.register(annotator, props, Lazy.from(new TimedAnnotator(this.registry.acquire(
+            annotator, signature, this.slot, () -> source.get(annotator)), this.stages.timer(
+            "annotator." + annotator))));
+        
+        if (GazetteerAnnotator.class.getName().equals(props.getProperty("customAnnotatorClass."
+            + annotator))) {
+          this.gazetteers.add(GazetteerRegistry.getInstance().gazetteer(props.getProperty(
+              annotator + ".mapping", ""), Boolean.parseBoolean(props.getProperty(annotator
+              + ".ignorecase", "false"))));
+        }
+      }
+    }
+    
+    this.pipeline = new StanfordCoreNLP(props, true, shared);
     
-    if (this.process == NlpProcess.DATE) {
-      this.pipeline.addAnnotator(new TimeAnnotator("sutime", new Properties()));
+    if (this.signatures.containsKey("tokenize") && this.signatures.containsKey("ssplit")) {
+      final Properties splitterProps = new Properties();
+      
+      splitterProps.putAll(props);
+      splitterProps.setProperty("annotators", "tokenize,ssplit");
+      
+      this.splitter = new StanfordCoreNLP(splitterProps, false, shared);
+    }
+    
+    final List<String> taggers = new ArrayList<>(this.signatures.keySet());
+    final boolean custom = props.stringPropertyNames().stream().anyMatch(key -> key.startsWith(
+        "customAnnotatorClass."));
+    
+    if (this.splitter != null && !this.layered() && !custom && this.sentenceCache.enabled()
+        && taggers.size() > 2 && taggers.subList(0, 2).equals(Arrays.asList("tokenize",
+        "ssplit"))) {
+      final Properties taggerProps = new Properties();
+      
+      taggerProps.putAll(props);
+      taggerProps.setProperty("annotators", String.join(",", taggers.subList(2,
+          taggers.size())));
+      
+      this.tagger = new StanfordCoreNLP(taggerProps, false, shared);
+    }
+    
+    if (this.store.enabled() && !this.processes.contains(NlpProcess.DATE) && !custom) {
+      this.storeKey = this.stages.profile() + '/' + Hashing.sha256().hashString(
+          this.signatures.toString(), StandardCharsets.UTF_8);
+    }
+    
+    if (this.processes.contains(NlpProcess.DATE)) {
+      this.signatures.put("sutime", "");
+      this.pipeline.addAnnotator(new TimedAnnotator(this.registry.acquire("sutime", "",
+          this.slot, () -> new TimeAnnotator("sutime", new Properties())), this.stages.timer(
+          "annotator.sutime")));
     }
   }
   
+  /**
+   * Release the annotators of the pipeline from the registry.
+   */
+  public final void release() {
+    this.signatures.forEach((annotator, signature) -> this.registry.release(annotator, signature,
+        this.slot));
+  }
+  
   /**
    * The name of the pipeline.
    *
@@ -120,6 +407,30 @@ public class StanfordNlp {
   public final String getName() {
     return this.name;
   }
+  
+  public final StageMetrics stages() {
+    return this.stages;
+  }
+  
+  /**
+   * The version of the gazetteers used by the pipeline, it changes each time one of them is
+   * reloaded or changed.
+   *
+   * @return The version numbers of the gazetteers separated by dots, empty if there is none.
+   */
+  public final String gazetteerVersion() {
+    final StringBuilder version = new StringBuilder();
+    
+    for (final Gazetteer gazetteer : this.gazetteers) {
+      if (version.length() > 0) {
+        version.append('.');
+      }
+      
+      version.append(gazetteer.version().number());
+    }
+    
+    return version.toString();
+  }
 
   /**
    * Create a context from a text.
@@ -129,45 +440,459 @@ public class StanfordNlp {
    * @return The corresponding context of the text.
    */
   public final Context run(final String newText) {
-    final Annotation document = new Annotation(newText);
-
-    this.pipeline.annotate(document);
+    return this.run(newText, NullContextListener.getInstance());
+  }
+  
+  /**
+   * Create a context from a text, the listener is notified of each sentence as soon as it is
+   * complete.
+   *
+   * @param newText  Text to process.
+   * @param listener Listener notified while the context is built.
+   *
+   * @return The corresponding context of the text.
+   */
+  public final Context run(final String newText, final ContextListener listener) {
+    final Annotation document = this.document(newText);
     
-    final Context context;
+    return this.context(document, newText, listener);
+  }
+  
+  /**
+   * Create a context for each text of a batch. The texts are annotated in parallel and the
+   * contexts are returned in the same order than the texts.
+   *
+   * @param newTexts Texts to process.
+   * @param threads  Number of threads used to annotate the texts.
+   *
+   * @return The corresponding contexts of the texts.
+   */
+  public final List<Context> run(final List<String> newTexts, final int threads) {
+    final List<Annotation> documents = new ArrayList<>();
+    final List<Annotation> annotated = new ArrayList<>();
     
-    if (this.process == NlpProcess.COREF) {
-      context = this.buildCorefContext(document);
-    } else if (this.process == NlpProcess.DATE) {
-      context = this.buildDateContext(document);
+    for (final String text : newTexts) {
+      final Annotation stored = this.restore(text);
+      
+      if (stored == null) {
+        final Annotation document = new Annotation(text);
+        
+        documents.add(document);
+        annotated.add(document);
+      } else {
+        documents.add(stored);
+      }
+    }
+    
+    if (annotated.isEmpty()) {
+      StanfordNlp.LOGGER.debug("All the documents of the batch are stored");
+    } else if (this.tagger == null) {
+      this.pipeline.annotate(annotated, threads);
     } else {
-      context = this.buildContext(document.get(CoreAnnotations.SentencesAnnotation.class), newText);
+      final List<Annotation> missed = new ArrayList<>();
+      
+      this.splitter.annotate(annotated, threads);
+      
+      for (final Annotation document : annotated) {
+        final Annotation untagged = this.recall(document);
+        
+        if (untagged != null) {
+          missed.add(untagged);
+        }
+      }
+      
+      if (!missed.isEmpty()) {
+        this.tagger.annotate(missed, threads);
+        missed.forEach(this::memorize);
+      }
+    }
+    
+    annotated.forEach(this::persist);
+    
+    final List<Context> contexts = new ArrayList<>();
+    
+    for (int i = 0; i < documents.size(); i++) {
+      contexts.add(this.context(documents.get(i), newTexts.get(i),
+          NullContextListener.getInstance()));
+    }
+    
+    return contexts;
+  }
+  
+  /**
+   * Whether a text can be split into chunks annotated separately. A coreference crosses the
+   * sentence boundaries, so a pipeline that extracts them is never chunked.
+   *
+   * @return true if the texts of the pipeline can be chunked.
+   */
+  public final boolean chunkable() {
+    return this.splitter != null && !this.processes.contains(NlpProcess.COREF);
+  }
+  
+  /**
+   * Create a context from a long text. The text is split after sentence terminators into chunks
+   * of about chunkChars characters that are annotated in parallel, then the chunks are merged into
+   * a single context with the offsets and the sentence indices of the whole text.
+   *
+   * @param newText      Text to process.
+   * @param chunkChars   Approximate size of a chunk in characters.
+   * @param forkJoinPool Pool that annotates the chunks.
+   *
+   * @return The corresponding context of the text.
+   */
+  public final Context run(final String newText, final int chunkChars,
+                           final ForkJoinPool forkJoinPool) {
+    return this.run(newText, chunkChars, forkJoinPool, NullContextListener.getInstance());
+  }
+  
+  /**
+   * Create a context from a long text by chunks, the listener is notified of the sentences of
+   * each chunk as soon as the chunk is annotated.
+   *
+   * @param newText      Text to process.
+   * @param chunkChars   Approximate size of a chunk in characters.
+   * @param forkJoinPool Pool that annotates the chunks.
+   * @param listener     Listener notified while the context is built.
+   *
+   * @return The corresponding context of the text.
+   */
+  public final Context run(final String newText, final int chunkChars,
+                           final ForkJoinPool forkJoinPool, final ContextListener listener) {
+    if (!this.chunkable() || newText.length() <= chunkChars) {
+      return this.run(newText, listener);
+    }
+    
+    final List<Integer> starts = StanfordNlp.chunkStarts(newText, chunkChars);
+    final List<ForkJoinTask<Annotation>> tasks = new ArrayList<>();
+    
+    for (int i = 0; i < starts.size(); i++) {
+      final String chunk = newText.substring(starts.get(i), i + 1 < starts.size()
+          ? starts.get(i + 1) : newText.length());
+      
+      tasks.add(forkJoinPool.submit(() -> this.document(chunk)));
+    }
+    
+    final Context context = new Context(newText, 0, newText.length());
+    final List<CoreMap> timexes = new ArrayList<>();
+    Sentence last = NullSentence.getInstance();
+    long elapsed = 0;
+    
+    listener.start(context);
+    
+    for (int i = 0; i < tasks.size(); i++) {
+      final Annotation chunk = tasks.get(i).join();
+      final long begin = System.nanoTime();
+      
+      this.rebase(chunk, starts.get(i), context.sentences().size());
+      
+      last = this.buildSentencesFromContext(chunk.get(CoreAnnotations.SentencesAnnotation.class),
+          context, last, this.sentenceListener(listener));
+      
+      if (chunk.containsKey(TimeAnnotations.TimexAnnotations.class)) {
+        timexes.addAll(chunk.get(TimeAnnotations.TimexAnnotations.class));
+      }
+      
+      elapsed += System.nanoTime() - begin;
     }
     
+    final Annotation document = new Annotation(newText);
+    final long begin = System.nanoTime();
+    
+    document.set(TimeAnnotations.TimexAnnotations.class, timexes);
+    
+    this.complete(document, context, last, listener);
+    this.stages.timer("context").update(elapsed + System.nanoTime() - begin,
+        TimeUnit.NANOSECONDS);
+    
     return context;
   }
   
-  private Context buildDateContext(final Annotation document) {
-    final Context tmpContext = new Context(document.toString(), 0, document.toString().length());
-    final List<CoreMap> timexAnnsAll = document.get(TimeAnnotations.TimexAnnotations.class);
-    final List<CoreMap> sentences = document.get(CoreAnnotations.SentencesAnnotation.class);
+  /**
+   * Annotate a text, or read its annotation from the store if the pipeline has already annotated
+   * it.
+   *
+   * @param newText Text to annotate.
+   *
+   * @return The annotated document.
+   */
+  private Annotation document(final String newText) {
+    final Annotation stored = this.restore(newText);
+    
+    if (stored != null) {
+      return stored;
+    }
+    
+    final Annotation document = new Annotation(newText);
+    
+    this.annotate(document);
+    this.persist(document);
+    
+    return document;
+  }
+  
+  /**
+   * Read the annotation of a text from the store.
+   *
+   * @param newText Annotated text.
+   *
+   * @return The annotated document, null if it is not stored or cannot be read.
+   */
+  private Annotation restore(final String newText) {
+    if (this.storeKey == null) {
+      return null;
+    }
+    
+    final String key = AnnotationStore.key(this.storeKey, newText);
+    final byte[] bytes = this.store.get(key);
+    
+    if (bytes == null) {
+      return null;
+    }
+    
+    try (Timer.Context ignored = this.stages.timer("store").time()) {
+      return StanfordNlp.SERIALIZER.fromProto(CoreNLPProtos.Document.parseFrom(bytes));
+    } catch (final IOException | RuntimeException ex) {
+      StanfordNlp.LOGGER.warn("The stored document {} cannot be read", key, ex);
+      
+      return null;
+    }
+  }
   
-    this.buildSentencesFromContext(sentences, tmpContext);
+  private void persist(final Annotation document) {
+    if (this.storeKey != null) {
+      this.store.put(AnnotationStore.key(this.storeKey, document.get(
+          CoreAnnotations.TextAnnotation.class)), StanfordNlp.SERIALIZER.toProto(document)
+          .toByteArray());
+    }
+  }
+  
+  /**
+   * Annotate a document, the sentences already in the cache are only split and get their tags
+   * back from the cache.
+   *
+   * @param document Document to annotate.
+   */
+  private void annotate(final Annotation document) {
+    if (this.tagger == null) {
+      this.pipeline.annotate(document);
+      
+      return;
+    }
+    
+    this.splitter.annotate(document);
+    
+    final Annotation untagged = this.recall(document);
+    
+    if (untagged != null) {
+      this.tagger.annotate(untagged);
+      this.memorize(untagged);
+    }
+  }
+  
+  /**
+   * Restore the tags of the sentences of a split document that are in the cache.
+   *
+   * @param document Split document.
+   *
+   * @return A document made of the sentences that are not in the cache, null if there is none.
+   */
+  private Annotation recall(final Annotation document) {
+    final List<CoreMap> sentences = new ArrayList<>();
+    final List<CoreLabel> tokens = new ArrayList<>();
+    
+    for (final CoreMap sentence : document.get(CoreAnnotations.SentencesAnnotation.class)) {
+      final CachedSentence cached = this.sentenceCache.get(this.stages.profile(), sentence.get(
+          CoreAnnotations.TextAnnotation.class));
+      
+      if (cached == null || !cached.restore(sentence)) {
+        sentences.add(sentence);
+        tokens.addAll(sentence.get(CoreAnnotations.TokensAnnotation.class));
+      }
+    }
+    
+    this.stages.histogram("sentences.tagged").update(sentences.size());
+    
+    if (sentences.isEmpty()) {
+      return null;
+    }
+    
+    final Annotation untagged = new Annotation(document.get(
+        CoreAnnotations.TextAnnotation.class));
+    
+    untagged.set(CoreAnnotations.SentencesAnnotation.class, sentences);
+    untagged.set(CoreAnnotations.TokensAnnotation.class, tokens);
+    
+    return untagged;
+  }
+  
+  private void memorize(final Annotation tagged) {
+    for (final CoreMap sentence : tagged.get(CoreAnnotations.SentencesAnnotation.class)) {
+      this.sentenceCache.put(this.stages.profile(), sentence.get(
+          CoreAnnotations.TextAnnotation.class), CachedSentence.of(sentence));
+    }
+  }
+  
+  /**
+   * Find where the chunks of a text start. A chunk spans at least chunkChars characters, except
+   * the last one, and ends after the first sentence terminator or line break that follows them.
+   * The text is only scanned, the chunks are tokenized and split into sentences in parallel.
+   *
+   * @param newText    Text to split.
+   * @param chunkChars Approximate size of a chunk in characters.
+   *
+   * @return The start offsets of the chunks.
+   */
+  private static List<Integer> chunkStarts(final String newText, final int chunkChars) {
+    final List<Integer> starts = new ArrayList<>();
+    int start = 0;
+    
+    while (start < newText.length()) {
+      starts.add(start);
+      
+      start = StanfordNlp.nextSentence(newText, start + chunkChars);
+    }
+    
+    return starts;
+  }
+  
+  /**
+   * Find the start of the first sentence after an offset, a sentence starts after a terminator
+   * followed by a space or after a line break.
+   *
+   * @param newText Text to scan.
+   * @param from    Offset where the scan starts.
+   *
+   * @return The offset of the sentence, the length of the text if there is none.
+   */
+  private static int nextSentence(final String newText, final int from) {
+    for (int i = Math.max(from, 1); i < newText.length(); i++) {
+      final char previous = newText.charAt(i - 1);
+      
+      if (previous == '\n' || (previous == '.' || previous == '!' || previous == '?')
+          && Character.isWhitespace(newText.charAt(i))) {
+        int next = i;
+        
+        while (next < newText.length() && Character.isWhitespace(newText.charAt(next))) {
+          next++;
+        }
+        
+        return next;
+      }
+    }
+    
+    return newText.length();
+  }
+  
+  /**
+   * Move the annotations of a chunk to their place in the whole text.
+   *
+   * @param chunk         Annotated chunk.
+   * @param offset        Start offset of the chunk in the whole text.
+   * @param sentenceIndex Index of the first sentence of the chunk in the whole text.
+   */
+  private void rebase(final Annotation chunk, final int offset, final int sentenceIndex) {
+    for (final CoreMap sentence : chunk.get(CoreAnnotations.SentencesAnnotation.class)) {
+      this.rebase(sentence, offset, sentenceIndex);
+      
+      for (final CoreLabel token : sentence.get(CoreAnnotations.TokensAnnotation.class)) {
+        token.set(CoreAnnotations.CharacterOffsetBeginAnnotation.class, token.get(
+            CoreAnnotations.CharacterOffsetBeginAnnotation.class) + offset);
+        token.set(CoreAnnotations.CharacterOffsetEndAnnotation.class, token.get(
+            CoreAnnotations.CharacterOffsetEndAnnotation.class) + offset);
+      }
+    }
+    
+    if (chunk.containsKey(TimeAnnotations.TimexAnnotations.class)) {
+      for (final CoreMap timex : chunk.get(TimeAnnotations.TimexAnnotations.class)) {
+        this.rebase(timex, offset, sentenceIndex);
+      }
+    }
+  }
+  
+  private void rebase(final CoreMap map, final int offset, final int sentenceIndex) {
+    map.set(CoreAnnotations.CharacterOffsetBeginAnnotation.class, map.get(
+        CoreAnnotations.CharacterOffsetBeginAnnotation.class) + offset);
+    map.set(CoreAnnotations.CharacterOffsetEndAnnotation.class, map.get(
+        CoreAnnotations.CharacterOffsetEndAnnotation.class) + offset);
+    map.set(CoreAnnotations.SentenceIndexAnnotation.class, map.get(
+        CoreAnnotations.SentenceIndexAnnotation.class) + sentenceIndex);
+  }
+  
+  private Context context(final Annotation document, final String newText,
+                          final ContextListener listener) {
+    try (Timer.Context ignored = this.stages.timer("context").time()) {
+      final Context context = new Context(newText, 0, newText.length());
+      
+      listener.start(context);
+      
+      final Sentence last = this.buildSentencesFromContext(document.get(
+          CoreAnnotations.SentencesAnnotation.class), context, NullSentence.getInstance(),
+          this.sentenceListener(listener));
+      
+      return this.complete(document, context, last, listener);
+    }
+  }
+  
+  /**
+   * Listener notified while the sentences are built. The dates and the coreferences are added
+   * once all the sentences are built, so a sentence of a pipeline that extracts them is only
+   * complete with the context.
+   *
+   * @param listener Listener of the context.
+   *
+   * @return The listener notified while the sentences are built.
+   */
+  private ContextListener sentenceListener(final ContextListener listener) {
+    if (this.layered()) {
+      return NullContextListener.getInstance();
+    }
+    
+    return listener;
+  }
+  
+  private boolean layered() {
+    return this.processes.contains(NlpProcess.DATE) || this.processes.contains(NlpProcess.COREF);
+  }
+  
+  private Context complete(final Annotation document, final Context context, final Sentence last,
+                           final ContextListener listener) {
+    if (this.processes.contains(NlpProcess.DATE)) {
+      this.buildTimexesFromContext(document, context);
+    }
+    
+    if (this.processes.contains(NlpProcess.COREF)) {
+      this.buildCorefsFromContext(document, context);
+    }
+    
+    if (this.layered()) {
+      context.sentences().forEach(listener::sentence);
+    } else if (last.index() != -1) {
+      listener.sentence(last);
+    }
+    
+    this.stages.histogram("chars").update(context.text().length());
+    this.stages.histogram("sentences").update(context.sentences().size());
+    
+    return context;
+  }
+  
+  private void buildTimexesFromContext(final Annotation document, final Context context) {
+    final List<CoreMap> timexAnnsAll = document.get(TimeAnnotations.TimexAnnotations.class);
   
     for (final CoreMap cm : timexAnnsAll) {
       final int start = cm.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class);
       final int end = cm.get(CoreAnnotations.CharacterOffsetEndAnnotation.class);
-      final Entity entity = new Entity(cm.toString(), "DATE", tmpContext.sentences().get(
-          cm.get(CoreAnnotations.SentenceIndexAnnotation.class)), tmpContext, start, end);
+      final Sentence sentence = context.sentences().get(cm.get(
+          CoreAnnotations.SentenceIndexAnnotation.class));
       
-      tmpContext.sentences().get(cm.get(CoreAnnotations.SentenceIndexAnnotation.class))
-          .addEntity(entity);
+      if (sentence.entities().stream().noneMatch(entity -> entity.start() == start
+          && entity.end() == end)) {
+        sentence.addEntity(new Entity(cm.toString(), "DATE", sentence, context, start, end));
+      }
     }
-    
-    return tmpContext;
   }
   
-  private Context buildCorefContext(final Annotation document) {
-    final Context tmpContext = new Context(document.toString(), 0, document.toString().length());
+  private void buildCorefsFromContext(final Annotation document, final Context context) {
     final List<CoreMap> sentences = document.get(CoreAnnotations.SentencesAnnotation.class);
     final Map<Integer, List<CoreLabel>> tokens = new HashMap<>();
     
@@ -175,8 +900,6 @@ public class StanfordNlp {
       tokens.put(sentences.indexOf(map), map.get(CoreAnnotations.TokensAnnotation.class));
     }
     
-    this.buildSentencesFromContext(sentences, tmpContext);
-    
     final Map<Integer, CorefChain> corefChains = document.get(
         CorefCoreAnnotations.CorefChainAnnotation.class);
     
@@ -195,229 +918,160 @@ public class StanfordNlp {
               representative.endIndex - 2).endPosition();
           
           final Coref coref = new Coref(mention.mentionSpan, representative.mentionSpan, start,
-              end, startHead, endHead, tmpContext.sentences().get(mention.sentNum - 1), tmpContext);
+              end, startHead, endHead, context.sentences().get(mention.sentNum - 1), context);
 
-          tmpContext.sentences().get(mention.sentNum - 1).addCoref(coref);
+          context.sentences().get(mention.sentNum - 1).addCoref(coref);
         }
       }
     }
-    
-    return tmpContext;
-  }
-
-  private Context buildContext(final List<CoreMap> sentences, final String newText) {
-    final Context tmpContext = new Context(newText, 0, newText.length());
-
-    this.buildSentencesFromContext(sentences, tmpContext);
-
-    return tmpContext;
   }
 
-  private void buildSentencesFromContext(final List<CoreMap> stanfordSentences,
-                                         final Context context) {
-    Sentence sentence = new SentenceImpl(stanfordSentences.get(0).get(
-        CoreAnnotations.TextAnnotation.class), context,
-        stanfordSentences.get(0).get(CoreAnnotations.CharacterOffsetBeginAnnotation.class),
-        stanfordSentences.get(0).get(CoreAnnotations.CharacterOffsetEndAnnotation.class),
-        stanfordSentences.get(0).get(CoreAnnotations.SentenceIndexAnnotation.class),
-        NullSentence.getInstance());
-
-    context.addSentence(sentence);
-    
-    final List<Sentence> sentences = new ArrayList<>();
-    
-    sentences.add(sentence);
+  private Sentence buildSentencesFromContext(final List<CoreMap> stanfordSentences,
+                                             final Context context,
+                                             final Sentence previousSentence,
+                                             final ContextListener listener) {
+    Sentence previous = previousSentence;
     
-    if (this.process == NlpProcess.POS) {
-      this.buildPosTokensFromSentence(stanfordSentences.get(0), context, sentence);
-    } else if (this.process == NlpProcess.NER || this.process == NlpProcess.NUMBER
-        || this.process == NlpProcess.GAZETTEER) {
-      this.buildEntitiesFromSentence(stanfordSentences.get(0), context, sentence);
-    } else if (this.process == NlpProcess.TOKENIZE) {
-      this.buildTokensFromSentence(stanfordSentences.get(0), context, sentence);
-    }
-
-    for (int i = 1; i < stanfordSentences.size(); i++) {
-      sentence = new SentenceImpl(stanfordSentences.get(i).get(
+    for (final CoreMap stanfordSentence : stanfordSentences) {
+      final Sentence sentence = new SentenceImpl(stanfordSentence.get(
           CoreAnnotations.TextAnnotation.class), context,
-          stanfordSentences.get(i).get(CoreAnnotations.CharacterOffsetBeginAnnotation.class),
-          stanfordSentences.get(i).get(CoreAnnotations.CharacterOffsetEndAnnotation.class),
-          stanfordSentences.get(i).get(CoreAnnotations.SentenceIndexAnnotation.class),
-          sentences.get(i - 1));
-
+          stanfordSentence.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class),
+          stanfordSentence.get(CoreAnnotations.CharacterOffsetEndAnnotation.class),
+          stanfordSentence.get(CoreAnnotations.SentenceIndexAnnotation.class), previous);
+      
       context.addSentence(sentence);
-      sentences.add(sentence);
       
-      if (this.process == NlpProcess.POS) {
-        this.buildPosTokensFromSentence(stanfordSentences.get(i), context, sentence);
-      } else if (this.process == NlpProcess.NER || this.process == NlpProcess.NUMBER
-          || this.process == NlpProcess.GAZETTEER) {
-        this.buildEntitiesFromSentence(stanfordSentences.get(i), context, sentence);
-      } else if (this.process == NlpProcess.TOKENIZE) {
-        this.buildTokensFromSentence(stanfordSentences.get(i), context, sentence);
+      this.buildLayersFromSentence(stanfordSentence, context, sentence);
+      
+      if (previous.index() != -1) {
+        previous.nextSentence(sentence);
+        listener.sentence(previous);
       }
+      
+      previous = sentence;
     }
-
-    for (int i = 0; i < (sentences.size() - 1); i++) {
-      sentences.get(i).nextSentence(sentences.get(i + 1));
-    }
+    
+    return previous;
   }
   
-  private void buildTokensFromSentence(final CoreMap stanfordSentence, final Context context,
+  private void buildLayersFromSentence(final CoreMap stanfordSentence, final Context context,
                                        final Sentence sentence) {
-    final CoreLabel firstLabel = stanfordSentence.get(CoreAnnotations.TokensAnnotation.class).get(
-        0);
-  
-    Token token = new TokenImpl(firstLabel.get(CoreAnnotations.TextAnnotation.class),
-        firstLabel.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class),
-        firstLabel.get(CoreAnnotations.CharacterOffsetEndAnnotation.class),
-        NullToken.getInstance(), context, sentence,
-        firstLabel.get(CoreAnnotations.IndexAnnotation.class));
-  
-    sentence.addToken(token);
-  
-    final List<Token> tokens = new ArrayList<>();
-  
-    tokens.add(token);
-  
-    for (int i = 1; i < stanfordSentence.get(CoreAnnotations.TokensAnnotation.class).size(); i++) {
-      final CoreLabel currentLabel = stanfordSentence.get(CoreAnnotations.TokensAnnotation.class)
-          .get(i);
-      token = new TokenImpl(currentLabel.get(CoreAnnotations.TextAnnotation.class),
-          currentLabel.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class),
-          currentLabel.get(CoreAnnotations.CharacterOffsetEndAnnotation.class),
-          tokens.get(i - 1), context, sentence,
-          currentLabel.get(CoreAnnotations.IndexAnnotation.class));
+    if (this.processes.contains(NlpProcess.POS)) {
+      this.buildPosTokensFromSentence(stanfordSentence, context, sentence);
+    } else if (this.processes.contains(NlpProcess.TOKENIZE)) {
+      this.buildTokensFromSentence(stanfordSentence, context, sentence);
+    }
     
-      sentence.addToken(token);
-      tokens.add(token);
+    if (this.processes.contains(NlpProcess.NER) || this.processes.contains(NlpProcess.NUMBER)
+        || this.processes.contains(NlpProcess.GAZETTEER)) {
+      this.buildEntitiesFromSentence(stanfordSentence, context, sentence);
     }
+  }
   
-    for (int i = 0; i < (tokens.size() - 1); i++) {
-      tokens.get(i).nextToken(tokens.get(i + 1));
-    }
+  final void buildTokensFromSentence(final CoreMap stanfordSentence, final Context context,
+                                     final Sentence sentence) {
+    this.buildTokensFromSentence(stanfordSentence, sentence, false);
   }
 
-  private void buildPosTokensFromSentence(final CoreMap stanfordSentence, final Context context,
-                                       final Sentence sentence) {
-    final CoreLabel firstLabel = stanfordSentence.get(CoreAnnotations.TokensAnnotation.class).get(
-        0);
-    
-    Token token = new TokenImpl(firstLabel.get(CoreAnnotations.TextAnnotation.class),
-        firstLabel.get(CoreAnnotations.PartOfSpeechAnnotation.class),
-        firstLabel.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class),
-        firstLabel.get(CoreAnnotations.CharacterOffsetEndAnnotation.class),
-        NullToken.getInstance(), context, sentence,
-        firstLabel.get(CoreAnnotations.IndexAnnotation.class));
-
-    sentence.addToken(token);
-    
-    final List<Token> tokens = new ArrayList<>();
-    
-    tokens.add(token);
-
-    for (int i = 1; i < stanfordSentence.get(CoreAnnotations.TokensAnnotation.class).size(); i++) {
-      final CoreLabel currentLabel = stanfordSentence.get(CoreAnnotations.TokensAnnotation.class)
-          .get(i);
-      token = new TokenImpl(currentLabel.get(CoreAnnotations.TextAnnotation.class),
-          currentLabel.get(CoreAnnotations.PartOfSpeechAnnotation.class),
-          currentLabel.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class),
-          currentLabel.get(CoreAnnotations.CharacterOffsetEndAnnotation.class),
-          tokens.get(i - 1), context, sentence,
-          currentLabel.get(CoreAnnotations.IndexAnnotation.class));
-
-      sentence.addToken(token);
-      tokens.add(token);
-    }
+  final void buildPosTokensFromSentence(final CoreMap stanfordSentence, final Context context,
+                                        final Sentence sentence) {
+    this.buildTokensFromSentence(stanfordSentence, sentence, true);
+  }
 
-    for (int i = 0; i < (tokens.size() - 1); i++) {
-      tokens.get(i).nextToken(tokens.get(i + 1));
+  /**
+   * Build the tokens of a sentence in a single pass, straight into the columns of the sentence
+   * without any intermediate token object.
+   *
+   * @param stanfordSentence Annotated sentence.
+   * @param sentence         The sentence that receives the tokens.
+   * @param tagged           Whether the tokens keep their POS tag.
+   */
+  private void buildTokensFromSentence(final CoreMap stanfordSentence, final Sentence sentence,
+                                       final boolean tagged) {
+    for (final CoreLabel label : stanfordSentence.get(CoreAnnotations.TokensAnnotation.class)) {
+      sentence.addToken(label.get(CoreAnnotations.TextAnnotation.class),
+          tagged ? label.get(CoreAnnotations.PartOfSpeechAnnotation.class) : "",
+          label.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class),
+          label.get(CoreAnnotations.CharacterOffsetEndAnnotation.class),
+          label.get(CoreAnnotations.IndexAnnotation.class));
     }
   }
 
-  private void buildEntitiesFromSentence(final CoreMap stanfordSentence,
-                                         final Context context, final Sentence sentence) {
-    StringBuilder sb = new StringBuilder();
+  /**
+   * Group the consecutive tokens that have the same NER tag into entities, in a single pass. A
+   * token that contains a @ or a # is never grouped with the next tokens, and ends the group of
+   * the previous tokens.
+   *
+   * @param stanfordSentence Annotated sentence.
+   * @param context          The context where the sentence is.
+   * @param sentence         The sentence that receives the entities.
+   */
+  final void buildEntitiesFromSentence(final CoreMap stanfordSentence, final Context context,
+                                       final Sentence sentence) {
+    final List<CoreLabel> tokens = stanfordSentence.get(CoreAnnotations.TokensAnnotation.class);
+    final int last = tokens.size() - 1;
+    final StringBuilder sb = new StringBuilder();
     String type = "";
     int start = 0;
+    int previousEnd = 0;
 
-    for (final CoreLabel token : stanfordSentence.get(CoreAnnotations.TokensAnnotation.class)) {
-      if (token.get(CoreAnnotations.NamedEntityTagAnnotation.class) != null
-          && !"O".equals(token.get(CoreAnnotations.NamedEntityTagAnnotation.class))
-          && sb.toString().isEmpty()) {
-        start = token.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class);
-        type = token.get(CoreAnnotations.NamedEntityTagAnnotation.class);
-        
-        sb.append(token.get(CoreAnnotations.TextAnnotation.class));
-        
-        if (Pattern.compile("@|#").matcher(sb.toString()).find()
-            || stanfordSentence.get(CoreAnnotations.TokensAnnotation.class).indexOf(token)
-            == stanfordSentence.get(CoreAnnotations.TokensAnnotation.class).size() - 1) {
-          sentence.addEntity(new Entity(sb.toString(), type, sentence, context, start,
-              token.get(CoreAnnotations.CharacterOffsetEndAnnotation.class)));
-          
-          sb = new StringBuilder();
+    for (int i = 0; i <= last; i++) {
+      final CoreLabel token = tokens.get(i);
+      final String ner = token.get(CoreAnnotations.NamedEntityTagAnnotation.class);
+      final String tag = ner == null ? null : TagDictionary.getInstance().intern(ner);
+      final String text = token.get(CoreAnnotations.TextAnnotation.class);
+      final int begin = token.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class);
+      final int end = token.get(CoreAnnotations.CharacterOffsetEndAnnotation.class);
+      final boolean entity = tag != null && !"O".equals(tag);
+
+      if (entity && sb.length() == 0) {
+        start = begin;
+        type = tag;
+
+        sb.append(text);
+
+        if (StanfordNlp.splits(text) || i == last) {
+          sentence.addEntity(new Entity(sb.toString(), type, sentence, context, start, end));
+
+          sb.setLength(0);
           type = "";
         }
-      } else if (token.get(CoreAnnotations.NamedEntityTagAnnotation.class) != null
-          && !"O".equals(token.get(CoreAnnotations.NamedEntityTagAnnotation.class))
-          && type.equals(token.get(CoreAnnotations.NamedEntityTagAnnotation.class))
-          && !Pattern.compile("@|#").matcher(token.get(
-              CoreAnnotations.TextAnnotation.class)).find()) {
-        sb.append(' ');
-        sb.append(token.get(CoreAnnotations.TextAnnotation.class));
-
-        if (stanfordSentence.get(CoreAnnotations.TokensAnnotation.class).indexOf(token)
-            == stanfordSentence.get(CoreAnnotations.TokensAnnotation.class).size() - 1) {
-          sentence.addEntity(new Entity(sb.toString(), type, sentence, context, start,
-              token.get(CoreAnnotations.CharacterOffsetEndAnnotation.class)));
-        }
-      } else if (!sb.toString().isEmpty()
-          && token.get(CoreAnnotations.NamedEntityTagAnnotation.class) != null
-          && !"O".equals(token.get(CoreAnnotations.NamedEntityTagAnnotation.class))
-          && !type.equals(token.get(CoreAnnotations.NamedEntityTagAnnotation.class))) {
-        final int index = stanfordSentence.get(
-            CoreAnnotations.TokensAnnotation.class).indexOf(token);
-        final int end = stanfordSentence.get(CoreAnnotations.TokensAnnotation.class).get(
-            index - 1).get(CoreAnnotations.CharacterOffsetEndAnnotation.class);
-        
-        if (stanfordSentence.get(CoreAnnotations.TokensAnnotation.class).indexOf(token)
-            == stanfordSentence.get(CoreAnnotations.TokensAnnotation.class).size() - 1) {
-          sentence.addEntity(new Entity(token.get(CoreAnnotations.TextAnnotation.class),
-              token.get(CoreAnnotations.NamedEntityTagAnnotation.class), sentence, context,
-              token.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class),
-              token.get(CoreAnnotations.CharacterOffsetEndAnnotation.class)));
-          
-          sentence.addEntity(new Entity(sb.toString(), type, sentence, context, start, end));
-        } else {
+      } else if (entity && type.equals(tag) && !StanfordNlp.splits(text)) {
+        sb.append(' ').append(text);
+
+        if (i == last) {
           sentence.addEntity(new Entity(sb.toString(), type, sentence, context, start, end));
         }
-  
-        sb = new StringBuilder(token.get(CoreAnnotations.TextAnnotation.class));
-        
-        type = token.get(CoreAnnotations.NamedEntityTagAnnotation.class);
-        start = token.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class);
-      } else if (!sb.toString().isEmpty()) {
-        if (Pattern.compile("@|#").matcher(token.get(
-            CoreAnnotations.TextAnnotation.class)).find()
-            && token.get(CoreAnnotations.NamedEntityTagAnnotation.class) != null
-            && !"O".equals(token.get(CoreAnnotations.NamedEntityTagAnnotation.class))) {
-          sentence.addEntity(new Entity(token.get(CoreAnnotations.TextAnnotation.class),
-              token.get(CoreAnnotations.NamedEntityTagAnnotation.class), sentence, context,
-              token.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class),
-              token.get(CoreAnnotations.CharacterOffsetEndAnnotation.class)));
+      } else if (entity && !type.equals(tag)) {
+        if (i == last) {
+          sentence.addEntity(new Entity(text, tag, sentence, context, begin, end));
         }
-        
-        final int index = stanfordSentence.get(
-            CoreAnnotations.TokensAnnotation.class).indexOf(token);
-        final int end = stanfordSentence.get(CoreAnnotations.TokensAnnotation.class).get(
-            index - 1).get(CoreAnnotations.CharacterOffsetEndAnnotation.class);
-  
-        sentence.addEntity(new Entity(sb.toString(), type, sentence, context, start, end));
-  
-        sb = new StringBuilder();
+
+        sentence.addEntity(new Entity(sb.toString(), type, sentence, context, start,
+            previousEnd));
+
+        sb.setLength(0);
+        sb.append(text);
+
+        type = tag;
+        start = begin;
+      } else if (sb.length() > 0) {
+        if (entity) {
+          sentence.addEntity(new Entity(text, tag, sentence, context, begin, end));
+        }
+
+        sentence.addEntity(new Entity(sb.toString(), type, sentence, context, start,
+            previousEnd));
+
+        sb.setLength(0);
         type = "";
       }
+
+      previousEnd = end;
     }
   }
+
+  private static boolean splits(final String text) {
+    return text.indexOf('@') >= 0 || text.indexOf('#') >= 0;
+  }
 }
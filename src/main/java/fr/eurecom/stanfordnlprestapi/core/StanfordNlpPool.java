@@ -0,0 +1,602 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.core;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+import fr.eurecom.stanfordnlprestapi.cache.SentenceCache;
+
+import fr.eurecom.stanfordnlprestapi.configurations.CacheConfiguration;
+import fr.eurecom.stanfordnlprestapi.configurations.PoolConfiguration;
+import fr.eurecom.stanfordnlprestapi.configurations.StoreConfiguration;
+
+import fr.eurecom.stanfordnlprestapi.datatypes.Context;
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.ContextListener;
+import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
+
+import fr.eurecom.stanfordnlprestapi.nullobjects.NullContextListener;
+
+import fr.eurecom.stanfordnlprestapi.store.AnnotationStore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BiFunction;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of {@link StanfordNlp} instances that serves one profile. The number of annotations
+ * running at the same time and the number of requests waiting for a slot are both bounded, when
+ * the waiting queue is full the request is rejected with a 503 status and a Retry-After header.
+ * Once its slots are taken, a request runs on the instance with the fewest requests in flight.
+ *
+ * @author Julien Plu
+ */
+public class StanfordNlpPool {
+  static final Logger LOGGER = LoggerFactory.getLogger(StanfordNlpPool.class);
+  private final String profile;
+  private final List<StanfordNlp> instances;
+  private final Semaphore permits;
+  private final AtomicInteger waiting;
+  private final AtomicInteger next;
+  private final AtomicIntegerArray inFlight;
+  private final PoolConfiguration configuration;
+  private final ForkJoinPool chunkPool;
+  private final StageMetrics stages;
+  private final ConcurrentMap<String, CompletableFuture<Context>> flights;
+  private final Meter coalesced;
+  private final MicroBatcher batcher;
+
+  /**
+   * StanfordNlpPool constructor.
+   *
+   * @param newProfile       Name of the profile served by the pool.
+   * @param propertyFile     Property file that contains the pipeline properties.
+   * @param name             A name.
+   * @param newConfiguration Sizing of the pool.
+   */
+  public StanfordNlpPool(final String newProfile, final String propertyFile, final String name,
+                         final PoolConfiguration newConfiguration) {
+    this(newProfile, propertyFile, name, newConfiguration, new SentenceCache(
+        new CacheConfiguration()), new AnnotationStore(new StoreConfiguration()));
+  }
+
+  /**
+   * StanfordNlpPool constructor whose instances share a cache of the annotated sentences and a
+   * store of the annotated documents.
+   *
+   * @param newProfile       Name of the profile served by the pool.
+   * @param propertyFile     Property file that contains the pipeline properties.
+   * @param name             A name.
+   * @param newConfiguration Sizing of the pool.
+   * @param sentenceCache    Cache of the annotated sentences.
+   * @param store            Persistent store of the annotated documents.
+   */
+  public StanfordNlpPool(final String newProfile, final String propertyFile, final String name,
+                         final PoolConfiguration newConfiguration,
+                         final SentenceCache sentenceCache, final AnnotationStore store) {
+    this(newProfile, newConfiguration, (slot, stages) -> new StanfordNlp(Collections
+        .singletonList(propertyFile), EnumSet.of(StanfordNlp.process(propertyFile)), name,
+        AnnotatorRegistry.getInstance(), slot, stages, sentenceCache, store));
+  }
+
+  /**
+   * StanfordNlpPool constructor for a profile that runs several processes with a single
+   * pipeline.
+   *
+   * @param newProfile       Name of the profile served by the pool.
+   * @param propertyFiles    Property files that contain the pipeline properties of each process.
+   * @param processes        Processes extracted from the annotated texts.
+   * @param name             A name.
+   * @param newConfiguration Sizing of the pool.
+   * @param sentenceCache    Cache of the annotated sentences.
+   * @param store            Persistent store of the annotated documents.
+   */
+  public StanfordNlpPool(final String newProfile, final List<String> propertyFiles,
+                         final Set<NlpProcess> processes, final String name,
+                         final PoolConfiguration newConfiguration,
+                         final SentenceCache sentenceCache, final AnnotationStore store) {
+    this(newProfile, newConfiguration, (slot, stages) -> new StanfordNlp(propertyFiles,
+        processes, name, AnnotatorRegistry.getInstance(), slot, stages, sentenceCache, store));
+  }
+
+  private StanfordNlpPool(final String newProfile, final PoolConfiguration newConfiguration,
+                          final BiFunction<Integer, StageMetrics, StanfordNlp> factory) {
+    this.profile = newProfile;
+    this.configuration = newConfiguration;
+    this.stages = new StageMetrics(newProfile);
+    this.instances = new ArrayList<>();
+    this.permits = new Semaphore(newConfiguration.getMaxConcurrent(), true);
+    this.waiting = new AtomicInteger();
+    this.next = new AtomicInteger();
+    this.inFlight = new AtomicIntegerArray(newConfiguration.getInstances());
+    this.chunkPool = new ForkJoinPool(newConfiguration.getBatchThreads());
+    this.flights = new ConcurrentHashMap<>();
+    this.coalesced = new Meter();
+    this.batcher = newConfiguration.getMicroBatchMillis() > 0 ? new MicroBatcher(this,
+        newConfiguration) : null;
+
+    for (int i = 0; i < newConfiguration.getInstances(); i++) {
+      this.instances.add(factory.apply(i, this.stages));
+    }
+
+    StanfordNlpPool.LOGGER.info("Profile {} served by {}", this.profile, this.configuration);
+  }
+
+  /**
+   * Register the occupancy gauges of the pool and the metrics of its stages.
+   *
+   * @param metrics Registry where the gauges are registered.
+   */
+  public final void registerMetrics(final MetricRegistry metrics) {
+    metrics.register(MetricRegistry.name(StanfordNlpPool.class, this.profile, "instances"),
+        (Gauge<Integer>) this.instances::size);
+    metrics.register(MetricRegistry.name(StanfordNlpPool.class, this.profile, "active"),
+        (Gauge<Integer>) this::active);
+    metrics.register(MetricRegistry.name(StanfordNlpPool.class, this.profile, "waiting"),
+        (Gauge<Integer>) this.waiting::get);
+    metrics.register(MetricRegistry.name(StanfordNlpPool.class, this.profile, "usage"),
+        (Gauge<Double>) () -> (double) this.active() / this.configuration.getMaxConcurrent());
+    metrics.register(MetricRegistry.name(StanfordNlpPool.class, this.profile, "coalesced"),
+        this.coalesced);
+    this.stages.registerMetrics(metrics);
+  }
+
+  public final String profile() {
+    return this.profile;
+  }
+
+  public final StageMetrics stages() {
+    return this.stages;
+  }
+
+  public final List<StanfordNlp> instances() {
+    return Collections.unmodifiableList(this.instances);
+  }
+
+  /**
+   * The version of the gazetteers used by the profile, the same for all its instances.
+   *
+   * @return The version of the gazetteers, empty if the profile uses none.
+   */
+  public final String gazetteerVersion() {
+    return this.instances.get(0).gazetteerVersion();
+  }
+
+  /**
+   * Number of annotations currently running on the pool.
+   *
+   * @return Number of running annotations.
+   */
+  public final int active() {
+    return this.configuration.getMaxConcurrent() - this.permits.availablePermits();
+  }
+
+  /**
+   * Create a context from a text with one of the pipelines of the pool. A text longer than the
+   * chunk size of the pool is annotated by chunks in parallel and takes as many concurrent slots
+   * as it uses threads.
+   *
+   * @param newText Text to process.
+   *
+   * @return The corresponding context of the text.
+   */
+  public final Context run(final String newText) {
+    return this.run(newText, NullContextListener.getInstance(), 0);
+  }
+
+  /**
+   * Create a context from a text with one of the pipelines of the pool, the listener is notified
+   * of each sentence as soon as it is complete. A request for a text that is already being
+   * annotated by the pool waits for this annotation and shares its context, without taking a
+   * slot of the pool, then its listener is notified of the whole context at once. It counts as a
+   * request waiting for the pool, and fails with the error of the shared annotation if there is
+   * one.
+   *
+   * @param newText  Text to process.
+   * @param listener Listener notified while the context is built.
+   *
+   * @return The corresponding context of the text.
+   */
+  public final Context run(final String newText, final ContextListener listener) {
+    return this.run(newText, listener, 0);
+  }
+
+  /**
+   * Create a context from a text with one of the pipelines of the pool, within the time left to
+   * answer the request. A request that shares the annotation of the same text by another request
+   * waits for it as long as its own time allows.
+   *
+   * @param newText       Text to process.
+   * @param listener      Listener notified while the context is built.
+   * @param timeoutMillis Time after which the request fails with a 503 status, 0 for none.
+   *
+   * @return The corresponding context of the text.
+   */
+  public final Context run(final String newText, final ContextListener listener,
+                           final long timeoutMillis) {
+    final CompletableFuture<Context> flight = new CompletableFuture<>();
+    final CompletableFuture<Context> running = this.flights.putIfAbsent(newText, flight);
+
+    if (running != null) {
+      return StanfordNlpPool.replay(this.join(running, timeoutMillis), listener);
+    }
+
+    try {
+      final Context context = this.annotate(newText, listener, timeoutMillis);
+
+      flight.complete(context);
+
+      return context;
+    } catch (final RuntimeException | Error ex) {
+      flight.completeExceptionally(ex);
+
+      throw ex;
+    } finally {
+      this.flights.remove(newText, flight);
+    }
+  }
+
+  /**
+   * Wait for the annotation of the same text by another request, as long as the time left to
+   * answer the request.
+   *
+   * @param running       Annotation of the other request.
+   * @param timeoutMillis Time after which the request fails with a 503 status, 0 for none.
+   *
+   * @return The context of the text.
+   */
+  private Context join(final CompletableFuture<Context> running, final long timeoutMillis) {
+    if (this.waiting.incrementAndGet() > this.configuration.getMaxWaiting()) {
+      this.waiting.decrementAndGet();
+
+      throw this.unavailable("Too many requests are waiting for the profile " + this.profile);
+    }
+
+    this.coalesced.mark();
+
+    try {
+      if (timeoutMillis == 0) {
+        return running.get();
+      }
+
+      return running.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+
+      throw this.unavailable("Interrupted while waiting for the profile " + this.profile);
+    } catch (final TimeoutException ex) {
+      throw this.unavailable("The profile " + this.profile + " did not answer within "
+          + timeoutMillis + " ms");
+    } catch (final ExecutionException ex) {
+      StanfordNlpPool.LOGGER.debug("The shared annotation failed for the profile {}",
+          this.profile, ex);
+
+      if (ex.getCause() instanceof Error) {
+        throw (Error) ex.getCause();
+      }
+
+      throw (RuntimeException) ex.getCause();
+    } finally {
+      this.waiting.decrementAndGet();
+    }
+  }
+
+  private static Context replay(final Context context, final ContextListener listener) {
+    listener.start(context);
+    context.sentences().forEach(listener::sentence);
+
+    return context;
+  }
+
+  /**
+   * Annotate a text with one of the pipelines of the pool. A short text is annotated with the
+   * other short texts received at the same time when the micro-batching is enabled.
+   *
+   * @param newText       Text to process.
+   * @param listener      Listener notified while the context is built.
+   * @param timeoutMillis Time after which the annotation is aborted with a 503 status, 0 for
+   *                      none.
+   *
+   * @return The corresponding context of the text.
+   */
+  private Context annotate(final String newText, final ContextListener listener,
+                           final long timeoutMillis) {
+    if (this.batcher != null && newText.length() <= this.configuration.getMicroBatchChars()) {
+      return StanfordNlpPool.replay(this.batcher.run(newText, timeoutMillis), listener);
+    }
+
+    try (Lease lease = this.lease(newText, timeoutMillis)) {
+      return lease.run(listener);
+    }
+  }
+
+  /**
+   * Take the slots of the pool needed to annotate a text, before the annotation is run. A text
+   * longer than the chunk size of the pool takes as many slots as it uses threads. A request
+   * whose response is streamed takes its slots before its status is sent, so it can still be
+   * rejected with a 503 status.
+   *
+   * @param newText       Text to process.
+   * @param timeoutMillis Time after which the annotation is aborted with a 503 status, as soon as
+   *                      its context or one of its sentences is complete, 0 for none.
+   *
+   * @return The lease of the slots, that must be closed once the text is annotated.
+   */
+  public final Lease lease(final String newText, final long timeoutMillis) {
+    final long begin = System.nanoTime();
+    final int chunkChars = this.configuration.getChunkChars();
+    final boolean chunked = chunkChars > 0 && newText.length() > chunkChars
+        && this.instances.get(0).chunkable();
+    final int slots = chunked ? this.threads(newText.length() / chunkChars + 1) : 1;
+
+    this.acquire(slots);
+
+    return new Lease(this, this.pick(), newText, chunked, slots, begin,
+        TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+  }
+
+  /**
+   * Create a context for each text of a batch with one of the pipelines of the pool. The batch
+   * takes as many concurrent slots as it uses threads.
+   *
+   * @param newTexts Texts to process.
+   *
+   * @return The corresponding contexts of the texts, in the same order.
+   */
+  public final List<Context> run(final List<String> newTexts) {
+    if (newTexts.size() > this.configuration.getMaxBatchSize()) {
+      throw new WebApplicationException("A batch of the profile " + this.profile
+          + " cannot contain more than " + this.configuration.getMaxBatchSize() + " documents",
+          Response.Status.REQUEST_ENTITY_TOO_LARGE);
+    }
+
+    final int threads = this.threads(newTexts.size());
+
+    this.acquire(threads);
+
+    final int index = this.pick();
+
+    try {
+      return this.instances.get(index).run(newTexts, threads);
+    } finally {
+      this.inFlight.decrementAndGet(index);
+      this.release(threads);
+    }
+  }
+
+  /**
+   * Choose the instance with the fewest requests in flight and count one more request on it.
+   * The search starts from a different instance at each call, so the ties are spread.
+   *
+   * @return The index of the chosen instance.
+   */
+  private int pick() {
+    final int start = Math.floorMod(this.next.getAndIncrement(), this.instances.size());
+    int index = start;
+
+    for (int i = 1; i < this.instances.size(); i++) {
+      final int candidate = (start + i) % this.instances.size();
+
+      if (this.inFlight.get(candidate) < this.inFlight.get(index)) {
+        index = candidate;
+      }
+    }
+
+    this.inFlight.incrementAndGet(index);
+
+    return index;
+  }
+
+  /**
+   * Number of requests in flight on each instance of the pool.
+   *
+   * @return The number of requests in flight, in the order of {@link #instances()}.
+   */
+  final int[] inFlight() {
+    final int[] counts = new int[this.inFlight.length()];
+
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = this.inFlight.get(i);
+    }
+
+    return counts;
+  }
+
+  private int threads(final int tasks) {
+    return Math.max(1, Math.min(tasks, Math.min(this.configuration.getBatchThreads(),
+        this.configuration.getMaxConcurrent())));
+  }
+
+  final void acquire() {
+    this.acquire(1);
+  }
+
+  final void acquire(final int slots) {
+    if (this.permits.tryAcquire(slots)) {
+      return;
+    }
+
+    if (this.waiting.incrementAndGet() > this.configuration.getMaxWaiting()) {
+      this.waiting.decrementAndGet();
+
+      throw this.unavailable("Too many requests are waiting for the profile " + this.profile);
+    }
+
+    try {
+      if (!this.permits.tryAcquire(slots, this.configuration.getMaxWaitMillis(),
+          TimeUnit.MILLISECONDS)) {
+        throw this.unavailable("No pipeline available in time for the profile " + this.profile);
+      }
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+
+      throw this.unavailable("Interrupted while waiting for the profile " + this.profile);
+    } finally {
+      this.waiting.decrementAndGet();
+    }
+  }
+
+  final void release() {
+    this.release(1);
+  }
+
+  final void release(final int slots) {
+    this.permits.release(slots);
+  }
+
+  /**
+   * Error of a request that the pool cannot answer, a 503 status with a Retry-After header.
+   *
+   * @param message Message of the error.
+   *
+   * @return The error to throw.
+   */
+  public final WebApplicationException unavailable(final String message) {
+    return new WebApplicationException(message, Response.status(
+        Response.Status.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER,
+        this.configuration.getRetryAfter()).build());
+  }
+
+  @Override
+  public final String toString() {
+    return "StanfordNlpPool{"
+        + "profile='" + this.profile + '\''
+        + ", instances=" + this.instances.size()
+        + ", active=" + this.active()
+        + ", waiting=" + this.waiting.get()
+        + ", coalesced=" + this.coalesced.getCount()
+        + ", configuration=" + this.configuration
+        + '}';
+  }
+
+  /**
+   * Slots of the pool taken for the annotation of a text. The slots are released when the lease
+   * is closed, only once.
+   */
+  public static final class Lease implements AutoCloseable {
+    private final StanfordNlpPool pool;
+    private final int index;
+    private final StanfordNlp instance;
+    private final String text;
+    private final boolean chunked;
+    private final int slots;
+    private final long begin;
+    private final long timeoutNanos;
+    private final AtomicBoolean released;
+
+    private Lease(final StanfordNlpPool newPool, final int newIndex, final String newText,
+                  final boolean newChunked, final int newSlots, final long newBegin,
+                  final long newTimeoutNanos) {
+      this.pool = newPool;
+      this.index = newIndex;
+      this.instance = newPool.instances.get(newIndex);
+      this.text = newText;
+      this.chunked = newChunked;
+      this.slots = newSlots;
+      this.begin = newBegin;
+      this.timeoutNanos = newTimeoutNanos;
+      this.released = new AtomicBoolean();
+    }
+
+    /**
+     * Create the context of the leased text, the listener is notified of each sentence as soon
+     * as it is complete.
+     *
+     * @param listener Listener notified while the context is built.
+     *
+     * @return The corresponding context of the text.
+     */
+    public Context run(final ContextListener listener) {
+      final ContextListener bounded = this.timeoutNanos == 0 ? listener : new ContextListener() {
+        @Override
+        public void start(final Context context) {
+          Lease.this.check();
+          listener.start(context);
+        }
+
+        @Override
+        public void sentence(final Sentence sentence) {
+          Lease.this.check();
+          listener.sentence(sentence);
+        }
+      };
+
+      if (this.chunked) {
+        return this.instance.run(this.text, this.pool.configuration.getChunkChars(),
+            this.pool.chunkPool, bounded);
+      }
+
+      return this.instance.run(this.text, bounded);
+    }
+
+    public StanfordNlpPool pool() {
+      return this.pool;
+    }
+
+    private void check() {
+      if (System.nanoTime() - this.begin > this.timeoutNanos) {
+        throw this.pool.unavailable("The profile " + this.pool.profile + " did not answer within "
+            + TimeUnit.NANOSECONDS.toMillis(this.timeoutNanos) + " ms");
+      }
+    }
+
+    @Override
+    public void close() {
+      if (this.released.compareAndSet(false, true)) {
+        this.pool.inFlight.decrementAndGet(this.index);
+        this.pool.release(this.slots);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "Lease{"
+          + "profile='" + this.pool.profile + '\''
+          + ", instance=" + this.index
+          + ", chunked=" + this.chunked
+          + ", slots=" + this.slots
+          + ", timeoutNanos=" + this.timeoutNanos
+          + ", released=" + this.released.get()
+          + '}';
+    }
+  }
+}
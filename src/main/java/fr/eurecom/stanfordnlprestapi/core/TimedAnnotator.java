@@ -0,0 +1,77 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.core;
+
+import com.codahale.metrics.Timer;
+
+import edu.stanford.nlp.ling.CoreAnnotation;
+
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.Annotator;
+
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Annotator that records the time spent by another annotator. The wrapped annotator may be
+ * shared by several profiles, each profile wraps it with its own timer.
+ *
+ * @author Julien Plu
+ */
+public class TimedAnnotator implements Annotator {
+  static final Logger LOGGER = LoggerFactory.getLogger(TimedAnnotator.class);
+  private final Annotator annotator;
+  private final Timer timer;
+
+  /**
+   * TimedAnnotator constructor.
+   *
+   * @param newAnnotator Annotator to time.
+   * @param newTimer     Timer that records each annotation.
+   */
+  public TimedAnnotator(final Annotator newAnnotator, final Timer newTimer) {
+    this.annotator = newAnnotator;
+    this.timer = newTimer;
+  }
+
+  @Override
+  public final void annotate(final Annotation annotation) {
+    try (Timer.Context ignored = this.timer.time()) {
+      this.annotator.annotate(annotation);
+    }
+  }
+
+  @Override
+  public final Set<Class<? extends CoreAnnotation>> requirementsSatisfied() {
+    return this.annotator.requirementsSatisfied();
+  }
+
+  @Override
+  public final Set<Class<? extends CoreAnnotation>> requires() {
+    return this.annotator.requires();
+  }
+
+  @Override
+  public final String toString() {
+    return "TimedAnnotator{"
+        + "annotator=" + this.annotator
+        + '}';
+  }
+}
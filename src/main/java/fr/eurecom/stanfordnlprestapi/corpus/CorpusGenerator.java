@@ -0,0 +1,143 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.corpus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generator of English documents of a given size. The sentences mix common words with persons,
+ * places, organisations, dates and numbers, so every profile has something to extract. The
+ * same seed always generates the same documents.
+ *
+ * @author Julien Plu
+ */
+public class CorpusGenerator {
+  static final Logger LOGGER = LoggerFactory.getLogger(CorpusGenerator.class);
+  private static final String[] PERSONS = {"Barack Obama", "Angela Merkel", "Marie Curie",
+      "Emmanuel Macron", "Ada Lovelace", "Alan Turing", "Julia Roberts", "Nelson Mandela"};
+  private static final String[] PLACES = {"Paris", "Berlin", "New York", "Sophia Antipolis",
+      "London", "Tokyo", "Nice", "California"};
+  private static final String[] ORGANIZATIONS = {"Eurecom", "the United Nations", "Google",
+      "the European Commission", "Stanford University", "Airbus", "the BBC", "Microsoft"};
+  private static final String[] DATES = {"on Monday", "in 2015", "on 12 March 2017",
+      "last year", "in June", "yesterday", "on 1 January 2000", "next week"};
+  private static final String[] VERBS = {"visited", "met", "praised", "left", "joined",
+      "criticized", "described", "supported"};
+  private static final String[] WORDS = {"the", "new", "project", "after", "a", "long",
+      "meeting", "with", "several", "people", "about", "economy", "and", "its", "future",
+      "during", "small", "conference", "because", "of", "recent", "report", "on", "policy"};
+  private final Random random;
+  private final double entityRatio;
+
+  /**
+   * CorpusGenerator constructor.
+   *
+   * @param seed           Seed of the generated documents.
+   * @param newEntityRatio Probability, between 0 and 1, that a sentence mentions entities.
+   */
+  public CorpusGenerator(final long seed, final double newEntityRatio) {
+    this.random = new Random(seed);
+    this.entityRatio = newEntityRatio;
+  }
+
+  /**
+   * Generate several documents.
+   *
+   * @param count Number of documents.
+   * @param chars Minimum size of each document in characters.
+   *
+   * @return The documents.
+   */
+  public final List<String> documents(final int count, final int chars) {
+    final List<String> documents = new ArrayList<>();
+
+    for (int i = 0; i < count; i++) {
+      documents.add(this.document(chars));
+    }
+
+    return documents;
+  }
+
+  /**
+   * Generate a document made of whole sentences.
+   *
+   * @param chars Minimum size of the document in characters.
+   *
+   * @return The document.
+   */
+  public final String document(final int chars) {
+    final StringBuilder sb = new StringBuilder();
+
+    while (sb.length() < chars) {
+      if (sb.length() > 0) {
+        sb.append(' ');
+      }
+
+      sb.append(this.sentence());
+    }
+
+    return sb.toString();
+  }
+
+  /**
+   * Generate a sentence.
+   *
+   * @return The sentence.
+   */
+  public final String sentence() {
+    final StringBuilder sb = new StringBuilder();
+
+    if (this.random.nextDouble() < this.entityRatio) {
+      sb.append(this.pick(CorpusGenerator.PERSONS)).append(' ').append(this.pick(
+          CorpusGenerator.VERBS)).append(' ').append(this.pick(CorpusGenerator.ORGANIZATIONS))
+          .append(" in ").append(this.pick(CorpusGenerator.PLACES)).append(' ').append(
+              this.pick(CorpusGenerator.DATES)).append(" with ").append(this.random.nextInt(
+                  1000)).append(' ');
+    } else {
+      sb.append("The ");
+    }
+
+    final int words = 4 + this.random.nextInt(12);
+
+    for (int i = 0; i < words; i++) {
+      if (i > 0) {
+        sb.append(' ');
+      }
+
+      sb.append(this.pick(CorpusGenerator.WORDS));
+    }
+
+    return sb.append('.').toString();
+  }
+
+  private String pick(final String[] values) {
+    return values[this.random.nextInt(values.length)];
+  }
+
+  @Override
+  public final String toString() {
+    return "CorpusGenerator{"
+        + "entityRatio=" + this.entityRatio
+        + '}';
+  }
+}
@@ -0,0 +1,149 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.datatypes;
+
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import java.io.OutputStream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+
+import org.apache.jena.riot.RDFFormat;
+
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.riot.system.StreamRDFWriter;
+
+import org.apache.jena.sparql.core.Quad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class represents a batch of NIF contexts. Each context is serialized in its own named
+ * graph, in the order of the batch.
+ *
+ * @author Julien Plu
+ */
+public class Batch {
+  static final Logger LOGGER = LoggerFactory.getLogger(Batch.class);
+  private final List<Context> contexts;
+
+  /**
+   * Batch constructor.
+   *
+   * @param newContexts Contexts of the batch.
+   */
+  public Batch(final List<Context> newContexts) {
+    this.contexts = new ArrayList<>(newContexts);
+  }
+
+  public final List<Context> contexts() {
+    return Collections.unmodifiableList(this.contexts);
+  }
+
+  /**
+   * Name of the graph that contains a context of the batch.
+   *
+   * @param tool  Tool used to extract the contexts.
+   * @param host  Host from where is hosted the app.
+   * @param index Index of the context in the batch.
+   *
+   * @return URI of the graph.
+   */
+  public static String graph(final String tool, final String host, final int index) {
+    return host + '/' + tool + "/batch#document=" + index;
+  }
+
+  /**
+   * Write the batch as NIF directly into an output stream. Only the streamable quad formats of
+   * Jena (such as {@link RDFFormat#TRIG_BLOCKS} or {@link RDFFormat#NQUADS}) are allowed.
+   *
+   * @param out     Output stream where the RDF is written.
+   * @param tool    Tool used to extract the contexts.
+   * @param process Process required as RDF triples.
+   * @param host    Host from where is hosted the app.
+   * @param format  Streamable RDF format.
+   */
+  public final void rdfStream(final OutputStream out, final String tool,
+                              final NlpProcess process, final String host,
+                              final RDFFormat format) {
+    final StreamRDF stream = StreamRDFWriter.getWriterStream(out, format);
+
+    stream.start();
+    stream.prefix("nif", "http://persistence.uni-leipzig.org/nlp2rdf/ontologies/nif-core#");
+    stream.prefix("local", host + '/' + tool + "/ontology/");
+    stream.prefix("xsd", "http://www.w3.org/2001/XMLSchema#");
+
+    for (int i = 0; i < this.contexts.size(); i++) {
+      this.contexts.get(i).rdfStream(new GraphStream(stream, NodeFactory.createURI(
+          Batch.graph(tool, host, i))), tool, process, host);
+    }
+
+    stream.finish();
+  }
+
+  @Override
+  public final boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+
+    if (obj == null || this.getClass() != obj.getClass()) {
+      return false;
+    }
+
+    return this.contexts.equals(((Batch) obj).contexts);
+  }
+
+  @Override
+  public final int hashCode() {
+    return this.contexts.hashCode();
+  }
+
+  @Override
+  public final String toString() {
+    return "Batch{"
+        + "contexts=" + this.contexts
+        + '}';
+  }
+
+  /**
+   * Stream that puts every received triple into the same named graph.
+   */
+  private static final class GraphStream extends StreamRDFWrapper {
+    private final Node graph;
+
+    GraphStream(final StreamRDF newStream, final Node newGraph) {
+      super(newStream);
+
+      this.graph = newGraph;
+    }
+
+    @Override
+    public void triple(final Triple triple) {
+      this.other.quad(Quad.create(this.graph, triple));
+    }
+  }
+}
@@ -21,16 +21,23 @@ import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
 
 import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
 
+import java.io.OutputStream;
 import java.io.StringWriter;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.ResourceFactory;
@@ -38,6 +45,9 @@ import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFFormat;
 
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+
 import org.apache.jena.vocabulary.RDF;
 
 import org.slf4j.Logger;
@@ -100,6 +110,20 @@ public class Context {
    * @return RDF model in NIF of the context.
    */
   public final Model rdfModel(final String tool, final NlpProcess process, final String host) {
+    return this.rdfModel(tool, EnumSet.of(process), host);
+  }
+  
+  /**
+   * Turn the context into RDF model with the layers of several processes.
+   *
+   * @param tool      Tool used to extract the context.
+   * @param processes Processes required as RDF model.
+   * @param host      Host from where is hosted the app.
+   *
+   * @return RDF model in NIF of the context.
+   */
+  public final Model rdfModel(final String tool, final Set<NlpProcess> processes,
+                              final String host) {
     final String nif = "http://persistence.uni-leipzig.org/nlp2rdf/ontologies/nif-core#";
     final String base = host + '/' + tool;
     final String local = base + "/ontology/";
@@ -132,7 +156,7 @@ public class Context {
     model.setNsPrefixes(prefixes);
 
     for (final Sentence sentence : this.sentences) {
-      model.add(sentence.rdfModel(tool, process, host));
+      model.add(sentence.rdfModel(tool, processes, host));
     }
 
     return model;
@@ -148,13 +172,129 @@ public class Context {
    * @return RDF string in Turtle NIF.
    */
   public final String rdfString(final String tool, final NlpProcess process, final String host) {
+    return this.rdfString(tool, EnumSet.of(process), host);
+  }
+  
+  /**
+   * Turn the context into RDF string with the layers of several processes.
+   *
+   * @param tool      Tool used to extract the context.
+   * @param processes Processes required as RDF model.
+   * @param host      from where comes from the request.
+   *
+   * @return RDF string in Turtle NIF.
+   */
+  public final String rdfString(final String tool, final Set<NlpProcess> processes,
+                                final String host) {
     final StringWriter rdf = new StringWriter();
 
-    RDFDataMgr.write(rdf, this.rdfModel(tool, process, host), RDFFormat.TURTLE_PRETTY);
+    RDFDataMgr.write(rdf, this.rdfModel(tool, processes, host), RDFFormat.TURTLE_PRETTY);
 
     return rdf.toString();
   }
 
+  /**
+   * Write the context as NIF triples into a RDF stream, without building any intermediate RDF
+   * model.
+   *
+   * @param stream  Stream that receives the triples.
+   * @param tool    Tool used to extract the context.
+   * @param process Process required as RDF triples.
+   * @param host    Host from where is hosted the app.
+   */
+  public final void rdfStream(final StreamRDF stream, final String tool,
+                              final NlpProcess process, final String host) {
+    this.rdfStream(stream, tool, EnumSet.of(process), host);
+  }
+  
+  /**
+   * Write the context as NIF triples into a RDF stream with the layers of several processes.
+   *
+   * @param stream    Stream that receives the triples.
+   * @param tool      Tool used to extract the context.
+   * @param processes Processes required as RDF triples.
+   * @param host      Host from where is hosted the app.
+   */
+  public final void rdfStream(final StreamRDF stream, final String tool,
+                              final Set<NlpProcess> processes, final String host) {
+    this.rdfStreamHeader(stream, tool, host);
+
+    for (final Sentence sentence : this.sentences) {
+      sentence.rdfStream(stream, tool, processes, host);
+    }
+  }
+  
+  /**
+   * Write the NIF triples of the context itself, without its sentences, into a RDF stream.
+   *
+   * @param stream Stream that receives the triples.
+   * @param tool   Tool used to extract the context.
+   * @param host   Host from where is hosted the app.
+   */
+  public final void rdfStreamHeader(final StreamRDF stream, final String tool,
+                                    final String host) {
+    final String nif = "http://persistence.uni-leipzig.org/nlp2rdf/ontologies/nif-core#";
+    final String base = host + '/' + tool;
+    final Node context = NodeFactory.createURI(base + "/context#char=" + this.start + ','
+        + this.end);
+
+    stream.triple(Triple.create(context, RDF.Nodes.type, NodeFactory.createURI(nif + "String")));
+    stream.triple(Triple.create(context, RDF.Nodes.type, NodeFactory.createURI(nif
+        + "RFC5147String")));
+    stream.triple(Triple.create(context, RDF.Nodes.type, NodeFactory.createURI(nif
+        + "Context")));
+    stream.triple(Triple.create(context, NodeFactory.createURI(nif + "beginIndex"),
+        NodeFactory.createLiteral(Integer.toString(this.start),
+            XSDDatatype.XSDnonNegativeInteger)));
+    stream.triple(Triple.create(context, NodeFactory.createURI(nif + "endIndex"),
+        NodeFactory.createLiteral(Integer.toString(this.end),
+            XSDDatatype.XSDnonNegativeInteger)));
+    stream.triple(Triple.create(context, NodeFactory.createURI(nif + "isString"),
+        NodeFactory.createLiteral(this.text)));
+  }
+
+  /**
+   * Write the context as NIF directly into an output stream. Only the streamable formats of
+   * Jena (such as {@link RDFFormat#TURTLE_BLOCKS} or {@link RDFFormat#NTRIPLES}) are allowed.
+   *
+   * @param out     Output stream where the RDF is written.
+   * @param tool    Tool used to extract the context.
+   * @param process Process required as RDF triples.
+   * @param host    Host from where is hosted the app.
+   * @param format  Streamable RDF format.
+   */
+  public final void rdfStream(final OutputStream out, final String tool,
+                              final NlpProcess process, final String host,
+                              final RDFFormat format) {
+    this.rdfStream(out, tool, EnumSet.of(process), host, format);
+  }
+  
+  /**
+   * Write the context as NIF directly into an output stream with the layers of several
+   * processes.
+   *
+   * @param out       Output stream where the RDF is written.
+   * @param tool      Tool used to extract the context.
+   * @param processes Processes required as RDF triples.
+   * @param host      Host from where is hosted the app.
+   * @param format    Streamable RDF format.
+   */
+  public final void rdfStream(final OutputStream out, final String tool,
+                              final Set<NlpProcess> processes, final String host,
+                              final RDFFormat format) {
+    final StreamRDF stream = StreamRDFWriter.getWriterStream(out, format);
+    final String nif = "http://persistence.uni-leipzig.org/nlp2rdf/ontologies/nif-core#";
+
+    stream.start();
+    stream.prefix("nif", nif);
+    stream.prefix("local", host + '/' + tool + "/ontology/");
+    stream.prefix("xsd", "http://www.w3.org/2001/XMLSchema#");
+
+    this.rdfStream(stream, tool, processes, host);
+
+    stream.finish();
+  }
+
   @Override
   public final boolean equals(final Object obj) {
     if (this == obj) {
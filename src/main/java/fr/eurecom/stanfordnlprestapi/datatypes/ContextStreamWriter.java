@@ -0,0 +1,93 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.datatypes;
+
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.ContextListener;
+import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
+
+import java.io.OutputStream;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.apache.jena.riot.RDFFormat;
+
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Context listener that writes the NIF triples of a context into an output stream while the
+ * context is built. The triples of the context are written first, then the triples of each
+ * sentence as soon as it is complete. All the parts are written by the same RDF stream, so the
+ * prefixes are written once, and the stream is finished, and then flushed, after each part.
+ *
+ * @author Julien Plu
+ */
+public class ContextStreamWriter implements ContextListener {
+  static final Logger LOGGER = LoggerFactory.getLogger(ContextStreamWriter.class);
+  private final OutputStream out;
+  private final String tool;
+  private final Set<NlpProcess> processes;
+  private final String host;
+  private final RDFFormat format;
+  private StreamRDF stream;
+
+  /**
+   * ContextStreamWriter constructor.
+   *
+   * @param newOut       Output stream where the RDF is written.
+   * @param newTool      Tool used to extract the context.
+   * @param newProcesses Processes required as RDF triples.
+   * @param newHost      Host from where is hosted the app.
+   * @param newFormat    Streamable RDF format.
+   */
+  public ContextStreamWriter(final OutputStream newOut, final String newTool,
+                             final Set<NlpProcess> newProcesses, final String newHost,
+                             final RDFFormat newFormat) {
+    this.out = newOut;
+    this.tool = newTool;
+    this.processes = EnumSet.copyOf(newProcesses);
+    this.host = newHost;
+    this.format = newFormat;
+  }
+
+  @Override
+  public final void start(final Context context) {
+    this.stream = StreamRDFWriter.getWriterStream(this.out, this.format);
+
+    this.stream.start();
+    this.stream.prefix("nif", "http://persistence.uni-leipzig.org/nlp2rdf/ontologies/nif-core#");
+    this.stream.prefix("local", this.host + '/' + this.tool + "/ontology/");
+    this.stream.prefix("xsd", "http://www.w3.org/2001/XMLSchema#");
+
+    context.rdfStreamHeader(this.stream, this.tool, this.host);
+
+    this.stream.finish();
+  }
+
+  @Override
+  public final void sentence(final Sentence sentence) {
+    sentence.rdfStream(this.stream, this.tool, this.processes, this.host);
+
+    this.stream.finish();
+  }
+}
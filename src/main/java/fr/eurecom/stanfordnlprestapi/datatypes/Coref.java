@@ -20,9 +20,13 @@ package fr.eurecom.stanfordnlprestapi.datatypes;
 import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
 
 import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.riot.system.StreamRDF;
 import org.apache.jena.vocabulary.RDF;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -138,6 +142,58 @@ public class Coref {
     return model;
   }
   
+  /**
+   * Write the coref and its head as NIF triples into a RDF stream.
+   *
+   * @param stream Stream that receives the triples.
+   * @param tool   Tool used to extract the coref.
+   * @param host   Host from where comes from the request.
+   */
+  public final void rdfStream(final StreamRDF stream, final String tool, final String host) {
+    final String nif = "http://persistence.uni-leipzig.org/nlp2rdf/ontologies/nif-core#";
+    final String base = host + '/' + tool;
+    final String local = base + "/ontology/";
+    final Node headNode = NodeFactory.createURI(base + "/head#char=" + this.startHead + ','
+        + this.endHead);
+    final Node coref = NodeFactory.createURI(base + "/coref#char=" + this.start + ','
+        + this.end);
+    
+    stream.triple(Triple.create(headNode, RDF.Nodes.type, NodeFactory.createURI(nif
+        + "String")));
+    stream.triple(Triple.create(headNode, RDF.Nodes.type, NodeFactory.createURI(nif
+        + "RFC5147String")));
+    stream.triple(Triple.create(headNode, RDF.Nodes.type, NodeFactory.createURI(nif
+        + "Phrase")));
+    stream.triple(Triple.create(headNode, NodeFactory.createURI(nif + "beginIndex"),
+        NodeFactory.createLiteral(Integer.toString(this.startHead),
+            XSDDatatype.XSDnonNegativeInteger)));
+    stream.triple(Triple.create(headNode, NodeFactory.createURI(nif + "endIndex"),
+        NodeFactory.createLiteral(Integer.toString(this.endHead),
+            XSDDatatype.XSDnonNegativeInteger)));
+    stream.triple(Triple.create(headNode, NodeFactory.createURI(nif + "anchorOf"),
+        NodeFactory.createLiteral(this.head)));
+    
+    stream.triple(Triple.create(coref, RDF.Nodes.type, NodeFactory.createURI(nif + "String")));
+    stream.triple(Triple.create(coref, RDF.Nodes.type, NodeFactory.createURI(nif
+        + "RFC5147String")));
+    stream.triple(Triple.create(coref, RDF.Nodes.type, NodeFactory.createURI(nif + "Phrase")));
+    stream.triple(Triple.create(coref, NodeFactory.createURI(nif + "beginIndex"),
+        NodeFactory.createLiteral(Integer.toString(this.start),
+            XSDDatatype.XSDnonNegativeInteger)));
+    stream.triple(Triple.create(coref, NodeFactory.createURI(nif + "endIndex"),
+        NodeFactory.createLiteral(Integer.toString(this.end),
+            XSDDatatype.XSDnonNegativeInteger)));
+    stream.triple(Triple.create(coref, NodeFactory.createURI(nif + "anchorOf"),
+        NodeFactory.createLiteral(this.coreference)));
+    stream.triple(Triple.create(coref, NodeFactory.createURI(nif + "sentence"),
+        NodeFactory.createURI(base + "/sentence#char=" + this.sentence.start() + ','
+            + this.sentence.end())));
+    stream.triple(Triple.create(coref, NodeFactory.createURI(nif + "referenceContext"),
+        NodeFactory.createURI(base + "/coref#char=" + this.context.start() + ','
+            + this.context.end())));
+    stream.triple(Triple.create(coref, NodeFactory.createURI(local + "head"), headNode));
+  }
+  
   public final int start() {
     return this.start;
   }
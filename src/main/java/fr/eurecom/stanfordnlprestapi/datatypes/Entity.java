@@ -21,10 +21,16 @@ import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
 
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.ResourceFactory;
 
+import org.apache.jena.riot.system.StreamRDF;
+
 import org.apache.jena.vocabulary.RDF;
 
 import org.slf4j.Logger;
@@ -118,6 +124,42 @@ public class Entity {
     return model;
   }
 
+  /**
+   * Write the entity as NIF triples into a RDF stream.
+   *
+   * @param stream Stream that receives the triples.
+   * @param tool   Tool used to extract the entity.
+   * @param host   Host from where comes from the request.
+   */
+  public final void rdfStream(final StreamRDF stream, final String tool, final String host) {
+    final String nif = "http://persistence.uni-leipzig.org/nlp2rdf/ontologies/nif-core#";
+    final String base = host + '/' + tool;
+    final String local = base + "/ontology/";
+    final Node entity = NodeFactory.createURI(base + "/entity#char=" + this.start + ','
+        + this.end);
+
+    stream.triple(Triple.create(entity, RDF.Nodes.type, NodeFactory.createURI(nif + "String")));
+    stream.triple(Triple.create(entity, RDF.Nodes.type, NodeFactory.createURI(nif
+        + "RFC5147String")));
+    stream.triple(Triple.create(entity, RDF.Nodes.type, NodeFactory.createURI(nif + "Phrase")));
+    stream.triple(Triple.create(entity, NodeFactory.createURI(nif + "beginIndex"),
+        NodeFactory.createLiteral(Integer.toString(this.start),
+            XSDDatatype.XSDnonNegativeInteger)));
+    stream.triple(Triple.create(entity, NodeFactory.createURI(nif + "endIndex"),
+        NodeFactory.createLiteral(Integer.toString(this.end),
+            XSDDatatype.XSDnonNegativeInteger)));
+    stream.triple(Triple.create(entity, NodeFactory.createURI(nif + "anchorOf"),
+        NodeFactory.createLiteral(this.text)));
+    stream.triple(Triple.create(entity, NodeFactory.createURI(nif + "sentence"),
+        NodeFactory.createURI(base + "/sentence#char=" + this.sentence.start() + ','
+            + this.sentence.end())));
+    stream.triple(Triple.create(entity, NodeFactory.createURI(nif + "referenceContext"),
+        NodeFactory.createURI(base + "/context#char=" + this.context.start() + ','
+            + this.context.end())));
+    stream.triple(Triple.create(entity, NodeFactory.createURI(local + "type"),
+        NodeFactory.createLiteral(this.type)));
+  }
+
   @Override
   public final boolean equals(final Object obj) {
     if (this == obj) {
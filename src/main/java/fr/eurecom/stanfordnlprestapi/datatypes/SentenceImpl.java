@@ -23,18 +23,27 @@ import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
 import fr.eurecom.stanfordnlprestapi.interfaces.Token;
 
 import fr.eurecom.stanfordnlprestapi.nullobjects.NullSentence;
-import fr.eurecom.stanfordnlprestapi.nullobjects.NullToken;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.ResourceFactory;
 
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+
 import org.apache.jena.vocabulary.RDF;
 
 import org.slf4j.Logger;
@@ -50,13 +59,11 @@ public class SentenceImpl implements Sentence {
   static final Logger LOGGER = LoggerFactory.getLogger(SentenceImpl.class);
   private final String text;
   private final Context context;
-  private final List<Token> tokens;
+  private final TokenTable tokens;
   private final List<Entity> entities;
   private final List<Coref> corefs;
   private Sentence nextSentence;
   private final Sentence previousSentence;
-  private Token firstToken;
-  private Token lastToken;
   private final int start;
   private final int end;
   private final int index;
@@ -74,7 +81,7 @@ public class SentenceImpl implements Sentence {
    */
   public SentenceImpl(final String newText, final Context newContext, final int newStart,
                       final int newEnd, final int newIndex, final Sentence newPreviousSentence) {
-    this.tokens = new ArrayList<>();
+    this.tokens = new TokenTable(newContext, this);
     this.entities = new ArrayList<>();
     this.corefs = new ArrayList<>();
     this.nextSentence = NullSentence.getInstance();
@@ -84,18 +91,18 @@ public class SentenceImpl implements Sentence {
     this.start = newStart;
     this.end = newEnd;
     this.index = newIndex;
-    this.firstToken = NullToken.getInstance();
-    this.lastToken = NullToken.getInstance();
   }
 
   @Override
   public final void addToken(final Token newToken) {
-    if (this.tokens.isEmpty()) {
-      this.firstToken = newToken;
-    }
+    this.addToken(newToken.text(), newToken.tag(), newToken.start(), newToken.end(),
+        newToken.index());
+  }
 
-    this.tokens.add(newToken);
-    this.lastToken = newToken;
+  @Override
+  public final void addToken(final String newText, final String newTag, final int newStart,
+                             final int newEnd, final int newIndex) {
+    this.tokens.add(newText, newTag, newStart, newEnd, newIndex);
   }
 
   @Override
@@ -120,6 +127,26 @@ public class SentenceImpl implements Sentence {
     return Collections.unmodifiableList(this.entities);
   }
 
+  @Override
+  public final List<Token> tokens() {
+    return new AbstractList<Token>() {
+      @Override
+      public Token get(final int position) {
+        if (position < 0 || position >= SentenceImpl.this.tokens.size()) {
+          throw new IndexOutOfBoundsException("Position: " + position + ", size: "
+              + SentenceImpl.this.tokens.size());
+        }
+
+        return SentenceImpl.this.tokens.token(position);
+      }
+
+      @Override
+      public int size() {
+        return SentenceImpl.this.tokens.size();
+      }
+    };
+  }
+
   @Override
   public final int index() {
     return this.index;
@@ -137,6 +164,12 @@ public class SentenceImpl implements Sentence {
 
   @Override
   public final Model rdfModel(final String tool, final NlpProcess process, final String host) {
+    return this.rdfModel(tool, EnumSet.of(process), host);
+  }
+
+  @Override
+  public final Model rdfModel(final String tool, final Set<NlpProcess> processes,
+                              final String host) {
     final String nif = "http://persistence.uni-leipzig.org/nlp2rdf/ontologies/nif-core#";
     final String base = host + '/' + tool;
     final String local = base + "/ontology/";
@@ -171,29 +204,34 @@ public class SentenceImpl implements Sentence {
         ResourceFactory.createProperty(nif + "anchorOf"),
         ResourceFactory.createTypedLiteral(this.text));
 
-    if (process == NlpProcess.POS || process == NlpProcess.TOKENIZE) {
-      for (final Token token : this.tokens) {
+    if (processes.contains(NlpProcess.POS) || processes.contains(NlpProcess.TOKENIZE)) {
+      final StreamRDF graph = StreamRDFLib.graph(model.getGraph());
+
+      for (int i = 0; i < this.tokens.size(); i++) {
         model.add(ResourceFactory.createResource(base + "/sentence#char=" + this.start + ','
                 + this.end),
             ResourceFactory.createProperty(nif + "word"), ResourceFactory.createResource(base
-                + "/token#char=" + token.start() + ',' + token.end()));
-        model.add(token.rdfModel(tool, process, host));
+                + "/token#char=" + this.tokens.start(i) + ',' + this.tokens.end(i)));
+        this.tokens.rdfStream(i, graph, tool, processes, host);
       }
-  
+
+      final Token firstToken = this.tokens.token(0);
+      final Token lastToken = this.tokens.token(this.tokens.size() - 1);
+
       model.add(ResourceFactory.createResource(base + "/sentence#char=" + this.start + ','
               + this.end),
           ResourceFactory.createProperty(nif + "firstToken"),
-          ResourceFactory.createResource(base + "/token#char=" + this.firstToken.start() + ','
-              + this.firstToken.end()));
-    
-
+          ResourceFactory.createResource(base + "/token#char=" + firstToken.start() + ','
+              + firstToken.end()));
       model.add(ResourceFactory.createResource(base + "/sentence#char=" + this.start + ','
               + this.end),
           ResourceFactory.createProperty(nif + "lastToken"),
-          ResourceFactory.createResource(base + "/token#char=" + this.lastToken.start() + ','
-              + this.lastToken.end()));
-    } else if (process == NlpProcess.NER || process == NlpProcess.DATE
-        || process == NlpProcess.NUMBER || process == NlpProcess.GAZETTEER) {
+          ResourceFactory.createResource(base + "/token#char=" + lastToken.start() + ','
+              + lastToken.end()));
+    }
+
+    if (processes.contains(NlpProcess.NER) || processes.contains(NlpProcess.DATE)
+        || processes.contains(NlpProcess.NUMBER) || processes.contains(NlpProcess.GAZETTEER)) {
       for (final Entity entity : this.entities) {
         model.add(ResourceFactory.createResource(base + "/sentence#char=" + this.start + ','
                 + this.end),
@@ -201,7 +239,9 @@ public class SentenceImpl implements Sentence {
                 + "/entity#char=" + entity.start() + ',' + entity.end()));
         model.add(entity.rdfModel(tool, host));
       }
-    } else {
+    }
+
+    if (processes.contains(NlpProcess.COREF)) {
       for (final Coref coref : this.corefs) {
         model.add(ResourceFactory.createResource(base + "/sentence#char=" + this.start + ','
                 + this.end),
@@ -229,6 +269,89 @@ public class SentenceImpl implements Sentence {
     return model;
   }
 
+  @Override
+  public final void rdfStream(final StreamRDF stream, final String tool, final NlpProcess process,
+                              final String host) {
+    this.rdfStream(stream, tool, EnumSet.of(process), host);
+  }
+
+  @Override
+  public final void rdfStream(final StreamRDF stream, final String tool,
+                              final Set<NlpProcess> processes, final String host) {
+    final String nif = "http://persistence.uni-leipzig.org/nlp2rdf/ontologies/nif-core#";
+    final String base = host + '/' + tool;
+    final String local = base + "/ontology/";
+    final Node sentence = NodeFactory.createURI(base + "/sentence#char=" + this.start + ','
+        + this.end);
+
+    stream.triple(Triple.create(sentence, RDF.Nodes.type, NodeFactory.createURI(nif
+        + "String")));
+    stream.triple(Triple.create(sentence, RDF.Nodes.type, NodeFactory.createURI(nif
+        + "RFC5147String")));
+    stream.triple(Triple.create(sentence, RDF.Nodes.type, NodeFactory.createURI(nif
+        + "Sentence")));
+    stream.triple(Triple.create(sentence, NodeFactory.createURI(nif + "beginIndex"),
+        NodeFactory.createLiteral(Integer.toString(this.start),
+            XSDDatatype.XSDnonNegativeInteger)));
+    stream.triple(Triple.create(sentence, NodeFactory.createURI(nif + "endIndex"),
+        NodeFactory.createLiteral(Integer.toString(this.end),
+            XSDDatatype.XSDnonNegativeInteger)));
+    stream.triple(Triple.create(sentence, NodeFactory.createURI(nif + "referenceContext"),
+        NodeFactory.createURI(base + "/context#char=" + this.context.start() + ','
+            + this.context.end())));
+    stream.triple(Triple.create(sentence, NodeFactory.createURI(nif + "anchorOf"),
+        NodeFactory.createLiteral(this.text)));
+
+    if (processes.contains(NlpProcess.POS) || processes.contains(NlpProcess.TOKENIZE)) {
+      for (int i = 0; i < this.tokens.size(); i++) {
+        stream.triple(Triple.create(sentence, NodeFactory.createURI(nif + "word"),
+            NodeFactory.createURI(base + "/token#char=" + this.tokens.start(i) + ','
+                + this.tokens.end(i))));
+        this.tokens.rdfStream(i, stream, tool, processes, host);
+      }
+
+      final Token firstToken = this.tokens.token(0);
+      final Token lastToken = this.tokens.token(this.tokens.size() - 1);
+
+      stream.triple(Triple.create(sentence, NodeFactory.createURI(nif + "firstToken"),
+          NodeFactory.createURI(base + "/token#char=" + firstToken.start() + ','
+              + firstToken.end())));
+      stream.triple(Triple.create(sentence, NodeFactory.createURI(nif + "lastToken"),
+          NodeFactory.createURI(base + "/token#char=" + lastToken.start() + ','
+              + lastToken.end())));
+    }
+
+    if (processes.contains(NlpProcess.NER) || processes.contains(NlpProcess.DATE)
+        || processes.contains(NlpProcess.NUMBER) || processes.contains(NlpProcess.GAZETTEER)) {
+      for (final Entity entity : this.entities) {
+        stream.triple(Triple.create(sentence, NodeFactory.createURI(local + "entity"),
+            NodeFactory.createURI(base + "/entity#char=" + entity.start() + ','
+                + entity.end())));
+        entity.rdfStream(stream, tool, host);
+      }
+    }
+
+    if (processes.contains(NlpProcess.COREF)) {
+      for (final Coref coref : this.corefs) {
+        stream.triple(Triple.create(sentence, NodeFactory.createURI(local + "coref"),
+            NodeFactory.createURI(base + "/coref#char=" + coref.start() + ',' + coref.end())));
+        coref.rdfStream(stream, tool, host);
+      }
+    }
+
+    if (this.nextSentence.index() != -1) {
+      stream.triple(Triple.create(sentence, NodeFactory.createURI(nif + "nextSentence"),
+          NodeFactory.createURI(base + "/sentence#char=" + this.nextSentence.start() + ','
+              + this.nextSentence.end())));
+    }
+
+    if (this.previousSentence.index() != -1) {
+      stream.triple(Triple.create(sentence, NodeFactory.createURI(nif + "previousSentence"),
+          NodeFactory.createURI(base + "/sentence#char=" + this.previousSentence.start() + ','
+              + this.previousSentence.end())));
+    }
+  }
+
   @Override
   public final boolean equals(final Object obj) {
     if (this == obj) {
@@ -290,8 +413,6 @@ public class SentenceImpl implements Sentence {
     result = 31 * (result + this.corefs.hashCode());
     result = 31 * (result + this.nextSentence.hashCode());
     result = 31 * (result + this.previousSentence.hashCode());
-    result = 31 * (result + this.firstToken.hashCode());
-    result = 31 * (result + this.lastToken.hashCode());
     result = 31 * (result + this.start);
     result = 31 * (result + this.end);
     result = 31 * (result + this.index);
@@ -304,13 +425,13 @@ public class SentenceImpl implements Sentence {
     return "SentenceImpl{"
         + "text='" + this.text + '\''
         + ", context=[" + this.context.start() + ',' + this.context.end() + ']'
-        + ", tokens=" + this.tokens
+        + ", tokens=" + this.tokens()
         + ", corefs=" + this.corefs
         + ", entities=" + this.entities
         + ", nextSentence=" + this.nextSentence.index()
         + ", previousSentence=" + this.previousSentence.index()
-        + ", firstToken=" + this.firstToken.text()
-        + ", lastToken=" + this.lastToken.text()
+        + ", firstToken=" + this.tokens.token(0).text()
+        + ", lastToken=" + this.tokens.token(this.tokens.size() - 1).text()
         + ", start=" + this.start
         + ", end=" + this.end
         + ", index=" + this.index
@@ -0,0 +1,165 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.datatypes;
+
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.Token;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is a view over one position of a {@link TokenTable}, it is built on demand and
+ * holds no data of its own.
+ *
+ * @author Julien Plu
+ */
+final class TableToken implements Token {
+  static final Logger LOGGER = LoggerFactory.getLogger(TableToken.class);
+  private final TokenTable table;
+  private final int position;
+
+  /**
+   * TableToken constructor.
+   *
+   * @param newTable    The table that stores the token.
+   * @param newPosition Position of the token in the table.
+   */
+  TableToken(final TokenTable newTable, final int newPosition) {
+    this.table = newTable;
+    this.position = newPosition;
+  }
+
+  /**
+   * The next token of a table token is always the next position of its table, so it cannot be
+   * set.
+   *
+   * @param newNextToken Ignored.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public void nextToken(final Token newNextToken) {
+    throw new UnsupportedOperationException("The next token of a table token is the next "
+        + "position of its table");
+  }
+
+  @Override
+  public int index() {
+    return this.table.index(this.position);
+  }
+
+  @Override
+  public String text() {
+    return this.table.text(this.position);
+  }
+
+  @Override
+  public String tag() {
+    return this.table.tag(this.position);
+  }
+
+  @Override
+  public int start() {
+    return this.table.start(this.position);
+  }
+
+  @Override
+  public int end() {
+    return this.table.end(this.position);
+  }
+
+  Token previousToken() {
+    return this.table.token(this.position - 1);
+  }
+
+  Token nextToken() {
+    return this.table.token(this.position + 1);
+  }
+
+  @Override
+  public Model rdfModel(final String tool, final NlpProcess process, final String host) {
+    return this.rdfModel(tool, EnumSet.of(process), host);
+  }
+
+  @Override
+  public Model rdfModel(final String tool, final Set<NlpProcess> processes, final String host) {
+    final Model model = ModelFactory.createDefaultModel();
+
+    this.table.rdfStream(this.position, StreamRDFLib.graph(model.getGraph()), tool, processes,
+        host);
+
+    return model;
+  }
+
+  @Override
+  public void rdfStream(final StreamRDF stream, final String tool, final NlpProcess process,
+                        final String host) {
+    this.rdfStream(stream, tool, EnumSet.of(process), host);
+  }
+
+  @Override
+  public void rdfStream(final StreamRDF stream, final String tool,
+                        final Set<NlpProcess> processes, final String host) {
+    this.table.rdfStream(this.position, stream, tool, processes, host);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+
+    if (obj == null || this.getClass() != obj.getClass()) {
+      return false;
+    }
+
+    final TableToken token = (TableToken) obj;
+
+    return this.table == token.table && this.position == token.position;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * System.identityHashCode(this.table) + this.position;
+  }
+
+  @Override
+  public String toString() {
+    return "TableToken{"
+        + "text='" + this.text() + '\''
+        + ", tag='" + this.tag() + '\''
+        + ", start=" + this.start()
+        + ", end=" + this.end()
+        + ", previousToken=" + this.previousToken().text()
+        + ", nextToken=" + this.nextToken().text()
+        + ", sentence=" + this.table.sentence().index()
+        + ", index=" + this.index()
+        + '}';
+  }
+}
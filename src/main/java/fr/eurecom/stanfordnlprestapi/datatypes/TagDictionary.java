@@ -0,0 +1,123 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.datatypes;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dictionary that interns the POS tags and the NER types into small integer codes shared by all
+ * the annotated documents. The dictionary never shrinks, so it is bounded: once it is full, the
+ * new tags get no code and are kept as they are by their users.
+ *
+ * @author Julien Plu
+ */
+public final class TagDictionary {
+  static final Logger LOGGER = LoggerFactory.getLogger(TagDictionary.class);
+  static final int MAXIMUM_TAGS = 1024;
+  private static final TagDictionary INSTANCE = new TagDictionary(TagDictionary.MAXIMUM_TAGS);
+  private final Map<String, Integer> codes;
+  private final int maximumTags;
+  private volatile String[] tags;
+  private volatile int size;
+
+  public static TagDictionary getInstance() {
+    return TagDictionary.INSTANCE;
+  }
+
+  TagDictionary(final int newMaximumTags) {
+    this.codes = new ConcurrentHashMap<>();
+    this.maximumTags = newMaximumTags;
+    this.tags = new String[16];
+    this.size = 0;
+  }
+
+  /**
+   * Return the code of a tag, the tag is added to the dictionary if it is not already in and the
+   * dictionary is not full.
+   *
+   * @param tag Tag to encode.
+   *
+   * @return The code of the tag, -1 if the tag is not in the dictionary and the dictionary is
+   *         full.
+   */
+  public int code(final String tag) {
+    final Integer code = this.codes.get(tag);
+
+    if (code != null) {
+      return code;
+    }
+
+    synchronized (this) {
+      final Integer existing = this.codes.get(tag);
+
+      if (existing != null) {
+        return existing;
+      }
+
+      if (this.size == this.maximumTags) {
+        TagDictionary.LOGGER.debug("The tag dictionary is full, {} is not interned", tag);
+
+        return -1;
+      }
+
+      if (this.size == this.tags.length) {
+        this.tags = Arrays.copyOf(this.tags, Math.min(this.size * 2, this.maximumTags));
+      }
+
+      this.tags[this.size] = tag;
+      this.codes.put(tag, this.size);
+      this.size++;
+
+      return this.size - 1;
+    }
+  }
+
+  public String tag(final int code) {
+    return this.tags[code];
+  }
+
+  /**
+   * Return the instance of the tag that is shared by the dictionary.
+   *
+   * @param tag Tag to intern.
+   *
+   * @return The shared instance of the tag, the tag itself if the dictionary is full.
+   */
+  public String intern(final String tag) {
+    final int code = this.code(tag);
+
+    return code < 0 ? tag : this.tag(code);
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public String toString() {
+    return "TagDictionary{"
+        + "tags=" + Arrays.toString(Arrays.copyOf(this.tags, this.size))
+        + ", maximumTags=" + this.maximumTags
+        + '}';
+  }
+}
@@ -23,13 +23,14 @@ import fr.eurecom.stanfordnlprestapi.interfaces.Token;
 
 import fr.eurecom.stanfordnlprestapi.nullobjects.NullToken;
 
-import org.apache.jena.datatypes.xsd.XSDDatatype;
+import java.util.EnumSet;
+import java.util.Set;
 
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
-import org.apache.jena.rdf.model.ResourceFactory;
 
-import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -119,6 +120,11 @@ public class TokenImpl implements Token {
     return this.text;
   }
 
+  @Override
+  public final String tag() {
+    return this.tag;
+  }
+
   @Override
   public final int start() {
     return this.start;
@@ -131,54 +137,35 @@ public class TokenImpl implements Token {
 
   @Override
   public final Model rdfModel(final String tool, final NlpProcess process, final String host) {
-    final String nif = "http://persistence.uni-leipzig.org/nlp2rdf/ontologies/nif-core#";
-    final String base = host + '/' + tool;
+    return this.rdfModel(tool, EnumSet.of(process), host);
+  }
+
+  @Override
+  public final Model rdfModel(final String tool, final Set<NlpProcess> processes,
+                              final String host) {
     final Model model = ModelFactory.createDefaultModel();
 
-    model.add(ResourceFactory.createResource(base + "/token#char=" + this.start + ',' + this.end),
-        RDF.type, ResourceFactory.createResource(nif + "String"));
-    model.add(ResourceFactory.createResource(base + "/token#char=" + this.start + ',' + this.end),
-        RDF.type, ResourceFactory.createResource(nif + "RFC5147String"));
-    model.add(ResourceFactory.createResource(base + "/token#char=" + this.start + ',' + this.end),
-        RDF.type, ResourceFactory.createResource(nif + "Word"));
-    model.add(ResourceFactory.createResource(base + "/token#char=" + this.start + ',' + this.end),
-        ResourceFactory.createProperty(nif + "beginIndex"),
-        ResourceFactory.createTypedLiteral(Integer.toString(this.start),
-            XSDDatatype.XSDnonNegativeInteger));
-    model.add(ResourceFactory.createResource(base + "/token#char=" + this.start + ',' + this.end),
-        ResourceFactory.createProperty(nif + "endIndex"),
-        ResourceFactory.createTypedLiteral(Integer.toString(this.end),
-            XSDDatatype.XSDnonNegativeInteger));
-    model.add(ResourceFactory.createResource(base + "/token#char=" + this.start + ',' + this.end),
-        ResourceFactory.createProperty(nif + "anchorOf"),
-        ResourceFactory.createPlainLiteral(this.text));
-    model.add(ResourceFactory.createResource(base + "/token#char=" + this.start + ',' + this.end),
-        ResourceFactory.createProperty(nif + "sentence"), ResourceFactory.createResource(base
-            + "/sentence#char=" + this.sentence.start() + ',' + this.sentence.end()));
-    model.add(ResourceFactory.createResource(base + "/token#char=" + this.start + ',' + this.end),
-        ResourceFactory.createProperty(nif + "referenceContext"),
-        ResourceFactory.createResource(base + "/context#char=" + this.context.start() + ','
-            + this.context.end()));
-    
-    if (process == NlpProcess.POS) {
-      model.add(ResourceFactory.createResource(base + "/token#char=" + this.start + ',' + this.end),
-          ResourceFactory.createProperty(nif + "posTag"), ResourceFactory.createPlainLiteral(
-              this.tag));
-    }
+    this.rdfStream(StreamRDFLib.graph(model.getGraph()), tool, processes, host);
 
-    if (this.nextToken.index() != -1) {
-      model.add(ResourceFactory.createResource(base + "/token#char=" + this.start + ',' + this.end),
-          ResourceFactory.createProperty(nif + "nextWord"), ResourceFactory.createResource(base
-              + "/token#char=" + this.nextToken.start() + ',' + this.nextToken.end()));
-    }
+    return model;
+  }
 
-    if (this.previousToken.index() != -1) {
-      model.add(ResourceFactory.createResource(base + "/token#char=" + this.start + ',' + this.end),
-          ResourceFactory.createProperty(nif + "previousWord"), ResourceFactory.createResource(base
-              + "/token#char=" + this.previousToken.start() + ',' + this.previousToken.end()));
-    }
+  @Override
+  public final void rdfStream(final StreamRDF stream, final String tool, final NlpProcess process,
+                              final String host) {
+    this.rdfStream(stream, tool, EnumSet.of(process), host);
+  }
 
-    return model;
+  @Override
+  public final void rdfStream(final StreamRDF stream, final String tool,
+                              final Set<NlpProcess> processes, final String host) {
+    final String base = host + '/' + tool;
+
+    TokenTable.triples(stream, base, processes, this.context, this.sentence, this.text,
+        this.tag, this.start, this.end, this.previousToken.index() == -1 ? null : base
+            + "/token#char=" + this.previousToken.start() + ',' + this.previousToken.end(),
+        this.nextToken.index() == -1 ? null : base + "/token#char=" + this.nextToken.start()
+            + ',' + this.nextToken.end());
   }
 
   @Override
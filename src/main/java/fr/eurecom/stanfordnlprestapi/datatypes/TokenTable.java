@@ -0,0 +1,311 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.datatypes;
+
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
+import fr.eurecom.stanfordnlprestapi.interfaces.Token;
+
+import fr.eurecom.stanfordnlprestapi.nullobjects.NullToken;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+
+import org.apache.jena.riot.system.StreamRDF;
+
+import org.apache.jena.vocabulary.RDF;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class stores the tokens of a sentence by columns: one array per property, the tags being
+ * encoded with the {@link TagDictionary}, or kept as they are when the dictionary is full. The
+ * previous and next tokens are the neighbour positions, and a {@link Token} object is only built
+ * when it is asked for.
+ *
+ * @author Julien Plu
+ */
+public final class TokenTable {
+  static final Logger LOGGER = LoggerFactory.getLogger(TokenTable.class);
+  private static final int INITIAL_CAPACITY = 16;
+  private final Context context;
+  private final Sentence sentence;
+  private final TagDictionary dictionary;
+  private String[] texts;
+  private int[] tags;
+  private String[] rawTags;
+  private int[] starts;
+  private int[] ends;
+  private int[] indices;
+  private int size;
+
+  /**
+   * TokenTable constructor.
+   *
+   * @param newContext  The context where the tokens are.
+   * @param newSentence The sentence where the tokens are.
+   */
+  public TokenTable(final Context newContext, final Sentence newSentence) {
+    this(newContext, newSentence, TagDictionary.getInstance());
+  }
+
+  TokenTable(final Context newContext, final Sentence newSentence,
+             final TagDictionary newDictionary) {
+    this.context = newContext;
+    this.sentence = newSentence;
+    this.dictionary = newDictionary;
+    this.texts = new String[TokenTable.INITIAL_CAPACITY];
+    this.tags = new int[TokenTable.INITIAL_CAPACITY];
+    this.starts = new int[TokenTable.INITIAL_CAPACITY];
+    this.ends = new int[TokenTable.INITIAL_CAPACITY];
+    this.indices = new int[TokenTable.INITIAL_CAPACITY];
+    this.size = 0;
+  }
+
+  /**
+   * Append a token at the end of the table.
+   *
+   * @param newText  Text of the token.
+   * @param newTag   Tag of the token, empty if the token has no tag.
+   * @param newStart The start offset of the token.
+   * @param newEnd   The end offset of the token.
+   * @param newIndex Index of the token in the sentence.
+   */
+  public void add(final String newText, final String newTag, final int newStart, final int newEnd,
+                  final int newIndex) {
+    if (this.size == this.texts.length) {
+      final int capacity = this.size * 2;
+
+      this.texts = Arrays.copyOf(this.texts, capacity);
+      this.tags = Arrays.copyOf(this.tags, capacity);
+
+      if (this.rawTags != null) {
+        this.rawTags = Arrays.copyOf(this.rawTags, capacity);
+      }
+
+      this.starts = Arrays.copyOf(this.starts, capacity);
+      this.ends = Arrays.copyOf(this.ends, capacity);
+      this.indices = Arrays.copyOf(this.indices, capacity);
+    }
+
+    final String tag = newTag == null ? "" : newTag;
+
+    this.texts[this.size] = newText;
+    this.tags[this.size] = this.dictionary.code(tag);
+
+    if (this.tags[this.size] < 0) {
+      if (this.rawTags == null) {
+        this.rawTags = new String[this.texts.length];
+      }
+
+      this.rawTags[this.size] = tag;
+    }
+
+    this.starts[this.size] = newStart;
+    this.ends[this.size] = newEnd;
+    this.indices[this.size] = newIndex;
+    this.size++;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public String text(final int position) {
+    return this.texts[position];
+  }
+
+  public String tag(final int position) {
+    if (this.tags[position] < 0) {
+      return this.rawTags[position];
+    }
+
+    return this.dictionary.tag(this.tags[position]);
+  }
+
+  public int start(final int position) {
+    return this.starts[position];
+  }
+
+  public int end(final int position) {
+    return this.ends[position];
+  }
+
+  public int index(final int position) {
+    return this.indices[position];
+  }
+
+  /**
+   * Build the token at the given position of the table.
+   *
+   * @param position Position of the token in the table.
+   *
+   * @return The token, or a null token if the position is out of the table.
+   */
+  public Token token(final int position) {
+    if (position < 0 || position >= this.size) {
+      return NullToken.getInstance();
+    }
+
+    return new TableToken(this, position);
+  }
+
+  Sentence sentence() {
+    return this.sentence;
+  }
+
+  /**
+   * Write the NIF triples of the token at the given position directly from the columns.
+   *
+   * @param position  Position of the token in the table.
+   * @param stream    Stream that receives the triples.
+   * @param tool      Name of the tool.
+   * @param processes Processes that have annotated the token.
+   * @param host      Host of the service.
+   */
+  public void rdfStream(final int position, final StreamRDF stream, final String tool,
+                        final Set<NlpProcess> processes, final String host) {
+    final String base = host + '/' + tool;
+
+    TokenTable.triples(stream, base, processes, this.context, this.sentence,
+        this.texts[position], this.tag(position), this.starts[position], this.ends[position],
+        position > 0 ? base + "/token#char=" + this.starts[position - 1] + ','
+            + this.ends[position - 1] : null, position + 1 < this.size ? base + "/token#char="
+            + this.starts[position + 1] + ',' + this.ends[position + 1] : null);
+  }
+
+  /**
+   * Write the NIF triples of a token, whether it is stored in a table or in a {@link TokenImpl}.
+   *
+   * @param stream    Stream that receives the triples.
+   * @param base      Host of the service followed by the name of the tool.
+   * @param processes Processes that have annotated the token.
+   * @param context   The context where the token is.
+   * @param sentence  The sentence where the token is.
+   * @param text      Text of the token.
+   * @param tag       Tag of the token.
+   * @param start     The start offset of the token.
+   * @param end       The end offset of the token.
+   * @param previous  URI of the previous token, null if none exists.
+   * @param next      URI of the next token, null if none exists.
+   */
+  static void triples(final StreamRDF stream, final String base, final Set<NlpProcess> processes,
+                      final Context context, final Sentence sentence, final String text,
+                      final String tag, final int start, final int end, final String previous,
+                      final String next) {
+    final String nif = "http://persistence.uni-leipzig.org/nlp2rdf/ontologies/nif-core#";
+    final Node token = NodeFactory.createURI(base + "/token#char=" + start + ',' + end);
+
+    stream.triple(Triple.create(token, RDF.Nodes.type, NodeFactory.createURI(nif + "String")));
+    stream.triple(Triple.create(token, RDF.Nodes.type, NodeFactory.createURI(nif
+        + "RFC5147String")));
+    stream.triple(Triple.create(token, RDF.Nodes.type, NodeFactory.createURI(nif + "Word")));
+    stream.triple(Triple.create(token, NodeFactory.createURI(nif + "beginIndex"),
+        NodeFactory.createLiteral(Integer.toString(start), XSDDatatype.XSDnonNegativeInteger)));
+    stream.triple(Triple.create(token, NodeFactory.createURI(nif + "endIndex"),
+        NodeFactory.createLiteral(Integer.toString(end), XSDDatatype.XSDnonNegativeInteger)));
+    stream.triple(Triple.create(token, NodeFactory.createURI(nif + "anchorOf"),
+        NodeFactory.createLiteral(text)));
+    stream.triple(Triple.create(token, NodeFactory.createURI(nif + "sentence"),
+        NodeFactory.createURI(base + "/sentence#char=" + sentence.start() + ','
+            + sentence.end())));
+    stream.triple(Triple.create(token, NodeFactory.createURI(nif + "referenceContext"),
+        NodeFactory.createURI(base + "/context#char=" + context.start() + ',' + context.end())));
+
+    if (processes.contains(NlpProcess.POS)) {
+      stream.triple(Triple.create(token, NodeFactory.createURI(nif + "posTag"),
+          NodeFactory.createLiteral(tag)));
+    }
+
+    if (next != null) {
+      stream.triple(Triple.create(token, NodeFactory.createURI(nif + "nextWord"),
+          NodeFactory.createURI(next)));
+    }
+
+    if (previous != null) {
+      stream.triple(Triple.create(token, NodeFactory.createURI(nif + "previousWord"),
+          NodeFactory.createURI(previous)));
+    }
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+
+    if (obj == null || this.getClass() != obj.getClass()) {
+      return false;
+    }
+
+    final TokenTable table = (TokenTable) obj;
+
+    if (this.size != table.size) {
+      return false;
+    }
+
+    for (int i = 0; i < this.size; i++) {
+      if (this.starts[i] != table.starts[i] || this.ends[i] != table.ends[i]
+          || this.indices[i] != table.indices[i] || !this.tag(i).equals(table.tag(i))
+          || !this.texts[i].equals(table.texts[i])) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = this.size;
+
+    for (int i = 0; i < this.size; i++) {
+      result = 31 * (result + this.texts[i].hashCode());
+      result = 31 * (result + this.tag(i).hashCode());
+      result = 31 * (result + this.starts[i]);
+      result = 31 * (result + this.ends[i]);
+      result = 31 * (result + this.indices[i]);
+    }
+
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("TokenTable{tokens=[");
+
+    for (int i = 0; i < this.size; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+
+      sb.append(this.texts[i]).append('/').append(this.tag(i)).append('[').append(
+          this.starts[i]).append(',').append(this.ends[i]).append(']');
+    }
+
+    return sb.append("]}").toString();
+  }
+}
@@ -0,0 +1,67 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.fetch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Text extracted from a fetched HTML document, with the validators needed to revalidate it.
+ *
+ * @author Julien Plu
+ */
+public class FetchedPage {
+  static final Logger LOGGER = LoggerFactory.getLogger(FetchedPage.class);
+  private final String text;
+  private final String etag;
+  private final String lastModified;
+
+  /**
+   * FetchedPage constructor.
+   *
+   * @param newText         Text extracted from the document.
+   * @param newEtag         ETag header of the document, can be null.
+   * @param newLastModified Last-Modified header of the document, can be null.
+   */
+  public FetchedPage(final String newText, final String newEtag, final String newLastModified) {
+    this.text = newText;
+    this.etag = newEtag;
+    this.lastModified = newLastModified;
+  }
+
+  public final String text() {
+    return this.text;
+  }
+
+  public final String etag() {
+    return this.etag;
+  }
+
+  public final String lastModified() {
+    return this.lastModified;
+  }
+
+  @Override
+  public final String toString() {
+    return "FetchedPage{"
+        + "etag='" + this.etag + '\''
+        + ", lastModified='" + this.lastModified + '\''
+        + ", length=" + this.text.length()
+        + '}';
+  }
+}
@@ -0,0 +1,199 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.fetch;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
+import fr.eurecom.stanfordnlprestapi.configurations.FetcherConfiguration;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+
+import org.apache.http.entity.ContentType;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import org.jsoup.Jsoup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fetch HTML documents and extract their text. The connections are pooled and bounded per host,
+ * the connect, read and pool wait times are bounded, the documents are bounded in size, and the
+ * extracted texts are cached and revalidated with their ETag and Last-Modified headers.
+ *
+ * @author Julien Plu
+ */
+public class UrlFetcher implements Closeable {
+  static final Logger LOGGER = LoggerFactory.getLogger(UrlFetcher.class);
+  private final PoolingHttpClientConnectionManager connections;
+  private final CloseableHttpClient client;
+  private final Cache<String, FetchedPage> cache;
+  private final int maxBytes;
+
+  /**
+   * UrlFetcher constructor.
+   *
+   * @param configuration Settings of the fetcher.
+   */
+  public UrlFetcher(final FetcherConfiguration configuration) {
+    this.maxBytes = configuration.getMaxBytes();
+    this.connections = new PoolingHttpClientConnectionManager();
+
+    this.connections.setMaxTotal(configuration.getMaxConnections());
+    this.connections.setDefaultMaxPerRoute(configuration.getMaxConnectionsPerHost());
+
+    this.client = HttpClients.custom().setConnectionManager(this.connections)
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectTimeout(configuration.getConnectTimeoutMillis())
+            .setSocketTimeout(configuration.getReadTimeoutMillis())
+            .setConnectionRequestTimeout(configuration.getWaitTimeoutMillis()).build())
+        .setUserAgent("StanfordNLPRESTAPI").build();
+    this.cache = CacheBuilder.newBuilder().maximumWeight(configuration.getCacheMaximumBytes())
+        .weigher((Weigher<String, FetchedPage>) (url, page) -> (url.length()
+            + page.text().length()) * 2).build();
+  }
+
+  /**
+   * Fetch a HTML document and extract its text. A cached text is revalidated with a conditional
+   * request and reused when the document has not changed.
+   *
+   * @param url URL of the document.
+   *
+   * @return The text of the document.
+   *
+   * @throws IOException if the document cannot be fetched.
+   */
+  public final String text(final String url) throws IOException {
+    final FetchedPage cached = this.cache.getIfPresent(url);
+    final HttpGet get = new HttpGet(url);
+
+    if (cached != null && cached.etag() != null) {
+      get.setHeader(HttpHeaders.IF_NONE_MATCH, cached.etag());
+    }
+
+    if (cached != null && cached.lastModified() != null) {
+      get.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+    }
+
+    try (CloseableHttpResponse response = this.client.execute(get)) {
+      final int status = response.getStatusLine().getStatusCode();
+
+      if (status == HttpStatus.SC_NOT_MODIFIED && cached != null) {
+        return cached.text();
+      }
+
+      if (status != HttpStatus.SC_OK || response.getEntity() == null) {
+        get.abort();
+
+        throw new IOException("The URL " + url + " answered with the status " + status);
+      }
+
+      final HttpEntity entity = response.getEntity();
+
+      if (entity.getContentLength() > this.maxBytes) {
+        get.abort();
+
+        throw this.tooLarge(url);
+      }
+
+      final byte[] bytes;
+
+      try (InputStream in = new BoundedInputStream(entity.getContent(), this.maxBytes + 1L)) {
+        bytes = IOUtils.toByteArray(in);
+
+        if (bytes.length > this.maxBytes) {
+          get.abort();
+
+          throw this.tooLarge(url);
+        }
+      }
+
+      final String charset;
+
+      if (ContentType.get(entity) != null && ContentType.get(entity).getCharset() != null) {
+        charset = ContentType.get(entity).getCharset().name();
+      } else {
+        charset = null;
+      }
+
+      final String text = Jsoup.parse(new ByteArrayInputStream(bytes), charset, url).text();
+      final String etag = UrlFetcher.header(response.getFirstHeader(HttpHeaders.ETAG));
+      final String lastModified = UrlFetcher.header(response.getFirstHeader(
+          HttpHeaders.LAST_MODIFIED));
+
+      if (etag != null || lastModified != null) {
+        this.cache.put(url, new FetchedPage(text, etag, lastModified));
+      } else {
+        this.cache.invalidate(url);
+      }
+
+      return text;
+    }
+  }
+
+  private static String header(final Header header) {
+    if (header == null) {
+      return null;
+    }
+
+    return header.getValue();
+  }
+
+  private WebApplicationException tooLarge(final String url) {
+    return new WebApplicationException("The document of the URL " + url
+        + " cannot be bigger than " + this.maxBytes + " bytes",
+        Response.Status.REQUEST_ENTITY_TOO_LARGE);
+  }
+
+  @Override
+  public final void close() throws IOException {
+    this.client.close();
+  }
+
+  @Override
+  public final String toString() {
+    return "UrlFetcher{"
+        + "connections=" + this.connections.getTotalStats()
+        + ", cached=" + this.cache.size()
+        + ", maxBytes=" + this.maxBytes
+        + '}';
+  }
+}
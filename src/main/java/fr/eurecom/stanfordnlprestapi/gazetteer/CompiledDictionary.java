@@ -0,0 +1,402 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.gazetteer;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.GazetteerDictionary;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read only trie over the tokens of the gazetteer entries, memory mapped from a file compiled
+ * with {@link #write(TrieDictionary, boolean, Path)}. The dictionary lives in the page cache of
+ * the OS instead of the heap, so it is loaded without parsing and shared by all the processes of
+ * a host. The file is made of a header, then of int arrays and of the UTF-8 bytes of the
+ * distinct tokens and types:
+ * <ul>
+ * <li>an open addressing table from the hash of a token to its number;</li>
+ * <li>for each state, the index of its first edge and the number of its type, if any;</li>
+ * <li>the edges ordered by state then by token number, searched by binary search.</li>
+ * </ul>
+ *
+ * @author Julien Plu
+ */
+public final class CompiledDictionary implements GazetteerDictionary {
+  static final Logger LOGGER = LoggerFactory.getLogger(CompiledDictionary.class);
+  public static final String EXTENSION = ".gaz";
+  private static final int MAGIC = 0x47415A31;
+  private static final int HEADER_INTS = 7;
+  private final String path;
+  private final boolean ignoreCase;
+  private final int entries;
+  private final int states;
+  private final int slots;
+  private final IntBuffer tokenOffsets;
+  private final IntBuffer tokenHashes;
+  private final IntBuffer slotTable;
+  private final IntBuffer edgeStarts;
+  private final IntBuffer stateTypes;
+  private final IntBuffer edgeTokens;
+  private final IntBuffer edgeTargets;
+  private final ByteBuffer tokenBytes;
+  private final String[] types;
+
+  private CompiledDictionary(final String newPath, final ByteBuffer buffer) {
+    if (buffer.getInt(0) != CompiledDictionary.MAGIC) {
+      throw new IllegalArgumentException("Not a compiled gazetteer");
+    }
+
+    final int tokens = buffer.getInt(12);
+    final int typeCount = buffer.getInt(16);
+
+    this.path = newPath;
+    this.ignoreCase = (buffer.getInt(4) & 1) != 0;
+    this.entries = buffer.getInt(8);
+    this.states = buffer.getInt(20);
+    this.slots = buffer.getInt(24);
+
+    int offset = 4 * CompiledDictionary.HEADER_INTS;
+
+    this.tokenOffsets = CompiledDictionary.ints(buffer, offset, tokens + 1);
+    offset += 4 * (tokens + 1);
+    this.tokenHashes = CompiledDictionary.ints(buffer, offset, tokens);
+    offset += 4 * tokens;
+    this.slotTable = CompiledDictionary.ints(buffer, offset, this.slots);
+    offset += 4 * this.slots;
+
+    final IntBuffer typeOffsets = CompiledDictionary.ints(buffer, offset, typeCount + 1);
+
+    offset += 4 * (typeCount + 1);
+    this.edgeStarts = CompiledDictionary.ints(buffer, offset, this.states + 1);
+    offset += 4 * (this.states + 1);
+    this.stateTypes = CompiledDictionary.ints(buffer, offset, this.states);
+    offset += 4 * this.states;
+
+    final int edges = this.edgeStarts.get(this.states);
+
+    this.edgeTokens = CompiledDictionary.ints(buffer, offset, edges);
+    offset += 4 * edges;
+    this.edgeTargets = CompiledDictionary.ints(buffer, offset, edges);
+    offset += 4 * edges;
+    this.tokenBytes = CompiledDictionary.bytes(buffer, offset, this.tokenOffsets.get(tokens));
+    offset += this.tokenOffsets.get(tokens);
+
+    final ByteBuffer typeBytes = CompiledDictionary.bytes(buffer, offset, typeOffsets.get(
+        typeCount));
+
+    this.types = new String[typeCount];
+
+    for (int i = 0; i < typeCount; i++) {
+      final byte[] type = new byte[typeOffsets.get(i + 1) - typeOffsets.get(i)];
+
+      typeBytes.position(typeOffsets.get(i));
+      typeBytes.get(type);
+
+      this.types[i] = new String(type, StandardCharsets.UTF_8).intern();
+    }
+  }
+
+  private static IntBuffer ints(final ByteBuffer buffer, final int offset, final int count) {
+    return CompiledDictionary.bytes(buffer, offset, 4 * count).asIntBuffer();
+  }
+
+  private static ByteBuffer bytes(final ByteBuffer buffer, final int offset, final int count) {
+    if (count < 0 || offset + count > buffer.capacity()) {
+      throw new IndexOutOfBoundsException("Truncated compiled gazetteer");
+    }
+
+    final ByteBuffer view = buffer.duplicate();
+
+    view.position(offset);
+    view.limit(offset + count);
+
+    return view.slice();
+  }
+
+  /**
+   * Memory map a compiled gazetteer.
+   *
+   * @param mapping    Path of the compiled gazetteer.
+   * @param ignoreCase Whether the tokens are lower cased before being matched, it must be the
+   *                   option the gazetteer has been compiled with.
+   *
+   * @return The dictionary of the gazetteer.
+   */
+  public static CompiledDictionary open(final String mapping, final boolean ignoreCase) {
+    final CompiledDictionary dictionary;
+
+    try (FileChannel channel = FileChannel.open(Paths.get(mapping), StandardOpenOption.READ)) {
+      dictionary = new CompiledDictionary(mapping, channel.map(FileChannel.MapMode.READ_ONLY, 0,
+          channel.size()));
+    } catch (final IOException | IllegalArgumentException | IndexOutOfBoundsException ex) {
+      throw new WebApplicationException("The gazetteer: " + mapping + " cannot be read", ex,
+          Response.Status.PRECONDITION_FAILED);
+    }
+
+    if (dictionary.ignoreCase != ignoreCase) {
+      throw new WebApplicationException("The gazetteer: " + mapping + " has been compiled with "
+          + "ignorecase=" + dictionary.ignoreCase, Response.Status.PRECONDITION_FAILED);
+    }
+
+    CompiledDictionary.LOGGER.info("Gazetteer {} mapped with {} entries and {} states", mapping,
+        dictionary.entries, dictionary.states);
+
+    return dictionary;
+  }
+
+  /**
+   * Compile a dictionary into a file that can be memory mapped. The file is written next to the
+   * target and moved in place, so a gazetteer being reloaded never reads it half written.
+   *
+   * @param dictionary Dictionary to compile.
+   * @param ignoreCase Whether the entries of the dictionary have been lower cased.
+   * @param target     Path of the compiled gazetteer.
+   *
+   * @throws IOException If the file cannot be written.
+   */
+  public static void write(final TrieDictionary dictionary, final boolean ignoreCase,
+                           final Path target) throws IOException {
+    final String[] tokens = dictionary.tokens();
+    final long[] edges = dictionary.edges();
+    final int states = dictionary.states();
+    final Map<String, Integer> typeNumbers = new LinkedHashMap<>();
+    final int[] stateTypes = new int[states];
+    final byte[][] tokenBytes = new byte[tokens.length][];
+    int slots = 2;
+
+    while (slots < 2 * tokens.length) {
+      slots *= 2;
+    }
+
+    final int[] slotTable = new int[slots];
+
+    for (int i = 0; i < tokens.length; i++) {
+      int slot = CompiledDictionary.slot(tokens[i].hashCode(), slots);
+
+      while (slotTable[slot] != 0) {
+        slot = (slot + 1) & (slots - 1);
+      }
+
+      slotTable[slot] = i + 1;
+      tokenBytes[i] = tokens[i].getBytes(StandardCharsets.UTF_8);
+    }
+
+    for (int state = 0; state < states; state++) {
+      final String type = dictionary.type(state);
+
+      stateTypes[state] = type == null ? -1 : typeNumbers.computeIfAbsent(type,
+          key -> typeNumbers.size());
+    }
+
+    final Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        Files.newOutputStream(temporary)))) {
+      out.writeInt(CompiledDictionary.MAGIC);
+      out.writeInt(ignoreCase ? 1 : 0);
+      out.writeInt(dictionary.size());
+      out.writeInt(tokens.length);
+      out.writeInt(typeNumbers.size());
+      out.writeInt(states);
+      out.writeInt(slots);
+
+      int offset = 0;
+
+      for (final byte[] token : tokenBytes) {
+        out.writeInt(offset);
+        offset += token.length;
+      }
+
+      out.writeInt(offset);
+
+      for (final String token : tokens) {
+        out.writeInt(token.hashCode());
+      }
+
+      for (final int slot : slotTable) {
+        out.writeInt(slot);
+      }
+
+      offset = 0;
+
+      for (final String type : typeNumbers.keySet()) {
+        out.writeInt(offset);
+        offset += type.getBytes(StandardCharsets.UTF_8).length;
+      }
+
+      out.writeInt(offset);
+
+      int edge = 0;
+
+      for (int state = 0; state <= states; state++) {
+        while (edge < edges.length && (int) (edges[edge] >>> 32) < state) {
+          edge++;
+        }
+
+        out.writeInt(edge);
+      }
+
+      for (final int type : stateTypes) {
+        out.writeInt(type);
+      }
+
+      for (final long key : edges) {
+        out.writeInt((int) key);
+      }
+
+      for (final long key : edges) {
+        out.writeInt(dictionary.target(key));
+      }
+
+      for (final byte[] token : tokenBytes) {
+        out.write(token);
+      }
+
+      for (final String type : typeNumbers.keySet()) {
+        out.write(type.getBytes(StandardCharsets.UTF_8));
+      }
+    }
+
+    Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static int slot(final int hash, final int slots) {
+    final int mixed = hash * 0x9E3779B9;
+
+    return (mixed ^ mixed >>> 16) & (slots - 1);
+  }
+
+  private int token(final String token) {
+    final int hash = token.hashCode();
+
+    for (int i = CompiledDictionary.slot(hash, this.slots); ; i = (i + 1) & (this.slots - 1)) {
+      final int id = this.slotTable.get(i) - 1;
+
+      if (id < 0) {
+        return -1;
+      }
+
+      if (this.tokenHashes.get(id) == hash && this.matches(id, token)) {
+        return id;
+      }
+    }
+  }
+
+  private boolean matches(final int id, final String token) {
+    final int start = this.tokenOffsets.get(id);
+    final int length = this.tokenOffsets.get(id + 1) - start;
+    boolean ascii = length == token.length();
+
+    for (int i = 0; ascii && i < length; i++) {
+      final byte current = this.tokenBytes.get(start + i);
+
+      if (current < 0) {
+        ascii = false;
+      } else if (current != token.charAt(i)) {
+        return false;
+      }
+    }
+
+    if (ascii) {
+      return true;
+    }
+
+    final byte[] bytes = new byte[length];
+
+    for (int i = 0; i < length; i++) {
+      bytes[i] = this.tokenBytes.get(start + i);
+    }
+
+    return token.equals(new String(bytes, StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public int root() {
+    return 0;
+  }
+
+  @Override
+  public int next(final int state, final String token) {
+    if (state < 0) {
+      return -1;
+    }
+
+    final int id = this.token(token);
+    int low = this.edgeStarts.get(state);
+    int high = this.edgeStarts.get(state + 1) - 1;
+
+    while (id >= 0 && low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int current = this.edgeTokens.get(middle);
+
+      if (current < id) {
+        low = middle + 1;
+      } else if (current > id) {
+        high = middle - 1;
+      } else {
+        return this.edgeTargets.get(middle);
+      }
+    }
+
+    return -1;
+  }
+
+  @Override
+  public String type(final int state) {
+    if (state < 0 || this.stateTypes.get(state) < 0) {
+      return null;
+    }
+
+    return this.types[this.stateTypes.get(state)];
+  }
+
+  @Override
+  public int size() {
+    return this.entries;
+  }
+
+  @Override
+  public String toString() {
+    return "CompiledDictionary{"
+        + "path='" + this.path + '\''
+        + ", entries=" + this.entries
+        + ", states=" + this.states
+        + ", tokens=" + this.tokenHashes.capacity()
+        + ", types=" + this.types.length
+        + '}';
+  }
+}
@@ -0,0 +1,218 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.gazetteer;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.GazetteerDictionary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A gazetteer loaded from a mapping file, that can be reloaded and changed while it is used. The
+ * current version is swapped atomically, the annotations that already run keep the version they
+ * started with. A mapping file with the {@link CompiledDictionary#EXTENSION} extension is memory
+ * mapped as a compiled gazetteer, any other one is parsed as a TSV mapping.
+ *
+ * @author Julien Plu
+ */
+public class Gazetteer {
+  static final Logger LOGGER = LoggerFactory.getLogger(Gazetteer.class);
+  private final String mapping;
+  private final boolean ignoreCase;
+  private final AtomicReference<GazetteerVersion> current;
+  private final Object reloading;
+  private volatile long lastModified;
+
+  /**
+   * Gazetteer constructor that loads the mapping file.
+   *
+   * @param newMapping    Path of the mapping file.
+   * @param newIgnoreCase Whether the entries are matched without case.
+   */
+  public Gazetteer(final String newMapping, final boolean newIgnoreCase) {
+    this.mapping = newMapping;
+    this.ignoreCase = newIgnoreCase;
+    this.reloading = new Object();
+    this.lastModified = this.modified();
+    this.current = new AtomicReference<>(new GazetteerVersion(Gazetteer.load(newMapping,
+        newIgnoreCase), Collections.emptyMap(), Collections.emptySet(), 1));
+  }
+
+  /**
+   * Gazetteer constructor over an already built dictionary.
+   *
+   * @param newMapping    Path of the mapping file.
+   * @param newIgnoreCase Whether the entries are matched without case.
+   * @param newBase       Dictionary of the gazetteer.
+   */
+  public Gazetteer(final String newMapping, final boolean newIgnoreCase,
+                   final GazetteerDictionary newBase) {
+    this.mapping = newMapping;
+    this.ignoreCase = newIgnoreCase;
+    this.reloading = new Object();
+    this.lastModified = this.modified();
+    this.current = new AtomicReference<>(new GazetteerVersion(newBase, Collections.emptyMap(),
+        Collections.emptySet(), 1));
+  }
+
+  /**
+   * Load the dictionary of a mapping file.
+   *
+   * @param mapping    Path of the mapping file, compiled or not.
+   * @param ignoreCase Whether the entries are matched without case.
+   *
+   * @return The dictionary of the mapping.
+   */
+  static GazetteerDictionary load(final String mapping, final boolean ignoreCase) {
+    if (mapping.endsWith(CompiledDictionary.EXTENSION)) {
+      return CompiledDictionary.open(mapping, ignoreCase);
+    }
+
+    return TrieDictionary.load(mapping, ignoreCase);
+  }
+
+  private long modified() {
+    try {
+      return Files.getLastModifiedTime(Paths.get(this.mapping)).toMillis();
+    } catch (final IOException ex) {
+      Gazetteer.LOGGER.debug("No modification time for {}", this.mapping, ex);
+
+      return -1;
+    }
+  }
+
+  public final GazetteerVersion version() {
+    return this.current.get();
+  }
+
+  public final String mapping() {
+    return this.mapping;
+  }
+
+  public final boolean ignoreCase() {
+    return this.ignoreCase;
+  }
+
+  /**
+   * Normalize a token or an entry as the entries of the dictionary are.
+   *
+   * @param text Token or entry.
+   *
+   * @return The normalized text.
+   */
+  public final String normalize(final String text) {
+    final String entry = text.trim().replaceAll("\\s+", " ");
+
+    return this.ignoreCase ? entry.toLowerCase(Locale.ENGLISH) : entry;
+  }
+
+  /**
+   * Rebuild the dictionary from the mapping file and swap it in, the entries added and removed
+   * are kept. The annotations keep running on the previous version while the file is loaded.
+   */
+  public final void reload() {
+    synchronized (this.reloading) {
+      final long modified = this.modified();
+      final GazetteerDictionary base = Gazetteer.load(this.mapping, this.ignoreCase);
+      final GazetteerVersion version = this.current.updateAndGet(old -> old.rebase(base));
+
+      this.lastModified = modified;
+
+      Gazetteer.LOGGER.info("Gazetteer {} reloaded as version {}", this.mapping,
+          version.number());
+    }
+  }
+
+  /**
+   * Reload the dictionary if the mapping file has been modified since it has been loaded.
+   *
+   * @return True if the dictionary has been reloaded.
+   */
+  public final boolean reloadIfModified() {
+    final long modified = this.modified();
+
+    if (modified < 0 || modified == this.lastModified) {
+      return false;
+    }
+
+    this.reload();
+
+    return true;
+  }
+
+  /**
+   * Add an entry, without rebuilding the dictionary.
+   *
+   * @param entry Tokens of the entry separated by spaces.
+   * @param type  Type of the entry.
+   */
+  public final void add(final String entry, final String type) {
+    this.apply(Collections.singletonMap(entry, type), Collections.emptySet());
+  }
+
+  /**
+   * Remove an entry, without rebuilding the dictionary.
+   *
+   * @param entry Tokens of the entry separated by spaces.
+   */
+  public final void remove(final String entry) {
+    this.apply(Collections.emptyMap(), Collections.singleton(entry));
+  }
+
+  /**
+   * Add and remove several entries at once, without rebuilding the dictionary. The entries give
+   * a single new version, an entry both added and removed is removed.
+   *
+   * @param added   Tokens of the added entries separated by spaces, with their type.
+   * @param removed Tokens of the removed entries separated by spaces.
+   */
+  public final void apply(final Map<String, String> added, final Set<String> removed) {
+    final Map<String, String> keys = new HashMap<>();
+    final Set<String> removedKeys = new HashSet<>();
+
+    for (final Map.Entry<String, String> entry : added.entrySet()) {
+      keys.put(this.normalize(entry.getKey()), entry.getValue().trim());
+    }
+
+    for (final String entry : removed) {
+      removedKeys.add(this.normalize(entry));
+    }
+
+    this.current.updateAndGet(old -> old.apply(keys, removedKeys));
+  }
+
+  @Override
+  public final String toString() {
+    return "Gazetteer{"
+        + "mapping='" + this.mapping + '\''
+        + ", ignoreCase=" + this.ignoreCase
+        + ", version=" + this.current.get()
+        + '}';
+  }
+}
@@ -0,0 +1,182 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.gazetteer;
+
+import edu.stanford.nlp.ling.CoreAnnotation;
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.ling.CoreLabel;
+
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.Annotator;
+
+import edu.stanford.nlp.util.CoreMap;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.GazetteerDictionary;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stanford CoreNLP annotator that tags the tokens matching an entry of a gazetteer, as regexner
+ * does but without any regular expression. At each token, the longest entry that starts there is
+ * tagged, as long as none of its tokens already has a NER tag other than a background symbol.
+ * The dictionary is shared through the {@link GazetteerRegistry}, and each document is annotated
+ * with the version of the gazetteer current when its annotation starts.
+ * It is declared in a profile with the properties:
+ * <ul>
+ *   <li>customAnnotatorClass.gazetteer = this class;</li>
+ *   <li>gazetteer.mapping = the TSV mapping file, in the format of regexner;</li>
+ *   <li>gazetteer.ignorecase = true to match without case, false by default;</li>
+ *   <li>gazetteer.backgroundSymbol = the tags that can be overwritten, O,MISC by default.</li>
+ * </ul>
+ *
+ * @author Julien Plu
+ */
+public class GazetteerAnnotator implements Annotator {
+  static final Logger LOGGER = LoggerFactory.getLogger(GazetteerAnnotator.class);
+  private final Gazetteer gazetteer;
+  private final boolean ignoreCase;
+  private final Set<String> background;
+
+  /**
+   * GazetteerAnnotator constructor used by Stanford CoreNLP.
+   *
+   * @param name  Name of the annotator in the profile.
+   * @param props Properties of the profile.
+   */
+  public GazetteerAnnotator(final String name, final Properties props) {
+    this.ignoreCase = Boolean.parseBoolean(props.getProperty(name + ".ignorecase", "false"));
+    this.gazetteer = GazetteerRegistry.getInstance().gazetteer(props.getProperty(name
+        + ".mapping", ""), this.ignoreCase);
+    this.background = new HashSet<>(Arrays.asList(props.getProperty(name + ".backgroundSymbol",
+        "O,MISC").split("\\s*,\\s*")));
+  }
+
+  /**
+   * GazetteerAnnotator constructor.
+   *
+   * @param newGazetteer  The gazetteer.
+   * @param newBackground NER tags that can be overwritten.
+   */
+  public GazetteerAnnotator(final Gazetteer newGazetteer, final Set<String> newBackground) {
+    this.gazetteer = newGazetteer;
+    this.ignoreCase = newGazetteer.ignoreCase();
+    this.background = new HashSet<>(newBackground);
+  }
+
+  @Override
+  public final void annotate(final Annotation annotation) {
+    final GazetteerVersion version = this.gazetteer.version();
+    final List<CoreMap> sentences = annotation.get(CoreAnnotations.SentencesAnnotation.class);
+
+    if (sentences == null) {
+      this.annotate(annotation.get(CoreAnnotations.TokensAnnotation.class), version);
+    } else {
+      for (final CoreMap sentence : sentences) {
+        this.annotate(sentence.get(CoreAnnotations.TokensAnnotation.class), version);
+      }
+    }
+  }
+
+  /**
+   * Tag the tokens of a sentence, in a single pass from left to right.
+   *
+   * @param tokens  Tokens of the sentence.
+   * @param version Version of the gazetteer.
+   */
+  final void annotate(final List<CoreLabel> tokens, final GazetteerVersion version) {
+    final String[] keys = new String[tokens.size()];
+
+    for (int i = 0; i < keys.length; i++) {
+      final String text = tokens.get(i).get(CoreAnnotations.TextAnnotation.class);
+
+      keys[i] = this.ignoreCase ? text.toLowerCase(Locale.ENGLISH) : text;
+    }
+
+    int i = 0;
+
+    while (i < keys.length) {
+      int length = 0;
+      String type = null;
+
+      for (final GazetteerDictionary dictionary : version.dictionaries()) {
+        int state = dictionary.root();
+
+        for (int j = i; j < keys.length && state >= 0; j++) {
+          state = dictionary.next(state, keys[j]);
+
+          if (j - i + 1 > length && dictionary.type(state) != null
+              && !version.removed(keys, i, j + 1)) {
+            length = j - i + 1;
+            type = dictionary.type(state);
+          }
+        }
+      }
+
+      if (length > 0 && this.overwritable(tokens, i, length)) {
+        for (int j = i; j < i + length; j++) {
+          tokens.get(j).set(CoreAnnotations.NamedEntityTagAnnotation.class, type);
+        }
+
+        i += length;
+      } else {
+        i++;
+      }
+    }
+  }
+
+  private boolean overwritable(final List<CoreLabel> tokens, final int start, final int length) {
+    for (int i = start; i < start + length; i++) {
+      final String tag = tokens.get(i).get(CoreAnnotations.NamedEntityTagAnnotation.class);
+
+      if (tag != null && !this.background.contains(tag)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public final Set<Class<? extends CoreAnnotation>> requirementsSatisfied() {
+    return Collections.singleton(CoreAnnotations.NamedEntityTagAnnotation.class);
+  }
+
+  @Override
+  public final Set<Class<? extends CoreAnnotation>> requires() {
+    return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        CoreAnnotations.TokensAnnotation.class, CoreAnnotations.SentencesAnnotation.class)));
+  }
+
+  @Override
+  public final String toString() {
+    return "GazetteerAnnotator{"
+        + "gazetteer=" + this.gazetteer
+        + ", ignoreCase=" + this.ignoreCase
+        + ", background=" + this.background
+        + '}';
+  }
+}
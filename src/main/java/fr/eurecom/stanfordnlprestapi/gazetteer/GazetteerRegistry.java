@@ -0,0 +1,123 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.gazetteer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.ws.rs.WebApplicationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of the gazetteers, a mapping file is loaded once for all the pipelines that use it
+ * with the same case option.
+ *
+ * @author Julien Plu
+ */
+public class GazetteerRegistry {
+  static final Logger LOGGER = LoggerFactory.getLogger(GazetteerRegistry.class);
+  private static final GazetteerRegistry INSTANCE = new GazetteerRegistry();
+  private final Map<String, Gazetteer> gazetteers;
+
+  public GazetteerRegistry() {
+    this.gazetteers = new ConcurrentHashMap<>();
+  }
+
+  public static GazetteerRegistry getInstance() {
+    return GazetteerRegistry.INSTANCE;
+  }
+
+  /**
+   * Get the gazetteer of a mapping file, it is loaded if no pipeline uses it yet.
+   *
+   * @param mapping    Path of the mapping file.
+   * @param ignoreCase Whether the entries are matched without case.
+   *
+   * @return The gazetteer.
+   */
+  public final Gazetteer gazetteer(final String mapping, final boolean ignoreCase) {
+    return this.gazetteers.computeIfAbsent(mapping + '#' + ignoreCase,
+        key -> new Gazetteer(mapping, ignoreCase));
+  }
+
+  /**
+   * The gazetteers of a mapping file, one per case option.
+   *
+   * @param mapping Path of the mapping file.
+   *
+   * @return The gazetteers of the file.
+   */
+  public final List<Gazetteer> gazetteers(final String mapping) {
+    final List<Gazetteer> result = new ArrayList<>();
+
+    for (final Gazetteer gazetteer : this.gazetteers()) {
+      if (gazetteer.mapping().equals(mapping)) {
+        result.add(gazetteer);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * All the gazetteers, ordered by mapping file.
+   *
+   * @return The gazetteers.
+   */
+  public final List<Gazetteer> gazetteers() {
+    final List<Gazetteer> result = new ArrayList<>(this.gazetteers.values());
+
+    result.sort(Comparator.comparing(Gazetteer::mapping).thenComparing(Gazetteer::ignoreCase));
+
+    return result;
+  }
+
+  /**
+   * Reload the gazetteers whose mapping file has been modified. A file that cannot be loaded is
+   * logged and its gazetteer keeps its current version.
+   *
+   * @return The number of gazetteers reloaded.
+   */
+  public final int reloadModified() {
+    int reloaded = 0;
+
+    for (final Gazetteer gazetteer : this.gazetteers()) {
+      try {
+        if (gazetteer.reloadIfModified()) {
+          reloaded++;
+        }
+      } catch (final WebApplicationException ex) {
+        GazetteerRegistry.LOGGER.error("Gazetteer {} not reloaded", gazetteer.mapping(), ex);
+      }
+    }
+
+    return reloaded;
+  }
+
+  @Override
+  public final String toString() {
+    return "GazetteerRegistry{"
+        + "gazetteers=" + this.gazetteers.values()
+        + '}';
+  }
+}
@@ -0,0 +1,176 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.gazetteer;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.GazetteerDictionary;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable version of a gazetteer: the dictionary loaded from the mapping file, with the entries
+ * added and removed since then. Every change gives a new version, so an annotation that started
+ * on a version ends on it.
+ *
+ * @author Julien Plu
+ */
+public final class GazetteerVersion {
+  static final Logger LOGGER = LoggerFactory.getLogger(GazetteerVersion.class);
+  private final GazetteerDictionary base;
+  private final Map<String, String> additions;
+  private final Set<String> removals;
+  private final List<GazetteerDictionary> dictionaries;
+  private final long number;
+
+  /**
+   * GazetteerVersion constructor.
+   *
+   * @param newBase      Dictionary loaded from the mapping file.
+   * @param newAdditions Entries added since, with their type.
+   * @param newRemovals  Entries removed since.
+   * @param newNumber    Number of the version.
+   */
+  public GazetteerVersion(final GazetteerDictionary newBase, final Map<String, String> newAdditions,
+                          final Set<String> newRemovals, final long newNumber) {
+    final TrieDictionary added = new TrieDictionary();
+
+    for (final Map.Entry<String, String> entry : newAdditions.entrySet()) {
+      added.add(Arrays.asList(entry.getKey().split(" ")), entry.getValue());
+    }
+
+    this.base = newBase;
+    this.additions = Collections.unmodifiableMap(new HashMap<>(newAdditions));
+    this.removals = Collections.unmodifiableSet(new HashSet<>(newRemovals));
+    this.dictionaries = Collections.unmodifiableList(Arrays.asList(added, newBase));
+    this.number = newNumber;
+  }
+
+  /**
+   * The dictionaries to match the tokens against, the added entries first so they take over the
+   * entries of the file.
+   *
+   * @return The dictionaries of the version.
+   */
+  public List<GazetteerDictionary> dictionaries() {
+    return this.dictionaries;
+  }
+
+  /**
+   * Whether an entry has been removed.
+   *
+   * @param keys  Normalized tokens of a sentence.
+   * @param start Position of the first token of the entry.
+   * @param end   Position after the last token of the entry.
+   *
+   * @return True if the entry has been removed.
+   */
+  public boolean removed(final String[] keys, final int start, final int end) {
+    return !this.removals.isEmpty() && this.removals.contains(String.join(" ", Arrays.asList(
+        keys).subList(start, end)));
+  }
+
+  /**
+   * A new version with an added entry.
+   *
+   * @param entry Normalized entry.
+   * @param type  Type of the entry.
+   *
+   * @return The new version.
+   */
+  public GazetteerVersion with(final String entry, final String type) {
+    return this.apply(Collections.singletonMap(entry, type), Collections.emptySet());
+  }
+
+  /**
+   * A new version with a removed entry.
+   *
+   * @param entry Normalized entry.
+   *
+   * @return The new version.
+   */
+  public GazetteerVersion without(final String entry) {
+    return this.apply(Collections.emptyMap(), Collections.singleton(entry));
+  }
+
+  /**
+   * A new version with several entries added and removed at once, so the dictionary of the added
+   * entries is built only once. An entry both added and removed is removed.
+   *
+   * @param added   Normalized entries added, with their type.
+   * @param removed Normalized entries removed.
+   *
+   * @return The new version.
+   */
+  public GazetteerVersion apply(final Map<String, String> added, final Set<String> removed) {
+    final Map<String, String> newAdditions = new HashMap<>(this.additions);
+    final Set<String> newRemovals = new HashSet<>(this.removals);
+
+    newAdditions.putAll(added);
+    newRemovals.removeAll(added.keySet());
+    newAdditions.keySet().removeAll(removed);
+    newRemovals.addAll(removed);
+
+    return new GazetteerVersion(this.base, newAdditions, newRemovals, this.number + 1);
+  }
+
+  /**
+   * A new version on a new dictionary loaded from the mapping file, the entries added and removed
+   * are kept.
+   *
+   * @param newBase Dictionary loaded from the mapping file.
+   *
+   * @return The new version.
+   */
+  public GazetteerVersion rebase(final GazetteerDictionary newBase) {
+    return new GazetteerVersion(newBase, this.additions, this.removals, this.number + 1);
+  }
+
+  public GazetteerDictionary base() {
+    return this.base;
+  }
+
+  public int additions() {
+    return this.additions.size();
+  }
+
+  public int removals() {
+    return this.removals.size();
+  }
+
+  public long number() {
+    return this.number;
+  }
+
+  @Override
+  public String toString() {
+    return "GazetteerVersion{"
+        + "base=" + this.base
+        + ", additions=" + this.additions.size()
+        + ", removals=" + this.removals.size()
+        + ", number=" + this.number
+        + '}';
+  }
+}
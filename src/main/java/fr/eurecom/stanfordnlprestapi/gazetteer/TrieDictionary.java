@@ -0,0 +1,312 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.gazetteer;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.GazetteerDictionary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In heap trie over the tokens of the gazetteer entries. The distinct tokens are numbered once,
+ * and the edges of the trie are stored in a single open addressing table keyed by the state and
+ * the token number, so an entry costs a few array slots instead of a map per node. The types are
+ * numbered by the dictionary itself, so they go away with it when the gazetteer is reloaded.
+ *
+ * @author Julien Plu
+ */
+public final class TrieDictionary implements GazetteerDictionary {
+  static final Logger LOGGER = LoggerFactory.getLogger(TrieDictionary.class);
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final long EMPTY = -1L;
+  private final Map<String, Integer> vocabulary;
+  private final Map<String, Integer> typeCodes;
+  private final List<String> typeNames;
+  private long[] keys;
+  private int[] targets;
+  private int edges;
+  private int[] types;
+  private int states;
+  private int entries;
+
+  /**
+   * TrieDictionary constructor, the dictionary is empty.
+   */
+  public TrieDictionary() {
+    this.vocabulary = new HashMap<>();
+    this.typeCodes = new HashMap<>();
+    this.typeNames = new ArrayList<>();
+    this.keys = new long[TrieDictionary.INITIAL_CAPACITY];
+    this.targets = new int[TrieDictionary.INITIAL_CAPACITY];
+    this.types = new int[TrieDictionary.INITIAL_CAPACITY];
+    this.edges = 0;
+    this.states = 1;
+    this.entries = 0;
+
+    Arrays.fill(this.keys, TrieDictionary.EMPTY);
+    Arrays.fill(this.types, -1);
+  }
+
+  /**
+   * Load a gazetteer mapping file, one entry per line: the tokens of the entry separated by
+   * spaces, a tab and the type of the entry, as the mapping of regexner. The other columns and
+   * the lines without a type are ignored.
+   *
+   * @param mapping    Path of the mapping file.
+   * @param ignoreCase Whether the entries are lower cased.
+   *
+   * @return The dictionary of the mapping.
+   */
+  public static TrieDictionary load(final String mapping, final boolean ignoreCase) {
+    final TrieDictionary dictionary = new TrieDictionary();
+
+    try (BufferedReader reader = Files.newBufferedReader(Paths.get(mapping),
+        StandardCharsets.UTF_8)) {
+      String line = reader.readLine();
+
+      while (line != null) {
+        final String[] columns = line.split("\t");
+
+        if (columns.length < 2 || columns[0].trim().isEmpty()) {
+          TrieDictionary.LOGGER.debug("Line ignored in {}: {}", mapping, line);
+        } else {
+          final String entry = ignoreCase ? columns[0].trim().toLowerCase(Locale.ENGLISH)
+              : columns[0].trim();
+
+          dictionary.add(Arrays.asList(entry.split("\\s+")), columns[1].trim());
+        }
+
+        line = reader.readLine();
+      }
+    } catch (final IOException ex) {
+      throw new WebApplicationException("The gazetteer: " + mapping + " cannot be read", ex,
+          Response.Status.PRECONDITION_FAILED);
+    }
+
+    TrieDictionary.LOGGER.info("Gazetteer {} loaded with {} entries and {} states", mapping,
+        dictionary.entries, dictionary.states);
+
+    return dictionary;
+  }
+
+  /**
+   * Add an entry to the dictionary, an entry already in keeps its first type.
+   *
+   * @param tokens Tokens of the entry.
+   * @param type   Type of the entry.
+   *
+   * @return True if the entry was not already in the dictionary.
+   */
+  public boolean add(final List<String> tokens, final String type) {
+    int state = this.root();
+
+    for (final String token : tokens) {
+      final Integer id = this.vocabulary.computeIfAbsent(token, key -> this.vocabulary.size());
+      final int next = this.next(state, id);
+
+      state = next < 0 ? this.edge(state, id) : next;
+    }
+
+    if (state == this.root() || this.types[state] >= 0) {
+      return false;
+    }
+
+    this.types[state] = this.typeCodes.computeIfAbsent(type, key -> {
+      this.typeNames.add(key);
+
+      return this.typeNames.size() - 1;
+    });
+    this.entries++;
+
+    return true;
+  }
+
+  @Override
+  public int root() {
+    return 0;
+  }
+
+  @Override
+  public int next(final int state, final String token) {
+    final Integer id = this.vocabulary.get(token);
+
+    if (id == null || state < 0) {
+      return -1;
+    }
+
+    return this.next(state, id);
+  }
+
+  @Override
+  public String type(final int state) {
+    if (state < 0 || this.types[state] < 0) {
+      return null;
+    }
+
+    return this.typeNames.get(this.types[state]);
+  }
+
+  @Override
+  public int size() {
+    return this.entries;
+  }
+
+  /**
+   * The distinct tokens of the entries, indexed by their number.
+   *
+   * @return The tokens.
+   */
+  String[] tokens() {
+    final String[] tokens = new String[this.vocabulary.size()];
+
+    for (final Map.Entry<String, Integer> token : this.vocabulary.entrySet()) {
+      tokens[token.getValue()] = token.getKey();
+    }
+
+    return tokens;
+  }
+
+  /**
+   * The edges of the trie, each one as its state in the high bits and its token number in the
+   * low bits, ordered by state then by token number.
+   *
+   * @return The edges.
+   */
+  long[] edges() {
+    final long[] edges = new long[this.edges];
+    int i = 0;
+
+    for (final long key : this.keys) {
+      if (key != TrieDictionary.EMPTY) {
+        edges[i++] = key;
+      }
+    }
+
+    Arrays.sort(edges);
+
+    return edges;
+  }
+
+  /**
+   * The state an edge leads to.
+   *
+   * @param edge Edge as given by {@link #edges()}.
+   *
+   * @return The target state.
+   */
+  int target(final long edge) {
+    return this.next((int) (edge >>> 32), (int) edge);
+  }
+
+  int states() {
+    return this.states;
+  }
+
+  private static long key(final int state, final int id) {
+    return (long) state << 32 | id;
+  }
+
+  private int slot(final long key) {
+    return Long.hashCode(key * 0x9E3779B97F4A7C15L) & (this.keys.length - 1);
+  }
+
+  private int next(final int state, final int id) {
+    final long key = TrieDictionary.key(state, id);
+
+    for (int i = this.slot(key); this.keys[i] != TrieDictionary.EMPTY;
+         i = (i + 1) & (this.keys.length - 1)) {
+      if (this.keys[i] == key) {
+        return this.targets[i];
+      }
+    }
+
+    return -1;
+  }
+
+  private int edge(final int state, final int id) {
+    if (2 * (this.edges + 1) > this.keys.length) {
+      this.rehash(this.keys.length * 2);
+    }
+
+    if (this.states == this.types.length) {
+      this.types = Arrays.copyOf(this.types, this.states * 2);
+
+      Arrays.fill(this.types, this.states, this.types.length, -1);
+    }
+
+    final long key = TrieDictionary.key(state, id);
+    int i = this.slot(key);
+
+    while (this.keys[i] != TrieDictionary.EMPTY) {
+      i = (i + 1) & (this.keys.length - 1);
+    }
+
+    this.keys[i] = key;
+    this.targets[i] = this.states;
+    this.edges++;
+
+    return this.states++;
+  }
+
+  private void rehash(final int capacity) {
+    final long[] oldKeys = this.keys;
+    final int[] oldTargets = this.targets;
+
+    this.keys = new long[capacity];
+    this.targets = new int[capacity];
+
+    Arrays.fill(this.keys, TrieDictionary.EMPTY);
+
+    for (int j = 0; j < oldKeys.length; j++) {
+      if (oldKeys[j] != TrieDictionary.EMPTY) {
+        int i = this.slot(oldKeys[j]);
+
+        while (this.keys[i] != TrieDictionary.EMPTY) {
+          i = (i + 1) & (this.keys.length - 1);
+        }
+
+        this.keys[i] = oldKeys[j];
+        this.targets[i] = oldTargets[j];
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "TrieDictionary{"
+        + "entries=" + this.entries
+        + ", states=" + this.states
+        + ", tokens=" + this.vocabulary.size()
+        + '}';
+  }
+}
@@ -0,0 +1,33 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.interfaces;
+
+import fr.eurecom.stanfordnlprestapi.datatypes.Context;
+
+/**
+ * Interface that is notified while a context is built from the Stanford NLP annotations. A
+ * sentence is notified once it is complete, that is when the next sentence is built or when the
+ * context is complete.
+ *
+ * @author Julien Plu
+ */
+public interface ContextListener {
+  void start(final Context context);
+
+  void sentence(final Sentence sentence);
+}
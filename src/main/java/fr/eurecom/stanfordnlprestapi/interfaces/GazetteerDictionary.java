@@ -0,0 +1,35 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.interfaces;
+
+/**
+ * Interface of a gazetteer seen as an automaton over tokens: each state is a sequence of tokens,
+ * starting from the empty sequence of the root. The next state is -1 when no entry continues with
+ * the token, and the type is null when no entry ends at the state.
+ *
+ * @author Julien Plu
+ */
+public interface GazetteerDictionary {
+  int root();
+
+  int next(final int state, final String token);
+
+  String type(final int state);
+
+  int size();
+}
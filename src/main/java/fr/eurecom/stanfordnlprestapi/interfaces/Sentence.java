@@ -23,9 +23,12 @@ import fr.eurecom.stanfordnlprestapi.datatypes.Entity;
 import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
 
 import java.util.List;
+import java.util.Set;
 
 import org.apache.jena.rdf.model.Model;
 
+import org.apache.jena.riot.system.StreamRDF;
+
 /**
  * Interface that represents a NIF and Stanford NLP sentence.
  *
@@ -34,6 +37,9 @@ import org.apache.jena.rdf.model.Model;
 public interface Sentence {
   void addToken(final Token newToken);
 
+  void addToken(final String newText, final String newTag, final int newStart, final int newEnd,
+                final int newIndex);
+
   void addEntity(final Entity newEntity);
   
   void addCoref(final Coref newCoref);
@@ -42,6 +48,8 @@ public interface Sentence {
 
   List<Entity> entities();
 
+  List<Token> tokens();
+
   int index();
 
   int start();
@@ -49,4 +57,12 @@ public interface Sentence {
   int end();
 
   Model rdfModel(final String tool, final NlpProcess process, final String host);
+
+  void rdfStream(final StreamRDF stream, final String tool, final NlpProcess process,
+                 final String host);
+
+  Model rdfModel(final String tool, final Set<NlpProcess> processes, final String host);
+
+  void rdfStream(final StreamRDF stream, final String tool, final Set<NlpProcess> processes,
+                 final String host);
 }
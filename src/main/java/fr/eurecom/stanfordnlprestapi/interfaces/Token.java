@@ -19,8 +19,12 @@ package fr.eurecom.stanfordnlprestapi.interfaces;
 
 import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
 
+import java.util.Set;
+
 import org.apache.jena.rdf.model.Model;
 
+import org.apache.jena.riot.system.StreamRDF;
+
 /**
  * Interface that represents a NIF and Stanford NLP token.
  *
@@ -33,9 +37,19 @@ public interface Token {
 
   String text();
 
+  String tag();
+
   int start();
 
   int end();
 
   Model rdfModel(final String tool, final NlpProcess process, final String host);
+
+  void rdfStream(final StreamRDF stream, final String tool, final NlpProcess process,
+                 final String host);
+
+  Model rdfModel(final String tool, final Set<NlpProcess> processes, final String host);
+
+  void rdfStream(final StreamRDF stream, final String tool, final Set<NlpProcess> processes,
+                 final String host);
 }
@@ -0,0 +1,85 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.loadtest;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.LoadTarget;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+
+import org.apache.http.util.EntityUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load target that posts the requests to a running instance of the Web service.
+ *
+ * @author Julien Plu
+ */
+public class HttpLoadTarget implements LoadTarget, Closeable {
+  static final Logger LOGGER = LoggerFactory.getLogger(HttpLoadTarget.class);
+  private final String base;
+  private final CloseableHttpClient client;
+
+  /**
+   * HttpLoadTarget constructor.
+   *
+   * @param newBase        Base URL of the Web service, such as http://localhost:7000.
+   * @param maxConnections Maximum number of connections to the Web service.
+   */
+  public HttpLoadTarget(final String newBase, final int maxConnections) {
+    this.base = newBase;
+    this.client = HttpClients.custom().setMaxConnTotal(maxConnections).setMaxConnPerRoute(
+        maxConnections).setUserAgent("StanfordNLPRESTAPI-loadtest").build();
+  }
+
+  @Override
+  public final int call(final LoadRequest request) throws IOException {
+    final HttpPost post = new HttpPost(this.base + request.path());
+
+    post.setEntity(new ByteArrayEntity(request.body(), ContentType.APPLICATION_JSON));
+
+    try (CloseableHttpResponse response = this.client.execute(post)) {
+      EntityUtils.consume(response.getEntity());
+
+      return response.getStatusLine().getStatusCode();
+    }
+  }
+
+  @Override
+  public final void close() throws IOException {
+    this.client.close();
+  }
+
+  @Override
+  public final String toString() {
+    return "HttpLoadTarget{"
+        + "base='" + this.base + '\''
+        + '}';
+  }
+}
@@ -0,0 +1,128 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.loadtest;
+
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Annotation request sent by a load test.
+ *
+ * @author Julien Plu
+ */
+public class LoadRequest {
+  static final Logger LOGGER = LoggerFactory.getLogger(LoadRequest.class);
+  private final Set<NlpProcess> processes;
+  private final String lang;
+  private final String setting;
+  private final String format;
+  private final byte[] body;
+
+  /**
+   * LoadRequest constructor.
+   *
+   * @param newProcesses Processes to run.
+   * @param newLang      Language of the profile.
+   * @param newSetting   Setting of the profile.
+   * @param newFormat    Output format.
+   * @param newBody      JSON body of the request.
+   */
+  public LoadRequest(final Set<NlpProcess> newProcesses, final String newLang,
+                     final String newSetting, final String newFormat, final byte[] newBody) {
+    this.processes = EnumSet.copyOf(newProcesses);
+    this.lang = newLang;
+    this.setting = newSetting;
+    this.format = newFormat;
+    this.body = Arrays.copyOf(newBody, newBody.length);
+  }
+
+  public final Set<NlpProcess> processes() {
+    return EnumSet.copyOf(this.processes);
+  }
+
+  public final String lang() {
+    return this.lang;
+  }
+
+  public final String setting() {
+    return this.setting;
+  }
+
+  public final String format() {
+    return this.format;
+  }
+
+  public final byte[] body() {
+    return Arrays.copyOf(this.body, this.body.length);
+  }
+
+  /**
+   * Name of the profile that serves the request, as named by the Web service.
+   *
+   * @return The name of the profile.
+   */
+  public final String profile() {
+    return this.names('+') + '_' + this.lang + '_' + this.setting;
+  }
+
+  /**
+   * Path and query string of the request on the Web service.
+   *
+   * @return The path of the request.
+   */
+  public final String path() {
+    final String parameters = "lang=" + this.lang + "&setting=" + this.setting + "&format="
+        + this.format;
+
+    if (this.processes.size() == 1) {
+      return "/v4/" + this.names('+') + '?' + parameters;
+    }
+
+    return "/v4/annotate?processes=" + this.names(',') + '&' + parameters;
+  }
+
+  private String names(final char separator) {
+    final StringBuilder sb = new StringBuilder();
+
+    for (final NlpProcess process : this.processes) {
+      if (sb.length() > 0) {
+        sb.append(separator);
+      }
+
+      sb.append(process.toString().toLowerCase(Locale.ENGLISH));
+    }
+
+    return sb.toString();
+  }
+
+  @Override
+  public final String toString() {
+    return "LoadRequest{"
+        + "profile='" + this.profile() + '\''
+        + ", format='" + this.format + '\''
+        + ", body=" + this.body.length
+        + '}';
+  }
+}
@@ -0,0 +1,153 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Result of a profile at one concurrency level of a load test.
+ *
+ * @author Julien Plu
+ */
+public class LoadResult {
+  static final Logger LOGGER = LoggerFactory.getLogger(LoadResult.class);
+  private final String profile;
+  private final int threads;
+  private final int errors;
+  private final long elapsedNanos;
+  private final long[] latencies;
+  private final long allocatedBytes;
+
+  /**
+   * LoadResult constructor.
+   *
+   * @param newProfile        Name of the profile.
+   * @param newThreads        Number of concurrent requests.
+   * @param newErrors         Number of failed requests.
+   * @param newElapsedNanos   Time taken by all the requests.
+   * @param newLatencies      Latency of each request in nanoseconds.
+   * @param newAllocatedBytes Bytes allocated by the JVM during the requests, -1 if unknown.
+   */
+  public LoadResult(final String newProfile, final int newThreads, final int newErrors,
+                    final long newElapsedNanos, final long[] newLatencies,
+                    final long newAllocatedBytes) {
+    this.profile = newProfile;
+    this.threads = newThreads;
+    this.errors = newErrors;
+    this.elapsedNanos = newElapsedNanos;
+    this.latencies = Arrays.copyOf(newLatencies, newLatencies.length);
+    this.allocatedBytes = newAllocatedBytes;
+
+    Arrays.sort(this.latencies);
+  }
+
+  /**
+   * Header of the lines of the results, separated by tabulations.
+   *
+   * @return The header.
+   */
+  public static String header() {
+    return "profile\tthreads\trequests\terrors\tthroughput_rps\tp50_ms\tp95_ms\tp99_ms\tp999_ms"
+        + "\talloc_mb_s";
+  }
+
+  public final String profile() {
+    return this.profile;
+  }
+
+  public final int threads() {
+    return this.threads;
+  }
+
+  public final int requests() {
+    return this.latencies.length;
+  }
+
+  public final int errors() {
+    return this.errors;
+  }
+
+  /**
+   * Number of requests answered per second.
+   *
+   * @return The throughput.
+   */
+  public final double throughput() {
+    return this.latencies.length / (this.elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+  }
+
+  /**
+   * Latency under which a share of the requests are answered, by nearest rank.
+   *
+   * @param quantile Share of the requests, between 0 and 1.
+   *
+   * @return The latency in milliseconds.
+   */
+  public final double percentile(final double quantile) {
+    if (this.latencies.length == 0) {
+      return 0;
+    }
+
+    final int rank = (int) Math.ceil(quantile * this.latencies.length);
+
+    return this.latencies[Math.max(0, rank - 1)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * Megabytes allocated per second during the requests.
+   *
+   * @return The allocation rate, -1 if unknown.
+   */
+  public final double allocationRate() {
+    if (this.allocatedBytes < 0) {
+      return -1;
+    }
+
+    return this.allocatedBytes / (1024.0 * 1024.0) / (this.elapsedNanos
+        / (double) TimeUnit.SECONDS.toNanos(1));
+  }
+
+  /**
+   * The result as a line of values separated by tabulations, in the order of the header.
+   *
+   * @return The line of the result.
+   */
+  public final String line() {
+    return String.format(Locale.ENGLISH, "%s\t%d\t%d\t%d\t%.3f\t%.3f\t%.3f\t%.3f\t%.3f\t%.3f",
+        this.profile, this.threads, this.latencies.length, this.errors, this.throughput(),
+        this.percentile(0.5), this.percentile(0.95), this.percentile(0.99),
+        this.percentile(0.999), this.allocationRate());
+  }
+
+  @Override
+  public final String toString() {
+    return "LoadResult{"
+        + "profile='" + this.profile + '\''
+        + ", threads=" + this.threads
+        + ", requests=" + this.latencies.length
+        + ", errors=" + this.errors
+        + ", elapsedNanos=" + this.elapsedNanos
+        + ", allocatedBytes=" + this.allocatedBytes
+        + '}';
+  }
+}
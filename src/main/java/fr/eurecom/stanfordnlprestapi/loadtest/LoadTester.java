@@ -0,0 +1,193 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.loadtest;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.LoadTarget;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Closed loop load test: at each concurrency level, as many threads as the level send the
+ * requests of a profile one after the other until all of them are answered.
+ *
+ * @author Julien Plu
+ */
+public class LoadTester {
+  static final Logger LOGGER = LoggerFactory.getLogger(LoadTester.class);
+  private final LoadTarget target;
+  private final int warmup;
+
+  /**
+   * LoadTester constructor.
+   *
+   * @param newTarget Target of the requests.
+   * @param newWarmup Number of requests sent to each profile before it is measured.
+   */
+  public LoadTester(final LoadTarget newTarget, final int newWarmup) {
+    this.target = newTarget;
+    this.warmup = newWarmup;
+  }
+
+  /**
+   * Measure each profile of the requests at each concurrency level. The profiles are measured
+   * one after the other in the order of their names.
+   *
+   * @param requests Requests to send, the order of the requests of a profile is kept.
+   * @param levels   Concurrency levels.
+   *
+   * @return The results by profile, then by level.
+   *
+   * @throws InterruptedException if the test is interrupted.
+   */
+  public final List<LoadResult> sweep(final List<LoadRequest> requests,
+                                      final List<Integer> levels) throws InterruptedException {
+    final Map<String, List<LoadRequest>> profiles = new TreeMap<>();
+    final List<LoadResult> results = new ArrayList<>();
+
+    for (final LoadRequest request : requests) {
+      profiles.computeIfAbsent(request.profile(), profile -> new ArrayList<>()).add(request);
+    }
+
+    for (final Map.Entry<String, List<LoadRequest>> profile : profiles.entrySet()) {
+      final List<LoadRequest> warmupRequests = new ArrayList<>();
+
+      for (int i = 0; i < this.warmup; i++) {
+        warmupRequests.add(profile.getValue().get(i % profile.getValue().size()));
+      }
+
+      this.run(profile.getKey(), warmupRequests, 1);
+
+      for (final int level : levels) {
+        final LoadResult result = this.run(profile.getKey(), profile.getValue(), level);
+
+        LoadTester.LOGGER.info("{}", result.line());
+
+        results.add(result);
+      }
+    }
+
+    return results;
+  }
+
+  /**
+   * Send requests with a given number of threads.
+   *
+   * @param profile  Name of the profile of the requests.
+   * @param requests Requests to send.
+   * @param threads  Number of threads that send the requests.
+   *
+   * @return The result of the requests.
+   *
+   * @throws InterruptedException if the test is interrupted.
+   */
+  final LoadResult run(final String profile, final List<LoadRequest> requests, final int threads)
+      throws InterruptedException {
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    final long[] latencies = new long[requests.size()];
+    final AtomicInteger next = new AtomicInteger();
+    final AtomicInteger errors = new AtomicInteger();
+    final List<Future<?>> futures = new ArrayList<>();
+    final long allocated = LoadTester.allocated();
+    final long start = System.nanoTime();
+
+    for (int i = 0; i < threads; i++) {
+      futures.add(executor.submit(() -> {
+        int index = next.getAndIncrement();
+
+        while (index < requests.size()) {
+          final long begin = System.nanoTime();
+
+          try {
+            if (this.target.call(requests.get(index)) >= 400) {
+              errors.incrementAndGet();
+            }
+          } catch (final Exception ex) {
+            LoadTester.LOGGER.debug("Request of the profile {} failed", profile, ex);
+
+            errors.incrementAndGet();
+          }
+
+          latencies[index] = System.nanoTime() - begin;
+          index = next.getAndIncrement();
+        }
+      }));
+    }
+
+    try {
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+
+      final long elapsed = System.nanoTime() - start;
+
+      // The threads of the executor are still alive, so what they allocated is counted.
+      return new LoadResult(profile, threads, errors.get(), elapsed, latencies,
+          allocated < 0 ? -1 : LoadTester.allocated() - allocated);
+    } catch (final ExecutionException ex) {
+      throw new IllegalStateException("A thread of the load test failed", ex);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Bytes allocated so far by the live threads of the JVM.
+   *
+   * @return The allocated bytes, -1 if the JVM does not measure them.
+   */
+  private static long allocated() {
+    final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+    if (!(bean instanceof com.sun.management.ThreadMXBean)
+        || !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+      return -1;
+    }
+
+    long total = 0;
+
+    for (final long bytes : ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(
+        bean.getAllThreadIds())) {
+      if (bytes > 0) {
+        total += bytes;
+      }
+    }
+
+    return total;
+  }
+
+  @Override
+  public final String toString() {
+    return "LoadTester{"
+        + "target=" + this.target
+        + ", warmup=" + this.warmup
+        + '}';
+  }
+}
@@ -0,0 +1,169 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.loadtest;
+
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reader of the annotation requests of a request log in the NCSA format, such as the
+ * stanford-queries log. The log keeps the endpoint and the parameters of each request but not
+ * its body, so the bodies are supplied apart, either captured or generated.
+ *
+ * @author Julien Plu
+ */
+public class RequestLogReader {
+  static final Logger LOGGER = LoggerFactory.getLogger(RequestLogReader.class);
+  private static final Pattern REQUEST = Pattern.compile(
+      "\"POST /v4/([a-z]+)/?(?:\\?([^ \"]*))? HTTP/[0-9.]+\"");
+  private final Supplier<byte[]> bodies;
+
+  /**
+   * RequestLogReader constructor.
+   *
+   * @param newBodies Supplier of the body of each request.
+   */
+  public RequestLogReader(final Supplier<byte[]> newBodies) {
+    this.bodies = newBodies;
+  }
+
+  /**
+   * Read the annotation requests of a request log, in their order. The other requests, such as
+   * the batches or the profiles, are skipped.
+   *
+   * @param log Request log to read.
+   *
+   * @return The annotation requests.
+   *
+   * @throws IOException if the log cannot be read.
+   */
+  public final List<LoadRequest> read(final Path log) throws IOException {
+    final List<LoadRequest> requests = new ArrayList<>();
+
+    try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+      String line = reader.readLine();
+
+      while (line != null) {
+        final LoadRequest request = this.request(line);
+
+        if (request != null) {
+          requests.add(request);
+        }
+
+        line = reader.readLine();
+      }
+    }
+
+    RequestLogReader.LOGGER.info("{} annotation requests read from {}", requests.size(), log);
+
+    return requests;
+  }
+
+  /**
+   * Turn a line of a request log into a request.
+   *
+   * @param line Line of the request log.
+   *
+   * @return The request, null if the line is not an annotation request.
+   *
+   * @throws UnsupportedEncodingException if UTF-8 is not supported.
+   */
+  final LoadRequest request(final String line) throws UnsupportedEncodingException {
+    final Matcher matcher = RequestLogReader.REQUEST.matcher(line);
+
+    if (!matcher.find()) {
+      return null;
+    }
+
+    final Map<String, String> parameters = RequestLogReader.parameters(matcher.group(2));
+    final Set<NlpProcess> processes = EnumSet.noneOf(NlpProcess.class);
+
+    if ("annotate".equals(matcher.group(1))) {
+      for (final String process : parameters.getOrDefault("processes", "").split(",")) {
+        if (RequestLogReader.isProcess(process)) {
+          processes.add(NlpProcess.valueOf(process.trim().toUpperCase(Locale.ENGLISH)));
+        }
+      }
+    } else if (RequestLogReader.isProcess(matcher.group(1))) {
+      processes.add(NlpProcess.valueOf(matcher.group(1).toUpperCase(Locale.ENGLISH)));
+    }
+
+    if (processes.isEmpty()) {
+      return null;
+    }
+
+    return new LoadRequest(processes, parameters.getOrDefault("lang", "en"),
+        parameters.getOrDefault("setting", "none"), parameters.getOrDefault("format",
+        "turtle-blocks"), this.bodies.get());
+  }
+
+  private static boolean isProcess(final String name) {
+    for (final NlpProcess process : NlpProcess.values()) {
+      if (process.toString().equalsIgnoreCase(name.trim())) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static Map<String, String> parameters(final String query)
+      throws UnsupportedEncodingException {
+    final Map<String, String> parameters = new HashMap<>();
+
+    if (query == null) {
+      return parameters;
+    }
+
+    for (final String parameter : query.split("&")) {
+      final int equal = parameter.indexOf('=');
+
+      if (equal > 0) {
+        parameters.put(URLDecoder.decode(parameter.substring(0, equal), "UTF-8"),
+            URLDecoder.decode(parameter.substring(equal + 1), "UTF-8"));
+      }
+    }
+
+    return parameters;
+  }
+
+  @Override
+  public final String toString() {
+    return "RequestLogReader{}";
+  }
+}
@@ -0,0 +1,64 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.loadtest;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.LoadTarget;
+
+import fr.eurecom.stanfordnlprestapi.resources.PipelineResource;
+
+import java.io.IOException;
+
+import org.apache.commons.io.output.NullOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load target that annotates the requests with a {@link PipelineResource} of the same process.
+ *
+ * @author Julien Plu
+ */
+public class ResourceLoadTarget implements LoadTarget {
+  static final Logger LOGGER = LoggerFactory.getLogger(ResourceLoadTarget.class);
+  private final PipelineResource resource;
+  private final String host;
+
+  /**
+   * ResourceLoadTarget constructor.
+   *
+   * @param newResource Resource that annotates the requests.
+   * @param newHost     Host used to build the NIF URIs.
+   */
+  public ResourceLoadTarget(final PipelineResource newResource, final String newHost) {
+    this.resource = newResource;
+    this.host = newHost;
+  }
+
+  @Override
+  public final int call(final LoadRequest request) throws IOException {
+    return this.resource.annotate(request.body(), request.processes(), request.lang(),
+        request.setting(), request.format(), this.host, NullOutputStream.NULL_OUTPUT_STREAM);
+  }
+
+  @Override
+  public final String toString() {
+    return "ResourceLoadTarget{"
+        + "host='" + this.host + '\''
+        + '}';
+  }
+}
@@ -0,0 +1,51 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.nullobjects;
+
+import fr.eurecom.stanfordnlprestapi.datatypes.Context;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.ContextListener;
+import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Null object that represents a context listener that ignores everything.
+ *
+ * @author Julien Plu
+ */
+public final class NullContextListener implements ContextListener {
+  static final Logger LOGGER = LoggerFactory.getLogger(NullContextListener.class);
+  private static final NullContextListener INSTANCE = new NullContextListener();
+
+  public static NullContextListener getInstance() {
+    return NullContextListener.INSTANCE;
+  }
+  
+  private NullContextListener() {
+  }
+
+  @Override
+  public void start(final Context context) {
+  }
+
+  @Override
+  public void sentence(final Sentence sentence) {
+  }
+}
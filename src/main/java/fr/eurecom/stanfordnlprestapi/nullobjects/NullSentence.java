@@ -25,11 +25,15 @@ import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
 import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
 import fr.eurecom.stanfordnlprestapi.interfaces.Token;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 
+import org.apache.jena.riot.system.StreamRDF;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,6 +58,12 @@ public final class NullSentence implements Sentence {
     throw new UnsupportedOperationException("Not implemented");
   }
 
+  @Override
+  public void addToken(final String newText, final String newTag, final int newStart,
+                       final int newEnd, final int newIndex) {
+    throw new UnsupportedOperationException("Not implemented");
+  }
+
   @Override
   public void addEntity(final Entity newEntity) {
     throw new UnsupportedOperationException("Not implemented");
@@ -71,7 +81,12 @@ public final class NullSentence implements Sentence {
 
   @Override
   public List<Entity> entities() {
-    return null;
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<Token> tokens() {
+    return Collections.emptyList();
   }
 
   @Override
@@ -93,4 +108,19 @@ public final class NullSentence implements Sentence {
   public Model rdfModel(final String tool, final NlpProcess process, final String host) {
     return ModelFactory.createDefaultModel();
   }
+
+  @Override
+  public void rdfStream(final StreamRDF stream, final String tool, final NlpProcess process,
+                        final String host) {
+  }
+
+  @Override
+  public Model rdfModel(final String tool, final Set<NlpProcess> processes, final String host) {
+    return ModelFactory.createDefaultModel();
+  }
+
+  @Override
+  public void rdfStream(final StreamRDF stream, final String tool, final Set<NlpProcess> processes,
+                        final String host) {
+  }
 }
@@ -20,9 +20,13 @@ package fr.eurecom.stanfordnlprestapi.nullobjects;
 import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
 import fr.eurecom.stanfordnlprestapi.interfaces.Token;
 
+import java.util.Set;
+
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 
+import org.apache.jena.riot.system.StreamRDF;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,6 +61,11 @@ public final class NullToken implements Token {
     return null;
   }
 
+  @Override
+  public String tag() {
+    return "";
+  }
+
   @Override
   public int start() {
     return 0;
@@ -71,4 +80,19 @@ public final class NullToken implements Token {
   public Model rdfModel(final String tool, final NlpProcess process, final String host) {
     return ModelFactory.createDefaultModel();
   }
+
+  @Override
+  public void rdfStream(final StreamRDF stream, final String tool, final NlpProcess process,
+                        final String host) {
+  }
+
+  @Override
+  public Model rdfModel(final String tool, final Set<NlpProcess> processes, final String host) {
+    return ModelFactory.createDefaultModel();
+  }
+
+  @Override
+  public void rdfStream(final StreamRDF stream, final String tool, final Set<NlpProcess> processes,
+                        final String host) {
+  }
 }
@@ -0,0 +1,80 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.resources;
+
+import fr.eurecom.stanfordnlprestapi.cache.OffHeapResponse;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Response read from the off-heap cache. The segment where the response is stored stays pinned
+ * until the response is written, so a response that is never written must be closed.
+ *
+ * @author Julien Plu
+ */
+public class OffHeapOutput implements StreamingOutput, Closeable {
+  static final Logger LOGGER = LoggerFactory.getLogger(OffHeapOutput.class);
+  private final OffHeapResponse response;
+  private final AtomicBoolean closed;
+
+  /**
+   * OffHeapOutput constructor.
+   *
+   * @param newResponse Response pinned by {@link
+   *                    fr.eurecom.stanfordnlprestapi.cache.OffHeapResponseCache#get(String)}.
+   */
+  public OffHeapOutput(final OffHeapResponse newResponse) {
+    this.response = newResponse;
+    this.closed = new AtomicBoolean();
+  }
+
+  @Override
+  public final void write(final OutputStream out) throws IOException {
+    try {
+      this.response.writeTo(out);
+    } finally {
+      this.close();
+    }
+  }
+
+  /**
+   * Unpin the segment of the response, only the first time it is called.
+   */
+  @Override
+  public final void close() {
+    if (this.closed.compareAndSet(false, true)) {
+      this.response.close();
+    }
+  }
+
+  @Override
+  public final String toString() {
+    return "OffHeapOutput{"
+        + "response=" + this.response
+        + ", closed=" + this.closed.get()
+        + '}';
+  }
+}
@@ -17,34 +17,73 @@
  */
 package fr.eurecom.stanfordnlprestapi.resources;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.codahale.metrics.annotation.Timed;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
-import fr.eurecom.stanfordnlprestapi.core.StanfordNlp;
+import fr.eurecom.stanfordnlprestapi.cache.CapturingOutputStream;
+import fr.eurecom.stanfordnlprestapi.cache.OffHeapResponse;
+import fr.eurecom.stanfordnlprestapi.cache.OffHeapResponseCache;
+import fr.eurecom.stanfordnlprestapi.cache.ResponseCache;
+import fr.eurecom.stanfordnlprestapi.cache.SentenceCache;
 
+import fr.eurecom.stanfordnlprestapi.configurations.PipelineConfiguration;
+
+import fr.eurecom.stanfordnlprestapi.core.StageMetrics;
+import fr.eurecom.stanfordnlprestapi.core.StanfordNlpPool;
+
+import fr.eurecom.stanfordnlprestapi.datatypes.Batch;
 import fr.eurecom.stanfordnlprestapi.datatypes.Query;
 import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+import fr.eurecom.stanfordnlprestapi.enums.OutputFormat;
+
+import fr.eurecom.stanfordnlprestapi.fetch.UrlFetcher;
 
+import fr.eurecom.stanfordnlprestapi.nullobjects.NullContextListener;
+
+import fr.eurecom.stanfordnlprestapi.store.AnnotationStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
-import java.net.URL;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
 import javax.validation.Validator;
-import javax.validation.ValidatorFactory;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
@@ -55,12 +94,19 @@ import javax.ws.rs.Produces;
 
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.apache.jena.rdf.model.Model;
 
-import org.apache.commons.io.IOUtils;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
 
-import org.jsoup.Jsoup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,9 +116,26 @@ import org.slf4j.LoggerFactory;
 @Path("/v4")
 public class PipelineResource {
   private static final Logger LOGGER = LoggerFactory.getLogger(PipelineResource.class);
-  private final Map<String, StanfordNlp> pipelines;
+  private static final ObjectMapper MAPPER = new ObjectMapper().configure(
+      JsonParser.Feature.ALLOW_UNQUOTED_CONTROL_CHARS, true);
+  private static final ObjectReader QUERY_READER = PipelineResource.MAPPER.readerFor(Query.class);
+  private static final ObjectReader QUERIES_READER = PipelineResource.MAPPER.readerFor(
+      Query[].class);
+  private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory()
+      .getValidator();
+  private final Map<String, CompletableFuture<StanfordNlpPool>> pipelines;
+  private final Map<String, String> propertyFiles;
   private final String stanford;
   private final Map<String, Map> profiles = new HashMap<>();
+  private final PipelineConfiguration configuration;
+  private final MetricRegistry metrics;
+  private final ExecutorService executor;
+  private final ResponseCache cache;
+  private final OffHeapResponseCache offHeapCache;
+  private final SentenceCache sentenceCache;
+  private final AnnotationStore store;
+  private final ExecutorService loader;
+  private final UrlFetcher fetcher;
 
   /**
    * PipelineResource constructor.
@@ -80,31 +143,39 @@ public class PipelineResource {
    * @param name a name.
    */
   public PipelineResource(final String name) {
-    PipelineResource.LOGGER.info("PipelineResource init");
-    
-    this.pipelines = new HashMap<>();
-    
-    this.loadAllProperties();
-    
-    this.stanford = name;
+    this(PipelineResource.defaultConfiguration(name), true);
+  }
+  
+  /**
+   * PipelineResource constructor that loads all the profiles of the properties folder.
+   *
+   * @param newConfiguration Configuration of the Web service.
+   * @param newMetrics       Registry where the metrics of the pools are registered.
+   * @param newExecutor      Executor that runs the annotations.
+   * @param newLoader        Executor that loads the profiles.
+   */
+  public PipelineResource(final PipelineConfiguration newConfiguration,
+                          final MetricRegistry newMetrics, final ExecutorService newExecutor,
+                          final ExecutorService newLoader) {
+    this(newConfiguration, newMetrics, newExecutor, newLoader, true);
   }
   
   /**
    * PipelineResource constructor.
    *
    * @param name a name.
-   * @param propertyFile Stanford property file to load.
+   * @param propertyFiles Stanford property files to load.
    *
    */
-  public PipelineResource(final String name, final java.nio.file.Path propertyFile) {
-    this.pipelines = new HashMap<>();
-    
-    this.pipelines.put(propertyFile.toString().split(
-        FileSystems.getDefault().getSeparator())[propertyFile.toString().split(
-        FileSystems.getDefault().getSeparator()).length - 1].split("\\.")[0],
-        new StanfordNlp(propertyFile.toString(), name));
+  public PipelineResource(final String name, final java.nio.file.Path... propertyFiles) {
+    this(PipelineResource.defaultConfiguration(name), false);
     
-    this.stanford = name;
+    for (final java.nio.file.Path propertyFile : propertyFiles) {
+      this.addPipeline(propertyFile.toString().split(
+          FileSystems.getDefault().getSeparator())[propertyFile.toString().split(
+          FileSystems.getDefault().getSeparator()).length - 1].split("\\.")[0],
+          propertyFile.toString());
+    }
   }
 
   /**
@@ -115,12 +186,204 @@ public class PipelineResource {
    *
    */
   public PipelineResource(final String name, final String propertyFile) {
-    this.pipelines = new HashMap<>();
+    this(PipelineResource.defaultConfiguration(name), false);
+    
+    this.addPipeline(propertyFile, "properties" + FileSystems.getDefault().getSeparator()
+        + propertyFile + ".properties");
+  }
+  
+  /**
+   * PipelineResource constructor used out of a Dropwizard environment, its executors run on
+   * daemon threads.
+   *
+   * @param newConfiguration Configuration of the Web service.
+   * @param newAllProfiles   Whether the profiles of the properties folder are loaded.
+   */
+  private PipelineResource(final PipelineConfiguration newConfiguration,
+                           final boolean newAllProfiles) {
+    this(newConfiguration, new MetricRegistry(), PipelineResource.defaultExecutor(
+        newConfiguration), PipelineResource.defaultLoader(newConfiguration), newAllProfiles);
+  }
+  
+  private PipelineResource(final PipelineConfiguration newConfiguration,
+                           final MetricRegistry newMetrics, final ExecutorService newExecutor,
+                           final ExecutorService newLoader, final boolean newAllProfiles) {
+    PipelineResource.LOGGER.info("PipelineResource init");
+    
+    this.pipelines = new ConcurrentHashMap<>();
+    this.propertyFiles = new ConcurrentHashMap<>();
+    this.stanford = newConfiguration.getName();
+    this.configuration = newConfiguration;
+    this.metrics = newMetrics;
+    this.executor = newExecutor;
+    this.offHeapCache = new OffHeapResponseCache(newConfiguration.getCache());
+    this.cache = new ResponseCache(newConfiguration.getCache(), this.offHeapCache::put);
+    this.sentenceCache = new SentenceCache(newConfiguration.getCache());
+    this.store = new AnnotationStore(newConfiguration.getStore());
+    this.loader = newLoader;
+    this.fetcher = new UrlFetcher(newConfiguration.getFetcher());
+    
+    this.cache.registerMetrics(this.metrics);
+    this.offHeapCache.registerMetrics(this.metrics);
+    this.sentenceCache.registerMetrics(this.metrics);
+    this.store.registerMetrics(this.metrics);
+    
+    if (newAllProfiles) {
+      this.loadAllProperties();
+      this.warmProfiles();
+    }
+  }
+  
+  /**
+   * Persistent store of the documents annotated by the profiles.
+   *
+   * @return The store of the annotated documents.
+   */
+  public final AnnotationStore store() {
+    return this.store;
+  }
+  
+  private static PipelineConfiguration defaultConfiguration(final String name) {
+    final PipelineConfiguration defaultConfiguration = new PipelineConfiguration();
+    
+    defaultConfiguration.setName(name);
+    
+    return defaultConfiguration;
+  }
+  
+  private static ExecutorService defaultExecutor(final PipelineConfiguration configuration) {
+    return new ThreadPoolExecutor(configuration.getExecutor().getThreads(),
+        configuration.getExecutor().getThreads(), 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(configuration.getExecutor().getQueueSize()),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("annotation-%d").build());
+  }
+  
+  private static ExecutorService defaultLoader(final PipelineConfiguration configuration) {
+    return Executors.newFixedThreadPool(configuration.getProfiles().getLoaderThreads(),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("profile-loader-%d").build());
+  }
+  
+  private void addPipeline(final String profile, final String propertyFile) {
+    this.propertyFiles.put(profile, propertyFile);
+    this.pipelines.put(profile, CompletableFuture.completedFuture(this.createPool(profile,
+        propertyFile)));
+  }
+  
+  private StanfordNlpPool createPool(final String profile, final String propertyFile) {
+    final StanfordNlpPool pool = new StanfordNlpPool(profile, propertyFile, this.stanford,
+        this.configuration.poolFor(profile), this.sentenceCache, this.store);
     
-    this.pipelines.put(propertyFile, new StanfordNlp("properties"
-        + FileSystems.getDefault().getSeparator() + propertyFile + ".properties", name));
+    pool.registerMetrics(this.metrics);
     
-    this.stanford = name;
+    return pool;
+  }
+  
+  private void warmProfiles() {
+    if (!this.configuration.getProfiles().isLazy()) {
+      this.propertyFiles.forEach(this::addPipeline);
+    } else {
+      for (final String profile : this.configuration.getProfiles().getWarm()) {
+        if (this.propertyFiles.containsKey(profile)) {
+          this.addPipeline(profile, this.propertyFiles.get(profile));
+        } else {
+          PipelineResource.LOGGER.warn("The warm profile {} does not exists", profile);
+        }
+      }
+    }
+  }
+  
+  /**
+   * Get the pool of a profile, its loading starts in the background on the first call.
+   *
+   * @param profile Name of the profile.
+   *
+   * @return The pool of the profile once it is loaded.
+   */
+  private CompletableFuture<StanfordNlpPool> load(final String profile) {
+    if (!this.propertyFiles.containsKey(profile)) {
+      throw new WebApplicationException("The profile: " + profile + " does not exists",
+          Response.Status.PRECONDITION_FAILED);
+    }
+    
+    return this.load(profile, () -> this.createPool(profile, this.propertyFiles.get(profile)));
+  }
+  
+  /**
+   * Get the pool that runs several processes with a single pipeline, built from the profiles of
+   * each process for the same language and setting.
+   *
+   * @param processes Processes to run.
+   * @param lang      Language of the profiles.
+   * @param setting   Setting of the profiles.
+   *
+   * @return The pool of the merged profile once it is loaded.
+   */
+  private CompletableFuture<StanfordNlpPool> load(final Set<NlpProcess> processes,
+                                                  final String lang, final String setting) {
+    final String profile = this.profileName(processes, lang, setting);
+    
+    if (processes.size() == 1) {
+      return this.load(profile);
+    }
+    
+    final List<String> files = new ArrayList<>();
+    
+    for (final NlpProcess process : processes) {
+      final String member = this.profileName(EnumSet.of(process), lang, setting);
+      
+      if (!this.propertyFiles.containsKey(member)) {
+        throw new WebApplicationException("The profile: " + member + " does not exists",
+            Response.Status.PRECONDITION_FAILED);
+      }
+      
+      files.add(this.propertyFiles.get(member));
+    }
+    
+    return this.load(profile, () -> {
+      final StanfordNlpPool pool = new StanfordNlpPool(profile, files, processes, this.stanford,
+          this.configuration.poolFor(profile), this.sentenceCache, this.store);
+      
+      pool.registerMetrics(this.metrics);
+      
+      return pool;
+    });
+  }
+  
+  private CompletableFuture<StanfordNlpPool> load(final String profile,
+                                                  final Supplier<StanfordNlpPool> factory) {
+    final CompletableFuture<StanfordNlpPool> future = this.pipelines.computeIfAbsent(profile,
+        name -> CompletableFuture.supplyAsync(() -> {
+          PipelineResource.LOGGER.info("Load the profile {}", name);
+          
+          return factory.get();
+        }, this.loader));
+    
+    future.whenComplete((pool, error) -> {
+      if (error != null) {
+        PipelineResource.LOGGER.error("Failed to load the profile {}", profile, error);
+        
+        this.pipelines.remove(profile, future);
+      }
+    });
+    
+    return future;
+  }
+  
+  private WebApplicationException loadFailure(final String profile, final Throwable error) {
+    final Throwable cause;
+    
+    if (error instanceof CompletionException && error.getCause() != null) {
+      cause = error.getCause();
+    } else {
+      cause = error;
+    }
+    
+    if (cause instanceof WebApplicationException) {
+      return (WebApplicationException) cause;
+    }
+    
+    return new WebApplicationException("Failed to load the profile " + profile, cause,
+        Response.Status.INTERNAL_SERVER_ERROR);
   }
   
   /**
@@ -136,7 +399,7 @@ public class PipelineResource {
     final String json;
     
     try {
-      json = new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(
+      json = PipelineResource.MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(
           this.profiles.keySet());
     } catch (final IOException ex) {
       throw new WebApplicationException("Issue for reading the profiles", ex,
@@ -160,7 +423,7 @@ public class PipelineResource {
     
     try {
       if (this.profiles.containsKey(name)) {
-        json = new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(
+        json = PipelineResource.MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(
             this.profiles.get(name));
       } else {
         throw new WebApplicationException("The profile " + name + " does not exists.",
@@ -175,352 +438,713 @@ public class PipelineResource {
   }
   
   /**
-   * The API call for a NER process via POST.
-   *
-   * @return The corresponding response of the query
+   * The API call for a NER process via POST. The annotation runs on the annotation executor and the
+   * response is resumed with its result.
    */
   @POST
   @Timed
   @Produces({"application/json;charset=utf-8", "text/turtle;charset=utf-8"})
   @Consumes("application/json;charset=utf-8")
   @Path("/ner/")
-  public final Response ner(@Context final HttpServletRequest request,
-                            @QueryParam("setting") @DefaultValue("none") final String setting,
-                            @QueryParam("lang") @DefaultValue("en") final String newLang) {
-    final Response result;
-    final StringWriter writer = new StringWriter();
-    final ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-    final Validator validator = factory.getValidator();
+  public final void ner(@Context final HttpServletRequest request,
+                        @Suspended final AsyncResponse asyncResponse,
+                        @QueryParam("setting") @DefaultValue("none") final String setting,
+                        @QueryParam("lang") @DefaultValue("en") final String newLang,
+                        @QueryParam("format") @DefaultValue("turtle-blocks")
+                        final String format,
+                        @QueryParam("stream") @DefaultValue("false") final boolean stream) {
+    this.annotate(request, asyncResponse, NlpProcess.NER, setting, newLang, format, stream);
+  }
   
-    try {
-      IOUtils.copy(request.getInputStream(), writer, Charset.forName("UTF-8"));
-      
-      final ObjectMapper mapper = new ObjectMapper();
-      
-      mapper.configure(JsonParser.Feature.ALLOW_UNQUOTED_CONTROL_CHARS, true);
-      
-      final Query query = mapper.readValue(writer.toString(), Query.class);
-      final Set<ConstraintViolation<Query>> violations = validator.validate(query);
-    
-      if (!violations.isEmpty()) {
-        final StringBuilder sb = new StringBuilder();
-      
-        violations.forEach(error -> sb.append(error.getPropertyPath()
-            + error.getMessage()).append("\n"));
-      
-        throw new WebApplicationException(sb.toString(), Response.Status.PRECONDITION_FAILED);
-      }
-    
-      result = this.task(query, setting, this.getHost(request), NlpProcess.NER, newLang);
-    } catch (final IOException ex) {
-      throw new WebApplicationException("Failed to read the HTTP request " + writer, ex,
-          Response.Status.PRECONDITION_FAILED);
-    }
+  /**
+   * The API call for a POS process via POST. The annotation runs on the annotation executor and the
+   * response is resumed with its result.
+   */
+  @POST
+  @Timed
+  @Produces({"application/json;charset=utf-8", "text/turtle;charset=utf-8"})
+  @Consumes("application/json;charset=utf-8")
+  @Path("/pos/")
+  public final void pos(@Context final HttpServletRequest request,
+                        @Suspended final AsyncResponse asyncResponse,
+                        @QueryParam("setting") @DefaultValue("none") final String setting,
+                        @QueryParam("lang") @DefaultValue("en") final String newLang,
+                        @QueryParam("format") @DefaultValue("turtle-blocks")
+                        final String format,
+                        @QueryParam("stream") @DefaultValue("false") final boolean stream) {
+    this.annotate(request, asyncResponse, NlpProcess.POS, setting, newLang, format, stream);
+  }
   
-    return result;
+  /**
+   * The API call for a tokenize process via POST. The annotation runs on the annotation executor
+   * and the response is resumed with its result.
+   */
+  @POST
+  @Timed
+  @Produces({"application/json;charset=utf-8", "text/turtle;charset=utf-8"})
+  @Consumes("application/json;charset=utf-8")
+  @Path("/tokenize/")
+  public final void tokenize(@Context final HttpServletRequest request,
+                             @Suspended final AsyncResponse asyncResponse,
+                             @QueryParam("setting") @DefaultValue("none") final String setting,
+                             @QueryParam("lang") @DefaultValue("en") final String newLang,
+                             @QueryParam("format") @DefaultValue("turtle-blocks")
+                             final String format,
+                             @QueryParam("stream") @DefaultValue("false") final boolean stream) {
+    this.annotate(request, asyncResponse, NlpProcess.TOKENIZE, setting, newLang, format, stream);
   }
   
   /**
-   * The API call for a POS process via POST.
-   *
-   * @return The corresponding response of the query
+   * The API call for a coref process via POST. The annotation runs on the annotation executor and
+   * the response is resumed with its result.
    */
   @POST
   @Timed
   @Produces({"application/json;charset=utf-8", "text/turtle;charset=utf-8"})
   @Consumes("application/json;charset=utf-8")
-  @Path("/pos/")
-  public final Response pos(@Context final HttpServletRequest request,
-                            @QueryParam("setting") @DefaultValue("none") final String setting,
-                            @QueryParam("lang") @DefaultValue("en") final String newLang) {
-    final Response result;
-    final StringWriter writer = new StringWriter();
-    final ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-    final Validator validator = factory.getValidator();
+  @Path("/coref/")
+  public final void coref(@Context final HttpServletRequest request,
+                          @Suspended final AsyncResponse asyncResponse,
+                          @QueryParam("setting") @DefaultValue("none") final String setting,
+                          @QueryParam("lang") @DefaultValue("en") final String newLang,
+                          @QueryParam("format") @DefaultValue("turtle-blocks")
+                          final String format,
+                          @QueryParam("stream") @DefaultValue("false") final boolean stream) {
+    this.annotate(request, asyncResponse, NlpProcess.COREF, setting, newLang, format, stream);
+  }
   
-    try {
-      IOUtils.copy(request.getInputStream(), writer, Charset.forName("UTF-8"));
-    
-      final ObjectMapper mapper = new ObjectMapper();
-    
-      mapper.configure(JsonParser.Feature.ALLOW_UNQUOTED_CONTROL_CHARS, true);
-      
-      final Query query = mapper.readValue(writer.toString(), Query.class);
-      final Set<ConstraintViolation<Query>> violations = validator.validate(query);
-    
-      if (!violations.isEmpty()) {
-        final StringBuilder sb = new StringBuilder();
-      
-        violations.forEach(error -> sb.append(error.getPropertyPath()
-            + error.getMessage()).append("\n"));
-      
-        throw new WebApplicationException(sb.toString(), Response.Status.PRECONDITION_FAILED);
-      }
-    
-      result = this.task(query, setting, this.getHost(request), NlpProcess.POS, newLang);
-    } catch (final IOException ex) {
-      throw new WebApplicationException("Failed to read the HTTP request " + writer, ex,
-          Response.Status.PRECONDITION_FAILED);
-    }
+  /**
+   * The API call for a date process via POST. The annotation runs on the annotation executor and
+   * the response is resumed with its result.
+   */
+  @POST
+  @Timed
+  @Produces({"application/json;charset=utf-8", "text/turtle;charset=utf-8"})
+  @Consumes("application/json;charset=utf-8")
+  @Path("/date/")
+  public final void date(@Context final HttpServletRequest request,
+                         @Suspended final AsyncResponse asyncResponse,
+                         @QueryParam("setting") @DefaultValue("none") final String setting,
+                         @QueryParam("lang") @DefaultValue("en") final String newLang,
+                         @QueryParam("format") @DefaultValue("turtle-blocks")
+                         final String format,
+                         @QueryParam("stream") @DefaultValue("false") final boolean stream) {
+    this.annotate(request, asyncResponse, NlpProcess.DATE, setting, newLang, format, stream);
+  }
   
-    return result;
+  /**
+   * The API call for a number process via POST. The annotation runs on the annotation executor and
+   * the response is resumed with its result.
+   */
+  @POST
+  @Timed
+  @Produces({"application/json;charset=utf-8", "text/turtle;charset=utf-8"})
+  @Consumes("application/json;charset=utf-8")
+  @Path("/number/")
+  public final void number(@Context final HttpServletRequest request,
+                           @Suspended final AsyncResponse asyncResponse,
+                           @QueryParam("setting") @DefaultValue("none") final String setting,
+                           @QueryParam("lang") @DefaultValue("en") final String newLang,
+                           @QueryParam("format") @DefaultValue("turtle-blocks")
+                           final String format,
+                           @QueryParam("stream") @DefaultValue("false") final boolean stream) {
+    this.annotate(request, asyncResponse, NlpProcess.NUMBER, setting, newLang, format, stream);
   }
   
   /**
-   * The API call for a tokenize process via POST.
-   *
-   * @return The corresponding response of the query
+   * The API call for a gazetteer process via POST. The annotation runs on the annotation executor
+   * and the response is resumed with its result.
    */
   @POST
   @Timed
   @Produces({"application/json;charset=utf-8", "text/turtle;charset=utf-8"})
   @Consumes("application/json;charset=utf-8")
-  @Path("/tokenize/")
-  public final Response tokenize(@Context final HttpServletRequest request,
-                                 @QueryParam("setting") @DefaultValue("none") final String setting,
-                                 @QueryParam("lang") @DefaultValue("en") final String newLang) {
-    final Response result;
-    final StringWriter writer = new StringWriter();
-    final ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-    final Validator validator = factory.getValidator();
+  @Path("/gazetteer/")
+  public final void gazetteer(@Context final HttpServletRequest request,
+                              @Suspended final AsyncResponse asyncResponse,
+                              @QueryParam("setting") @DefaultValue("none") final String setting,
+                              @QueryParam("lang") @DefaultValue("en") final String newLang,
+                              @QueryParam("format") @DefaultValue("turtle-blocks")
+                              final String format,
+                              @QueryParam("stream") @DefaultValue("false") final boolean stream) {
+    this.annotate(request, asyncResponse, NlpProcess.GAZETTEER, setting, newLang, format, stream);
+  }
+  
+  /**
+   * The API call for several processes via POST. The annotators needed by the processes run once
+   * in a single pipeline and the layers of all the processes are returned in the same NIF
+   * context. The annotation runs on the annotation executor and the response is resumed with its
+   * result.
+   */
+  @POST
+  @Timed
+  @Produces({"application/json;charset=utf-8", "text/turtle;charset=utf-8"})
+  @Consumes("application/json;charset=utf-8")
+  @Path("/annotate/")
+  public final void annotateAll(@Context final HttpServletRequest request,
+                                @Suspended final AsyncResponse asyncResponse,
+                                @QueryParam("processes") final String processes,
+                                @QueryParam("setting") @DefaultValue("none") final String setting,
+                                @QueryParam("lang") @DefaultValue("en") final String newLang,
+                                @QueryParam("format") @DefaultValue("turtle-blocks")
+                                final String format,
+                                @QueryParam("stream") @DefaultValue("false") final boolean stream) {
+    this.annotate(request, asyncResponse, this.nlpProcesses(processes), setting, newLang,
+        format, stream);
+  }
+  
+  /**
+   * The API call for annotating a batch of documents via POST. Each document is annotated as its
+   * own context and serialized in its own named graph, in the order of the request. The annotation
+   * runs on the annotation executor and the response is resumed with its result.
+   */
+  @POST
+  @Timed
+  @Produces({"application/trig;charset=utf-8", "application/n-quads;charset=utf-8"})
+  @Consumes("application/json;charset=utf-8")
+  @Path("/{process}/batch")
+  public final void batch(@Context final HttpServletRequest request,
+                          @Suspended final AsyncResponse asyncResponse,
+                          @PathParam("process") final String process,
+                          @QueryParam("setting") @DefaultValue("none") final String setting,
+                          @QueryParam("lang") @DefaultValue("en") final String newLang,
+                          @QueryParam("format") @DefaultValue("trig") final String format) {
+    final PreviewInputStream body = this.body(request);
+    final Query[] queries = this.decode(body, PipelineResource.QUERIES_READER);
+    final StringBuilder sb = new StringBuilder();
     
-    try {
-      IOUtils.copy(request.getInputStream(), writer, Charset.forName("UTF-8"));
-      
-      final ObjectMapper mapper = new ObjectMapper();
-      
-      mapper.configure(JsonParser.Feature.ALLOW_UNQUOTED_CONTROL_CHARS, true);
-      
-      final Query query = mapper.readValue(writer.toString(), Query.class);
-      final Set<ConstraintViolation<Query>> violations = validator.validate(query);
+    for (int i = 0; i < queries.length; i++) {
+      this.validate(queries[i], "[" + i + "] ", sb);
+    }
+    
+    if (sb.length() > 0) {
+      throw new WebApplicationException(sb.toString(), Response.Status.PRECONDITION_FAILED);
+    }
+    
+    final String host = this.getHost(request);
+    final NlpProcess nlpProcess = this.nlpProcess(process);
+    
+    this.submit(asyncResponse, EnumSet.of(nlpProcess), newLang, setting, body.preview(),
+        () -> this.batchTask(Arrays.asList(queries), setting, host, nlpProcess, newLang, format));
+  }
+  
+  private void annotate(final HttpServletRequest request, final AsyncResponse asyncResponse,
+                        final NlpProcess process, final String setting, final String lang,
+                        final String format, final boolean stream) {
+    this.annotate(request, asyncResponse, EnumSet.of(process), setting, lang, format, stream);
+  }
+  
+  private void annotate(final HttpServletRequest request, final AsyncResponse asyncResponse,
+                        final Set<NlpProcess> processes, final String setting, final String lang,
+                        final String format, final boolean stream) {
+    final PreviewInputStream body = this.body(request);
+    final Query query = this.query(body);
+    final String host = this.getHost(request);
+    final String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+    final long deadline = this.deadline(processes, lang, setting);
+    final CompletableFuture<StanfordNlpPool> loading = this.load(processes, lang, setting);
+    
+    if (query.getContent() != null && loading.isDone() && !loading.isCompletedExceptionally()) {
+      final Response cached = this.cached(this.key(loading.join(), format, stream, host,
+          query.getContent()), ifNoneMatch);
       
-      if (!violations.isEmpty()) {
-        final StringBuilder sb = new StringBuilder();
-        
-        violations.forEach(error -> sb.append(error.getPropertyPath()
-            + error.getMessage()).append("\n"));
+      if (cached != null) {
+        if (!asyncResponse.resume(cached) && cached.getEntity() instanceof Closeable) {
+          try {
+            ((Closeable) cached.getEntity()).close();
+          } catch (final IOException ex) {
+            PipelineResource.LOGGER.debug("Failed to close a cached response", ex);
+          }
+        }
         
-        throw new WebApplicationException(sb.toString(), Response.Status.PRECONDITION_FAILED);
+        return;
       }
-      
-      result = this.task(query, setting, this.getHost(request), NlpProcess.TOKENIZE, newLang);
-    } catch (final IOException ex) {
-      throw new WebApplicationException("Failed to read the HTTP request " + writer, ex,
-          Response.Status.PRECONDITION_FAILED);
     }
     
-    return result;
+    this.submit(asyncResponse, processes, lang, setting, body.preview(),
+        () -> this.task(query, setting, host, processes, lang, format, stream, ifNoneMatch,
+            deadline));
   }
   
   /**
-   * The API call for a coref process via POST.
+   * Open the body of a request, a body bigger than the maximum size is rejected before being
+   * read when its Content-Length is known, and as soon as the maximum size is exceeded while it
+   * is parsed otherwise. The body is parsed from the stream and never buffered as a whole.
+   *
+   * @param request The HTTP request.
    *
-   * @return The corresponding response of the query
+   * @return The body of the request.
    */
-  @POST
-  @Timed
-  @Produces({"application/json;charset=utf-8", "text/turtle;charset=utf-8"})
-  @Consumes("application/json;charset=utf-8")
-  @Path("/coref/")
-  public final Response coref(@Context final HttpServletRequest request,
-                              @QueryParam("setting") @DefaultValue("none") final String setting,
-                              @QueryParam("lang") @DefaultValue("en") final String newLang) {
-    final Response result;
-    final StringWriter writer = new StringWriter();
-    final ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-    final Validator validator = factory.getValidator();
+  private PreviewInputStream body(final HttpServletRequest request) {
+    final int maxBodyBytes = this.configuration.getMaxBodyBytes();
+    
+    if (request.getContentLengthLong() > maxBodyBytes) {
+      throw this.tooLarge(maxBodyBytes);
+    }
     
     try {
-      IOUtils.copy(request.getInputStream(), writer, Charset.forName("UTF-8"));
-      
-      final ObjectMapper mapper = new ObjectMapper();
-      
-      mapper.configure(JsonParser.Feature.ALLOW_UNQUOTED_CONTROL_CHARS, true);
-      
-      final Query query = mapper.readValue(writer.toString(), Query.class);
-      final Set<ConstraintViolation<Query>> violations = validator.validate(query);
-      
-      if (!violations.isEmpty()) {
-        final StringBuilder sb = new StringBuilder();
-        
-        violations.forEach(error -> sb.append(error.getPropertyPath()
-            + error.getMessage()).append("\n"));
-        
-        throw new WebApplicationException(sb.toString(), Response.Status.PRECONDITION_FAILED);
-      }
-      
-      result = this.task(query, setting, this.getHost(request), NlpProcess.COREF, newLang);
+      return new PreviewInputStream(request.getInputStream(), maxBodyBytes);
     } catch (final IOException ex) {
-      throw new WebApplicationException("Failed to read the HTTP request " + writer, ex,
+      throw new WebApplicationException("Failed to read the HTTP request", ex,
           Response.Status.PRECONDITION_FAILED);
     }
+  }
+  
+  /**
+   * Annotate a request body on the calling thread, the same way as a POST request to the
+   * annotation endpoints but without any HTTP server, and write the response into an output
+   * stream. It drives the resource from a load test.
+   *
+   * @param body      The bytes of the body.
+   * @param processes Processes to run.
+   * @param lang      Language of the profile.
+   * @param setting   Setting of the profile.
+   * @param format    Output format.
+   * @param host      Host used to build the NIF URIs.
+   * @param out       Output stream where the response is written.
+   *
+   * @return The status of the response.
+   *
+   * @throws IOException if the text of the query cannot be fetched or the response cannot be
+   *                     written.
+   */
+  public final int annotate(final byte[] body, final Set<NlpProcess> processes,
+                            final String lang, final String setting, final String format,
+                            final String host, final OutputStream out) throws IOException {
+    final Response response = this.task(this.query(body), setting, host, processes, lang, format,
+        false, null, this.deadline(processes, lang, setting));
+    final Object entity = response.getEntity();
+    
+    if (entity instanceof StreamingOutput) {
+      ((StreamingOutput) entity).write(out);
+    } else if (entity instanceof byte[]) {
+      out.write((byte[]) entity);
+    } else if (entity instanceof String) {
+      out.write(((String) entity).getBytes(StandardCharsets.UTF_8));
+    }
     
-    return result;
+    return response.getStatus();
   }
   
   /**
-   * The API call for a date process via POST.
+   * Decode and validate the query of a request body.
    *
-   * @return The corresponding response of the query
+   * @param body The bytes of the body.
+   *
+   * @return The valid query.
    */
-  @POST
-  @Timed
-  @Produces({"application/json;charset=utf-8", "text/turtle;charset=utf-8"})
-  @Consumes("application/json;charset=utf-8")
-  @Path("/date/")
-  public final Response date(@Context final HttpServletRequest request,
-                             @QueryParam("setting") @DefaultValue("none") final String setting,
-                             @QueryParam("lang") @DefaultValue("en") final String newLang) {
-    final Response result;
-    final StringWriter writer = new StringWriter();
-    final ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-    final Validator validator = factory.getValidator();
+  final Query query(final byte[] body) {
+    return this.query(new PreviewInputStream(new ByteArrayInputStream(body), body.length));
+  }
+  
+  private Query query(final PreviewInputStream body) {
+    final Query query = this.decode(body, PipelineResource.QUERY_READER);
+    final StringBuilder sb = new StringBuilder();
     
+    this.validate(query, "", sb);
+    
+    if (sb.length() > 0) {
+      throw new WebApplicationException(sb.toString(), Response.Status.PRECONDITION_FAILED);
+    }
+    
+    return query;
+  }
+  
+  private WebApplicationException tooLarge(final int maxBodyBytes) {
+    return new WebApplicationException("The HTTP request cannot be bigger than " + maxBodyBytes
+        + " bytes", Response.Status.REQUEST_ENTITY_TOO_LARGE);
+  }
+  
+  private <T> T decode(final PreviewInputStream body, final ObjectReader reader) {
     try {
-      IOUtils.copy(request.getInputStream(), writer, Charset.forName("UTF-8"));
-      
-      final ObjectMapper mapper = new ObjectMapper();
-      
-      mapper.configure(JsonParser.Feature.ALLOW_UNQUOTED_CONTROL_CHARS, true);
+      final T value = reader.readValue(body);
       
-      final Query query = mapper.readValue(writer.toString(), Query.class);
-      final Set<ConstraintViolation<Query>> violations = validator.validate(query);
-      
-      if (!violations.isEmpty()) {
-        final StringBuilder sb = new StringBuilder();
-        
-        violations.forEach(error -> sb.append(error.getPropertyPath()
-            + error.getMessage()).append("\n"));
-        
-        throw new WebApplicationException(sb.toString(), Response.Status.PRECONDITION_FAILED);
+      if (body.exceeded()) {
+        throw this.tooLarge(this.configuration.getMaxBodyBytes());
       }
       
-      result = this.task(query, setting, this.getHost(request), NlpProcess.DATE, newLang);
+      return value;
     } catch (final IOException ex) {
-      throw new WebApplicationException("Failed to read the HTTP request " + writer, ex,
+      if (body.exceeded()) {
+        throw this.tooLarge(this.configuration.getMaxBodyBytes());
+      }
+      
+      throw new WebApplicationException("Failed to read the HTTP request " + body.preview(), ex,
           Response.Status.PRECONDITION_FAILED);
     }
+  }
+  
+  private void validate(final Query query, final String prefix, final StringBuilder sb) {
+    final Set<ConstraintViolation<Query>> violations = PipelineResource.VALIDATOR.validate(query);
+    
+    violations.forEach(error -> sb.append(prefix).append(error.getPropertyPath()).append(
+        error.getMessage()).append("\n"));
+  }
+  
+  private void submit(final AsyncResponse asyncResponse, final Set<NlpProcess> processes,
+                      final String lang, final String setting, final String preview,
+                      final Callable<Response> task) {
+    final String profile = this.profileName(processes, lang, setting);
+    final CompletableFuture<StanfordNlpPool> loading = this.load(processes, lang, setting);
+    final long timeout = this.configuration.timeoutFor(profile);
+    final int retryAfter = this.configuration.poolFor(profile).getRetryAfter();
+    final AtomicReference<Future<?>> future = new AtomicReference<>();
+    
+    asyncResponse.setTimeoutHandler(response -> {
+      if (future.get() != null) {
+        future.get().cancel(true);
+      }
+      
+      response.resume(new WebApplicationException("The profile " + profile
+          + " did not answer within " + timeout + " ms", Response.status(
+          Response.Status.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, retryAfter)
+          .build()));
+    });
+    asyncResponse.setTimeout(timeout, TimeUnit.MILLISECONDS);
     
-    return result;
+    loading.whenComplete((pool, error) -> {
+      if (error != null) {
+        asyncResponse.resume(this.loadFailure(profile, error));
+        
+        return;
+      }
+      
+      try {
+        future.set(this.executor.submit(() -> {
+          try {
+            final Response response = task.call();
+            
+            if (!asyncResponse.resume(response) && response.getEntity() instanceof Closeable) {
+              ((Closeable) response.getEntity()).close();
+            }
+          } catch (final IOException ex) {
+            asyncResponse.resume(new WebApplicationException("Failed to read the HTTP request "
+                + preview, ex, Response.Status.PRECONDITION_FAILED));
+          } catch (final Exception ex) {
+            asyncResponse.resume(ex);
+          }
+        }));
+      } catch (final RejectedExecutionException ex) {
+        asyncResponse.resume(new WebApplicationException("Too many requests are waiting for an "
+            + "annotation", ex, Response.status(Response.Status.SERVICE_UNAVAILABLE).header(
+            HttpHeaders.RETRY_AFTER, retryAfter).build()));
+      }
+    });
   }
   
   /**
-   * The API call for a number process via POST.
+   * Time at which the annotation of a request must be answered, the request timeout of its
+   * profile after now.
+   *
+   * @param processes Processes to run.
+   * @param lang      Language of the profile.
+   * @param setting   Setting of the profile.
    *
-   * @return The corresponding response of the query
+   * @return The deadline in the time of {@link System#nanoTime()}.
    */
-  @POST
-  @Timed
-  @Produces({"application/json;charset=utf-8", "text/turtle;charset=utf-8"})
-  @Consumes("application/json;charset=utf-8")
-  @Path("/number/")
-  public final Response number(@Context final HttpServletRequest request,
-                               @QueryParam("setting") @DefaultValue("none") final String setting,
-                               @QueryParam("lang") @DefaultValue("en") final String newLang) {
-    final Response result;
-    final StringWriter writer = new StringWriter();
-    final ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-    final Validator validator = factory.getValidator();
+  private long deadline(final Set<NlpProcess> processes, final String lang,
+                        final String setting) {
+    return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.configuration.timeoutFor(
+        this.profileName(processes, lang, setting)));
+  }
+  
+  private Response task(final Query query, final String setting, final String host,
+                        final Set<NlpProcess> processes, final String lang, final String format,
+                        final boolean stream, final String ifNoneMatch, final long deadline)
+      throws IOException {
+    final OutputFormat outputFormat = this.outputFormat(format);
+    final boolean streamed = stream && outputFormat != OutputFormat.TURTLE;
+    final StanfordNlpPool pool = this.pipeline(processes, lang, setting);
+    final StageMetrics stages = pool.stages();
+    final String finalText = this.text(query, stages);
+    final String key = this.key(pool, format, stream, host, finalText);
+    final EntityTag etag = new EntityTag(ResponseCache.etag(key));
+    final Response cached = this.cached(key, ifNoneMatch);
     
-    try {
-      IOUtils.copy(request.getInputStream(), writer, Charset.forName("UTF-8"));
+    if (cached != null) {
+      return cached;
+    }
+    
+    if (streamed) {
+      final StreamedContext output = new StreamedContext(pool.lease(finalText,
+          PipelineResource.remaining(pool, deadline)),
+          this.stanford, processes, host, this.rdfFormat(outputFormat), stages,
+          this.captureBytes(), bytes -> this.cache(key, bytes));
       
-      final ObjectMapper mapper = new ObjectMapper();
+      output.start(this.executor, PipelineResource.remaining(pool, deadline));
       
-      mapper.configure(JsonParser.Feature.ALLOW_UNQUOTED_CONTROL_CHARS, true);
+      return Response.ok(output).tag(etag).build();
+    }
+    
+    final fr.eurecom.stanfordnlprestapi.datatypes.Context context = pool.run(finalText,
+        NullContextListener.getInstance(), PipelineResource.remaining(pool, deadline));
+    
+    if (outputFormat == OutputFormat.TURTLE) {
+      final Model model;
+      final StringWriter rdf = new StringWriter();
       
-      final Query query = mapper.readValue(writer.toString(), Query.class);
-      final Set<ConstraintViolation<Query>> violations = validator.validate(query);
+      try (Timer.Context ignored = stages.timer("model").time()) {
+        model = context.rdfModel(this.stanford, processes, host);
+      }
       
-      if (!violations.isEmpty()) {
-        final StringBuilder sb = new StringBuilder();
-        
-        violations.forEach(error -> sb.append(error.getPropertyPath()
-            + error.getMessage()).append("\n"));
-        
-        throw new WebApplicationException(sb.toString(), Response.Status.PRECONDITION_FAILED);
+      try (Timer.Context ignored = stages.timer("serialization").time()) {
+        RDFDataMgr.write(rdf, model, RDFFormat.TURTLE_PRETTY);
       }
       
-      result = this.task(query, setting, this.getHost(request), NlpProcess.NUMBER, newLang);
-    } catch (final IOException ex) {
-      throw new WebApplicationException("Failed to read the HTTP request " + writer, ex,
-          Response.Status.PRECONDITION_FAILED);
+      final byte[] bytes = rdf.toString().getBytes(StandardCharsets.UTF_8);
+      
+      stages.histogram("bytes").update(bytes.length);
+      this.cache(key, bytes);
+      
+      return Response.ok(rdf.toString()).tag(etag).build();
     }
     
-    return result;
+    final RDFFormat rdfFormat = this.rdfFormat(outputFormat);
+    final StreamingOutput output = out -> {
+      final CapturingOutputStream capture = new CapturingOutputStream(out, this.captureBytes());
+      
+      try (Timer.Context ignored = stages.timer("serialization").time()) {
+        context.rdfStream(capture, this.stanford, processes, host, rdfFormat);
+      }
+      
+      stages.histogram("bytes").update(capture.count());
+      this.cache(key, capture.captured());
+    };
+    
+    return Response.ok(output).tag(etag).build();
   }
   
   /**
-   * The API call for a gazetteer process via POST.
+   * Build the key of a response in the cache. Only the version of the gazetteers depends on the
+   * pool, the rest comes from the request, so the entity tag derived from the key changes with
+   * the input and the gazetteers, not with the annotation.
    *
-   * @return The corresponding response of the query
+   * @param pool   Pool of the profile of the request.
+   * @param format Output format of the request.
+   * @param stream Whether the response is asked to be streamed.
+   * @param host   Base URI of the response.
+   * @param text   Text of the request.
+   *
+   * @return The key of the response.
    */
-  @POST
-  @Timed
-  @Produces({"application/json;charset=utf-8", "text/turtle;charset=utf-8"})
-  @Consumes("application/json;charset=utf-8")
-  @Path("/gazetteer/")
-  public final Response gazetteer(@Context final HttpServletRequest request,
-                               @QueryParam("setting") @DefaultValue("none") final String setting,
-                               @QueryParam("lang") @DefaultValue("en") final String newLang) {
-    final Response result;
-    final StringWriter writer = new StringWriter();
-    final ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-    final Validator validator = factory.getValidator();
+  private String key(final StanfordNlpPool pool, final String format, final boolean stream,
+                     final String host, final String text) {
+    final OutputFormat outputFormat = this.outputFormat(format);
     
-    try {
-      IOUtils.copy(request.getInputStream(), writer, Charset.forName("UTF-8"));
-      
-      final ObjectMapper mapper = new ObjectMapper();
-      
-      mapper.configure(JsonParser.Feature.ALLOW_UNQUOTED_CONTROL_CHARS, true);
+    return ResponseCache.key(pool.profile(), pool.gazetteerVersion(), stream
+        && outputFormat != OutputFormat.TURTLE ? outputFormat + "+stream"
+        : outputFormat.toString(), host, text);
+  }
+  
+  /**
+   * Get a response from the heap or the off-heap tier of the cache. A response found out of the
+   * heap moves back to the heap tier when it fits in an entry.
+   *
+   * @param key         Key of the response.
+   * @param ifNoneMatch Value of the If-None-Match header of the request, can be null.
+   *
+   * @return The response, null if it is not cached.
+   */
+  private Response cached(final String key, final String ifNoneMatch) {
+    final EntityTag etag = new EntityTag(ResponseCache.etag(key));
+    final byte[] cached = this.cache.get(key);
+    
+    if (cached != null) {
+      if (ResponseCache.matches(ifNoneMatch, etag.getValue())) {
+        return Response.notModified(etag).build();
+      }
       
-      final Query query = mapper.readValue(writer.toString(), Query.class);
-      final Set<ConstraintViolation<Query>> violations = validator.validate(query);
+      return Response.ok(cached).tag(etag).build();
+    }
+    
+    final OffHeapResponse offHeap = this.offHeapCache.get(key);
+    
+    if (offHeap == null) {
+      return null;
+    }
+    
+    if (ResponseCache.matches(ifNoneMatch, etag.getValue())) {
+      offHeap.close();
       
-      if (!violations.isEmpty()) {
-        final StringBuilder sb = new StringBuilder();
-        
-        violations.forEach(error -> sb.append(error.getPropertyPath()
-            + error.getMessage()).append("\n"));
-        
-        throw new WebApplicationException(sb.toString(), Response.Status.PRECONDITION_FAILED);
+      return Response.notModified(etag).build();
+    }
+    
+    if (offHeap.length() > this.cache.maximumEntryBytes()) {
+      return Response.ok(new OffHeapOutput(offHeap)).tag(etag).build();
+    }
+    
+    final byte[] promoted;
+    
+    try {
+      promoted = offHeap.bytes();
+    } finally {
+      offHeap.close();
+    }
+    
+    this.offHeapCache.remove(key);
+    this.cache.put(key, promoted);
+    
+    return Response.ok(promoted).tag(etag).build();
+  }
+  
+  /**
+   * Time left to answer a request.
+   *
+   * @param pool     Pool of the profile of the request.
+   * @param deadline Deadline of the request in the time of {@link System#nanoTime()}.
+   *
+   * @return The time left in milliseconds, at least 1.
+   */
+  private static long remaining(final StanfordNlpPool pool, final long deadline) {
+    final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    
+    if (remaining <= 0) {
+      throw pool.unavailable("The profile " + pool.profile() + " did not answer in time");
+    }
+    
+    return remaining;
+  }
+  
+  /**
+   * Store a response in one tier of the cache. The responses small enough for an entry of the
+   * heap tier go there and only move to the off-heap tier when they are evicted, the bigger ones
+   * go straight to the off-heap tier.
+   *
+   * @param key      Key of the response.
+   * @param response Serialized response, null if it was too big to be captured.
+   */
+  private void cache(final String key, final byte[] response) {
+    if (response == null) {
+      return;
+    }
+    
+    if (response.length <= this.cache.maximumEntryBytes()) {
+      this.cache.put(key, response);
+    } else {
+      this.offHeapCache.put(key, response);
+    }
+  }
+  
+  private int captureBytes() {
+    return Math.max(this.cache.maximumEntryBytes(), this.offHeapCache.maximumEntryBytes());
+  }
+  
+  private Response batchTask(final List<Query> queries, final String setting, final String host,
+                             final NlpProcess process, final String lang, final String format)
+      throws IOException {
+    final OutputFormat outputFormat = this.outputFormat(format);
+    
+    if (outputFormat != OutputFormat.TRIG && outputFormat != OutputFormat.NQUADS) {
+      throw new WebApplicationException("The format: " + format
+          + " is not available for a batch", Response.Status.PRECONDITION_FAILED);
+    }
+    
+    final StanfordNlpPool pool = this.pipeline(EnumSet.of(process), lang, setting);
+    final List<String> texts = new ArrayList<>();
+    
+    for (final Query query : queries) {
+      texts.add(this.text(query, pool.stages()));
+    }
+    
+    final Batch batch = new Batch(pool.run(texts));
+    final RDFFormat rdfFormat = this.rdfFormat(outputFormat);
+    final StreamingOutput output = out -> batch.rdfStream(out, this.stanford, process, host,
+        rdfFormat);
+    
+    if (outputFormat == OutputFormat.NQUADS) {
+      return Response.ok(output, "application/n-quads;charset=utf-8").build();
+    }
+    
+    return Response.ok(output, "application/trig;charset=utf-8").build();
+  }
+  
+  private String text(final Query query, final StageMetrics stages) throws IOException {
+    if (query.getUrl() != null) {
+      try (Timer.Context ignored = stages.timer("fetch").time()) {
+        return this.fetcher.text(query.getUrl());
+      }
+    }
+    
+    return query.getContent();
+  }
+  
+  private String profileName(final Set<NlpProcess> processes, final String lang,
+                             final String setting) {
+    final StringBuilder sb = new StringBuilder();
+    
+    for (final NlpProcess process : processes) {
+      if (sb.length() > 0) {
+        sb.append('+');
       }
       
-      result = this.task(query, setting, this.getHost(request), NlpProcess.GAZETTEER, newLang);
-    } catch (final IOException ex) {
-      throw new WebApplicationException("Failed to read the HTTP request " + writer, ex,
-          Response.Status.PRECONDITION_FAILED);
+      sb.append(process.toString().toLowerCase(Locale.ENGLISH));
     }
     
-    return result;
+    return sb.toString() + '_' + lang + '_' + setting;
   }
   
-  private Response task(final Query query, final String setting, final String host,
-                        final NlpProcess process, final String lang) throws IOException {
-    final String finalText;
+  private StanfordNlpPool pipeline(final Set<NlpProcess> processes, final String lang,
+                                   final String setting) {
+    final String profile = this.profileName(processes, lang, setting);
     
-    if (query.getUrl() != null) {
-      final String tmp = IOUtils.toString(new URL(query.getUrl()), Charset.forName("UTF-8"));
+    try {
+      return this.load(processes, lang, setting).join();
+    } catch (final CompletionException ex) {
+      throw this.loadFailure(profile, ex);
+    }
+  }
+  
+  private NlpProcess nlpProcess(final String process) {
+    try {
+      return NlpProcess.valueOf(process.toUpperCase(Locale.ENGLISH));
+    } catch (final IllegalArgumentException ex) {
+      throw new WebApplicationException("The process: " + process + " does not exists", ex,
+          Response.Status.PRECONDITION_FAILED);
+    }
+  }
+  
+  private Set<NlpProcess> nlpProcesses(final String processes) {
+    final Set<NlpProcess> nlpProcesses = EnumSet.noneOf(NlpProcess.class);
     
-      finalText = Jsoup.parse(tmp).text();
-    } else {
-      finalText = query.getContent();
+    if (processes != null) {
+      for (final String process : processes.split(",")) {
+        if (!process.trim().isEmpty()) {
+          nlpProcesses.add(this.nlpProcess(process.trim()));
+        }
+      }
     }
+    
+    if (nlpProcesses.isEmpty()) {
+      throw new WebApplicationException("At least one process is required",
+          Response.Status.PRECONDITION_FAILED);
+    }
+    
+    return nlpProcesses;
+  }
   
-    final String res;
+  private OutputFormat outputFormat(final String format) {
+    try {
+      return OutputFormat.valueOf(format.replace('-', '_').toUpperCase(Locale.ENGLISH));
+    } catch (final IllegalArgumentException ex) {
+      throw new WebApplicationException("The format: " + format + " does not exists", ex,
+          Response.Status.PRECONDITION_FAILED);
+    }
+  }
+  
+  private RDFFormat rdfFormat(final OutputFormat outputFormat) {
+    final RDFFormat rdfFormat;
     
-    if (this.pipelines.containsKey(process.toString().toLowerCase(Locale.ENGLISH) + '_' + lang
-        + '_' + setting)) {
-      res = this.pipelines.get(process.toString().toLowerCase(Locale.ENGLISH) + '_'
-          + lang + '_' + setting).run(finalText).rdfString(this.stanford, process, host);
+    if (outputFormat == OutputFormat.NTRIPLES) {
+      rdfFormat = RDFFormat.NTRIPLES_UTF8;
+    } else if (outputFormat == OutputFormat.TRIG) {
+      rdfFormat = RDFFormat.TRIG_BLOCKS;
+    } else if (outputFormat == OutputFormat.NQUADS) {
+      rdfFormat = RDFFormat.NQUADS_UTF8;
     } else {
-      throw new WebApplicationException("The profile: " + process.toString().toLowerCase(
-          Locale.ENGLISH) + '_' + lang + '_' + setting + " does not exists",
-          Response.Status.PRECONDITION_FAILED);
+      rdfFormat = RDFFormat.TURTLE_BLOCKS;
     }
     
-    return Response.ok(res).build();
+    return rdfFormat;
   }
   
   private String getHost(final HttpServletRequest request) {
@@ -534,9 +1158,8 @@ public class PipelineResource {
     try {
       Files.list(Paths.get("properties")).filter(file -> !file.getName(1).toString().startsWith(
           ".")).forEach(file -> {
-            final StanfordNlp pipeline = new StanfordNlp(file.toString(), this.stanford);
-            
-            this.pipelines.put(file.getFileName().toString().split("\\.")[0], pipeline);
+            this.propertyFiles.put(file.getFileName().toString().split("\\.")[0],
+                file.toString());
       
             try (FileInputStream fileInputStream = new FileInputStream(file.toString())) {
               final Properties props = new Properties();
@@ -0,0 +1,138 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.resources;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Request body read at most up to one byte after a maximum size, that keeps its first bytes to
+ * put them in an error message, so a body can be parsed without being buffered.
+ *
+ * @author Julien Plu
+ */
+public class PreviewInputStream extends FilterInputStream {
+  static final Logger LOGGER = LoggerFactory.getLogger(PreviewInputStream.class);
+  private static final int PREVIEW_BYTES = 256;
+  private final long limit;
+  private final ByteArrayOutputStream preview;
+  private long count;
+
+  /**
+   * PreviewInputStream constructor.
+   *
+   * @param newIn    Body of the request.
+   * @param newLimit Maximum size of the body, the stream ends one byte after it.
+   */
+  public PreviewInputStream(final InputStream newIn, final long newLimit) {
+    super(newIn);
+
+    this.limit = newLimit;
+    this.preview = new ByteArrayOutputStream();
+  }
+
+  @Override
+  public final int read() throws IOException {
+    if (this.exceeded()) {
+      return -1;
+    }
+
+    final int b = this.in.read();
+
+    if (b >= 0) {
+      this.keep(new byte[] {(byte) b}, 0, 1);
+    }
+
+    return b;
+  }
+
+  @Override
+  public final int read(final byte[] b, final int off, final int len) throws IOException {
+    if (this.exceeded()) {
+      return -1;
+    }
+
+    final int read = this.in.read(b, off, (int) Math.min(len, this.limit + 1 - this.count));
+
+    if (read > 0) {
+      this.keep(b, off, read);
+    }
+
+    return read;
+  }
+
+  @Override
+  public final long skip(final long n) throws IOException {
+    final int read = this.read(new byte[(int) Math.max(0, Math.min(n, 4096))]);
+
+    return Math.max(0, read);
+  }
+
+  @Override
+  public final boolean markSupported() {
+    return false;
+  }
+
+  private void keep(final byte[] b, final int off, final int len) {
+    this.count += len;
+
+    if (this.preview.size() < PreviewInputStream.PREVIEW_BYTES) {
+      this.preview.write(b, off, Math.min(len, PreviewInputStream.PREVIEW_BYTES
+          - this.preview.size()));
+    }
+  }
+
+  /**
+   * Whether the body is bigger than the maximum size.
+   *
+   * @return true if more bytes than the maximum size have been read.
+   */
+  public final boolean exceeded() {
+    return this.count > this.limit;
+  }
+
+  /**
+   * Beginning of the body to put in an error message, the body itself can be several MB of text
+   * sent by anyone.
+   *
+   * @return At most the first bytes read from the body.
+   */
+  public final String preview() {
+    final String text = new String(this.preview.toByteArray(), StandardCharsets.UTF_8);
+
+    if (this.count > PreviewInputStream.PREVIEW_BYTES) {
+      return text + "...";
+    }
+
+    return text;
+  }
+
+  @Override
+  public final String toString() {
+    return "PreviewInputStream{"
+        + "limit=" + this.limit
+        + ", count=" + this.count
+        + '}';
+  }
+}
@@ -0,0 +1,275 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.resources;
+
+import fr.eurecom.stanfordnlprestapi.cache.CapturingOutputStream;
+
+import fr.eurecom.stanfordnlprestapi.core.StageMetrics;
+import fr.eurecom.stanfordnlprestapi.core.StanfordNlpPool;
+
+import fr.eurecom.stanfordnlprestapi.datatypes.Context;
+import fr.eurecom.stanfordnlprestapi.datatypes.ContextStreamWriter;
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.ContextListener;
+import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.apache.jena.riot.RDFFormat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streamed response of a text whose slots of the pool are already taken. The text is annotated
+ * on the annotation executor, which serializes the context and then each sentence as soon as it
+ * is complete into a bounded queue of parts, and the thread that writes the response only copies
+ * the parts. The response is sent once the triples of the context are ready, so a text that
+ * cannot be annotated in time still gets a 503 status. The slots are released when the
+ * annotation ends, and the response is given to the cache only once it is complete. A response
+ * that is never written must be closed to stop its annotation.
+ *
+ * @author Julien Plu
+ */
+public class StreamedContext implements StreamingOutput, Closeable {
+  static final Logger LOGGER = LoggerFactory.getLogger(StreamedContext.class);
+  private static final int QUEUE_PARTS = 16;
+  private static final byte[] END = new byte[0];
+  private final StanfordNlpPool.Lease lease;
+  private final String tool;
+  private final Set<NlpProcess> processes;
+  private final String host;
+  private final RDFFormat format;
+  private final StageMetrics stages;
+  private final int maximumEntryBytes;
+  private final Consumer<byte[]> complete;
+  private final BlockingQueue<Object> parts;
+  private final AtomicBoolean started;
+  private Future<?> annotation;
+  private Object first;
+
+  /**
+   * StreamedContext constructor.
+   *
+   * @param newLease             Slots of the pool taken for the text.
+   * @param newTool              Tool used to extract the context.
+   * @param newProcesses         Processes required as RDF triples.
+   * @param newHost              Host from where is hosted the app.
+   * @param newFormat            Streamable RDF format.
+   * @param newStages            Metrics of the stages of the profile.
+   * @param newMaximumEntryBytes Maximum size of a response given to the cache.
+   * @param newComplete          Receiver of the complete response, null if it is too big.
+   */
+  public StreamedContext(final StanfordNlpPool.Lease newLease, final String newTool,
+                         final Set<NlpProcess> newProcesses, final String newHost,
+                         final RDFFormat newFormat, final StageMetrics newStages,
+                         final int newMaximumEntryBytes, final Consumer<byte[]> newComplete) {
+    this.lease = newLease;
+    this.tool = newTool;
+    this.processes = EnumSet.copyOf(newProcesses);
+    this.host = newHost;
+    this.format = newFormat;
+    this.stages = newStages;
+    this.maximumEntryBytes = newMaximumEntryBytes;
+    this.complete = newComplete;
+    this.parts = new ArrayBlockingQueue<>(StreamedContext.QUEUE_PARTS);
+    this.started = new AtomicBoolean();
+  }
+
+  /**
+   * Start the annotation of the text on an executor, and wait until the triples of the context
+   * are ready. The response is closed if they are not ready in time or if the annotation fails.
+   *
+   * @param executor      Executor that runs the annotation.
+   * @param timeoutMillis Time to wait for the triples of the context.
+   */
+  public final void start(final ExecutorService executor, final long timeoutMillis) {
+    final StanfordNlpPool pool = this.lease.pool();
+
+    try {
+      this.annotation = executor.submit(this::annotate);
+      this.first = this.parts.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (final RejectedExecutionException ex) {
+      this.close();
+
+      throw pool.unavailable("Too many requests are waiting for an annotation");
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      this.close();
+
+      throw pool.unavailable("Interrupted while waiting for the profile " + pool.profile());
+    }
+
+    if (this.first == null) {
+      this.close();
+
+      throw pool.unavailable("The profile " + pool.profile() + " did not answer within "
+          + timeoutMillis + " ms");
+    }
+
+    if (this.first instanceof RuntimeException) {
+      this.close();
+
+      throw (RuntimeException) this.first;
+    }
+
+    if (this.first instanceof Error) {
+      this.close();
+
+      throw (Error) this.first;
+    }
+  }
+
+  private void annotate() {
+    if (!this.started.compareAndSet(false, true)) {
+      return;
+    }
+
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final ContextStreamWriter writer = new ContextStreamWriter(buffer, this.tool,
+        this.processes, this.host, this.format);
+
+    try {
+      this.lease.run(new ContextListener() {
+        @Override
+        public void start(final Context context) {
+          writer.start(context);
+          StreamedContext.this.put(buffer);
+        }
+
+        @Override
+        public void sentence(final Sentence sentence) {
+          writer.sentence(sentence);
+          StreamedContext.this.put(buffer);
+        }
+      });
+
+      this.end(StreamedContext.END);
+    } catch (final RuntimeException | Error ex) {
+      this.end(ex);
+    } finally {
+      this.lease.close();
+    }
+  }
+
+  /**
+   * Put the last part of the response, the end of the response or the error of the annotation.
+   *
+   * @param last Last part of the response.
+   */
+  private void end(final Object last) {
+    try {
+      this.parts.put(last);
+    } catch (final InterruptedException ex) {
+      StreamedContext.LOGGER.debug("Streamed annotation of the profile {} stopped",
+          this.lease.pool().profile(), ex);
+    }
+  }
+
+  private void put(final ByteArrayOutputStream buffer) {
+    try {
+      this.parts.put(buffer.toByteArray());
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+
+      throw this.lease.pool().unavailable("Interrupted while streaming the profile "
+          + this.lease.pool().profile());
+    }
+
+    buffer.reset();
+  }
+
+  @Override
+  public final void write(final OutputStream out) throws IOException {
+    final CapturingOutputStream capture = new CapturingOutputStream(out,
+        this.maximumEntryBytes);
+
+    try {
+      Object part = this.first;
+
+      while (part != StreamedContext.END) {
+        if (part instanceof RuntimeException) {
+          throw (RuntimeException) part;
+        }
+
+        if (part instanceof Error) {
+          throw (Error) part;
+        }
+
+        capture.write((byte[]) part);
+        capture.flush();
+
+        part = this.parts.take();
+      }
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+
+      throw new InterruptedIOException("Interrupted while streaming the profile "
+          + this.lease.pool().profile());
+    } finally {
+      this.close();
+    }
+
+    this.stages.histogram("bytes").update(capture.count());
+    this.complete.accept(capture.captured());
+  }
+
+  /**
+   * Stop the annotation if it still runs. The slots are released by the annotation, or here if
+   * it has not started yet.
+   */
+  @Override
+  public final void close() {
+    if (this.annotation != null) {
+      this.annotation.cancel(true);
+    }
+
+    if (this.started.compareAndSet(false, true)) {
+      this.lease.close();
+    }
+  }
+
+  @Override
+  public final String toString() {
+    return "StreamedContext{"
+        + "lease=" + this.lease
+        + ", tool='" + this.tool + '\''
+        + ", processes=" + this.processes
+        + ", host='" + this.host + '\''
+        + ", format=" + this.format
+        + ", maximumEntryBytes=" + this.maximumEntryBytes
+        + '}';
+  }
+}
@@ -0,0 +1,95 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.servlets;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.eurecom.stanfordnlprestapi.core.AnnotatorRegistry;
+import fr.eurecom.stanfordnlprestapi.core.SharedAnnotator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admin servlet that lists the shared annotators with their number of references and an
+ * approximation of the heap used by their loading, see {@link SharedAnnotator#acquire()}.
+ *
+ * @author Julien Plu
+ */
+public class AnnotatorsServlet extends HttpServlet {
+  static final Logger LOGGER = LoggerFactory.getLogger(AnnotatorsServlet.class);
+  private static final long serialVersionUID = 1L;
+  private final transient AnnotatorRegistry registry;
+
+  /**
+   * AnnotatorsServlet constructor.
+   *
+   * @param newRegistry Registry of the shared annotators.
+   */
+  public AnnotatorsServlet(final AnnotatorRegistry newRegistry) {
+    super();
+
+    this.registry = newRegistry;
+  }
+
+  @Override
+  protected final void doGet(final HttpServletRequest req, final HttpServletResponse resp)
+      throws IOException {
+    final List<Map<String, Object>> annotators = new ArrayList<>();
+    long total = 0;
+
+    for (final SharedAnnotator annotator : this.registry.annotators()) {
+      final Map<String, Object> entry = new LinkedHashMap<>();
+
+      entry.put("name", annotator.name());
+      entry.put("slot", annotator.slot());
+      entry.put("references", annotator.references());
+      entry.put("approximateHeapBytes", annotator.approximateBytes());
+      entry.put("signature", annotator.signature());
+
+      annotators.add(entry);
+
+      total += annotator.approximateBytes();
+    }
+
+    final Map<String, Object> result = new LinkedHashMap<>();
+
+    result.put("approximateHeapBytes", total);
+    result.put("note", "The heap sizes are the growth of the used heap while each annotator was "
+        + "loaded, they include the garbage of the loading and the allocations of the other "
+        + "threads, so they are only an order of magnitude");
+    result.put("annotators", annotators);
+
+    resp.setContentType("application/json;charset=utf-8");
+    resp.setHeader("Cache-Control", "must-revalidate,no-cache,no-store");
+    resp.setStatus(HttpServletResponse.SC_OK);
+
+    new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(resp.getOutputStream(),
+        result);
+  }
+}
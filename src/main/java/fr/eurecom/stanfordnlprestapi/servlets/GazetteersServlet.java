@@ -0,0 +1,208 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.servlets;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.eurecom.stanfordnlprestapi.gazetteer.Gazetteer;
+import fr.eurecom.stanfordnlprestapi.gazetteer.GazetteerRegistry;
+import fr.eurecom.stanfordnlprestapi.gazetteer.GazetteerVersion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import javax.ws.rs.WebApplicationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admin servlet that lists the gazetteers with their current version, and that reloads them or
+ * adds and removes entries. A reload runs in the background and the annotations keep using the
+ * current version until the new one is loaded. The entries to add are given one per line with
+ * their type separated by a tab, the entries to remove one per line.
+ *
+ * @author Julien Plu
+ */
+public class GazetteersServlet extends HttpServlet {
+  static final Logger LOGGER = LoggerFactory.getLogger(GazetteersServlet.class);
+  private static final long serialVersionUID = 1L;
+  private final transient GazetteerRegistry registry;
+  private final transient Executor executor;
+
+  /**
+   * GazetteersServlet constructor.
+   *
+   * @param newRegistry Registry of the gazetteers.
+   * @param newExecutor Executor that runs the reloads.
+   */
+  public GazetteersServlet(final GazetteerRegistry newRegistry, final Executor newExecutor) {
+    super();
+
+    this.registry = newRegistry;
+    this.executor = newExecutor;
+  }
+
+  @Override
+  protected final void doGet(final HttpServletRequest req, final HttpServletResponse resp)
+      throws IOException {
+    this.write(resp, HttpServletResponse.SC_OK, this.registry.gazetteers());
+  }
+
+  @Override
+  protected final void doPost(final HttpServletRequest req, final HttpServletResponse resp)
+      throws IOException {
+    final String mapping = req.getParameter("mapping");
+    final String action = req.getParameter("action");
+    final List<Gazetteer> gazetteers = this.registry.gazetteers(mapping == null ? "" : mapping);
+
+    if (gazetteers.isEmpty()) {
+      resp.sendError(HttpServletResponse.SC_NOT_FOUND, "No gazetteer is loaded from this mapping");
+    } else if ("reload".equals(action)) {
+      this.reload(resp, gazetteers);
+    } else if ("add".equals(action) || "remove".equals(action)) {
+      final List<String[]> entries = GazetteersServlet.entries(req.getReader(), "add".equals(
+          action) ? 2 : 1);
+
+      if (entries == null) {
+        resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Malformed entries");
+
+        return;
+      }
+
+      final Map<String, String> added = new LinkedHashMap<>();
+      final Set<String> removed = new HashSet<>();
+
+      for (final String[] entry : entries) {
+        if (entry.length == 2) {
+          added.put(entry[0], entry[1]);
+        } else {
+          removed.add(entry[0]);
+        }
+      }
+
+      for (final Gazetteer gazetteer : gazetteers) {
+        gazetteer.apply(added, removed);
+      }
+
+      this.write(resp, HttpServletResponse.SC_OK, gazetteers);
+    } else {
+      resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "The action must be reload, add or "
+          + "remove");
+    }
+  }
+
+  private void reload(final HttpServletResponse resp, final List<Gazetteer> gazetteers)
+      throws IOException {
+    try {
+      this.executor.execute(() -> {
+        for (final Gazetteer gazetteer : gazetteers) {
+          try {
+            gazetteer.reload();
+          } catch (final WebApplicationException ex) {
+            GazetteersServlet.LOGGER.error("Gazetteer {} not reloaded", gazetteer.mapping(), ex);
+          }
+        }
+      });
+    } catch (final RejectedExecutionException ex) {
+      GazetteersServlet.LOGGER.warn("Reload of the gazetteers rejected", ex);
+
+      resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "A reload cannot be started");
+
+      return;
+    }
+
+    this.write(resp, HttpServletResponse.SC_ACCEPTED, gazetteers);
+  }
+
+  /**
+   * Read the entries of a request, one per non empty line with its columns separated by tabs.
+   *
+   * @param reader  Body of the request.
+   * @param columns Number of columns of each entry.
+   *
+   * @return The entries, or null if a line does not have the expected columns.
+   *
+   * @throws IOException If the body cannot be read.
+   */
+  static List<String[]> entries(final BufferedReader reader, final int columns)
+      throws IOException {
+    final List<String[]> entries = new ArrayList<>();
+    String line = reader.readLine();
+
+    while (line != null) {
+      if (!line.trim().isEmpty()) {
+        final String[] entry = line.split("\t");
+
+        if (entry.length != columns) {
+          return null;
+        }
+
+        for (final String column : entry) {
+          if (column.trim().isEmpty()) {
+            return null;
+          }
+        }
+
+        entries.add(entry);
+      }
+
+      line = reader.readLine();
+    }
+
+    return entries;
+  }
+
+  private void write(final HttpServletResponse resp, final int status,
+                     final List<Gazetteer> gazetteers) throws IOException {
+    final List<Map<String, Object>> result = new ArrayList<>();
+
+    for (final Gazetteer gazetteer : gazetteers) {
+      final GazetteerVersion version = gazetteer.version();
+      final Map<String, Object> entry = new LinkedHashMap<>();
+
+      entry.put("mapping", gazetteer.mapping());
+      entry.put("ignoreCase", gazetteer.ignoreCase());
+      entry.put("version", version.number());
+      entry.put("entries", version.base().size());
+      entry.put("additions", version.additions());
+      entry.put("removals", version.removals());
+
+      result.add(entry);
+    }
+
+    resp.setContentType("application/json;charset=utf-8");
+    resp.setHeader("Cache-Control", "must-revalidate,no-cache,no-store");
+    resp.setStatus(status);
+
+    new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(resp.getOutputStream(),
+        result);
+  }
+}
@@ -0,0 +1,316 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.store;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import com.google.common.hash.Hashing;
+
+import fr.eurecom.stanfordnlprestapi.configurations.StoreConfiguration;
+
+import io.dropwizard.lifecycle.Managed;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent store of the serialized annotations of the documents, kept across the restarts of
+ * the service. The documents are appended to a log split into segments, and an index in memory,
+ * rebuilt from the segments when the store is opened, gives the place of each document. The
+ * compaction rewrites the oldest segments until the store fits in its maximum size: the
+ * documents read since they were written are moved to the newest segment and the others are
+ * dropped.
+ *
+ * @author Julien Plu
+ */
+public class AnnotationStore implements Managed {
+  static final Logger LOGGER = LoggerFactory.getLogger(AnnotationStore.class);
+  private final Path directory;
+  private final long maximumBytes;
+  private final int segmentBytes;
+  private final Map<String, StoreLocation> index;
+  private final Deque<StoreSegment> segments;
+  private final AtomicLong bytes;
+  private final AtomicLong hits;
+  private final AtomicLong misses;
+  private final AtomicLong dropped;
+  private StoreSegment head;
+
+  /**
+   * AnnotationStore constructor. The store is opened right away, so the profiles loaded before
+   * the start of the service can already use it.
+   *
+   * @param configuration Location and sizing of the store.
+   */
+  public AnnotationStore(final StoreConfiguration configuration) {
+    this.maximumBytes = configuration.getMaximumBytes();
+    this.segmentBytes = configuration.getSegmentBytes();
+    this.index = new ConcurrentHashMap<>();
+    this.segments = new ConcurrentLinkedDeque<>();
+    this.bytes = new AtomicLong();
+    this.hits = new AtomicLong();
+    this.misses = new AtomicLong();
+    this.dropped = new AtomicLong();
+
+    if (configuration.getDirectory().isEmpty()) {
+      this.directory = null;
+    } else {
+      this.directory = Paths.get(configuration.getDirectory());
+
+      this.open();
+    }
+  }
+
+  /**
+   * Build the key of a document.
+   *
+   * @param pipeline Identifier of the pipeline that annotated the document.
+   * @param text     Annotated text.
+   *
+   * @return The key of the document.
+   */
+  public static String key(final String pipeline, final String text) {
+    return pipeline + '\n' + Hashing.sha256().hashString(text, StandardCharsets.UTF_8);
+  }
+
+  private void open() {
+    try {
+      Files.createDirectories(this.directory);
+
+      final List<Path> files;
+
+      try (Stream<Path> stream = Files.list(this.directory)) {
+        files = stream.filter(file -> file.getFileName().toString().endsWith(
+            StoreSegment.EXTENSION)).sorted().collect(Collectors.toList());
+      }
+
+      for (final Path file : files) {
+        final StoreSegment segment = new StoreSegment(file);
+
+        this.index.putAll(segment.scan());
+        this.segments.add(segment);
+        this.bytes.addAndGet(segment.size());
+      }
+
+      if (this.segments.isEmpty()) {
+        this.segments.add(new StoreSegment(StoreSegment.path(this.directory, 0)));
+      }
+
+      this.head = this.segments.getLast();
+    } catch (final IOException ex) {
+      throw new WebApplicationException("The annotation store: " + this.directory
+          + " cannot be opened", ex, Response.Status.PRECONDITION_FAILED);
+    }
+
+    AnnotationStore.LOGGER.info("Annotation store {} opened with {} documents in {} segments",
+        this.directory, this.index.size(), this.segments.size());
+  }
+
+  public final boolean enabled() {
+    return this.directory != null;
+  }
+
+  /**
+   * Get a serialized document from the store.
+   *
+   * @param key Key of the document.
+   *
+   * @return The serialized document, null if it is not stored.
+   */
+  public final byte[] get(final String key) {
+    if (!this.enabled()) {
+      return null;
+    }
+
+    final StoreLocation location = this.index.get(key);
+
+    if (location != null) {
+      try {
+        final byte[] value = location.read();
+
+        this.hits.incrementAndGet();
+
+        return value;
+      } catch (final IOException ex) {
+        AnnotationStore.LOGGER.debug("The document {} cannot be read from the store", key, ex);
+      }
+    }
+
+    this.misses.incrementAndGet();
+
+    return null;
+  }
+
+  /**
+   * Append a serialized document to the store, unless it is already stored. A failure to write
+   * the document is logged and the document is not stored.
+   *
+   * @param key   Key of the document.
+   * @param value Serialized document.
+   */
+  public final void put(final String key, final byte[] value) {
+    if (!this.enabled() || this.index.containsKey(key)) {
+      return;
+    }
+
+    try {
+      this.index.put(key, this.append(key, value));
+    } catch (final IOException ex) {
+      AnnotationStore.LOGGER.warn("The document {} cannot be written in the store", key, ex);
+    }
+  }
+
+  private synchronized StoreLocation append(final String key, final byte[] value)
+      throws IOException {
+    if (this.head.size() >= this.segmentBytes) {
+      this.head.force();
+      this.head = new StoreSegment(StoreSegment.path(this.directory, this.head.id() + 1));
+      this.segments.add(this.head);
+    }
+
+    final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    final long offset = this.head.append(keyBytes, value);
+
+    this.bytes.addAndGet(StoreSegment.HEADER_BYTES + keyBytes.length + value.length);
+
+    return new StoreLocation(this.head, offset, value.length);
+  }
+
+  /**
+   * Compact the oldest segments until the store fits in its maximum size. The newest segment is
+   * never compacted.
+   */
+  public final void compact() {
+    if (!this.enabled()) {
+      return;
+    }
+
+    try {
+      while (this.bytes.get() > this.maximumBytes && this.segments.size() > 1) {
+        this.compact(this.segments.getFirst());
+      }
+    } catch (final IOException ex) {
+      AnnotationStore.LOGGER.warn("The annotation store {} cannot be compacted", this.directory,
+          ex);
+    }
+  }
+
+  private void compact(final StoreSegment oldest) throws IOException {
+    int kept = 0;
+    int removed = 0;
+
+    for (final Map.Entry<String, StoreLocation> record : oldest.scan().entrySet()) {
+      final StoreLocation location = this.index.get(record.getKey());
+
+      if (location == null || location.segment() != oldest) {
+        continue;
+      }
+
+      if (location.recent()) {
+        this.index.replace(record.getKey(), location, this.append(record.getKey(),
+            location.read()));
+
+        kept++;
+      } else if (this.index.remove(record.getKey(), location)) {
+        removed++;
+      }
+    }
+
+    this.segments.remove(oldest);
+    this.bytes.addAndGet(-oldest.size());
+    this.dropped.addAndGet(removed);
+
+    oldest.delete();
+
+    AnnotationStore.LOGGER.info("Segment {} of the annotation store compacted, {} documents kept "
+        + "and {} dropped", oldest.id(), kept, removed);
+  }
+
+  public final int size() {
+    return this.index.size();
+  }
+
+  @Override
+  public final void start() {
+    AnnotationStore.LOGGER.debug("Annotation store {} started", this.directory);
+  }
+
+  /**
+   * Flush and close the segments of the store.
+   *
+   * @throws IOException if a segment cannot be flushed.
+   */
+  @Override
+  public final synchronized void stop() throws IOException {
+    for (final StoreSegment segment : this.segments) {
+      segment.force();
+      segment.close();
+    }
+  }
+
+  /**
+   * Register the hit, miss and size gauges of the store.
+   *
+   * @param metrics Registry where the gauges are registered.
+   */
+  public final void registerMetrics(final MetricRegistry metrics) {
+    metrics.register(MetricRegistry.name(AnnotationStore.class, "hits"),
+        (Gauge<Long>) this.hits::get);
+    metrics.register(MetricRegistry.name(AnnotationStore.class, "misses"),
+        (Gauge<Long>) this.misses::get);
+    metrics.register(MetricRegistry.name(AnnotationStore.class, "dropped"),
+        (Gauge<Long>) this.dropped::get);
+    metrics.register(MetricRegistry.name(AnnotationStore.class, "entries"),
+        (Gauge<Integer>) this.index::size);
+    metrics.register(MetricRegistry.name(AnnotationStore.class, "bytes"),
+        (Gauge<Long>) this.bytes::get);
+    metrics.register(MetricRegistry.name(AnnotationStore.class, "segments"),
+        (Gauge<Integer>) this.segments::size);
+  }
+
+  @Override
+  public final String toString() {
+    return "AnnotationStore{"
+        + "directory=" + this.directory
+        + ", entries=" + this.index.size()
+        + ", bytes=" + this.bytes.get()
+        + ", segments=" + this.segments.size()
+        + ", hits=" + this.hits.get()
+        + ", misses=" + this.misses.get()
+        + ", dropped=" + this.dropped.get()
+        + '}';
+  }
+}
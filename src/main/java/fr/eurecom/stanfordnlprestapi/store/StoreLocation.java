@@ -0,0 +1,86 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.store;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Place of a stored document in a segment of the store.
+ *
+ * @author Julien Plu
+ */
+final class StoreLocation {
+  static final Logger LOGGER = LoggerFactory.getLogger(StoreLocation.class);
+  private final StoreSegment segment;
+  private final long offset;
+  private final int length;
+  private volatile boolean recent;
+
+  /**
+   * StoreLocation constructor.
+   *
+   * @param newSegment Segment where the document is stored.
+   * @param newOffset  Offset of the serialized document in the segment.
+   * @param newLength  Length of the serialized document.
+   */
+  StoreLocation(final StoreSegment newSegment, final long newOffset, final int newLength) {
+    this.segment = newSegment;
+    this.offset = newOffset;
+    this.length = newLength;
+  }
+
+  /**
+   * Read the serialized document, and mark it as read since the last compaction.
+   *
+   * @return The serialized document.
+   *
+   * @throws IOException if the segment cannot be read.
+   */
+  byte[] read() throws IOException {
+    final byte[] value = this.segment.read(this.offset, this.length);
+
+    this.recent = true;
+
+    return value;
+  }
+
+  boolean recent() {
+    return this.recent;
+  }
+
+  StoreSegment segment() {
+    return this.segment;
+  }
+
+  int length() {
+    return this.length;
+  }
+
+  @Override
+  public String toString() {
+    return "StoreLocation{"
+        + "segment=" + this.segment.id()
+        + ", offset=" + this.offset
+        + ", length=" + this.length
+        + ", recent=" + this.recent
+        + '}';
+  }
+}
@@ -0,0 +1,267 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.store;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * File of the store where the documents are appended one after the other. Each record is made
+ * of the length of its key, the length of its value, a CRC32 of both, then the UTF-8 bytes of the
+ * key and the bytes of the value. A record cut by a crash is detected by its length or its CRC,
+ * and the segment is truncated before it when it is scanned.
+ *
+ * @author Julien Plu
+ */
+final class StoreSegment {
+  static final Logger LOGGER = LoggerFactory.getLogger(StoreSegment.class);
+  static final String EXTENSION = ".log";
+  static final int HEADER_BYTES = 12;
+  private final Path path;
+  private final long id;
+  private volatile FileChannel channel;
+  private volatile boolean retired;
+  private volatile long size;
+
+  /**
+   * StoreSegment constructor, the file is created if it does not exist.
+   *
+   * @param newPath Path of the segment.
+   *
+   * @throws IOException if the file cannot be opened.
+   */
+  StoreSegment(final Path newPath) throws IOException {
+    this.path = newPath;
+    this.id = Long.parseLong(newPath.getFileName().toString().replace(StoreSegment.EXTENSION,
+        ""));
+    this.channel = FileChannel.open(newPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    this.size = this.channel.size();
+  }
+
+  static Path path(final Path directory, final long id) {
+    return directory.resolve(String.format(Locale.ENGLISH, "%016d%s", id,
+        StoreSegment.EXTENSION));
+  }
+
+  private static long checksum(final byte[] key, final byte[] value) {
+    final CRC32 crc = new CRC32();
+
+    crc.update(key);
+    crc.update(value);
+
+    return crc.getValue();
+  }
+
+  /**
+   * Channel of the segment. A thread interrupted during a read or a write closes the channel, so
+   * it is opened again unless the segment has been retired.
+   */
+  private FileChannel channel() throws IOException {
+    final FileChannel current = this.channel;
+
+    if (current.isOpen()) {
+      return current;
+    }
+
+    synchronized (this) {
+      if (this.retired) {
+        throw new ClosedChannelException();
+      }
+
+      if (!this.channel.isOpen()) {
+        StoreSegment.LOGGER.debug("Reopen the segment {}", this.path);
+
+        this.channel = FileChannel.open(this.path, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+      }
+
+      return this.channel;
+    }
+  }
+
+  /**
+   * Append a record at the end of the segment. Only one thread appends at a time.
+   *
+   * @param key   Key of the document.
+   * @param value Serialized document.
+   *
+   * @return The offset of the value in the segment.
+   *
+   * @throws IOException if the segment cannot be written.
+   */
+  long append(final byte[] key, final byte[] value) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(StoreSegment.HEADER_BYTES + key.length
+        + value.length);
+    final long offset = this.size;
+
+    buffer.putInt(key.length);
+    buffer.putInt(value.length);
+    buffer.putInt((int) StoreSegment.checksum(key, value));
+    buffer.put(key);
+    buffer.put(value);
+    buffer.flip();
+
+    while (buffer.hasRemaining()) {
+      this.channel().write(buffer, offset + buffer.position());
+    }
+
+    this.size = offset + buffer.limit();
+
+    return offset + StoreSegment.HEADER_BYTES + key.length;
+  }
+
+  /**
+   * Read a value of the segment.
+   *
+   * @param offset Offset of the value.
+   * @param length Length of the value.
+   *
+   * @return The bytes of the value.
+   *
+   * @throws IOException if the segment cannot be read or has been retired.
+   */
+  byte[] read(final long offset, final int length) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(length);
+
+    while (buffer.hasRemaining()) {
+      if (this.channel().read(buffer, offset + buffer.position()) < 0) {
+        throw new EOFException("Truncated segment " + this.path);
+      }
+    }
+
+    return buffer.array();
+  }
+
+  /**
+   * Read the records of the segment, in their order. The segment is truncated at the first
+   * record that is cut or corrupted.
+   *
+   * @return The location of the last record of each key.
+   *
+   * @throws IOException if the segment cannot be read.
+   */
+  Map<String, StoreLocation> scan() throws IOException {
+    final Map<String, StoreLocation> records = new LinkedHashMap<>();
+    final long end = this.size;
+    long position = 0;
+
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(
+        this.path)))) {
+      while (position + StoreSegment.HEADER_BYTES <= end) {
+        final int keyLength = in.readInt();
+        final int valueLength = in.readInt();
+        final int checksum = in.readInt();
+
+        if (keyLength < 0 || valueLength < 0 || position + StoreSegment.HEADER_BYTES + keyLength
+            + valueLength > end) {
+          break;
+        }
+
+        final byte[] key = new byte[keyLength];
+        final byte[] value = new byte[valueLength];
+
+        in.readFully(key);
+        in.readFully(value);
+
+        if ((int) StoreSegment.checksum(key, value) != checksum) {
+          break;
+        }
+
+        records.put(new String(key, StandardCharsets.UTF_8), new StoreLocation(this, position
+            + StoreSegment.HEADER_BYTES + keyLength, valueLength));
+
+        position += StoreSegment.HEADER_BYTES + keyLength + valueLength;
+      }
+    }
+
+    if (position < end) {
+      StoreSegment.LOGGER.warn("The segment {} is truncated from {} to {} bytes", this.path, end,
+          position);
+
+      this.channel().truncate(position);
+      this.size = position;
+    }
+
+    return records;
+  }
+
+  /**
+   * Flush the segment to the disk.
+   *
+   * @throws IOException if the segment cannot be flushed.
+   */
+  void force() throws IOException {
+    this.channel().force(false);
+  }
+
+  /**
+   * Close the segment, its values cannot be read anymore.
+   *
+   * @throws IOException if the segment cannot be closed.
+   */
+  synchronized void close() throws IOException {
+    this.retired = true;
+    this.channel.close();
+  }
+
+  /**
+   * Close and delete the segment.
+   *
+   * @throws IOException if the segment cannot be deleted.
+   */
+  void delete() throws IOException {
+    this.close();
+
+    Files.deleteIfExists(this.path);
+  }
+
+  long id() {
+    return this.id;
+  }
+
+  long size() {
+    return this.size;
+  }
+
+  @Override
+  public String toString() {
+    return "StoreSegment{"
+        + "path=" + this.path
+        + ", size=" + this.size
+        + ", retired=" + this.retired
+        + '}';
+  }
+}
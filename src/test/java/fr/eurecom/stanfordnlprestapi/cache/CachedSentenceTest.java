@@ -0,0 +1,113 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.cache;
+
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.ling.CoreLabel;
+
+import edu.stanford.nlp.util.ArrayCoreMap;
+import edu.stanford.nlp.util.CoreMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class CachedSentenceTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(CachedSentenceTest.class);
+
+  public CachedSentenceTest() {
+  }
+
+  static CoreMap sentence(final int begin, final String... texts) {
+    final CoreMap sentence = new ArrayCoreMap();
+    final List<CoreLabel> tokens = new ArrayList<>();
+    int start = begin;
+
+    for (final String text : texts) {
+      final CoreLabel token = new CoreLabel();
+
+      token.set(CoreAnnotations.TextAnnotation.class, text);
+      token.setBeginPosition(start);
+      token.setEndPosition(start + text.length());
+
+      tokens.add(token);
+
+      start += text.length() + 1;
+    }
+
+    sentence.set(CoreAnnotations.TextAnnotation.class, String.join(" ", texts));
+    sentence.set(CoreAnnotations.CharacterOffsetBeginAnnotation.class, begin);
+    sentence.set(CoreAnnotations.TokensAnnotation.class, tokens);
+
+    return sentence;
+  }
+
+  /**
+   * Test {@link CachedSentence#restore(CoreMap)} method on the same sentence elsewhere.
+   */
+  @Test
+  public final void testRestore() {
+    final CoreMap tagged = CachedSentenceTest.sentence(0, "I", "like", "Paris");
+    final CoreMap other = CachedSentenceTest.sentence(42, "I", "like", "Paris");
+    final List<CoreLabel> tokens = tagged.get(CoreAnnotations.TokensAnnotation.class);
+
+    tokens.get(0).set(CoreAnnotations.PartOfSpeechAnnotation.class, "PRP");
+    tokens.get(0).set(CoreAnnotations.NamedEntityTagAnnotation.class, "O");
+    tokens.get(2).set(CoreAnnotations.PartOfSpeechAnnotation.class, "NNP");
+    tokens.get(2).set(CoreAnnotations.NamedEntityTagAnnotation.class, "LOCATION");
+
+    final CachedSentence cached = CachedSentence.of(tagged);
+
+    Assert.assertTrue("Issue to restore the tags", cached.restore(other));
+    Assert.assertEquals("Issue to restore a POS tag", "NNP", other.get(
+        CoreAnnotations.TokensAnnotation.class).get(2).get(
+            CoreAnnotations.PartOfSpeechAnnotation.class));
+    Assert.assertEquals("Issue to restore a NER tag", "LOCATION", other.get(
+        CoreAnnotations.TokensAnnotation.class).get(2).get(
+            CoreAnnotations.NamedEntityTagAnnotation.class));
+    Assert.assertNull("Issue to keep a missing tag", other.get(
+        CoreAnnotations.TokensAnnotation.class).get(1).get(
+            CoreAnnotations.PartOfSpeechAnnotation.class));
+    Assert.assertEquals("Issue to count the tokens", 3, cached.size());
+    Assert.assertEquals("Issue to estimate the size", 136, cached.weight());
+    Assert.assertEquals("Issue to get the proper toString value", "CachedSentence{tokens=3}",
+        cached.toString());
+  }
+
+  /**
+   * Test {@link CachedSentence#restore(CoreMap)} method on a sentence split otherwise.
+   */
+  @Test
+  public final void testRestoreOtherTokens() {
+    final CachedSentence cached = CachedSentence.of(CachedSentenceTest.sentence(0, "I", "like",
+        "Paris"));
+    final CoreMap other = CachedSentenceTest.sentence(10, "I", "like", "Pa", "ris");
+    final CoreMap shifted = CachedSentenceTest.sentence(10, "I", "lik", "Paris");
+
+    Assert.assertFalse("Issue to refuse another number of tokens", cached.restore(other));
+    Assert.assertFalse("Issue to refuse tokens at other places", cached.restore(shifted));
+  }
+}
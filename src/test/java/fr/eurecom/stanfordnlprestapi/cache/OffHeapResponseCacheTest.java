@@ -0,0 +1,197 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.cache;
+
+import com.codahale.metrics.MetricRegistry;
+
+import fr.eurecom.stanfordnlprestapi.configurations.CacheConfiguration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class OffHeapResponseCacheTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(OffHeapResponseCacheTest.class);
+
+  public OffHeapResponseCacheTest() {
+  }
+
+  private static OffHeapResponseCache cache(final long maximumBytes, final int segmentBytes) {
+    final CacheConfiguration configuration = new CacheConfiguration();
+
+    configuration.setOffHeapMaximumBytes(maximumBytes);
+    configuration.setOffHeapSegmentBytes(segmentBytes);
+
+    return new OffHeapResponseCache(configuration);
+  }
+
+  private static byte[] filled(final int length, final int value) {
+    final byte[] bytes = new byte[length];
+
+    Arrays.fill(bytes, (byte) value);
+
+    return bytes;
+  }
+
+  private static byte[] written(final OffHeapResponse response) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    response.writeTo(out);
+
+    return out.toByteArray();
+  }
+
+  /**
+   * Test {@link OffHeapResponseCache#get(String)} method.
+   */
+  @Test
+  public final void testGet() throws IOException {
+    final OffHeapResponseCache cache = OffHeapResponseCacheTest.cache(192, 64);
+
+    cache.put("a", "small".getBytes(StandardCharsets.UTF_8));
+    cache.put("b", new byte[65]);
+
+    final OffHeapResponse response = cache.get("a");
+
+    Assert.assertArrayEquals("Issue to copy a cached response", "small".getBytes(
+        StandardCharsets.UTF_8), OffHeapResponseCacheTest.written(response));
+    Assert.assertEquals("Issue to get the length of a cached response", 5, response.length());
+
+    response.close();
+
+    Assert.assertNull("Issue to not cache a response bigger than a segment", cache.get("b"));
+    Assert.assertNull("Issue to miss a response that is not cached", cache.get("c"));
+  }
+
+  /**
+   * Test {@link OffHeapResponseCache#put(String, byte[])} method with the eviction of the
+   * oldest segments.
+   */
+  @Test
+  public final void testPut() throws IOException {
+    final OffHeapResponseCache cache = OffHeapResponseCacheTest.cache(192, 64);
+    final MetricRegistry metrics = new MetricRegistry();
+
+    cache.registerMetrics(metrics);
+
+    for (int i = 0; i < 10; i++) {
+      cache.put("r" + i, OffHeapResponseCacheTest.filled(40, i));
+    }
+
+    Assert.assertEquals("Issue to keep the responses of the newest segments", 3, cache.size());
+    Assert.assertNull("Issue to evict the oldest responses", cache.get("r0"));
+
+    final OffHeapResponse response = cache.get("r9");
+
+    Assert.assertArrayEquals("Issue to copy a response from a reused segment",
+        OffHeapResponseCacheTest.filled(40, 9), OffHeapResponseCacheTest.written(response));
+
+    response.close();
+
+    Assert.assertEquals("Issue to count the evictions", 7L, metrics.getGauges().get(
+        MetricRegistry.name(OffHeapResponseCache.class, "evictions")).getValue());
+    Assert.assertEquals("Issue to count the bytes", 120L, metrics.getGauges().get(
+        MetricRegistry.name(OffHeapResponseCache.class, "bytes")).getValue());
+    Assert.assertEquals("Issue to reuse the segments", 3L, metrics.getGauges().get(
+        MetricRegistry.name(OffHeapResponseCache.class, "allocations")).getValue());
+    Assert.assertEquals("Issue to count the hits", 1L, metrics.getGauges().get(
+        MetricRegistry.name(OffHeapResponseCache.class, "hits")).getValue());
+  }
+
+  /**
+   * Test {@link OffHeapResponseCache#put(String, byte[])} method when a response of the oldest
+   * segment is still read.
+   */
+  @Test
+  public final void testPutPinned() throws IOException {
+    final OffHeapResponseCache cache = OffHeapResponseCacheTest.cache(128, 64);
+
+    cache.put("r0", OffHeapResponseCacheTest.filled(40, 0));
+
+    final OffHeapResponse pinned = cache.get("r0");
+
+    cache.put("r1", OffHeapResponseCacheTest.filled(40, 1));
+    cache.put("r2", OffHeapResponseCacheTest.filled(40, 2));
+
+    Assert.assertNull("Issue to evict a pinned response", cache.get("r0"));
+    Assert.assertArrayEquals("Issue to keep the bytes of a pinned response",
+        OffHeapResponseCacheTest.filled(40, 0), OffHeapResponseCacheTest.written(pinned));
+
+    pinned.close();
+    cache.put("r3", OffHeapResponseCacheTest.filled(40, 3));
+
+    final OffHeapResponse response = cache.get("r2");
+
+    Assert.assertArrayEquals("Issue to keep the bytes of the other responses",
+        OffHeapResponseCacheTest.filled(40, 2), OffHeapResponseCacheTest.written(response));
+
+    response.close();
+  }
+
+  /**
+   * Test {@link OffHeapResponseCache#remove(String)} method.
+   */
+  @Test
+  public final void testRemove() {
+    final OffHeapResponseCache cache = OffHeapResponseCacheTest.cache(192, 64);
+
+    cache.put("a", "small".getBytes(StandardCharsets.UTF_8));
+
+    final OffHeapResponse response = cache.get("a");
+
+    Assert.assertArrayEquals("Issue to copy a response to the heap", "small".getBytes(
+        StandardCharsets.UTF_8), response.bytes());
+
+    response.close();
+    cache.remove("a");
+    cache.remove("a");
+
+    Assert.assertNull("Issue to remove a response", cache.get("a"));
+    Assert.assertEquals("Issue to bound an entry by a segment", 64, cache.maximumEntryBytes());
+    Assert.assertEquals("Issue to uncount the bytes of a removed response",
+        "OffHeapResponseCache{entries=0, bytes=0, segments=3, segmentBytes=64, hits=1, misses=1, "
+        + "evictions=0}", cache.toString());
+  }
+
+  /**
+   * Test {@link OffHeapResponseCache} class when it is disabled.
+   */
+  @Test
+  public final void testDisabled() {
+    final OffHeapResponseCache cache = new OffHeapResponseCache(new CacheConfiguration());
+
+    cache.put("a", new byte[10]);
+
+    Assert.assertFalse("Issue to disable the cache by default", cache.enabled());
+    Assert.assertNull("Issue to not cache a response when disabled", cache.get("a"));
+    Assert.assertEquals("Issue to not take any entry when disabled", 0,
+        cache.maximumEntryBytes());
+    Assert.assertEquals("Issue to describe the cache", "OffHeapResponseCache{entries=0, bytes=0, "
+        + "segments=0, segmentBytes=67108864, hits=0, misses=0, evictions=0}", cache.toString());
+  }
+}
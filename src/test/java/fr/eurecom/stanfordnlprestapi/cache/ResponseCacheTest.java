@@ -0,0 +1,151 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.cache;
+
+import com.codahale.metrics.MetricRegistry;
+
+import fr.eurecom.stanfordnlprestapi.configurations.CacheConfiguration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class ResponseCacheTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(ResponseCacheTest.class);
+
+  public ResponseCacheTest() {
+  }
+
+  /**
+   * Test {@link ResponseCache#key(String, String, String, String, String)} method.
+   */
+  @Test
+  public final void testKey() {
+    Assert.assertEquals("Issue to build the same key for the same response",
+        ResponseCache.key("ner_en_none", "", "TURTLE", "http://localhost", "I like Paris."),
+        ResponseCache.key("ner_en_none", "", "TURTLE", "http://localhost", "I like Paris."));
+    Assert.assertNotEquals("Issue to build a different key for another format",
+        ResponseCache.key("ner_en_none", "", "TURTLE", "http://localhost", "I like Paris."),
+        ResponseCache.key("ner_en_none", "", "NTRIPLES", "http://localhost", "I like Paris."));
+    Assert.assertNotEquals("Issue to build a different key for another text",
+        ResponseCache.key("ner_en_none", "", "TURTLE", "http://localhost", "I like Paris."),
+        ResponseCache.key("ner_en_none", "", "TURTLE", "http://localhost", "I like Nice."));
+    Assert.assertNotEquals("Issue to build a different key for another gazetteer version",
+        ResponseCache.key("gazetteer_en_none", "1", "TURTLE", "http://localhost", "I like Nice."),
+        ResponseCache.key("gazetteer_en_none", "2", "TURTLE", "http://localhost", "I like Nice."));
+  }
+
+  /**
+   * Test {@link ResponseCache#matches(String, String)} method.
+   */
+  @Test
+  public final void testMatches() {
+    Assert.assertTrue("Issue to match a strong entity tag",
+        ResponseCache.matches("\"abc\"", "abc"));
+    Assert.assertTrue("Issue to match a weak entity tag in a list",
+        ResponseCache.matches("\"def\", W/\"abc\"", "abc"));
+    Assert.assertTrue("Issue to match any entity tag", ResponseCache.matches("*", "abc"));
+    Assert.assertFalse("Issue to not match another entity tag",
+        ResponseCache.matches("\"def\"", "abc"));
+    Assert.assertFalse("Issue to not match a missing header", ResponseCache.matches(null, "abc"));
+  }
+
+  /**
+   * Test {@link ResponseCache#put(String, byte[])} method with the size limits.
+   */
+  @Test
+  public final void testPut() {
+    final CacheConfiguration configuration = new CacheConfiguration();
+
+    configuration.setMaximumBytes(100);
+    configuration.setMaximumEntryBytes(40);
+
+    final ResponseCache cache = new ResponseCache(configuration);
+    final MetricRegistry metrics = new MetricRegistry();
+
+    cache.registerMetrics(metrics);
+    cache.put("a", "small".getBytes(StandardCharsets.UTF_8));
+    cache.put("b", new byte[41]);
+
+    Assert.assertArrayEquals("Issue to get a cached response", "small".getBytes(
+        StandardCharsets.UTF_8), cache.get("a"));
+    Assert.assertNull("Issue to not cache a response bigger than an entry", cache.get("b"));
+
+    for (int i = 0; i < 10; i++) {
+      cache.put("c" + i, new byte[30]);
+    }
+
+    Assert.assertTrue("Issue to bound the cache by its weight", (Long) metrics.getGauges().get(
+        MetricRegistry.name(ResponseCache.class, "bytes")).getValue() <= 100);
+    Assert.assertTrue("Issue to count the evictions", (Long) metrics.getGauges().get(
+        MetricRegistry.name(ResponseCache.class, "evictions")).getValue() > 0);
+    Assert.assertEquals("Issue to count the misses", 1L, metrics.getGauges().get(
+        MetricRegistry.name(ResponseCache.class, "misses")).getValue());
+  }
+
+  /**
+   * Test {@link ResponseCache#put(String, byte[])} method when a response is evicted.
+   */
+  @Test
+  public final void testPutEvicted() {
+    final CacheConfiguration configuration = new CacheConfiguration();
+    final Map<String, byte[]> evicted = new HashMap<>();
+
+    configuration.setMaximumBytes(100);
+    configuration.setMaximumEntryBytes(1000);
+
+    final ResponseCache cache = new ResponseCache(configuration, evicted::put);
+
+    Assert.assertEquals("Issue to bound an entry by the size of the cache", 100,
+        cache.maximumEntryBytes());
+
+    for (int i = 0; i < 10; i++) {
+      cache.put("c" + i, new byte[20]);
+    }
+
+    Assert.assertFalse("Issue to hand over the evicted responses", evicted.isEmpty());
+
+    String kept = null;
+
+    for (int i = 0; i < 10; i++) {
+      if (cache.get("c" + i) == null) {
+        Assert.assertTrue("Issue to hand over an evicted response", evicted.containsKey(
+            "c" + i));
+      } else {
+        kept = "c" + i;
+      }
+    }
+
+    final int count = evicted.size();
+
+    Assert.assertNotNull("Issue to keep the newest responses", kept);
+
+    cache.put(kept, new byte[20]);
+
+    Assert.assertEquals("Issue to not hand over a replaced response", count, evicted.size());
+  }
+}
@@ -0,0 +1,86 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.cache;
+
+import com.codahale.metrics.MetricRegistry;
+
+import fr.eurecom.stanfordnlprestapi.configurations.CacheConfiguration;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class SentenceCacheTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(SentenceCacheTest.class);
+
+  public SentenceCacheTest() {
+  }
+
+  /**
+   * Test {@link SentenceCache#put(String, String, CachedSentence)} method.
+   */
+  @Test
+  public final void testPut() {
+    final CacheConfiguration configuration = new CacheConfiguration();
+
+    configuration.setSentenceMaximumBytes(1024);
+
+    final SentenceCache cache = new SentenceCache(configuration);
+    final MetricRegistry metrics = new MetricRegistry();
+    final CachedSentence sentence = CachedSentence.of(CachedSentenceTest.sentence(0, "I",
+        "like", "Paris"));
+
+    cache.registerMetrics(metrics);
+    cache.put("ner_en_none", "I like Paris", sentence);
+    cache.put("ner_en_none", "I like Paris", sentence);
+
+    Assert.assertTrue("Issue to enable the cache", cache.enabled());
+    Assert.assertSame("Issue to get a cached sentence", sentence, cache.get("ner_en_none",
+        "I like Paris"));
+    Assert.assertNull("Issue to not get the sentence of another profile", cache.get(
+        "pos_en_none", "I like Paris"));
+    Assert.assertEquals("Issue to count the entries", 1, cache.size());
+    Assert.assertEquals("Issue to count the bytes", 184L, metrics.getGauges().get(
+        MetricRegistry.name(SentenceCache.class, "bytes")).getValue());
+    Assert.assertEquals("Issue to count the hits", 1L, metrics.getGauges().get(
+        MetricRegistry.name(SentenceCache.class, "hits")).getValue());
+    Assert.assertTrue("Issue to get the proper toString value", cache.toString().startsWith(
+        "SentenceCache{entries=1, bytes=184, stats="));
+  }
+
+  /**
+   * Test {@link SentenceCache} disabled by default.
+   */
+  @Test
+  public final void testDisabled() {
+    final SentenceCache cache = new SentenceCache(new CacheConfiguration());
+
+    cache.put("ner_en_none", "I like Paris", CachedSentence.of(CachedSentenceTest.sentence(0,
+        "I", "like", "Paris")));
+
+    Assert.assertFalse("Issue to disable the cache", cache.enabled());
+    Assert.assertNull("Issue to get nothing from a disabled cache", cache.get("ner_en_none",
+        "I like Paris"));
+    Assert.assertEquals("Issue to keep a disabled cache empty", 0, cache.size());
+  }
+}
@@ -0,0 +1,79 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.core;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class AnnotatorRegistryTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(AnnotatorRegistryTest.class);
+
+  public AnnotatorRegistryTest() {
+  }
+
+  /**
+   * Test that two pipelines with the same properties share their annotators through
+   * {@link AnnotatorRegistry#acquire(String, String, int, java.util.function.Supplier)}.
+   */
+  @Test
+  public final void testSharedAnnotators() {
+    final AnnotatorRegistry registry = new AnnotatorRegistry();
+    final String propertyFile = AnnotatorRegistryTest.class.getClassLoader().getResource(
+        "tokenize_en_test.properties").getFile();
+    final StanfordNlp first = new StanfordNlp(propertyFile, "stanfordnlp", registry, 0);
+    final StanfordNlp second = new StanfordNlp(propertyFile, "stanfordnlp", registry, 0);
+
+    Assert.assertEquals("Issue to share the annotators of identical pipelines", 2,
+        registry.annotators().size());
+
+    for (final SharedAnnotator annotator : registry.annotators()) {
+      Assert.assertEquals("Issue to count the references of a shared annotator", 2,
+          annotator.references());
+    }
+
+    Assert.assertEquals("Issue to run a pipeline with shared annotators", 1,
+        second.run("I like Paris.").sentences().size());
+
+    first.release();
+    second.release();
+
+    Assert.assertTrue("Issue to drop the released annotators", registry.annotators().isEmpty());
+  }
+
+  /**
+   * Test that the instance slots of a pool do not share their annotators.
+   */
+  @Test
+  public final void testSlots() {
+    final AnnotatorRegistry registry = new AnnotatorRegistry();
+    final String propertyFile = AnnotatorRegistryTest.class.getClassLoader().getResource(
+        "tokenize_en_test.properties").getFile();
+
+    new StanfordNlp(propertyFile, "stanfordnlp", registry, 0);
+    new StanfordNlp(propertyFile, "stanfordnlp", registry, 1);
+
+    Assert.assertEquals("Issue to separate the annotators of the slots", 4,
+        registry.annotators().size());
+  }
+}
@@ -0,0 +1,225 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.core;
+
+import fr.eurecom.stanfordnlprestapi.configurations.PoolConfiguration;
+
+import fr.eurecom.stanfordnlprestapi.datatypes.Context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.ws.rs.WebApplicationException;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class MicroBatcherTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(MicroBatcherTest.class);
+  private static StanfordNlpPool pool;
+
+  public MicroBatcherTest() {
+  }
+
+  private static PoolConfiguration configuration() {
+    final PoolConfiguration configuration = new PoolConfiguration();
+
+    configuration.setMaxConcurrent(4);
+    configuration.setMaxWaiting(0);
+    configuration.setMicroBatchMillis(60000);
+    configuration.setMicroBatchSize(3);
+
+    return configuration;
+  }
+
+  @BeforeClass
+  public static void setUpBeforeClass() {
+    MicroBatcherTest.pool = new StanfordNlpPool("tokenize_en_test",
+        MicroBatcherTest.class.getClassLoader().getResource(
+            "tokenize_en_test.properties").getFile(), "stanfordnlp",
+        MicroBatcherTest.configuration());
+  }
+
+  /**
+   * Test {@link MicroBatcher#run(String)} method when the pool is busy.
+   */
+  @Test
+  public final void testRunBusy() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(3);
+    final List<Future<Context>> futures = new ArrayList<>();
+    final long before = MicroBatcherTest.pool.stages().histogram("microbatch").getCount();
+
+    MicroBatcherTest.pool.acquire();
+
+    try {
+      for (int i = 0; i < 3; i++) {
+        final String text = "I like Paris " + i + '.';
+
+        futures.add(executor.submit(() -> MicroBatcherTest.pool.run(text)));
+      }
+
+      for (int i = 0; i < 3; i++) {
+        Assert.assertEquals("Issue to give each text its own context", "I like Paris " + i + '.',
+            futures.get(i).get().text());
+      }
+    } finally {
+      MicroBatcherTest.pool.release();
+      executor.shutdownNow();
+    }
+
+    Assert.assertEquals("Issue to annotate the texts of a full window as one batch", before + 1,
+        MicroBatcherTest.pool.stages().histogram("microbatch").getCount());
+    Assert.assertEquals("Issue to measure the size of the batch", 3,
+        MicroBatcherTest.pool.stages().histogram("microbatch").getSnapshot().getMax());
+  }
+
+  /**
+   * Test {@link MicroBatcher#run(String)} method when the pool is idle.
+   */
+  @Test
+  public final void testRunIdle() {
+    final long begin = System.nanoTime();
+    final Context context = MicroBatcherTest.pool.run("I like Nice. It is sunny.");
+
+    Assert.assertEquals("Issue to annotate a text alone", 2, context.sentences().size());
+    Assert.assertTrue("Issue to not wait for other texts when the pool is idle",
+        System.nanoTime() - begin < 30000L * 1000 * 1000);
+    Assert.assertEquals("Issue to release the pipeline of the pool", 0,
+        MicroBatcherTest.pool.active());
+  }
+
+  /**
+   * Test {@link MicroBatcher#run(String)} method when the batch cannot get a slot of the pool.
+   */
+  @Test
+  public final void testRunFull() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(3);
+    final List<Future<Context>> futures = new ArrayList<>();
+
+    MicroBatcherTest.pool.acquire(4);
+
+    try {
+      for (int i = 0; i < 3; i++) {
+        final String text = "I like Nice " + i + '.';
+
+        futures.add(executor.submit(() -> MicroBatcherTest.pool.run(text)));
+      }
+
+      for (final Future<Context> future : futures) {
+        try {
+          future.get();
+
+          Assert.fail("A batch without slot must be rejected");
+        } catch (final ExecutionException ex) {
+          Assert.assertEquals("Issue to give the error of the batch to each text", 503,
+              ((WebApplicationException) ex.getCause()).getResponse().getStatus());
+        }
+      }
+    } finally {
+      MicroBatcherTest.pool.release(4);
+      executor.shutdownNow();
+    }
+  }
+
+  private static List<Future<Context>> submit(final ExecutorService executor,
+                                              final MicroBatcher batcher, final String prefix) {
+    final List<Future<Context>> futures = new ArrayList<>();
+
+    for (int i = 0; i < 3; i++) {
+      final String text = prefix + i + '.';
+
+      futures.add(executor.submit(() -> batcher.run(text, 60000)));
+    }
+
+    return futures;
+  }
+
+  /**
+   * Test {@link MicroBatcher#run(String, long)} method when the batch fails on one of its texts,
+   * each text is annotated alone.
+   */
+  @Test
+  public final void testRunAloneAfterFailure() throws Exception {
+    final MicroBatcher batcher = new MicroBatcher(MicroBatcherTest.pool,
+        MicroBatcherTest.configuration(), texts -> {
+          throw new IllegalStateException("Failure of a text");
+        });
+    final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    MicroBatcherTest.pool.acquire();
+
+    try {
+      final List<Future<Context>> futures = MicroBatcherTest.submit(executor, batcher,
+          "I like Lyon ");
+
+      for (int i = 0; i < 3; i++) {
+        Assert.assertEquals("Issue to annotate each text alone after a failed batch",
+            "I like Lyon " + i + '.', futures.get(i).get().text());
+      }
+    } finally {
+      MicroBatcherTest.pool.release();
+      executor.shutdownNow();
+    }
+
+    Assert.assertEquals("Issue to release the slots of the texts annotated alone", 0,
+        MicroBatcherTest.pool.active());
+  }
+
+  /**
+   * Test {@link MicroBatcher#run(String, long)} method when the pool has no slot for the batch,
+   * the texts are not annotated alone.
+   */
+  @Test
+  public final void testRunUnavailable() throws Exception {
+    final MicroBatcher batcher = new MicroBatcher(MicroBatcherTest.pool,
+        MicroBatcherTest.configuration(), texts -> {
+          throw MicroBatcherTest.pool.unavailable("No slot for the batch");
+        });
+    final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    MicroBatcherTest.pool.acquire();
+
+    try {
+      for (final Future<Context> future : MicroBatcherTest.submit(executor, batcher,
+          "I like Lille ")) {
+        try {
+          future.get();
+
+          Assert.fail("A batch without slot must reject its texts");
+        } catch (final ExecutionException ex) {
+          Assert.assertEquals("Issue to give the error of the batch to each text", 503,
+              ((WebApplicationException) ex.getCause()).getResponse().getStatus());
+        }
+      }
+    } finally {
+      MicroBatcherTest.pool.release();
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,422 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.core;
+
+import com.codahale.metrics.MetricRegistry;
+
+import fr.eurecom.stanfordnlprestapi.configurations.PoolConfiguration;
+
+import fr.eurecom.stanfordnlprestapi.datatypes.Context;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.ContextListener;
+import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
+
+import fr.eurecom.stanfordnlprestapi.nullobjects.NullContextListener;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class StanfordNlpPoolTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(StanfordNlpPoolTest.class);
+  private static StanfordNlpPool pool;
+
+  public StanfordNlpPoolTest() {
+  }
+
+  @BeforeClass
+  public static void setUpBeforeClass() {
+    final PoolConfiguration configuration = new PoolConfiguration();
+
+    configuration.setInstances(1);
+    configuration.setMaxConcurrent(1);
+    configuration.setMaxWaiting(0);
+    configuration.setRetryAfter(7);
+
+    StanfordNlpPoolTest.pool = new StanfordNlpPool("tokenize_en_test",
+        StanfordNlpPoolTest.class.getClassLoader().getResource(
+            "tokenize_en_test.properties").getFile(), "stanfordnlp", configuration);
+  }
+
+  /**
+   * Test {@link StanfordNlpPool#run(String)} method when a pipeline is available.
+   */
+  @Test
+  public final void testRun() {
+    final Context context = StanfordNlpPoolTest.pool.run("I like Paris. It is nice.");
+
+    Assert.assertEquals("Issue to run a pipeline of the pool", 2, context.sentences().size());
+    Assert.assertEquals("Issue to release the pipeline of the pool", 0,
+        StanfordNlpPoolTest.pool.active());
+  }
+
+  /**
+   * Test {@link StanfordNlpPool#run(String)} method when the pool and its waiting queue are
+   * full.
+   */
+  @Test
+  public final void testRunWhenFull() {
+    StanfordNlpPoolTest.pool.acquire();
+
+    try {
+      StanfordNlpPoolTest.pool.run("I like Paris.");
+
+      Assert.fail("A full pool must reject the request");
+    } catch (final WebApplicationException ex) {
+      Assert.assertEquals("Issue with the status of a full pool", 503,
+          ex.getResponse().getStatus());
+      Assert.assertEquals("Issue with the Retry-After header of a full pool", "7",
+          ex.getResponse().getHeaderString(HttpHeaders.RETRY_AFTER));
+    } finally {
+      StanfordNlpPoolTest.pool.release();
+    }
+  }
+
+  /**
+   * Test {@link StanfordNlpPool#lease(String, long)} method, the slot is taken before the text is
+   * annotated and released only once.
+   */
+  @Test
+  public final void testLease() {
+    final StanfordNlpPool.Lease lease = StanfordNlpPoolTest.pool.lease(
+        "I like Paris. It is nice.", 0);
+
+    try {
+      Assert.assertEquals("Issue to take the slot of a lease", 1,
+          StanfordNlpPoolTest.pool.active());
+      Assert.assertEquals("Issue to run the text of a lease", 2, lease.run(
+          NullContextListener.getInstance()).sentences().size());
+    } finally {
+      lease.close();
+      lease.close();
+    }
+
+    Assert.assertEquals("Issue to release the slot of a lease once", 0,
+        StanfordNlpPoolTest.pool.active());
+  }
+
+  /**
+   * Test {@link StanfordNlpPool#lease(String, long)} method, a lease runs on the instance with
+   * the fewest requests in flight.
+   */
+  @Test
+  public final void testLeaseLeastBusy() {
+    final PoolConfiguration configuration = new PoolConfiguration();
+
+    configuration.setInstances(2);
+    configuration.setMaxConcurrent(4);
+
+    final StanfordNlpPool pool = new StanfordNlpPool("tokenize_en_test",
+        StanfordNlpPoolTest.class.getClassLoader().getResource(
+            "tokenize_en_test.properties").getFile(), "stanfordnlp", configuration);
+    final StanfordNlpPool.Lease first = pool.lease("I like Paris.", 0);
+    final StanfordNlpPool.Lease second = pool.lease("I like Paris.", 0);
+
+    second.close();
+
+    final StanfordNlpPool.Lease third = pool.lease("I like Paris.", 0);
+
+    Assert.assertArrayEquals("Issue to run a lease on the least busy instance", new int[] {1, 1},
+        pool.inFlight());
+
+    first.close();
+    third.close();
+
+    Assert.assertEquals("Issue to run a batch on an instance of the pool", 2, pool.run(
+        Arrays.asList("I like Paris.", "It is nice.")).size());
+    Assert.assertArrayEquals("Issue to count the requests in flight", new int[] {0, 0},
+        pool.inFlight());
+  }
+
+  /**
+   * Test {@link StanfordNlpPool#lease(String, long)} method with a text annotated after the
+   * timeout of the lease.
+   */
+  @Test
+  public final void testLeaseTimeout() throws Exception {
+    try (StanfordNlpPool.Lease lease = StanfordNlpPoolTest.pool.lease("I like Paris.", 1)) {
+      Thread.sleep(10);
+
+      lease.run(NullContextListener.getInstance());
+
+      Assert.fail("A lease must be aborted after its timeout");
+    } catch (final WebApplicationException ex) {
+      Assert.assertEquals("Issue with the status of a lease after its timeout", 503,
+          ex.getResponse().getStatus());
+    }
+
+    Assert.assertEquals("Issue to release the slot of a lease after its timeout", 0,
+        StanfordNlpPoolTest.pool.active());
+  }
+
+  /**
+   * Test {@link StanfordNlpPool#registerMetrics(MetricRegistry)} method.
+   */
+  @Test
+  public final void testRegisterMetrics() {
+    final MetricRegistry metrics = new MetricRegistry();
+
+    StanfordNlpPoolTest.pool.registerMetrics(metrics);
+
+    Assert.assertTrue("Issue to register the active gauge of the pool",
+        metrics.getGauges().containsKey(MetricRegistry.name(StanfordNlpPool.class,
+            "tokenize_en_test", "active")));
+    Assert.assertEquals("Issue to register the waiting gauge of the pool", 0,
+        metrics.getGauges().get(MetricRegistry.name(StanfordNlpPool.class, "tokenize_en_test",
+            "waiting")).getValue());
+  }
+
+  /**
+   * Test {@link StanfordNlpPool#stages()} method once a text is annotated.
+   */
+  @Test
+  public final void testStageMetrics() {
+    final MetricRegistry metrics = new MetricRegistry();
+
+    StanfordNlpPoolTest.pool.registerMetrics(metrics);
+    StanfordNlpPoolTest.pool.run("I like Paris. It is nice.");
+
+    Assert.assertTrue("Issue to time the tokenize annotator of the pool",
+        metrics.getTimers().get(MetricRegistry.name(StanfordNlpPool.class, "tokenize_en_test",
+            "stages", "annotator.tokenize")).getCount() > 0);
+    Assert.assertTrue("Issue to time the context construction of the pool",
+        metrics.getTimers().get(MetricRegistry.name(StanfordNlpPool.class, "tokenize_en_test",
+            "stages", "context")).getCount() > 0);
+    Assert.assertTrue("Issue to measure the sentences of the pool",
+        metrics.getHistograms().containsKey(MetricRegistry.name(StanfordNlpPool.class,
+            "tokenize_en_test", "stages", "sentences")));
+  }
+
+  private static StanfordNlpPool coalescing(final int maxWaiting, final long maxWaitMillis) {
+    final PoolConfiguration configuration = new PoolConfiguration();
+
+    configuration.setInstances(1);
+    configuration.setMaxConcurrent(1);
+    configuration.setMaxWaiting(maxWaiting);
+    configuration.setMaxWaitMillis(maxWaitMillis);
+
+    return new StanfordNlpPool("tokenize_en_test", StanfordNlpPoolTest.class.getClassLoader()
+        .getResource("tokenize_en_test.properties").getFile(), "stanfordnlp", configuration);
+  }
+
+  private static ContextListener blocking(final CountDownLatch started,
+                                          final CountDownLatch resumed,
+                                          final RuntimeException failure) {
+    return new ContextListener() {
+      @Override
+      public void start(final Context context) {
+        started.countDown();
+
+        try {
+          resumed.await();
+        } catch (final InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+
+        if (failure != null) {
+          throw failure;
+        }
+      }
+
+      @Override
+      public void sentence(final Sentence sentence) {
+      }
+    };
+  }
+
+  private static void awaitCoalesced(final MetricRegistry metrics, final String name,
+                                     final long count) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+    while (metrics.getMeters().get(name).getCount() < count && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
+  /**
+   * Test {@link StanfordNlpPool#run(String)} method while the same text is being annotated by
+   * another request that holds the only slot of the pool.
+   */
+  @Test
+  public final void testRunCoalesced() throws Exception {
+    final String text = "I like Paris. It is nice.";
+    final StanfordNlpPool coalescing = StanfordNlpPoolTest.coalescing(1, 10000);
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch resumed = new CountDownLatch(1);
+    final MetricRegistry metrics = new MetricRegistry();
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    final String coalesced = MetricRegistry.name(StanfordNlpPool.class, "tokenize_en_test",
+        "coalesced");
+
+    coalescing.registerMetrics(metrics);
+
+    try {
+      final Future<Context> leader = executor.submit(() -> coalescing.run(text,
+          StanfordNlpPoolTest.blocking(started, resumed, null)));
+
+      started.await();
+
+      final Future<Context> follower = executor.submit(() -> coalescing.run(text));
+
+      StanfordNlpPoolTest.awaitCoalesced(metrics, coalesced, 1);
+      resumed.countDown();
+
+      Assert.assertSame("Issue to share the context of the same text", leader.get(),
+          follower.get());
+      Assert.assertEquals("Issue to count the coalesced requests", 1,
+          metrics.getMeters().get(coalesced).getCount());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Test {@link StanfordNlpPool#run(String)} method while the same text is being annotated by
+   * another request that fails.
+   */
+  @Test
+  public final void testRunCoalescedFailure() throws Exception {
+    final String text = "I like Paris. It is nice.";
+    final StanfordNlpPool coalescing = StanfordNlpPoolTest.coalescing(1, 10000);
+    final WebApplicationException failure = coalescing.unavailable("Failure of the leader");
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch resumed = new CountDownLatch(1);
+    final MetricRegistry metrics = new MetricRegistry();
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    coalescing.registerMetrics(metrics);
+
+    try {
+      executor.submit(() -> coalescing.run(text, StanfordNlpPoolTest.blocking(started, resumed,
+          failure)));
+      started.await();
+
+      final Future<Context> follower = executor.submit(() -> coalescing.run(text));
+
+      StanfordNlpPoolTest.awaitCoalesced(metrics, MetricRegistry.name(StanfordNlpPool.class,
+          "tokenize_en_test", "coalesced"), 1);
+      resumed.countDown();
+
+      try {
+        follower.get();
+
+        Assert.fail("A coalesced request must fail with the shared annotation");
+      } catch (final ExecutionException ex) {
+        Assert.assertSame("Issue to share the error of the same text", failure, ex.getCause());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Test {@link StanfordNlpPool#run(String)} method while the same text is being annotated by
+   * another request for longer than the time left to the request, or when the waiting queue is
+   * full.
+   */
+  @Test
+  public final void testRunCoalescedUnavailable() throws Exception {
+    final String text = "I like Paris. It is nice.";
+    final ExecutorService executor = Executors.newFixedThreadPool(1);
+    final StanfordNlpPool[] pools = {StanfordNlpPoolTest.coalescing(1, 10000),
+        StanfordNlpPoolTest.coalescing(0, 10000)};
+    final long[] timeouts = {50, 10000};
+
+    try {
+      for (int i = 0; i < pools.length; i++) {
+        final StanfordNlpPool coalescing = pools[i];
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch resumed = new CountDownLatch(1);
+        final Future<Context> leader = executor.submit(() -> coalescing.run(text,
+            StanfordNlpPoolTest.blocking(started, resumed, null)));
+
+        started.await();
+
+        try {
+          coalescing.run(text, NullContextListener.getInstance(), timeouts[i]);
+
+          Assert.fail("A coalesced request must not wait more than the pool allows");
+        } catch (final WebApplicationException ex) {
+          Assert.assertEquals("Issue with the status of a coalesced request", 503,
+              ex.getResponse().getStatus());
+        } finally {
+          resumed.countDown();
+        }
+
+        Assert.assertEquals("Issue to complete the shared annotation", 2,
+            leader.get().sentences().size());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Test {@link StanfordNlpPool#run(String, ContextListener, long)} method while the same text is
+   * being annotated by another request for longer than the wait for a slot of the pool, but less
+   * than the time left to the request.
+   */
+  @Test
+  public final void testRunCoalescedSlow() throws Exception {
+    final String text = "I like Paris. It is nice.";
+    final StanfordNlpPool coalescing = StanfordNlpPoolTest.coalescing(1, 50);
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch resumed = new CountDownLatch(1);
+    final MetricRegistry metrics = new MetricRegistry();
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    coalescing.registerMetrics(metrics);
+
+    try {
+      final Future<Context> leader = executor.submit(() -> coalescing.run(text,
+          StanfordNlpPoolTest.blocking(started, resumed, null)));
+
+      started.await();
+
+      final Future<Context> follower = executor.submit(() -> coalescing.run(text,
+          NullContextListener.getInstance(), 10000));
+
+      StanfordNlpPoolTest.awaitCoalesced(metrics, MetricRegistry.name(StanfordNlpPool.class,
+          "tokenize_en_test", "coalesced"), 1);
+      Thread.sleep(200);
+      resumed.countDown();
+
+      Assert.assertSame("Issue to wait for the shared annotation longer than the wait for a slot",
+          leader.get(), follower.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
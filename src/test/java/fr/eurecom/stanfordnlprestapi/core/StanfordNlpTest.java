@@ -17,20 +17,39 @@
  */
 package fr.eurecom.stanfordnlprestapi.core;
 
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.ling.CoreLabel;
+
+import edu.stanford.nlp.util.ArrayCoreMap;
 import edu.stanford.nlp.util.CoreMap;
 
+import fr.eurecom.stanfordnlprestapi.cache.SentenceCache;
+
+import fr.eurecom.stanfordnlprestapi.configurations.CacheConfiguration;
+import fr.eurecom.stanfordnlprestapi.configurations.StoreConfiguration;
+
 import fr.eurecom.stanfordnlprestapi.datatypes.Context;
 import fr.eurecom.stanfordnlprestapi.datatypes.Entity;
 import fr.eurecom.stanfordnlprestapi.datatypes.SentenceImpl;
 import fr.eurecom.stanfordnlprestapi.datatypes.TokenImpl;
 
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
 import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
 import fr.eurecom.stanfordnlprestapi.interfaces.Token;
 
 import fr.eurecom.stanfordnlprestapi.nullobjects.NullSentence;
 import fr.eurecom.stanfordnlprestapi.nullobjects.NullToken;
 
+import fr.eurecom.stanfordnlprestapi.store.AnnotationStore;
+
 import java.nio.file.FileSystems;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.ws.rs.WebApplicationException;
 
@@ -40,6 +59,8 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,6 +73,8 @@ public class StanfordNlpTest {
   private static StanfordNlp stanfordNlp2;
   @Rule
   public ExpectedException thrown = ExpectedException.none();
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
 
   public StanfordNlpTest() {
   }
@@ -337,6 +360,50 @@ public class StanfordNlpTest {
         contextTest.sentences().get(0).entities().contains(entity));
   }
   
+  /**
+   * Test {@link StanfordNlp#buildEntitiesFromSentence(CoreMap, Context, Sentence)} method with
+   * tokens that contain a @ or a # and with two different entities at the end of a sentence.
+   */
+  @Test
+  public final void testBuildEntitiesSplitOrder() throws Exception {
+    final String text = "Barack @Obama Barack Obama #Paris in EURECOM Nice";
+    final String[][] labels = {{"Barack", "PERSON"}, {"@Obama", "PERSON"}, {"Barack", "PERSON"},
+        {"Obama", "PERSON"}, {"#Paris", "LOCATION"}, {"in", "O"}, {"EURECOM", "ORGANIZATION"},
+        {"Nice", "LOCATION"}};
+    final List<CoreLabel> tokens = new ArrayList<>();
+    final CoreMap stanfordSentence = new ArrayCoreMap();
+    final Context context = new Context(text, 0, text.length());
+    final Sentence sentence = new SentenceImpl(text, context, 0, text.length(), 0,
+        NullSentence.getInstance());
+    int start = 0;
+
+    for (final String[] label : labels) {
+      final CoreLabel token = new CoreLabel();
+
+      token.set(CoreAnnotations.TextAnnotation.class, label[0]);
+      token.set(CoreAnnotations.NamedEntityTagAnnotation.class, label[1]);
+      token.set(CoreAnnotations.CharacterOffsetBeginAnnotation.class, start);
+      token.set(CoreAnnotations.CharacterOffsetEndAnnotation.class, start + label[0].length());
+
+      tokens.add(token);
+
+      start += label[0].length() + 1;
+    }
+
+    stanfordSentence.set(CoreAnnotations.TokensAnnotation.class, tokens);
+
+    StanfordNlpTest.stanfordNlp.buildEntitiesFromSentence(stanfordSentence, context, sentence);
+
+    Assert.assertEquals("Issue to split the entities on @ and # in the proper order",
+        Arrays.asList(new Entity("@Obama", "PERSON", sentence, context, 7, 13),
+            new Entity("Barack", "PERSON", sentence, context, 0, 6),
+            new Entity("Barack Obama", "PERSON", sentence, context, 14, 26),
+            new Entity("#Paris", "LOCATION", sentence, context, 27, 33),
+            new Entity("Nice", "LOCATION", sentence, context, 45, 49),
+            new Entity("EURECOM", "ORGANIZATION", sentence, context, 37, 44)),
+        sentence.entities());
+  }
+  
   /**
    * Test non-existent settings usage.
    */
@@ -356,4 +423,131 @@ public class StanfordNlpTest {
     Assert.assertEquals("Issues to get the proper name", "stanfordnlp",
         StanfordNlpTest.stanfordNlp.getName());
   }
+  
+  /**
+   * Test {@link StanfordNlp#run(String, int, ForkJoinPool)} method with a text split into
+   * several chunks.
+   */
+  @Test
+  public final void testRunByChunks() throws Exception {
+    final String text = "This guy is cool. That album is nice. I like the guy.";
+    final ForkJoinPool forkJoinPool = new ForkJoinPool(2);
+    final Context chunked = StanfordNlpTest.stanfordNlp2.run(text, 15, forkJoinPool);
+    final Context context = StanfordNlpTest.stanfordNlp2.run(text);
+    
+    forkJoinPool.shutdown();
+    
+    Assert.assertEquals("Issue to merge the sentences of the chunks", 3,
+        chunked.sentences().size());
+    Assert.assertEquals("Issue to rebase the sentence indices of the chunks", 2,
+        chunked.sentences().get(2).index());
+    Assert.assertTrue("Issue to rebase the offsets of the chunks",
+        context.rdfModel("stanfordnlp", NlpProcess.GAZETTEER, "http://127.0.0.1")
+            .isIsomorphicWith(chunked.rdfModel("stanfordnlp", NlpProcess.GAZETTEER,
+                "http://127.0.0.1")));
+  }
+  
+  /**
+   * Test {@link StanfordNlp#run(String)} method with the sentences already annotated in the
+   * cache.
+   */
+  @Test
+  public final void testRunWithSentenceCache() throws Exception {
+    final CacheConfiguration configuration = new CacheConfiguration();
+    
+    configuration.setSentenceMaximumBytes(1024 * 1024);
+    
+    final SentenceCache cache = new SentenceCache(configuration);
+    final StanfordNlp memoized = new StanfordNlp(Collections.singletonList(
+        StanfordNlpTest.class.getClassLoader().getResource(
+            "gazetteer_en_test.properties").getFile()), EnumSet.of(NlpProcess.GAZETTEER),
+        "stanfordnlp", AnnotatorRegistry.getInstance(), 0, new StageMetrics("gazetteer_en_test"),
+        cache);
+    final String first = "This guy is cool. That album is nice. This guy is cool.";
+    final String second = "I like the guy. That album is nice.";
+    
+    memoized.run(first);
+    
+    Assert.assertEquals("Issue to cache the distinct sentences", 2, cache.size());
+    
+    final Context context = memoized.run(second);
+    
+    Assert.assertEquals("Issue to cache the new sentences only", 3, cache.size());
+    Assert.assertTrue("Issue to restore the cached sentences at their place",
+        StanfordNlpTest.stanfordNlp2.run(second).rdfModel("stanfordnlp", NlpProcess.GAZETTEER,
+            "http://127.0.0.1").isIsomorphicWith(context.rdfModel("stanfordnlp",
+                NlpProcess.GAZETTEER, "http://127.0.0.1")));
+    Assert.assertEquals("Issue to annotate a batch with the cache", 2, memoized.run(
+        Arrays.asList(first, second), 2).size());
+    
+    memoized.release();
+  }
+  
+  /**
+   * Test {@link StanfordNlp#run(String)} method with a custom gazetteer annotator, whose
+   * sentences are not cached.
+   */
+  @Test
+  public final void testRunWithoutSentenceCache() throws Exception {
+    final CacheConfiguration configuration = new CacheConfiguration();
+    
+    configuration.setSentenceMaximumBytes(1024 * 1024);
+    
+    final SentenceCache cache = new SentenceCache(configuration);
+    final StanfordNlp trie = new StanfordNlp(Collections.singletonList(
+        StanfordNlpTest.class.getClassLoader().getResource(
+            "gazetteer_en_trie.properties").getFile()), EnumSet.of(NlpProcess.GAZETTEER),
+        "stanfordnlp", AnnotatorRegistry.getInstance(), 0, new StageMetrics("gazetteer_en_trie"),
+        cache);
+    
+    Assert.assertEquals("Issue to annotate with the gazetteer", 1, trie.run(
+        "This guy is cool.").sentences().get(0).entities().size());
+    Assert.assertEquals("Issue to not cache the sentences of a custom annotator", 0,
+        cache.size());
+    
+    trie.release();
+  }
+  
+  private StanfordNlp persistent(final AnnotationStore store) {
+    return new StanfordNlp(Collections.singletonList(StanfordNlpTest.class.getClassLoader()
+        .getResource("ner_en_test.properties").getFile()), EnumSet.of(NlpProcess.NER),
+        "stanfordnlp", AnnotatorRegistry.getInstance(), 0, new StageMetrics("ner_en_test"),
+        new SentenceCache(new CacheConfiguration()), store);
+  }
+  
+  /**
+   * Test {@link StanfordNlp#run(String)} method with the documents read from the store after a
+   * restart.
+   */
+  @Test
+  public final void testRunWithStore() throws Exception {
+    final StoreConfiguration configuration = new StoreConfiguration();
+    
+    configuration.setDirectory(this.folder.getRoot().getPath());
+    
+    final AnnotationStore store = new AnnotationStore(configuration);
+    final StanfordNlp persistent = this.persistent(store);
+    final String text = "I like Paris. Barack Obama lives in Washington.";
+    
+    persistent.run(text);
+    persistent.release();
+    store.stop();
+    
+    final AnnotationStore reopened = new AnnotationStore(configuration);
+    final StanfordNlp restarted = this.persistent(reopened);
+    
+    Assert.assertEquals("Issue to keep the document after a restart", 1, reopened.size());
+    Assert.assertTrue("Issue to rebuild the context from the stored document",
+        StanfordNlpTest.stanfordNlp.run(text).rdfModel("stanfordnlp", NlpProcess.NER,
+            "http://127.0.0.1").isIsomorphicWith(restarted.run(text).rdfModel("stanfordnlp",
+            NlpProcess.NER, "http://127.0.0.1")));
+    Assert.assertTrue("Issue to read the document from the store",
+        reopened.toString().contains("hits=1"));
+    Assert.assertEquals("Issue to annotate a batch with the store", 2, restarted.run(
+        Arrays.asList(text, "I like Nice."), 2).size());
+    Assert.assertEquals("Issue to store the new documents of a batch", 2, reopened.size());
+    
+    restarted.release();
+    reopened.stop();
+  }
 }
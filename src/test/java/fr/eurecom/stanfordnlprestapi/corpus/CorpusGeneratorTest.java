@@ -0,0 +1,69 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.corpus;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class CorpusGeneratorTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(CorpusGeneratorTest.class);
+
+  public CorpusGeneratorTest() {
+  }
+
+  /**
+   * Test {@link CorpusGenerator#documents(int, int)} method.
+   */
+  @Test
+  public final void testDocuments() {
+    final List<String> documents = new CorpusGenerator(42, 0.5).documents(3, 500);
+
+    Assert.assertEquals("Issue to generate the same documents with the same seed", documents,
+        new CorpusGenerator(42, 0.5).documents(3, 500));
+    Assert.assertEquals("Issue to generate the requested number of documents", 3,
+        documents.size());
+
+    for (final String document : documents) {
+      Assert.assertTrue("Issue to generate a document of the requested size",
+          document.length() >= 500);
+      Assert.assertTrue("Issue to end a document with a whole sentence",
+          document.endsWith("."));
+    }
+  }
+
+  /**
+   * Test {@link CorpusGenerator#sentence()} method without any entity.
+   */
+  @Test
+  public final void testSentenceWithoutEntities() {
+    final CorpusGenerator generator = new CorpusGenerator(7, 0);
+
+    for (int i = 0; i < 10; i++) {
+      Assert.assertTrue("Issue to generate a sentence without entities",
+          generator.sentence().startsWith("The "));
+    }
+  }
+}
@@ -34,8 +34,11 @@ import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.vocabulary.RDF;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
 
+import org.junit.rules.ExpectedException;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,6 +47,8 @@ import org.slf4j.LoggerFactory;
  */
 public class SentenceImplTest {
   static final Logger LOGGER = LoggerFactory.getLogger(SentenceImplTest.class);
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
 
   public SentenceImplTest() {
   }
@@ -381,4 +386,29 @@ public class SentenceImplTest {
     Assert.assertFalse("Issue with equals on different object", sentence.equals(context));
     Assert.assertFalse("Issue with equals on the property coref", sentence.equals(sentence11));
   }
+
+  /**
+   * Test the {@link SentenceImpl#tokens()} method with tokens added by columns.
+   */
+  @Test
+  public final void testTokens() {
+    final Context context = new Context("My favorite actress is: Natalie Portman. She is very "
+        + "stunning.", 0, 62);
+    final Sentence sentence = new SentenceImpl("My favorite actress is: Natalie Portman.", context,
+        0, 40, 1, NullSentence.getInstance());
+
+    sentence.addToken("My", "PRP$", 0, 2, 1);
+    sentence.addToken(new TokenImpl("favorite", "JJ", 3, 11, NullToken.getInstance(), context,
+        sentence, 2));
+
+    Assert.assertEquals("Issue to get the number of tokens", 2, sentence.tokens().size());
+    Assert.assertEquals("Issue to get a token added by columns", "PRP$",
+        sentence.tokens().get(0).tag());
+    Assert.assertEquals("Issue to get a token added as an object", "favorite",
+        sentence.tokens().get(1).text());
+
+    this.thrown.expect(IndexOutOfBoundsException.class);
+
+    sentence.tokens().get(2);
+  }
 }
@@ -0,0 +1,75 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.datatypes;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class TagDictionaryTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(TagDictionaryTest.class);
+
+  public TagDictionaryTest() {
+  }
+
+  /**
+   * Test {@link TagDictionary#code(String)} and {@link TagDictionary#intern(String)} methods.
+   */
+  @Test
+  public final void testCode() {
+    final TagDictionary dictionary = TagDictionary.getInstance();
+    final int code = dictionary.code("NNP");
+    final String tag = new String("LOCATION".toCharArray());
+
+    Assert.assertEquals("Issue to get the same code for the same tag", code,
+        dictionary.code(new String("NNP".toCharArray())));
+    Assert.assertEquals("Issue to decode a tag", "NNP", dictionary.tag(code));
+    Assert.assertNotEquals("Issue to get different codes for different tags", code,
+        dictionary.code("VBZ"));
+    Assert.assertSame("Issue to intern a tag", dictionary.intern("LOCATION"),
+        dictionary.intern(tag));
+    Assert.assertTrue("Issue to count the tags", dictionary.size() >= 3);
+    Assert.assertTrue("Issue to get the proper toString value",
+        dictionary.toString().startsWith("TagDictionary{tags=["));
+  }
+
+  /**
+   * Test {@link TagDictionary#code(String)} and {@link TagDictionary#intern(String)} methods
+   * once the dictionary is full.
+   */
+  @Test
+  public final void testCodeWhenFull() {
+    final TagDictionary dictionary = new TagDictionary(2);
+    final String tag = new String("LOCATION".toCharArray());
+
+    Assert.assertEquals("Issue to encode the first tag", 0, dictionary.code("NNP"));
+    Assert.assertEquals("Issue to encode the last tag", 1, dictionary.code("VBZ"));
+    Assert.assertEquals("Issue to reject a tag of a full dictionary", -1,
+        dictionary.code("LOCATION"));
+    Assert.assertEquals("Issue to encode a tag already in a full dictionary", 0,
+        dictionary.code("NNP"));
+    Assert.assertSame("Issue to keep a tag out of a full dictionary", tag,
+        dictionary.intern(tag));
+    Assert.assertEquals("Issue to bound the tags", 2, dictionary.size());
+  }
+}
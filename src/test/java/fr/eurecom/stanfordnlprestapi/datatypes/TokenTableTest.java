@@ -0,0 +1,222 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.datatypes;
+
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import fr.eurecom.stanfordnlprestapi.interfaces.Sentence;
+import fr.eurecom.stanfordnlprestapi.interfaces.Token;
+
+import fr.eurecom.stanfordnlprestapi.nullobjects.NullSentence;
+import fr.eurecom.stanfordnlprestapi.nullobjects.NullToken;
+
+import java.util.EnumSet;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+
+import org.apache.jena.riot.system.StreamRDFLib;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class TokenTableTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(TokenTableTest.class);
+  private final Context context = new Context("My favorite actress is: Natalie Portman. She is "
+      + "very stunning.", 0, 62);
+  private final Sentence sentence = new SentenceImpl("My favorite actress is: Natalie Portman.",
+      this.context, 0, 40, 1, NullSentence.getInstance());
+
+  public TokenTableTest() {
+  }
+
+  private TokenTable table() {
+    final TokenTable table = new TokenTable(this.context, this.sentence);
+
+    table.add("My", "PRP$", 0, 2, 1);
+    table.add("favorite", "JJ", 3, 11, 2);
+    table.add("actress", "NN", 12, 19, 3);
+
+    return table;
+  }
+
+  /**
+   * Test {@link TokenTable#token(int)} method against the equivalent linked {@link TokenImpl}.
+   */
+  @Test
+  public final void testRdfModelSameAsTokenImpl() {
+    final Token token1 = new TokenImpl("My", "PRP$", 0, 2, NullToken.getInstance(), this.context,
+        this.sentence, 1);
+    final Token token2 = new TokenImpl("favorite", "JJ", 3, 11, token1, this.context,
+        this.sentence, 2);
+    final Token token3 = new TokenImpl("actress", "NN", 12, 19, token2, this.context,
+        this.sentence, 3);
+
+    token1.nextToken(token2);
+    token2.nextToken(token3);
+
+    final TokenTable table = this.table();
+
+    Assert.assertTrue("Issue to build the model of a token in the middle of a table",
+        token2.rdfModel("stanfordnlp", NlpProcess.POS, "http://127.0.0.1").isIsomorphicWith(
+            table.token(1).rdfModel("stanfordnlp", NlpProcess.POS, "http://127.0.0.1")));
+    Assert.assertTrue("Issue to build the model of the first token of a table",
+        token1.rdfModel("stanfordnlp", NlpProcess.TOKENIZE, "http://127.0.0.1")
+            .isIsomorphicWith(table.token(0).rdfModel("stanfordnlp", NlpProcess.TOKENIZE,
+                "http://127.0.0.1")));
+    Assert.assertTrue("Issue to build the model of the last token of a table",
+        token3.rdfModel("stanfordnlp", NlpProcess.POS, "http://127.0.0.1").isIsomorphicWith(
+            table.token(2).rdfModel("stanfordnlp", NlpProcess.POS, "http://127.0.0.1")));
+  }
+
+  /**
+   * Test {@link TableToken#rdfStream(org.apache.jena.riot.system.StreamRDF, String, NlpProcess,
+   * String)} method.
+   */
+  @Test
+  public final void testRdfStream() {
+    final Token token = this.table().token(1);
+    final Model model = ModelFactory.createDefaultModel();
+
+    token.rdfStream(StreamRDFLib.graph(model.getGraph()), "stanfordnlp", NlpProcess.POS,
+        "http://127.0.0.1");
+
+    Assert.assertTrue("Issue to stream the triples of a token of a table",
+        model.isIsomorphicWith(token.rdfModel("stanfordnlp", EnumSet.of(NlpProcess.POS),
+            "http://127.0.0.1")));
+  }
+
+  /**
+   * Test {@link TokenTable#add(String, String, int, int, int)} method beyond the initial
+   * capacity of the table.
+   */
+  @Test
+  public final void testAddGrowth() {
+    final TokenTable table = new TokenTable(this.context, this.sentence);
+
+    for (int i = 0; i < 40; i++) {
+      table.add("a", i % 2 == 0 ? "DT" : null, i * 2, i * 2 + 1, i + 1);
+    }
+
+    Assert.assertEquals("Issue to grow the table", 40, table.size());
+    Assert.assertEquals("Issue to get the text of the last token", "a", table.text(39));
+    Assert.assertEquals("Issue to get the start of the last token", 78, table.start(39));
+    Assert.assertEquals("Issue to get the end of the last token", 79, table.end(39));
+    Assert.assertEquals("Issue to get the index of the last token", 40, table.index(39));
+    Assert.assertEquals("Issue to get an empty tag for a token without tag", "", table.tag(39));
+    Assert.assertEquals("Issue to get the tag of a token", "DT", table.tag(38));
+  }
+
+  /**
+   * Test {@link TokenTable#add(String, String, int, int, int)} method with the tags that are not
+   * in a full tag dictionary.
+   */
+  @Test
+  public final void testAddWithFullDictionary() {
+    final TagDictionary dictionary = new TagDictionary(1);
+    final TokenTable table = new TokenTable(this.context, this.sentence, dictionary);
+    final TokenTable table2 = new TokenTable(this.context, this.sentence, dictionary);
+    final TokenTable table3 = new TokenTable(this.context, this.sentence, dictionary);
+
+    for (int i = 0; i < 40; i++) {
+      table.add("a", i % 2 == 0 ? "DT" : "NN", i * 2, i * 2 + 1, i + 1);
+    }
+
+    table2.add("a", "DT", 0, 1, 1);
+    table2.add("a", "NNS", 2, 3, 2);
+    table3.add("a", "DT", 0, 1, 1);
+    table3.add("a", "NN", 2, 3, 2);
+
+    Assert.assertEquals("Issue to fill the tag dictionary", 1, dictionary.size());
+    Assert.assertEquals("Issue to get the tag of a token in the dictionary", "DT",
+        table.tag(38));
+    Assert.assertEquals("Issue to get the tag of a token out of the dictionary", "NN",
+        table.tag(39));
+    Assert.assertNotEquals("Issue with equals on the tags out of the dictionary", table2,
+        table3);
+  }
+
+  /**
+   * Test the tokens built on demand from a {@link TokenTable}.
+   */
+  @Test
+  public final void testToken() {
+    final TokenTable table = this.table();
+    final TableToken token = (TableToken) table.token(1);
+
+    Assert.assertEquals("Issue to get a null token before the table", NullToken.getInstance(),
+        table.token(-1));
+    Assert.assertEquals("Issue to get a null token after the table", NullToken.getInstance(),
+        table.token(3));
+    Assert.assertEquals("Issue to get the text of a token", "favorite", token.text());
+    Assert.assertEquals("Issue to get the tag of a token", "JJ", token.tag());
+    Assert.assertEquals("Issue to get the start of a token", 3, token.start());
+    Assert.assertEquals("Issue to get the end of a token", 11, token.end());
+    Assert.assertEquals("Issue to get the index of a token", 2, token.index());
+    Assert.assertEquals("Issue to get the previous token", "My", token.previousToken().text());
+    Assert.assertEquals("Issue to get the next token", "actress", token.nextToken().text());
+    Assert.assertEquals("Issue to get the same token twice", token, table.token(1));
+    Assert.assertEquals("Issue to get the same hash code twice", token.hashCode(),
+        table.token(1).hashCode());
+    Assert.assertNotEquals("Issue with equals on the position", token, table.token(2));
+    Assert.assertNotEquals("Issue with equals on the table", token, this.table().token(1));
+    Assert.assertFalse("Issue with equals on null", token.equals(null));
+    Assert.assertEquals("Issue to get the proper toString value", "TableToken{text='favorite', "
+        + "tag='JJ', start=3, end=11, previousToken=My, nextToken=actress, sentence=1, index=2}",
+        token.toString());
+
+    try {
+      token.nextToken(NullToken.getInstance());
+
+      Assert.fail("The next token of a table token must not be set");
+    } catch (final UnsupportedOperationException ex) {
+      Assert.assertEquals("Issue to keep the next token of the table", "actress",
+          token.nextToken().text());
+    }
+  }
+
+  /**
+   * Test {@link TokenTable#equals(Object)} and {@link TokenTable#hashCode()} methods.
+   */
+  @Test
+  public final void testEquals() {
+    final TokenTable table = this.table();
+    final TokenTable table2 = new TokenTable(this.context, this.sentence);
+
+    table2.add("My", "PRP$", 0, 2, 1);
+    table2.add("favorite", "JJ", 3, 11, 2);
+    table2.add("actress", "NNS", 12, 19, 3);
+
+    Assert.assertEquals("Issue with equals on the same content", table, this.table());
+    Assert.assertEquals("Issue with hashCode on the same content", table.hashCode(),
+        this.table().hashCode());
+    Assert.assertEquals("Issue with equals on the same object", table, table);
+    Assert.assertNotEquals("Issue with equals on the tags", table, table2);
+    Assert.assertNotEquals("Issue with equals on the size", table, new TokenTable(this.context,
+        this.sentence));
+    Assert.assertFalse("Issue with equals on null", table.equals(null));
+    Assert.assertEquals("Issue to get the proper toString value", "TokenTable{tokens=[My/PRP$[0,2]"
+        + ", favorite/JJ[3,11], actress/NN[12,19]]}", table.toString());
+  }
+}
@@ -0,0 +1,156 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.fetch;
+
+import com.sun.net.httpserver.HttpServer;
+
+import fr.eurecom.stanfordnlprestapi.configurations.FetcherConfiguration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.WebApplicationException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class UrlFetcherTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(UrlFetcherTest.class);
+  private static final String PAGE = "<html><body><p>My favorite actress is: Natalie Portman."
+      + "</p></body></html>";
+  private HttpServer server;
+  private String base;
+  private AtomicInteger full;
+  private AtomicInteger notModified;
+
+  public UrlFetcherTest() {
+  }
+
+  /**
+   * Start a stub HTTP server that serves a page with an ETag, a big page and a slow page.
+   *
+   * @throws IOException if the server cannot start.
+   */
+  @Before
+  public final void setUp() throws IOException {
+    this.full = new AtomicInteger();
+    this.notModified = new AtomicInteger();
+    this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+
+    this.server.createContext("/page", exchange -> {
+      if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        this.notModified.incrementAndGet();
+        exchange.sendResponseHeaders(304, -1);
+      } else {
+        final byte[] body = UrlFetcherTest.PAGE.getBytes(StandardCharsets.UTF_8);
+
+        this.full.incrementAndGet();
+        exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(body);
+        }
+      }
+
+      exchange.close();
+    });
+    this.server.createContext("/slow", exchange -> {
+      try {
+        Thread.sleep(2000);
+      } catch (final InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+    this.server.start();
+
+    this.base = "http://localhost:" + this.server.getAddress().getPort();
+  }
+
+  @After
+  public final void tearDown() {
+    this.server.stop(0);
+  }
+
+  /**
+   * Test {@link UrlFetcher#text(String)} method with a cached document revalidated by its ETag.
+   *
+   * @throws IOException if the document cannot be fetched.
+   */
+  @Test
+  public final void testTextWithEtag() throws IOException {
+    try (UrlFetcher fetcher = new UrlFetcher(new FetcherConfiguration())) {
+      Assert.assertEquals("Issue to extract the text of a document",
+          "My favorite actress is: Natalie Portman.", fetcher.text(this.base + "/page"));
+      Assert.assertEquals("Issue to reuse the text of a document not modified",
+          "My favorite actress is: Natalie Portman.", fetcher.text(this.base + "/page"));
+      Assert.assertEquals("Issue to fetch a document only once", 1, this.full.get());
+      Assert.assertEquals("Issue to revalidate a cached document", 1, this.notModified.get());
+    }
+  }
+
+  /**
+   * Test {@link UrlFetcher#text(String)} method with a document bigger than the maximum size.
+   *
+   * @throws IOException if the document cannot be fetched.
+   */
+  @Test
+  public final void testTextTooLarge() throws IOException {
+    final FetcherConfiguration configuration = new FetcherConfiguration();
+
+    configuration.setMaxBytes(10);
+
+    try (UrlFetcher fetcher = new UrlFetcher(configuration)) {
+      fetcher.text(this.base + "/page");
+
+      Assert.fail("A document bigger than the maximum size must be rejected");
+    } catch (final WebApplicationException ex) {
+      Assert.assertEquals("Issue with the status of a document too large", 413,
+          ex.getResponse().getStatus());
+    }
+  }
+
+  /**
+   * Test {@link UrlFetcher#text(String)} method with a host slower than the read timeout.
+   */
+  @Test(expected = IOException.class)
+  public final void testTextTimeout() throws IOException {
+    final FetcherConfiguration configuration = new FetcherConfiguration();
+
+    configuration.setReadTimeoutMillis(200);
+
+    try (UrlFetcher fetcher = new UrlFetcher(configuration)) {
+      fetcher.text(this.base + "/slow");
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.gazetteer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import javax.ws.rs.WebApplicationException;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class CompiledDictionaryTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(CompiledDictionaryTest.class);
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  public CompiledDictionaryTest() {
+  }
+
+  private CompiledDictionary compile(final TrieDictionary dictionary, final boolean ignoreCase)
+      throws IOException {
+    final File file = this.folder.newFile("gazetteer" + CompiledDictionary.EXTENSION);
+
+    CompiledDictionary.write(dictionary, ignoreCase, file.toPath());
+
+    return CompiledDictionary.open(file.getPath(), ignoreCase);
+  }
+
+  /**
+   * Test {@link CompiledDictionary#next(int, String)} and {@link CompiledDictionary#type(int)}
+   * methods against the dictionary it has been compiled from.
+   */
+  @Test
+  public final void testNext() throws IOException {
+    final TrieDictionary trie = new TrieDictionary();
+
+    trie.add(Arrays.asList("new", "york"), "LOCATION");
+    trie.add(Arrays.asList("new", "york", "city"), "CITY");
+    trie.add(Arrays.asList("new", "delhi"), "LOCATION");
+    trie.add(Arrays.asList("françois", "hollande"), "PERSON");
+    trie.add(Arrays.asList("york"), "LOCATION");
+
+    final CompiledDictionary dictionary = this.compile(trie, true);
+    final int state = dictionary.next(dictionary.root(), "new");
+
+    Assert.assertEquals("Issue to keep the number of entries", 5, dictionary.size());
+    Assert.assertNull("Issue to get no type for a prefix", dictionary.type(state));
+    Assert.assertEquals("Issue to get the type of an entry", "LOCATION", dictionary.type(
+        dictionary.next(state, "york")));
+    Assert.assertEquals("Issue to get the type of a longer entry", "CITY", dictionary.type(
+        dictionary.next(dictionary.next(state, "york"), "city")));
+    Assert.assertEquals("Issue to get the type of a token with an accent", "PERSON",
+        dictionary.type(dictionary.next(dictionary.next(dictionary.root(), "françois"),
+            "hollande")));
+    Assert.assertEquals("Issue to get no state for a token with another accent", -1,
+        dictionary.next(dictionary.root(), "francois"));
+    Assert.assertEquals("Issue to get no state for an unknown token", -1, dictionary.next(state,
+        "jersey"));
+    Assert.assertEquals("Issue to get no state for a known token at the wrong place", -1,
+        dictionary.next(state, "city"));
+    Assert.assertEquals("Issue to get no state for a token with the same size", -1,
+        dictionary.next(state, "yorx"));
+    Assert.assertEquals("Issue to stay out of the trie", -1, dictionary.next(-1, "new"));
+    Assert.assertNull("Issue to get no type out of the trie", dictionary.type(-1));
+    Assert.assertEquals("Issue to deduplicate the types", "CompiledDictionary{path='"
+        + this.folder.getRoot() + File.separator + "gazetteer.gaz', entries=5, states=8, "
+        + "tokens=6, types=3}", dictionary.toString());
+  }
+
+  /**
+   * Test {@link CompiledDictionary#open(String, boolean)} method with an empty dictionary.
+   */
+  @Test
+  public final void testOpenEmpty() throws IOException {
+    final CompiledDictionary dictionary = this.compile(new TrieDictionary(), false);
+
+    Assert.assertEquals("Issue to open an empty dictionary", 0, dictionary.size());
+    Assert.assertEquals("Issue to get no state in an empty dictionary", -1, dictionary.next(
+        dictionary.root(), "new"));
+  }
+
+  /**
+   * Test {@link CompiledDictionary#open(String, boolean)} method with another case option.
+   */
+  @Test
+  public final void testOpenOtherCase() throws IOException {
+    this.thrown.expect(WebApplicationException.class);
+    this.thrown.expectMessage("has been compiled with ignorecase=false");
+
+    this.compile(new TrieDictionary(), false);
+
+    CompiledDictionary.open(this.folder.getRoot() + File.separator + "gazetteer.gaz", true);
+  }
+
+  /**
+   * Test {@link CompiledDictionary#open(String, boolean)} method with a file that is not a
+   * compiled gazetteer.
+   */
+  @Test
+  public final void testOpenNotCompiled() throws IOException {
+    final File file = this.folder.newFile("gazetteer.tsv");
+
+    Files.write(file.toPath(), "Barack Obama\tPERSON\n".getBytes(StandardCharsets.UTF_8));
+
+    this.thrown.expect(WebApplicationException.class);
+    this.thrown.expectMessage("cannot be read");
+
+    CompiledDictionary.open(file.getPath(), false);
+  }
+
+  /**
+   * Test {@link CompiledDictionary#open(String, boolean)} method with a truncated file.
+   */
+  @Test
+  public final void testOpenTruncated() throws IOException {
+    final TrieDictionary trie = new TrieDictionary();
+
+    trie.add(Arrays.asList("new", "york"), "LOCATION");
+    this.compile(trie, false);
+
+    final File file = new File(this.folder.getRoot(), "gazetteer.gaz");
+    final byte[] content = Files.readAllBytes(file.toPath());
+
+    Files.write(file.toPath(), Arrays.copyOf(content, content.length - 4));
+
+    this.thrown.expect(WebApplicationException.class);
+    this.thrown.expectMessage("cannot be read");
+
+    CompiledDictionary.open(file.getPath(), false);
+  }
+}
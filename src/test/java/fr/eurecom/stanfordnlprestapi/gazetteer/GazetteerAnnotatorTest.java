@@ -0,0 +1,204 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.gazetteer;
+
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.ling.CoreLabel;
+
+import edu.stanford.nlp.pipeline.Annotation;
+
+import edu.stanford.nlp.util.ArrayCoreMap;
+import edu.stanford.nlp.util.CoreMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class GazetteerAnnotatorTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(GazetteerAnnotatorTest.class);
+
+  public GazetteerAnnotatorTest() {
+  }
+
+  private static Gazetteer gazetteer(final boolean ignoreCase) {
+    final TrieDictionary dictionary = new TrieDictionary();
+
+    dictionary.add(Arrays.asList("natalie", "portman"), "PERSON");
+    dictionary.add(Arrays.asList("new", "york"), "LOCATION");
+    dictionary.add(Arrays.asList("new", "york", "city"), "CITY");
+
+    return new Gazetteer("", ignoreCase, dictionary);
+  }
+
+  private static void annotate(final Gazetteer gazetteer, final List<CoreLabel> tokens) {
+    new GazetteerAnnotator(gazetteer, Collections.singleton("O")).annotate(tokens,
+        gazetteer.version());
+  }
+
+  private static List<CoreLabel> tokens(final String... texts) {
+    final List<CoreLabel> tokens = new ArrayList<>();
+
+    for (final String text : texts) {
+      final CoreLabel token = new CoreLabel();
+
+      token.set(CoreAnnotations.TextAnnotation.class, text);
+
+      tokens.add(token);
+    }
+
+    return tokens;
+  }
+
+  private static List<String> tags(final List<CoreLabel> tokens) {
+    final List<String> tags = new ArrayList<>();
+
+    for (final CoreLabel token : tokens) {
+      tags.add(token.get(CoreAnnotations.NamedEntityTagAnnotation.class));
+    }
+
+    return tags;
+  }
+
+  /**
+   * Test {@link GazetteerAnnotator#annotate(List, GazetteerVersion)} method with
+   * the longest entries.
+   */
+  @Test
+  public final void testAnnotateLongest() {
+    final List<CoreLabel> tokens = GazetteerAnnotatorTest.tokens("Natalie", "Portman", "left",
+        "New", "York", "City", "for", "new", "york");
+
+    GazetteerAnnotatorTest.annotate(GazetteerAnnotatorTest.gazetteer(true), tokens);
+
+    Assert.assertEquals("Issue to tag the longest entries", Arrays.asList("PERSON", "PERSON",
+        null, "CITY", "CITY", "CITY", null, "LOCATION", "LOCATION"),
+        GazetteerAnnotatorTest.tags(tokens));
+  }
+
+  /**
+   * Test {@link GazetteerAnnotator#annotate(List, GazetteerVersion)} method with
+   * the case of the tokens.
+   */
+  @Test
+  public final void testAnnotateCase() {
+    final List<CoreLabel> tokens = GazetteerAnnotatorTest.tokens("New", "York", "new", "york",
+        "new");
+
+    GazetteerAnnotatorTest.annotate(GazetteerAnnotatorTest.gazetteer(false), tokens);
+
+    Assert.assertEquals("Issue to match with the case", Arrays.asList(null, null, "LOCATION",
+        "LOCATION", null), GazetteerAnnotatorTest.tags(tokens));
+  }
+
+  /**
+   * Test {@link GazetteerAnnotator#annotate(List, GazetteerVersion)} method with
+   * a token already tagged.
+   */
+  @Test
+  public final void testAnnotateTagged() {
+    final List<CoreLabel> tokens = GazetteerAnnotatorTest.tokens("new", "york", "natalie",
+        "portman");
+
+    tokens.get(1).set(CoreAnnotations.NamedEntityTagAnnotation.class, "DATE");
+    tokens.get(2).set(CoreAnnotations.NamedEntityTagAnnotation.class, "O");
+
+    GazetteerAnnotatorTest.annotate(GazetteerAnnotatorTest.gazetteer(true), tokens);
+
+    Assert.assertEquals("Issue to keep the tags that are not background", Arrays.asList(null,
+        "DATE", "PERSON", "PERSON"), GazetteerAnnotatorTest.tags(tokens));
+  }
+
+  /**
+   * Test {@link GazetteerAnnotator#annotate(List, GazetteerVersion)} method with entries added and
+   * removed.
+   */
+  @Test
+  public final void testAnnotateOverlay() {
+    final Gazetteer gazetteer = GazetteerAnnotatorTest.gazetteer(true);
+    final List<CoreLabel> tokens = GazetteerAnnotatorTest.tokens("Natalie", "Portman", "in",
+        "New", "York", "City", "or", "Paris");
+    final List<CoreLabel> otherTokens = GazetteerAnnotatorTest.tokens("New", "York", "City");
+
+    gazetteer.add("new  York", "PLACE");
+    gazetteer.add("Paris", "LOCATION");
+    gazetteer.remove("natalie portman");
+
+    GazetteerAnnotatorTest.annotate(gazetteer, tokens);
+
+    Assert.assertEquals("Issue to take the entries added and removed into account",
+        Arrays.asList(null, null, null, "CITY", "CITY", "CITY", null, "LOCATION"),
+        GazetteerAnnotatorTest.tags(tokens));
+
+    gazetteer.remove("new york city");
+
+    GazetteerAnnotatorTest.annotate(gazetteer, otherTokens);
+
+    Assert.assertEquals("Issue to prefer the added entries", Arrays.asList("PLACE", "PLACE",
+        null), GazetteerAnnotatorTest.tags(otherTokens));
+  }
+
+  /**
+   * Test {@link GazetteerAnnotator#annotate(Annotation)} method with the profile properties.
+   */
+  @Test
+  public final void testAnnotateDocument() {
+    final Properties props = new Properties();
+
+    props.setProperty("gazetteer.mapping", GazetteerAnnotatorTest.class.getClassLoader()
+        .getResource("gaz_test.tsv").getFile());
+    props.setProperty("gazetteer.ignorecase", "true");
+
+    final GazetteerAnnotator annotator = new GazetteerAnnotator("gazetteer", props);
+    final Annotation document = new Annotation("That guy");
+    final Annotation tokensOnly = new Annotation("guy");
+    final CoreMap sentence = new ArrayCoreMap();
+    final List<CoreLabel> tokens = GazetteerAnnotatorTest.tokens("That", "guy");
+    final List<CoreLabel> otherTokens = GazetteerAnnotatorTest.tokens("guy");
+
+    sentence.set(CoreAnnotations.TokensAnnotation.class, tokens);
+    document.set(CoreAnnotations.SentencesAnnotation.class, Collections.singletonList(sentence));
+    tokensOnly.set(CoreAnnotations.TokensAnnotation.class, otherTokens);
+
+    annotator.annotate(document);
+    annotator.annotate(tokensOnly);
+
+    Assert.assertEquals("Issue to tag the tokens of the sentences", Arrays.asList(
+        "http://purl.org/ontology/mo/MusicArtist", "PERSON"), GazetteerAnnotatorTest.tags(
+            tokens));
+    Assert.assertEquals("Issue to tag the tokens of a document without sentences",
+        Collections.singletonList("PERSON"), GazetteerAnnotatorTest.tags(otherTokens));
+    Assert.assertTrue("Issue to satisfy the NER requirement",
+        annotator.requirementsSatisfied().contains(
+            CoreAnnotations.NamedEntityTagAnnotation.class));
+    Assert.assertTrue("Issue to require the sentences", annotator.requires().contains(
+        CoreAnnotations.SentencesAnnotation.class));
+    Assert.assertTrue("Issue to get the proper toString value", annotator.toString().startsWith(
+        "GazetteerAnnotator{gazetteer=Gazetteer{"));
+  }
+}
@@ -0,0 +1,99 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.gazetteer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.junit.rules.TemporaryFolder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class GazetteerRegistryTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(GazetteerRegistryTest.class);
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  public GazetteerRegistryTest() {
+  }
+
+  /**
+   * Test {@link GazetteerRegistry#gazetteer(String, boolean)} method.
+   */
+  @Test
+  public final void testGazetteer() throws IOException {
+    final File file = this.folder.newFile("gazetteer.tsv");
+
+    GazetteerTest.write(file, "Barack Obama\tPERSON\n", 1000000L);
+
+    final GazetteerRegistry registry = new GazetteerRegistry();
+    final Gazetteer gazetteer = registry.gazetteer(file.getPath(), true);
+
+    Assert.assertSame("Issue to share a gazetteer", gazetteer, registry.gazetteer(file.getPath(),
+        true));
+    Assert.assertNotSame("Issue to load a gazetteer per case option", gazetteer,
+        registry.gazetteer(file.getPath(), false));
+    Assert.assertEquals("Issue to get the gazetteers of a mapping file", 2, registry.gazetteers(
+        file.getPath()).size());
+    Assert.assertTrue("Issue to get no gazetteer for an unknown mapping file", registry.gazetteers(
+        "missing.tsv").isEmpty());
+    Assert.assertSame("Issue to order the gazetteers", gazetteer, registry.gazetteers().get(1));
+    Assert.assertSame("Issue to get the registry", GazetteerRegistry.getInstance(),
+        GazetteerRegistry.getInstance());
+    Assert.assertTrue("Issue to get the proper toString value", registry.toString().startsWith(
+        "GazetteerRegistry{gazetteers=[Gazetteer{"));
+  }
+
+  /**
+   * Test {@link GazetteerRegistry#reloadModified()} method.
+   */
+  @Test
+  public final void testReloadModified() throws IOException {
+    final File file = this.folder.newFile("gazetteer.tsv");
+
+    GazetteerTest.write(file, "Barack Obama\tPERSON\n", 1000000L);
+
+    final GazetteerRegistry registry = new GazetteerRegistry();
+
+    registry.gazetteer(file.getPath(), true);
+    registry.gazetteer(file.getPath(), false);
+
+    Assert.assertEquals("Issue to not reload unmodified files", 0, registry.reloadModified());
+
+    GazetteerTest.write(file, "Barack Obama\tPERSON\nParis\tLOCATION\n", 2000000L);
+
+    Assert.assertEquals("Issue to reload the modified files", 2, registry.reloadModified());
+
+    Files.delete(file.toPath());
+
+    Assert.assertTrue("Issue to replace the mapping file", file.mkdir());
+    Assert.assertEquals("Issue to keep the gazetteers that cannot be reloaded", 0,
+        registry.reloadModified());
+    Assert.assertEquals("Issue to keep the current version", 2, registry.gazetteers().get(0)
+        .version().base().size());
+  }
+}
@@ -0,0 +1,184 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.gazetteer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.WebApplicationException;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class GazetteerTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(GazetteerTest.class);
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  public GazetteerTest() {
+  }
+
+  static void write(final File file, final String content, final long modified)
+      throws IOException {
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+    if (!file.setLastModified(modified)) {
+      GazetteerTest.LOGGER.warn("Modification time of {} not set", file);
+    }
+  }
+
+  /**
+   * Test {@link Gazetteer#add(String, String)} and {@link Gazetteer#remove(String)} methods.
+   */
+  @Test
+  public final void testAddRemove() throws IOException {
+    final File file = this.folder.newFile("gazetteer.tsv");
+
+    GazetteerTest.write(file, "Barack Obama\tPERSON\n", 1000000L);
+
+    final Gazetteer gazetteer = new Gazetteer(file.getPath(), true);
+    final GazetteerVersion first = gazetteer.version();
+
+    gazetteer.add(" New   York ", "LOCATION ");
+    gazetteer.remove("Barack OBAMA");
+
+    Assert.assertEquals("Issue to normalize an entry", "new york", gazetteer.normalize(
+        " New\tYork "));
+    Assert.assertEquals("Issue to load the mapping file", 1, first.base().size());
+    Assert.assertEquals("Issue to keep the previous version unchanged", 0, first.additions());
+    Assert.assertEquals("Issue to swap the version", 3, gazetteer.version().number());
+    Assert.assertEquals("Issue to add an entry", 1, gazetteer.version().additions());
+    Assert.assertTrue("Issue to remove an entry", gazetteer.version().removed(new String[] {
+        "barack", "obama"}, 0, 2));
+    Assert.assertTrue("Issue to get the proper toString value", gazetteer.toString().startsWith(
+        "Gazetteer{mapping='" + file.getPath() + "', ignoreCase=true, version=GazetteerVersion{"));
+  }
+
+  /**
+   * Test {@link Gazetteer#apply(Map, Set)} method.
+   */
+  @Test
+  public final void testApply() throws IOException {
+    final File file = this.folder.newFile("gazetteer.tsv");
+
+    GazetteerTest.write(file, "Barack Obama\tPERSON\n", 1000000L);
+
+    final Gazetteer gazetteer = new Gazetteer(file.getPath(), true);
+    final Map<String, String> added = new LinkedHashMap<>();
+
+    added.put("New York", "LOCATION");
+    added.put("Paris", "LOCATION");
+    added.put("Texas", "LOCATION");
+
+    gazetteer.apply(added, new HashSet<>(Arrays.asList("Barack Obama", "TEXAS")));
+
+    Assert.assertEquals("Issue to give a single version for all the entries", 2,
+        gazetteer.version().number());
+    Assert.assertEquals("Issue to add the entries", 2, gazetteer.version().additions());
+    Assert.assertEquals("Issue to remove the entries", 2, gazetteer.version().removals());
+    Assert.assertTrue("Issue to remove an entry both added and removed",
+        gazetteer.version().removed(new String[] {"texas"}, 0, 1));
+  }
+
+  /**
+   * Test {@link Gazetteer#reloadIfModified()} method.
+   */
+  @Test
+  public final void testReloadIfModified() throws IOException {
+    final File file = this.folder.newFile("gazetteer.tsv");
+
+    GazetteerTest.write(file, "Barack Obama\tPERSON\n", 1000000L);
+
+    final Gazetteer gazetteer = new Gazetteer(file.getPath(), false);
+
+    gazetteer.add("Paris", "LOCATION");
+
+    Assert.assertFalse("Issue to not reload an unmodified file", gazetteer.reloadIfModified());
+
+    GazetteerTest.write(file, "Barack Obama\tPERSON\nNew York\tLOCATION\n", 2000000L);
+
+    Assert.assertTrue("Issue to reload a modified file", gazetteer.reloadIfModified());
+    Assert.assertEquals("Issue to load the new entries", 2, gazetteer.version().base().size());
+    Assert.assertEquals("Issue to keep the added entries", 1, gazetteer.version().additions());
+    Assert.assertEquals("Issue to get a new version", 3, gazetteer.version().number());
+    Assert.assertFalse("Issue to not reload twice", gazetteer.reloadIfModified());
+    Assert.assertFalse("Issue to not reload without mapping file", new Gazetteer("missing.tsv",
+        false, new TrieDictionary()).reloadIfModified());
+    Assert.assertEquals("Issue to get the mapping file", file.getPath(), gazetteer.mapping());
+    Assert.assertFalse("Issue to get the case option", gazetteer.ignoreCase());
+  }
+
+  /**
+   * Test {@link Gazetteer#reloadIfModified()} method with a compiled mapping file.
+   */
+  @Test
+  public final void testReloadCompiled() throws IOException {
+    final File file = this.folder.newFile("gazetteer.tsv");
+    final File compiled = new File(this.folder.getRoot(), "gazetteer"
+        + CompiledDictionary.EXTENSION);
+
+    GazetteerTest.write(file, "Barack Obama\tPERSON\n", 1000000L);
+    CompiledDictionary.write(TrieDictionary.load(file.getPath(), true), true, compiled.toPath());
+
+    final Gazetteer gazetteer = new Gazetteer(compiled.getPath(), true);
+
+    Assert.assertEquals("Issue to map the compiled mapping file", "PERSON", gazetteer.version()
+        .base().type(gazetteer.version().base().next(gazetteer.version().base().next(0,
+            "barack"), "obama")));
+
+    GazetteerTest.write(file, "Barack Obama\tPERSON\nNew York\tLOCATION\n", 1000000L);
+    CompiledDictionary.write(TrieDictionary.load(file.getPath(), true), true, compiled.toPath());
+
+    Assert.assertTrue("Issue to set the modification time", compiled.setLastModified(2000000L));
+    Assert.assertTrue("Issue to reload a compiled mapping file", gazetteer.reloadIfModified());
+    Assert.assertEquals("Issue to map the new compiled mapping file", 2, gazetteer.version()
+        .base().size());
+  }
+
+  /**
+   * Test {@link Gazetteer#reload()} method with a mapping file that cannot be read.
+   */
+  @Test
+  public final void testReloadUnreadable() {
+    final Gazetteer gazetteer = new Gazetteer("missing.tsv", false, new TrieDictionary());
+
+    this.thrown.expect(WebApplicationException.class);
+    this.thrown.expectMessage("The gazetteer: missing.tsv cannot be read");
+
+    gazetteer.reload();
+  }
+}
@@ -0,0 +1,91 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.gazetteer;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class GazetteerVersionTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(GazetteerVersionTest.class);
+
+  public GazetteerVersionTest() {
+  }
+
+  /**
+   * Test {@link GazetteerVersion#with(String, String)} and {@link GazetteerVersion#without(String)}
+   * methods.
+   */
+  @Test
+  public final void testWithWithout() {
+    final TrieDictionary base = new TrieDictionary();
+
+    base.add(Arrays.asList("new", "york"), "LOCATION");
+
+    final GazetteerVersion first = new GazetteerVersion(base, Collections.emptyMap(),
+        Collections.emptySet(), 1);
+    final GazetteerVersion second = first.with("barack obama", "PERSON");
+    final GazetteerVersion third = second.without("new york");
+    final String[] keys = {"in", "new", "york"};
+
+    Assert.assertEquals("Issue to keep the previous version unchanged", 0, first.additions());
+    Assert.assertEquals("Issue to count the additions", 1, second.additions());
+    Assert.assertEquals("Issue to increment the version number", 3, third.number());
+    Assert.assertFalse("Issue to match an entry not removed", second.removed(keys, 1, 3));
+    Assert.assertTrue("Issue to not match a removed entry", third.removed(keys, 1, 3));
+    Assert.assertFalse("Issue to match another entry", third.removed(keys, 0, 2));
+    Assert.assertSame("Issue to keep the base dictionary", base, third.base());
+    Assert.assertSame("Issue to match the base dictionary last", base,
+        third.dictionaries().get(1));
+    Assert.assertEquals("Issue to match the additions first", "PERSON", third.dictionaries()
+        .get(0).type(third.dictionaries().get(0).next(third.dictionaries().get(0).next(
+            third.dictionaries().get(0).root(), "barack"), "obama")));
+
+    final GazetteerVersion fourth = third.with("new york", "CITY");
+    final GazetteerVersion fifth = fourth.without("barack obama");
+
+    Assert.assertEquals("Issue to cancel a removal with an addition", 0, fourth.removals());
+    Assert.assertEquals("Issue to cancel an addition with a removal", 1, fifth.additions());
+  }
+
+  /**
+   * Test {@link GazetteerVersion#rebase} method.
+   */
+  @Test
+  public final void testRebase() {
+    final TrieDictionary base = new TrieDictionary();
+    final GazetteerVersion version = new GazetteerVersion(new TrieDictionary(),
+        Collections.singletonMap("paris", "LOCATION"), Collections.singleton("nice"), 4)
+        .rebase(base);
+
+    Assert.assertSame("Issue to change the base dictionary", base, version.base());
+    Assert.assertEquals("Issue to keep the additions", 1, version.additions());
+    Assert.assertEquals("Issue to keep the removals", 1, version.removals());
+    Assert.assertEquals("Issue to get the proper toString value", "GazetteerVersion{"
+        + "base=TrieDictionary{entries=0, states=1, tokens=0}, additions=1, removals=1, number=5}",
+        version.toString());
+  }
+}
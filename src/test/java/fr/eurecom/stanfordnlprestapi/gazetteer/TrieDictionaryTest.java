@@ -0,0 +1,121 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.gazetteer;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.ws.rs.WebApplicationException;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.junit.rules.ExpectedException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class TrieDictionaryTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(TrieDictionaryTest.class);
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  public TrieDictionaryTest() {
+  }
+
+  /**
+   * Test {@link TrieDictionary#add(java.util.List, String)} method and the navigation in the
+   * trie.
+   */
+  @Test
+  public final void testAdd() {
+    final TrieDictionary dictionary = new TrieDictionary();
+
+    Assert.assertTrue("Issue to add an entry", dictionary.add(Arrays.asList("new", "york"),
+        "LOCATION"));
+    Assert.assertTrue("Issue to add an entry that extends another one", dictionary.add(
+        Arrays.asList("new", "york", "city"), "CITY"));
+    Assert.assertFalse("Issue to keep the first type of an entry", dictionary.add(
+        Arrays.asList("new", "york"), "PERSON"));
+    Assert.assertFalse("Issue to refuse an empty entry", dictionary.add(
+        Collections.emptyList(), "PERSON"));
+
+    final int state = dictionary.next(dictionary.root(), "new");
+
+    Assert.assertNull("Issue to get no type for a prefix", dictionary.type(state));
+    Assert.assertEquals("Issue to get the type of an entry", "LOCATION", dictionary.type(
+        dictionary.next(state, "york")));
+    Assert.assertEquals("Issue to get the type of a longer entry", "CITY", dictionary.type(
+        dictionary.next(dictionary.next(state, "york"), "city")));
+    Assert.assertEquals("Issue to get no state for an unknown token", -1, dictionary.next(state,
+        "jersey"));
+    Assert.assertEquals("Issue to get no state for a known token at the wrong place", -1,
+        dictionary.next(dictionary.root(), "york"));
+    Assert.assertEquals("Issue to stay out of the trie", -1, dictionary.next(-1, "new"));
+    Assert.assertNull("Issue to get no type out of the trie", dictionary.type(-1));
+    Assert.assertEquals("Issue to count the entries", 2, dictionary.size());
+    Assert.assertEquals("Issue to get the proper toString value",
+        "TrieDictionary{entries=2, states=4, tokens=3}", dictionary.toString());
+  }
+
+  /**
+   * Test {@link TrieDictionary#add(java.util.List, String)} method with enough entries to grow
+   * the tables of the trie.
+   */
+  @Test
+  public final void testAddGrowth() {
+    final TrieDictionary dictionary = new TrieDictionary();
+
+    for (int i = 0; i < 5000; i++) {
+      dictionary.add(Arrays.asList("entry", Integer.toString(i)), "TYPE" + i % 3);
+    }
+
+    Assert.assertEquals("Issue to count the entries", 5000, dictionary.size());
+    Assert.assertEquals("Issue to find an entry after the growth", "TYPE1", dictionary.type(
+        dictionary.next(dictionary.next(dictionary.root(), "entry"), "4999")));
+  }
+
+  /**
+   * Test {@link TrieDictionary#load(String, boolean)} method.
+   */
+  @Test
+  public final void testLoad() {
+    final TrieDictionary dictionary = TrieDictionary.load(
+        TrieDictionaryTest.class.getClassLoader().getResource("gaz_test.tsv").getFile(), true);
+
+    Assert.assertEquals("Issue to load the entries", 3, dictionary.size());
+    Assert.assertEquals("Issue to lower case the entries",
+        "http://purl.org/ontology/mo/MusicArtist", dictionary.type(dictionary.next(
+            dictionary.root(), "that")));
+  }
+
+  /**
+   * Test {@link TrieDictionary#load(String, boolean)} method with a missing file.
+   */
+  @Test
+  public final void testLoadMissing() {
+    this.thrown.expect(WebApplicationException.class);
+    this.thrown.expectMessage("The gazetteer: missing.tsv cannot be read");
+
+    TrieDictionary.load("missing.tsv", false);
+  }
+}
@@ -0,0 +1,85 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.io.IOUtils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class HttpLoadTargetTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(HttpLoadTargetTest.class);
+
+  public HttpLoadTargetTest() {
+  }
+
+  /**
+   * Test {@link HttpLoadTarget#call(LoadRequest)} method.
+   *
+   * @throws IOException if the server cannot be started.
+   */
+  @Test
+  public final void testCall() throws IOException {
+    final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    final AtomicReference<String> received = new AtomicReference<>();
+
+    server.createContext("/v4/pos", exchange -> {
+      try (InputStream in = exchange.getRequestBody()) {
+        received.set(exchange.getRequestURI() + " " + IOUtils.toString(in,
+            StandardCharsets.UTF_8));
+      }
+
+      exchange.sendResponseHeaders(200, 2);
+
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write("ok".getBytes(StandardCharsets.UTF_8));
+      }
+    });
+    server.start();
+
+    try (HttpLoadTarget target = new HttpLoadTarget("http://127.0.0.1:"
+        + server.getAddress().getPort(), 1)) {
+      Assert.assertEquals("Issue to post a request to a running instance", 200, target.call(
+          new LoadRequest(EnumSet.of(NlpProcess.POS), "en", "none", "ntriples",
+              "{\"content\":\"I like Paris.\"}".getBytes(StandardCharsets.UTF_8))));
+      Assert.assertEquals("Issue to post the path and the body of a request",
+          "/v4/pos?lang=en&setting=none&format=ntriples {\"content\":\"I like Paris.\"}",
+          received.get());
+    } finally {
+      server.stop(0);
+    }
+  }
+}
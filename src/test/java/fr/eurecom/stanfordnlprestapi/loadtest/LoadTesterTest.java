@@ -0,0 +1,84 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.loadtest;
+
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import fr.eurecom.stanfordnlprestapi.resources.PipelineResource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class LoadTesterTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(LoadTesterTest.class);
+
+  public LoadTesterTest() {
+  }
+
+  /**
+   * Test {@link LoadTester#sweep(List, List)} method in process.
+   *
+   * @throws InterruptedException if the test is interrupted.
+   */
+  @Test
+  public final void testSweep() throws InterruptedException {
+    final LoadTester tester = new LoadTester(new ResourceLoadTarget(new PipelineResource(
+        "stanfordnlp", Paths.get(LoadTesterTest.class.getClassLoader().getResource(
+            "tokenize_en_test.properties").getFile())), "http://127.0.0.1"), 2);
+    final List<LoadRequest> requests = new ArrayList<>();
+
+    for (int i = 0; i < 8; i++) {
+      requests.add(new LoadRequest(EnumSet.of(NlpProcess.TOKENIZE), "en", "test",
+          "turtle-blocks", ("{\"content\":\"I like Paris number " + i + ".\"}").getBytes(
+              StandardCharsets.UTF_8)));
+    }
+
+    requests.add(new LoadRequest(EnumSet.of(NlpProcess.NER), "en", "test", "turtle-blocks",
+        "{\"content\":\"I like Paris.\"}".getBytes(StandardCharsets.UTF_8)));
+
+    final List<LoadResult> results = tester.sweep(requests, Arrays.asList(1, 2));
+
+    Assert.assertEquals("Issue to measure each profile at each level", 4, results.size());
+    Assert.assertEquals("Issue to order the results by profile", "ner_en_test",
+        results.get(0).profile());
+    Assert.assertEquals("Issue to count the requests of a missing profile as errors", 1,
+        results.get(0).errors());
+    Assert.assertEquals("Issue to send all the requests of a profile", 8,
+        results.get(3).requests());
+    Assert.assertEquals("Issue to annotate the requests of a profile", 0,
+        results.get(3).errors());
+    Assert.assertEquals("Issue to measure at the right level", 2, results.get(3).threads());
+    Assert.assertTrue("Issue to measure the latency of a profile",
+        results.get(3).percentile(0.999) >= results.get(3).percentile(0.5));
+    Assert.assertTrue("Issue to write the line of a result",
+        results.get(3).line().startsWith("tokenize_en_test\t2\t8\t0\t"));
+  }
+}
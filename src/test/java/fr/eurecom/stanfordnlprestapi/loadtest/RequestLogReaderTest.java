@@ -0,0 +1,89 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.loadtest;
+
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class RequestLogReaderTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(RequestLogReaderTest.class);
+  private final RequestLogReader reader = new RequestLogReader(
+      () -> "{\"content\":\"I like Paris.\"}".getBytes(StandardCharsets.UTF_8));
+
+  public RequestLogReaderTest() {
+  }
+
+  /**
+   * Test {@link RequestLogReader#request(String)} method with a request of a single process.
+   *
+   * @throws UnsupportedEncodingException if UTF-8 is not supported.
+   */
+  @Test
+  public final void testRequest() throws UnsupportedEncodingException {
+    final LoadRequest request = this.reader.request("127.0.0.1 - - [18/Oct/2026:09:02:19 +0000]"
+        + " \"POST /v4/ner?lang=fr&format=ntriples HTTP/1.1\" 200 1234 \"-\" \"curl/7.58.0\" 87");
+
+    Assert.assertEquals("Issue to read the profile of a logged request", "ner_fr_none",
+        request.profile());
+    Assert.assertEquals("Issue to read the path of a logged request",
+        "/v4/ner?lang=fr&setting=none&format=ntriples", request.path());
+  }
+
+  /**
+   * Test {@link RequestLogReader#request(String)} method with a request of several processes.
+   *
+   * @throws UnsupportedEncodingException if UTF-8 is not supported.
+   */
+  @Test
+  public final void testRequestWithProcesses() throws UnsupportedEncodingException {
+    final LoadRequest request = this.reader.request("127.0.0.1 - - [18/Oct/2026:09:02:19 +0000]"
+        + " \"POST /v4/annotate?processes=pos%2Cner HTTP/1.1\" 200 1234 \"-\" \"-\" 87");
+
+    Assert.assertEquals("Issue to read the processes of a logged request",
+        EnumSet.of(NlpProcess.NER, NlpProcess.POS), request.processes());
+    Assert.assertEquals("Issue to read the path of a logged request",
+        "/v4/annotate?processes=ner,pos&lang=en&setting=none&format=turtle-blocks",
+        request.path());
+  }
+
+  /**
+   * Test {@link RequestLogReader#request(String)} method with requests that are not
+   * annotations.
+   *
+   * @throws UnsupportedEncodingException if UTF-8 is not supported.
+   */
+  @Test
+  public final void testRequestWithoutAnnotation() throws UnsupportedEncodingException {
+    Assert.assertNull("Issue to skip a batch request", this.reader.request(
+        "127.0.0.1 - - [18/Oct/2026:09:02:19 +0000] \"POST /v4/batch/ner HTTP/1.1\" 200 1 \"-\""));
+    Assert.assertNull("Issue to skip a profile request", this.reader.request(
+        "127.0.0.1 - - [18/Oct/2026:09:02:19 +0000] \"GET /v4/profiles HTTP/1.1\" 200 1 \"-\""));
+  }
+}
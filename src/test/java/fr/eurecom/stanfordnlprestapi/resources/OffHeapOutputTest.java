@@ -0,0 +1,92 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.resources;
+
+import com.codahale.metrics.MetricRegistry;
+
+import fr.eurecom.stanfordnlprestapi.cache.OffHeapResponseCache;
+
+import fr.eurecom.stanfordnlprestapi.configurations.CacheConfiguration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class OffHeapOutputTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(OffHeapOutputTest.class);
+
+  public OffHeapOutputTest() {
+  }
+
+  private static byte[] filled(final int length, final int value) {
+    final byte[] bytes = new byte[length];
+
+    Arrays.fill(bytes, (byte) value);
+
+    return bytes;
+  }
+
+  /**
+   * Test {@link OffHeapOutput#write(java.io.OutputStream)} and {@link OffHeapOutput#close()}
+   * methods.
+   */
+  @Test
+  public final void testClose() throws IOException {
+    final CacheConfiguration configuration = new CacheConfiguration();
+    final MetricRegistry metrics = new MetricRegistry();
+
+    configuration.setOffHeapMaximumBytes(128);
+    configuration.setOffHeapSegmentBytes(64);
+
+    final OffHeapResponseCache cache = new OffHeapResponseCache(configuration);
+
+    cache.registerMetrics(metrics);
+    cache.put("r0", OffHeapOutputTest.filled(40, 0));
+
+    final OffHeapOutput closed = new OffHeapOutput(cache.get("r0"));
+    final OffHeapOutput written = new OffHeapOutput(cache.get("r0"));
+
+    closed.close();
+    closed.close();
+    cache.put("r1", OffHeapOutputTest.filled(40, 1));
+    cache.put("r2", OffHeapOutputTest.filled(40, 2));
+
+    Assert.assertEquals("Issue to unpin the segment only once", 3L, metrics.getGauges().get(
+        MetricRegistry.name(OffHeapResponseCache.class, "allocations")).getValue());
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    written.write(out);
+    written.close();
+
+    Assert.assertArrayEquals("Issue to write a pinned response",
+        OffHeapOutputTest.filled(40, 0), out.toByteArray());
+    Assert.assertEquals("Issue to describe the output",
+        "OffHeapOutput{response=OffHeapResponse{offset=0, length=40}, closed=true}",
+        written.toString());
+  }
+}
@@ -0,0 +1,120 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.resources;
+
+import io.dropwizard.testing.junit.ResourceTestRule;
+
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Paths;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.glassfish.jersey.test.grizzly.GrizzlyWebTestContainerFactory;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class PipelineResourceAnnotateTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(PipelineResourceAnnotateTest.class);
+  @ClassRule
+  public static final ResourceTestRule RESOURCES = ResourceTestRule.builder()
+      .setTestContainerFactory(new GrizzlyWebTestContainerFactory()).addResource(
+          new PipelineResource("stanfordnlp", Paths.get(
+              PipelineResourceAnnotateTest.class.getClassLoader().getResource(
+                  "pos_en_test.properties").getFile()), Paths.get(
+              PipelineResourceAnnotateTest.class.getClassLoader().getResource(
+                  "gazetteer_en_test.properties").getFile()))).build();
+  
+  public PipelineResourceAnnotateTest() {
+  }
+  
+  /**
+   * Test the response returned by the
+   * {@link PipelineResource#annotateAll(HttpServletRequest, AsyncResponse, String, String, String,
+   * String, boolean)} method with the POS and gazetteer processes.
+   */
+  @Test
+  public final void testAnnotateResponseWithSeveralProcesses() {
+    final Response response = PipelineResourceAnnotateTest.RESOURCES.getJerseyTest().target(
+        "/v4/annotate").queryParam("processes", "pos,gazetteer").queryParam("setting", "test")
+        .request("text/turtle;charset=utf-8").post(Entity.entity(
+            "{\"content\":\"This guy is cool.\"}", MediaType.APPLICATION_JSON_TYPE));
+    final Model fileModel = ModelFactory.createDefaultModel();
+    final Model testModel = ModelFactory.createDefaultModel();
+    
+    RDFDataMgr.read(fileModel, this.getClass().getResourceAsStream(
+        FileSystems.getDefault().getSeparator() + "gazetteer.ttl"), Lang.TURTLE);
+    RDFDataMgr.read(testModel, IOUtils.toInputStream(response.readEntity(String.class),
+        Charset.forName("UTF-8")), Lang.TURTLE);
+    
+    Assert.assertTrue("Issue to get the gazetteer layer of a context for several processes",
+        testModel.containsAll(fileModel));
+    Assert.assertTrue("Issue to get the POS layer of a context for several processes",
+        testModel.contains(ResourceFactory.createResource(
+            "http://localhost:9998/stanfordnlp/token#char=5,8"), ResourceFactory.createProperty(
+            "http://persistence.uni-leipzig.org/nlp2rdf/ontologies/nif-core#posTag"), "NN"));
+  }
+  
+  /**
+   * Test the response returned by the
+   * {@link PipelineResource#annotateAll(HttpServletRequest, AsyncResponse, String, String, String,
+   * String, boolean)} method with a process that has no profile.
+   */
+  @Test
+  public final void testAnnotateResponseWithMissingProfile() {
+    final Response response = PipelineResourceAnnotateTest.RESOURCES.getJerseyTest().target(
+        "/v4/annotate").queryParam("processes", "pos,coref").queryParam("setting", "test")
+        .request("text/turtle;charset=utf-8").post(Entity.entity(
+            "{\"content\":\"This guy is cool.\"}", MediaType.APPLICATION_JSON_TYPE));
+    
+    Assert.assertEquals("JSON response issue", "{\"code\":412,\"message\":\"The profile: "
+        + "coref_en_test does not exists\"}", response.readEntity(String.class));
+  }
+  
+  /**
+   * Test the response returned by the
+   * {@link PipelineResource#annotateAll(HttpServletRequest, AsyncResponse, String, String, String,
+   * String, boolean)} method without any process.
+   */
+  @Test
+  public final void testAnnotateResponseWithoutProcess() {
+    final Response response = PipelineResourceAnnotateTest.RESOURCES.getJerseyTest().target(
+        "/v4/annotate").queryParam("setting", "test").request("text/turtle;charset=utf-8").post(
+            Entity.entity("{\"content\":\"This guy is cool.\"}",
+                MediaType.APPLICATION_JSON_TYPE));
+    
+    Assert.assertEquals("Issue with the status of a request without process", 412,
+        response.getStatus());
+  }
+}
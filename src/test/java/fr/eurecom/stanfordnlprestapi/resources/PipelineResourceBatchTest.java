@@ -0,0 +1,123 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.resources;
+
+import io.dropwizard.testing.junit.ResourceTestRule;
+
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Paths;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.glassfish.jersey.test.grizzly.GrizzlyWebTestContainerFactory;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class PipelineResourceBatchTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(PipelineResourceBatchTest.class);
+  @ClassRule
+  public static final ResourceTestRule RESOURCES = ResourceTestRule.builder()
+      .setTestContainerFactory(new GrizzlyWebTestContainerFactory()).addResource(
+          new PipelineResource("stanfordnlp", Paths.get(
+              PipelineResourceBatchTest.class.getClassLoader().getResource(
+                  "tokenize_en_test.properties").getFile()))).build();
+  
+  public PipelineResourceBatchTest() {
+  }
+  
+  /**
+   * Test the response returned by the
+   * {@link PipelineResource#batch(HttpServletRequest, AsyncResponse, String, String, String,
+   * String)} method with several contents.
+   */
+  @Test
+  public final void testBatchResponseWithContents() {
+    final Response response = PipelineResourceBatchTest.RESOURCES.getJerseyTest().target(
+        "/v4/tokenize/batch").queryParam("setting", "test").request(
+            "application/trig;charset=utf-8").post(Entity.entity("[{\"content\":\"My favorite "
+            + "actress is: Natalie Portman. She is very stunning.\"}, {\"content\":\"I like "
+            + "Paris.\"}]", MediaType.APPLICATION_JSON_TYPE));
+    final Model fileModel = ModelFactory.createDefaultModel();
+    final Dataset testDataset = DatasetFactory.create();
+    
+    RDFDataMgr.read(fileModel, this.getClass().getResourceAsStream(
+        FileSystems.getDefault().getSeparator() + "tokenize.ttl"), Lang.TURTLE);
+    RDFDataMgr.read(testDataset, IOUtils.toInputStream(response.readEntity(String.class),
+        Charset.forName("UTF-8")), Lang.TRIG);
+    
+    Assert.assertTrue("Issue to get the proper RDF model of the first context of a batch",
+        fileModel.isIsomorphicWith(testDataset.getNamedModel(
+            "http://localhost:9998/stanfordnlp/batch#document=0")));
+    Assert.assertTrue("Issue to get the RDF model of the second context of a batch",
+        testDataset.getNamedModel("http://localhost:9998/stanfordnlp/batch#document=1").contains(
+            null, null, "Paris"));
+    Assert.assertTrue("Issue with the default graph of a batch",
+        testDataset.getDefaultModel().isEmpty());
+  }
+  
+  /**
+   * Test the response returned by the
+   * {@link PipelineResource#batch(HttpServletRequest, AsyncResponse, String, String, String,
+   * String)} method with a JSON violation.
+   */
+  @Test
+  public final void testBatchResponseWithJsonViolation() {
+    final Response response = PipelineResourceBatchTest.RESOURCES.getJerseyTest().target(
+        "/v4/tokenize/batch").queryParam("setting", "test").request(
+            "application/trig;charset=utf-8").post(Entity.entity("[{\"content\":\"I like "
+            + "Paris.\"}, {}]", MediaType.APPLICATION_JSON_TYPE));
+    
+    Assert.assertEquals("JSON response issue", "{\"code\":412,\"message\":\"[1] Properties "
+        + "content and URL cannot be empty or filled in same time.\\n\"}", response.readEntity(
+        String.class));
+  }
+  
+  /**
+   * Test the response returned by the
+   * {@link PipelineResource#batch(HttpServletRequest, AsyncResponse, String, String, String,
+   * String)} method with a format that cannot hold several contexts.
+   */
+  @Test
+  public final void testBatchResponseWithTripleFormat() {
+    final Response response = PipelineResourceBatchTest.RESOURCES.getJerseyTest().target(
+        "/v4/tokenize/batch").queryParam("setting", "test").queryParam("format", "ntriples")
+        .request("application/trig;charset=utf-8").post(Entity.entity("[{\"content\":\"I like "
+            + "Paris.\"}]", MediaType.APPLICATION_JSON_TYPE));
+    
+    Assert.assertEquals("Issue with the status of a batch in a triple format", 412,
+        response.getStatus());
+  }
+}
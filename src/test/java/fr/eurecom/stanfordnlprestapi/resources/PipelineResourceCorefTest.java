@@ -25,6 +25,7 @@ import java.nio.file.Paths;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -57,7 +58,8 @@ public class PipelineResourceCorefTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#coref(HttpServletRequest, String, String)} method with content.
+   * {@link PipelineResource#coref(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with content.
    */
   @Test
   public final void testCorefResponseWithContent() {
@@ -80,8 +82,8 @@ public class PipelineResourceCorefTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#coref(HttpServletRequest, String, String)} method with a JSON
-   * violation.
+   * {@link PipelineResource#coref(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with a JSON violation.
    */
   @Test
   public final void testCorefResponseWithJsonViolation() {
@@ -96,8 +98,8 @@ public class PipelineResourceCorefTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#coref(HttpServletRequest, String, String)} method with an invalid
-   * JSON.
+   * {@link PipelineResource#coref(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with an invalid JSON.
    */
   @Test
   public final void testCorefResponseWithInvalidJson() {
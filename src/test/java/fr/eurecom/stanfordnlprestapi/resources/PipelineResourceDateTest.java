@@ -24,6 +24,7 @@ import java.nio.file.FileSystems;
 import java.nio.file.Paths;
 
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -56,7 +57,8 @@ public class PipelineResourceDateTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#date(HttpServletRequest, String, String)} method with content.
+   * {@link PipelineResource#date(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with content.
    */
   @Test
   public final void testDateResponseWithContent() {
@@ -77,8 +79,8 @@ public class PipelineResourceDateTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#date(HttpServletRequest, String, String)}
-   * method with a JSON violation.
+   * {@link PipelineResource#date(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with a JSON violation.
    */
   @Test
   public final void testDateResponseWithJsonViolation() {
@@ -93,7 +95,8 @@ public class PipelineResourceDateTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#date(HttpServletRequest, String, String)} method with an invalid JSON.
+   * {@link PipelineResource#date(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with an invalid JSON.
    */
   @Test
   public final void testDateResponseWithInvalidJson() {
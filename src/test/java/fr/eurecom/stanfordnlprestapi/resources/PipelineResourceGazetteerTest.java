@@ -17,13 +17,24 @@
  */
 package fr.eurecom.stanfordnlprestapi.resources;
 
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import fr.eurecom.stanfordnlprestapi.gazetteer.Gazetteer;
+import fr.eurecom.stanfordnlprestapi.gazetteer.GazetteerRegistry;
+
 import io.dropwizard.testing.junit.ResourceTestRule;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.EnumSet;
 
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -35,7 +46,10 @@ import org.apache.jena.riot.RDFDataMgr;
 import org.glassfish.jersey.test.grizzly.GrizzlyWebTestContainerFactory;
 import org.junit.Assert;
 import org.junit.ClassRule;
+import org.junit.Rule;
 import org.junit.Test;
+
+import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,14 +63,19 @@ public class PipelineResourceGazetteerTest {
       .setTestContainerFactory(new GrizzlyWebTestContainerFactory()).addResource(
           new PipelineResource("stanfordnlp", Paths.get(
               PipelineResourceGazetteerTest.class.getClassLoader().getResource(
-                  "gazetteer_en_test.properties").getFile()))).build();
+                  "gazetteer_en_test.properties").getFile()), Paths.get(
+              PipelineResourceGazetteerTest.class.getClassLoader().getResource(
+                  "gazetteer_en_trie.properties").getFile()))).build();
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
   
   public PipelineResourceGazetteerTest() {
   }
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#gazetteer(HttpServletRequest, String, String)} method with content.
+   * {@link PipelineResource#gazetteer(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with content.
    */
   @Test
   public final void testGazetteerResponseWithContent() {
@@ -77,8 +96,67 @@ public class PipelineResourceGazetteerTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#gazetteer(HttpServletRequest, String, String)} method with a JSON
-   * violation.
+   * {@link PipelineResource#gazetteer(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with content and the trie annotator.
+   */
+  @Test
+  public final void testGazetteerResponseWithTrie() {
+    final Response response = PipelineResourceGazetteerTest.RESOURCES.getJerseyTest().target(
+        "/v4/gazetteer").queryParam("setting", "trie").request("text/turtle;charset=utf-8").post(
+            Entity.entity("{\"content\":\"This guy is cool.\"}", MediaType.APPLICATION_JSON_TYPE));
+    final Model fileModel = ModelFactory.createDefaultModel();
+    final Model testModel = ModelFactory.createDefaultModel();
+    
+    RDFDataMgr.read(fileModel, this.getClass().getResourceAsStream(
+        FileSystems.getDefault().getSeparator() + "gazetteer.ttl"), Lang.TURTLE);
+    RDFDataMgr.read(testModel, IOUtils.toInputStream(response.readEntity(String.class),
+        Charset.forName("UTF-8")), Lang.TURTLE);
+    
+    Assert.assertTrue("Issue to get the proper full RDF Turtle model of a context for the trie "
+        + "gazetteer", fileModel.isIsomorphicWith(testModel));
+  }
+  
+  /**
+   * Test {@link PipelineResource#annotate(byte[], java.util.Set, String, String, String, String,
+   * java.io.OutputStream)} method after a reload of the gazetteer, the cached response of the
+   * previous version is not returned.
+   */
+  @Test
+  public final void testGazetteerResponseAfterReload() throws Exception {
+    final File mapping = this.folder.newFile("reload.tsv");
+    final File profile = this.folder.newFile("gazetteer_en_reload.properties");
+    final byte[] body = "{\"content\":\"This guy is cool.\"}".getBytes(StandardCharsets.UTF_8);
+    final ByteArrayOutputStream before = new ByteArrayOutputStream();
+    final ByteArrayOutputStream after = new ByteArrayOutputStream();
+    
+    Files.write(mapping.toPath(), "guy\tPERSON\n".getBytes(StandardCharsets.UTF_8));
+    Files.write(profile.toPath(), ("annotators=tokenize, ssplit, gazetteer\n"
+        + "customAnnotatorClass.gazetteer=fr.eurecom.stanfordnlprestapi.gazetteer."
+        + "GazetteerAnnotator\ngazetteer.mapping=" + mapping.getPath().replace("\\", "/")
+        + "\ngazetteer.ignorecase=true\n").getBytes(StandardCharsets.UTF_8));
+    
+    final PipelineResource resource = new PipelineResource("stanfordnlp", profile.toPath());
+    
+    resource.annotate(body, EnumSet.of(NlpProcess.GAZETTEER), "en", "reload", "turtle",
+        "http://localhost:9998/stanfordnlp/", before);
+    Files.write(mapping.toPath(), "guy\tLOCATION\n".getBytes(StandardCharsets.UTF_8));
+    GazetteerRegistry.getInstance().gazetteers(mapping.getPath().replace("\\", "/")).forEach(
+        Gazetteer::reload);
+    resource.annotate(body, EnumSet.of(NlpProcess.GAZETTEER), "en", "reload", "turtle",
+        "http://localhost:9998/stanfordnlp/", after);
+    
+    Assert.assertTrue("Issue to annotate with the first version of the gazetteer",
+        before.toString("UTF-8").contains("\"PERSON\""));
+    Assert.assertTrue("Issue to annotate with the reloaded gazetteer", after.toString("UTF-8")
+        .contains("\"LOCATION\""));
+    Assert.assertFalse("Issue to not return the response of the previous version",
+        after.toString("UTF-8").contains("\"PERSON\""));
+  }
+  
+  /**
+   * Test the response returned by the
+   * {@link PipelineResource#gazetteer(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with a JSON violation.
    */
   @Test
   public final void testGazetteerResponseWithJsonViolation() {
@@ -93,8 +171,8 @@ public class PipelineResourceGazetteerTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#gazetteer(HttpServletRequest, String, String)} method with an invalid
-   * JSON.
+   * {@link PipelineResource#gazetteer(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with an invalid JSON.
    */
   @Test
   public final void testGazetteerResponseWithInvalidJson() {
@@ -26,6 +26,7 @@ import java.nio.file.Paths;
 import javax.servlet.http.HttpServletRequest;
 
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -60,7 +61,8 @@ public class PipelineResourceNerTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#ner(HttpServletRequest, String, String)} method with content.
+   * {@link PipelineResource#ner(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with content.
    */
   @Test
   public final void testNerResponseWithContent() {
@@ -82,7 +84,8 @@ public class PipelineResourceNerTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#ner(HttpServletRequest, String, String)} method with URL.
+   * {@link PipelineResource#ner(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with URL.
    */
   @Test
   public final void testNerResponseWithUrl() {
@@ -129,8 +132,8 @@ public class PipelineResourceNerTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#ner(HttpServletRequest, String, String)} method with a JSON violation
-   * when URL or content are provided.
+   * {@link PipelineResource#ner(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with a JSON violation when URL or content are provided.
    */
   @Test
   public final void testNerResponseWithJsonViolationNone() {
@@ -145,7 +148,8 @@ public class PipelineResourceNerTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#ner(HttpServletRequest, String, String)} method with an invalid JSON.
+   * {@link PipelineResource#ner(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with an invalid JSON.
    */
   @Test
   public final void testNerResponseWithInvalidJson() {
@@ -158,11 +162,28 @@ public class PipelineResourceNerTest {
         + " HTTP request {\\\"content\\\":\\\"My favorite actress is: Natalie Portman. She is very"
         + " stunning.\\\", \\\"toto\\\":\\\"titi\\\"}\"}", response.readEntity(String.class));
   }
-  
+
+  /**
+   * Test the response returned by the
+   * {@link PipelineResource#ner(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with a long invalid JSON, only the beginning of the body is in the message.
+   */
+  @Test
+  public final void testNerResponseWithLongInvalidJson() {
+    final String text = new String(new char[1000]).replace('\0', 'a');
+    final Response response = PipelineResourceNerTest.RESOURCES.getJerseyTest().target(
+        "/v4/ner").request("text/turtle;charset=utf-8").post(Entity.entity("{\"content\":\""
+            + text + "\", \"toto\":\"titi\"}", MediaType.APPLICATION_JSON_TYPE));
+
+    Assert.assertEquals("JSON response issue", "{\"code\":412,\"message\":\"Failed to read the"
+        + " HTTP request {\\\"content\\\":\\\"" + text.substring(0, 244) + "...\"}",
+        response.readEntity(String.class));
+  }
+
   /**
    * Test the response returned by the
-   * {@link PipelineResource#ner(HttpServletRequest, String, String)} method with a second JSON
-   * violation when URL and content are both provided.
+   * {@link PipelineResource#ner(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with a second JSON violation when URL and content are both provided.
    */
   @Test
   public final void testNerResponseWithJsonViolationBoth() {
@@ -177,7 +198,8 @@ public class PipelineResourceNerTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#ner(HttpServletRequest, String, String)} method with a wrong profile.
+   * {@link PipelineResource#ner(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with a wrong profile.
    */
   @Test
   public final void testNerResponseWithWrongProfile() {
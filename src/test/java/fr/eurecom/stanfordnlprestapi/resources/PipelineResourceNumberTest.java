@@ -25,6 +25,7 @@ import java.nio.file.Paths;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -57,7 +58,8 @@ public class PipelineResourceNumberTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#number(HttpServletRequest, String, String)} method with content.
+   * {@link PipelineResource#number(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with content.
    */
   @Test
   public final void testNumberResponseWithContent() {
@@ -79,8 +81,8 @@ public class PipelineResourceNumberTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#number(HttpServletRequest, String, String)} method with a JSON
-   * violation.
+   * {@link PipelineResource#number(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with a JSON violation.
    */
   @Test
   public final void testNumberResponseWithJsonViolation() {
@@ -95,8 +97,8 @@ public class PipelineResourceNumberTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#number(HttpServletRequest, String, String)} method with an invalid
-   * JSON.
+   * {@link PipelineResource#number(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with an invalid JSON.
    */
   @Test
   public final void testNumberResponseWithInvalidJson() {
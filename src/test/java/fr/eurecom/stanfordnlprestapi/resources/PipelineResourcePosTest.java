@@ -26,6 +26,7 @@ import java.nio.file.Paths;
 import javax.servlet.http.HttpServletRequest;
 
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -60,7 +61,8 @@ public class PipelineResourcePosTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#pos(HttpServletRequest, String, String)} method with content.
+   * {@link PipelineResource#pos(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with content.
    */
   @Test
   public final void testPosResponseWithContent() {
@@ -82,7 +84,8 @@ public class PipelineResourcePosTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#pos(HttpServletRequest, String, String)} method with URL.
+   * {@link PipelineResource#pos(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with URL.
    */
   @Test
   public final void testPosResponseWithUrl() {
@@ -104,7 +107,8 @@ public class PipelineResourcePosTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#pos(HttpServletRequest, String, String)} method with a JSON violation.
+   * {@link PipelineResource#pos(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with a JSON violation.
    */
   @Test
   public final void testPosResponseWithJsonViolation() {
@@ -119,7 +123,8 @@ public class PipelineResourcePosTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#pos(HttpServletRequest, String, String)} method with an invalid JSON.
+   * {@link PipelineResource#pos(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with an invalid JSON.
    */
   @Test
   public final void testPosResponseWithInvalidJson() {
@@ -135,8 +140,8 @@ public class PipelineResourcePosTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#pos(HttpServletRequest, String, String)} method with a second JSON
-   * violation when URL and content are both provided.
+   * {@link PipelineResource#pos(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with a second JSON violation when URL and content are both provided.
    */
   @Test
   public final void testPosResponseWithJsonViolationBoth() {
@@ -25,6 +25,8 @@ import java.nio.file.Paths;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -57,7 +59,8 @@ public class PipelineResourceTokenizeTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#tokenize(HttpServletRequest, String, String)} method with content.
+   * {@link PipelineResource#tokenize(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with content.
    */
   @Test
   public final void testTokenizeResponseWithContent() {
@@ -79,8 +82,59 @@ public class PipelineResourceTokenizeTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#tokenize(HttpServletRequest, String, String)} method with a JSON
-   * violation.
+   * {@link PipelineResource#tokenize(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with content streamed sentence by sentence.
+   */
+  @Test
+  public final void testTokenizeResponseWithStream() {
+    final Response response = PipelineResourceTokenizeTest.RESOURCES.getJerseyTest().target(
+        "/v4/tokenize").queryParam("setting", "test").queryParam("format", "ntriples")
+        .queryParam("stream", true).request("text/turtle;charset=utf-8").post(Entity.entity(
+            "{\"content\":\"My favorite actress is: Natalie Portman. She is very stunning.\"}",
+            MediaType.APPLICATION_JSON_TYPE));
+    final Model fileModel = ModelFactory.createDefaultModel();
+    final Model testModel = ModelFactory.createDefaultModel();
+    
+    RDFDataMgr.read(fileModel, this.getClass().getResourceAsStream(
+        FileSystems.getDefault().getSeparator() + "tokenize.ttl"), Lang.TURTLE);
+    RDFDataMgr.read(testModel, IOUtils.toInputStream(response.readEntity(String.class),
+        Charset.forName("UTF-8")), Lang.NTRIPLES);
+    
+    Assert.assertTrue("Issue to get the proper streamed RDF model of a context for tokenize",
+        fileModel.isIsomorphicWith(testModel));
+  }
+  
+  /**
+   * Test the response returned by the
+   * {@link PipelineResource#tokenize(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with the entity tag of a cached response.
+   */
+  @Test
+  public final void testTokenizeResponseWithEtag() {
+    final Response first = PipelineResourceTokenizeTest.RESOURCES.getJerseyTest().target(
+        "/v4/tokenize").queryParam("setting", "test").request("text/turtle;charset=utf-8").post(
+            Entity.entity("{\"content\":\"I like Paris.\"}", MediaType.APPLICATION_JSON_TYPE));
+    final String body = first.readEntity(String.class);
+    final Response second = PipelineResourceTokenizeTest.RESOURCES.getJerseyTest().target(
+        "/v4/tokenize").queryParam("setting", "test").request("text/turtle;charset=utf-8").post(
+            Entity.entity("{\"content\":\"I like Paris.\"}", MediaType.APPLICATION_JSON_TYPE));
+    final Response third = PipelineResourceTokenizeTest.RESOURCES.getJerseyTest().target(
+        "/v4/tokenize").queryParam("setting", "test").request("text/turtle;charset=utf-8").header(
+            HttpHeaders.IF_NONE_MATCH, first.getEntityTag().toString()).post(Entity.entity(
+                "{\"content\":\"I like Paris.\"}", MediaType.APPLICATION_JSON_TYPE));
+    
+    Assert.assertNotNull("Issue to get the entity tag of a response", first.getEntityTag());
+    Assert.assertEquals("Issue to get the same entity tag for the same response",
+        first.getEntityTag(), second.getEntityTag());
+    Assert.assertEquals("Issue to get the cached response", body, second.readEntity(
+        String.class));
+    Assert.assertEquals("Issue to get a 304 for a cached response", 304, third.getStatus());
+  }
+  
+  /**
+   * Test the response returned by the
+   * {@link PipelineResource#tokenize(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with a JSON violation.
    */
   @Test
   public final void testTokenizeResponseWithJsonViolation() {
@@ -95,8 +149,8 @@ public class PipelineResourceTokenizeTest {
   
   /**
    * Test the response returned by the
-   * {@link PipelineResource#tokenize(HttpServletRequest, String, String)} method with an invalid
-   * JSON.
+   * {@link PipelineResource#tokenize(HttpServletRequest, AsyncResponse, String, String, String,
+   * boolean)} method with an invalid JSON.
    */
   @Test
   public final void testTokenizeResponseWithInvalidJson() {
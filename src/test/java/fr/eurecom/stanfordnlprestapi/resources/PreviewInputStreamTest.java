@@ -0,0 +1,89 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.resources;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.commons.io.IOUtils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class PreviewInputStreamTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(PreviewInputStreamTest.class);
+
+  public PreviewInputStreamTest() {
+  }
+
+  private static PreviewInputStream stream(final int length, final long limit) {
+    final byte[] body = new byte[length];
+
+    Arrays.fill(body, (byte) 'a');
+
+    return new PreviewInputStream(new ByteArrayInputStream(body), limit);
+  }
+
+  /**
+   * Test {@link PreviewInputStream#preview()} method.
+   */
+  @Test
+  public final void testPreview() throws IOException {
+    final PreviewInputStream small = new PreviewInputStream(new ByteArrayInputStream(
+        "{\"text\"".getBytes(StandardCharsets.UTF_8)), 100);
+
+    Assert.assertEquals("Issue to read a body", '{', small.read());
+    Assert.assertEquals("Issue to read the rest of a body", 6, IOUtils.toByteArray(small).length);
+    Assert.assertEquals("Issue to keep a small body", "{\"text\"", small.preview());
+    Assert.assertFalse("Issue to accept a body smaller than the limit", small.exceeded());
+
+    final PreviewInputStream big = PreviewInputStreamTest.stream(1000, 1000);
+
+    Assert.assertEquals("Issue to read a body of the maximum size", 1000, IOUtils.toByteArray(
+        big).length);
+    Assert.assertEquals("Issue to keep only the beginning of a body", 259,
+        big.preview().length());
+    Assert.assertTrue("Issue to mark a truncated preview", big.preview().endsWith("a..."));
+    Assert.assertFalse("Issue to accept a body of the maximum size", big.exceeded());
+    Assert.assertFalse("Issue to not support the marks", big.markSupported());
+    Assert.assertEquals("Issue to get the proper toString value",
+        "PreviewInputStream{limit=1000, count=1000}", big.toString());
+  }
+
+  /**
+   * Test {@link PreviewInputStream#exceeded()} method.
+   */
+  @Test
+  public final void testExceeded() throws IOException {
+    final PreviewInputStream stream = PreviewInputStreamTest.stream(1000, 10);
+
+    Assert.assertEquals("Issue to skip through the stream", 5, stream.skip(5));
+    Assert.assertEquals("Issue to stop one byte after the limit", 6, IOUtils.toByteArray(
+        stream).length);
+    Assert.assertTrue("Issue to detect a body bigger than the limit", stream.exceeded());
+    Assert.assertEquals("Issue to end the stream after the limit", -1, stream.read());
+  }
+}
@@ -0,0 +1,128 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.resources;
+
+import fr.eurecom.stanfordnlprestapi.configurations.PoolConfiguration;
+
+import fr.eurecom.stanfordnlprestapi.core.StanfordNlpPool;
+
+import fr.eurecom.stanfordnlprestapi.enums.NlpProcess;
+
+import java.io.ByteArrayOutputStream;
+import java.util.EnumSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.ws.rs.WebApplicationException;
+
+import org.apache.jena.riot.RDFFormat;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class StreamedContextTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(StreamedContextTest.class);
+  private static StanfordNlpPool pool;
+
+  public StreamedContextTest() {
+  }
+
+  @BeforeClass
+  public static void setUpBeforeClass() {
+    final PoolConfiguration configuration = new PoolConfiguration();
+
+    configuration.setMaxConcurrent(1);
+
+    StreamedContextTest.pool = new StanfordNlpPool("tokenize_en_test",
+        StreamedContextTest.class.getClassLoader().getResource(
+            "tokenize_en_test.properties").getFile(), "stanfordnlp", configuration);
+  }
+
+  private static StreamedContext streamed(final AtomicReference<byte[]> complete) {
+    return new StreamedContext(StreamedContextTest.pool.lease("I like Paris. It is nice.", 0),
+        "stanfordnlp", EnumSet.of(NlpProcess.TOKENIZE), "http://127.0.0.1",
+        RDFFormat.NTRIPLES_UTF8, StreamedContextTest.pool.stages(), 1024 * 1024, complete::set);
+  }
+
+  /**
+   * Test {@link StreamedContext#write(java.io.OutputStream)} method, the text is annotated on the
+   * executor and the whole response is given to the cache.
+   */
+  @Test
+  public final void testWrite() throws Exception {
+    final AtomicReference<byte[]> complete = new AtomicReference<>();
+    final StreamedContext streamed = StreamedContextTest.streamed(complete);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    try {
+      streamed.start(executor, 10000);
+      streamed.write(out);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Assert.assertTrue("Issue to stream the sentences of the context", out.toString("UTF-8")
+        .contains("It is nice."));
+    Assert.assertArrayEquals("Issue to give the whole response to the cache", out.toByteArray(),
+        complete.get());
+    Assert.assertEquals("Issue to release the slot of the streamed text", 0,
+        StreamedContextTest.pool.active());
+  }
+
+  /**
+   * Test {@link StreamedContext#start(ExecutorService, long)} method when the annotation does not
+   * start in time, the response is rejected before its status is sent.
+   */
+  @Test
+  public final void testStartTimeout() throws Exception {
+    final StreamedContext streamed = StreamedContextTest.streamed(new AtomicReference<>());
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    final CountDownLatch blocked = new CountDownLatch(1);
+
+    executor.submit(() -> {
+      blocked.await();
+
+      return null;
+    });
+
+    try {
+      streamed.start(executor, 50);
+
+      Assert.fail("A streamed response must be rejected when it is not annotated in time");
+    } catch (final WebApplicationException ex) {
+      Assert.assertEquals("Issue with the status of a streamed response not annotated in time",
+          503, ex.getResponse().getStatus());
+    } finally {
+      blocked.countDown();
+      executor.shutdownNow();
+    }
+
+    Assert.assertEquals("Issue to release the slot of a streamed response not annotated in time",
+        0, StreamedContextTest.pool.active());
+  }
+}
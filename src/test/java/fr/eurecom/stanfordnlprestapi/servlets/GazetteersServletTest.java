@@ -0,0 +1,157 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.servlets;
+
+import fr.eurecom.stanfordnlprestapi.gazetteer.Gazetteer;
+import fr.eurecom.stanfordnlprestapi.gazetteer.GazetteerRegistry;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.StringReader;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.jetty.http.HttpTester;
+
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.servlet.ServletTester;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.junit.rules.TemporaryFolder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class GazetteersServletTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(GazetteersServletTest.class);
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  private ServletTester tester;
+
+  public GazetteersServletTest() {
+  }
+
+  private String start(final GazetteerRegistry registry, final Executor executor)
+      throws Exception {
+    final File file = this.folder.newFile("gazetteer.tsv");
+
+    Files.write(file.toPath(), "Barack Obama\tPERSON\n".getBytes(StandardCharsets.UTF_8));
+
+    registry.gazetteer(file.getPath(), true);
+
+    this.tester = new ServletTester();
+
+    this.tester.addServlet(new ServletHolder(new GazetteersServlet(registry, executor)),
+        "/gazetteers");
+    this.tester.start();
+
+    return URLEncoder.encode(file.getPath(), "UTF-8");
+  }
+
+  private HttpTester.Response request(final String method, final String query,
+                                      final String body) throws Exception {
+    return HttpTester.parseResponse(this.tester.getResponses(method + " /gazetteers" + query
+        + " HTTP/1.1\r\nHost: tester\r\nContent-Type: text/plain\r\nContent-Length: "
+        + body.getBytes(StandardCharsets.UTF_8).length + "\r\nConnection: close\r\n\r\n"
+        + body));
+  }
+
+  @After
+  public final void stop() throws Exception {
+    if (this.tester != null) {
+      this.tester.stop();
+    }
+  }
+
+  /**
+   * Test {@link GazetteersServlet} listing, adding and removing entries.
+   */
+  @Test
+  public final void testAddRemove() throws Exception {
+    final GazetteerRegistry registry = new GazetteerRegistry();
+    final String mapping = this.start(registry, Runnable::run);
+    final Gazetteer gazetteer = registry.gazetteers().get(0);
+
+    Assert.assertTrue("Issue to list the gazetteers", this.request("GET", "", "").getContent()
+        .contains("\"entries\" : 1"));
+    Assert.assertEquals("Issue to add entries", 200, this.request("POST", "?action=add&mapping="
+        + mapping, "Paris\tLOCATION\n\nNew York\tLOCATION\n").getStatus());
+    Assert.assertEquals("Issue to remove entries", 200, this.request("POST",
+        "?action=remove&mapping=" + mapping, "barack obama\n").getStatus());
+    Assert.assertEquals("Issue to apply the entries", 2, gazetteer.version().additions());
+    Assert.assertEquals("Issue to apply the removals", 1, gazetteer.version().removals());
+    Assert.assertEquals("Issue to give a single version for each request", 3,
+        gazetteer.version().number());
+    Assert.assertEquals("Issue to refuse malformed entries", 400, this.request("POST",
+        "?action=add&mapping=" + mapping, "Nice\n").getStatus());
+    Assert.assertEquals("Issue to refuse an unknown action", 400, this.request("POST",
+        "?action=clear&mapping=" + mapping, "").getStatus());
+    Assert.assertEquals("Issue to refuse an unknown mapping", 404, this.request("POST",
+        "?action=reload&mapping=missing.tsv", "").getStatus());
+    Assert.assertEquals("Issue to keep the entries on a refused request", 2,
+        gazetteer.version().additions());
+  }
+
+  /**
+   * Test {@link GazetteersServlet} reloading a gazetteer.
+   */
+  @Test
+  public final void testReload() throws Exception {
+    final GazetteerRegistry registry = new GazetteerRegistry();
+    final String mapping = this.start(registry, Runnable::run);
+
+    Assert.assertEquals("Issue to accept a reload", 202, this.request("POST",
+        "?action=reload&mapping=" + mapping, "").getStatus());
+    Assert.assertEquals("Issue to reload the gazetteer", 2, registry.gazetteers().get(0)
+        .version().number());
+  }
+
+  /**
+   * Test {@link GazetteersServlet} with a reload that cannot be started.
+   */
+  @Test
+  public final void testReloadRejected() throws Exception {
+    final String mapping = this.start(new GazetteerRegistry(), command -> {
+      throw new RejectedExecutionException("full");
+    });
+
+    Assert.assertEquals("Issue to refuse a reload", 503, this.request("POST",
+        "?action=reload&mapping=" + mapping, "").getStatus());
+  }
+
+  /**
+   * Test {@link GazetteersServlet#entries(BufferedReader, int)} method.
+   */
+  @Test
+  public final void testEntries() throws Exception {
+    Assert.assertEquals("Issue to read the entries", 2, GazetteersServlet.entries(
+        new BufferedReader(new StringReader("Paris\tLOCATION\n \nNice\tLOCATION")), 2).size());
+    Assert.assertNull("Issue to refuse an empty column", GazetteersServlet.entries(
+        new BufferedReader(new StringReader("Paris\t \n")), 2));
+  }
+}
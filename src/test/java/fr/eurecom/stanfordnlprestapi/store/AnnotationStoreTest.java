@@ -0,0 +1,166 @@
+/**
+ * StanfordNLPRESTAPI - Offering a REST API over Stanford CoreNLP to get results in NIF format.
+ * Copyright © 2017 Julien Plu (julien.plu@redaction-developpez.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.eurecom.stanfordnlprestapi.store;
+
+import com.codahale.metrics.MetricRegistry;
+
+import fr.eurecom.stanfordnlprestapi.configurations.StoreConfiguration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.junit.rules.TemporaryFolder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Julien Plu
+ */
+public class AnnotationStoreTest {
+  static final Logger LOGGER = LoggerFactory.getLogger(AnnotationStoreTest.class);
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  public AnnotationStoreTest() {
+  }
+
+  private AnnotationStore store(final long maximumBytes, final int segmentBytes) {
+    final StoreConfiguration configuration = new StoreConfiguration();
+
+    configuration.setDirectory(this.folder.getRoot().getPath());
+    configuration.setMaximumBytes(maximumBytes);
+    configuration.setSegmentBytes(segmentBytes);
+
+    return new AnnotationStore(configuration);
+  }
+
+  private static byte[] filled(final int length, final int value) {
+    final byte[] bytes = new byte[length];
+
+    Arrays.fill(bytes, (byte) value);
+
+    return bytes;
+  }
+
+  /**
+   * Test {@link AnnotationStore#get(String)} method after a restart.
+   */
+  @Test
+  public final void testGet() throws IOException {
+    final AnnotationStore store = this.store(1024, 1024);
+
+    store.put("a", "first".getBytes(StandardCharsets.UTF_8));
+    store.put("b", "second".getBytes(StandardCharsets.UTF_8));
+    store.put("a", "other".getBytes(StandardCharsets.UTF_8));
+    store.stop();
+
+    final AnnotationStore reopened = this.store(1024, 1024);
+
+    Assert.assertEquals("Issue to index the stored documents", 2, reopened.size());
+    Assert.assertArrayEquals("Issue to read a stored document", "first".getBytes(
+        StandardCharsets.UTF_8), reopened.get("a"));
+    Assert.assertArrayEquals("Issue to read another stored document", "second".getBytes(
+        StandardCharsets.UTF_8), reopened.get("b"));
+    Assert.assertNull("Issue to miss a document that is not stored", reopened.get("c"));
+  }
+
+  /**
+   * Test {@link AnnotationStore} class when the last record has been cut by a crash.
+   */
+  @Test
+  public final void testOpenTruncated() throws IOException {
+    final AnnotationStore store = this.store(1024, 1024);
+
+    store.put("a", "first".getBytes(StandardCharsets.UTF_8));
+    store.stop();
+
+    final Path segment = this.folder.getRoot().toPath().resolve("0000000000000000"
+        + StoreSegment.EXTENSION);
+
+    Files.write(segment, new byte[] {0, 0, 0, 1, 0, 0}, StandardOpenOption.APPEND);
+
+    final AnnotationStore reopened = this.store(1024, 1024);
+
+    reopened.put("b", "second".getBytes(StandardCharsets.UTF_8));
+
+    Assert.assertArrayEquals("Issue to keep the records before the cut record", "first".getBytes(
+        StandardCharsets.UTF_8), reopened.get("a"));
+    Assert.assertArrayEquals("Issue to append after the cut record", "second".getBytes(
+        StandardCharsets.UTF_8), reopened.get("b"));
+    Assert.assertEquals("Issue to truncate the cut record", 2 * StoreSegment.HEADER_BYTES + 2
+        + 11, Files.size(segment));
+  }
+
+  /**
+   * Test {@link AnnotationStore#compact()} method.
+   */
+  @Test
+  public final void testCompact() throws IOException {
+    final AnnotationStore store = this.store(150, 1);
+    final MetricRegistry metrics = new MetricRegistry();
+
+    store.registerMetrics(metrics);
+
+    for (int i = 0; i < 5; i++) {
+      store.put("r" + i, AnnotationStoreTest.filled(40, i));
+    }
+
+    store.get("r1");
+    store.compact();
+
+    Assert.assertEquals("Issue to keep the recent documents", 2, store.size());
+    Assert.assertNull("Issue to drop the old documents", store.get("r0"));
+    Assert.assertArrayEquals("Issue to move a recent document", AnnotationStoreTest.filled(40, 1),
+        store.get("r1"));
+    Assert.assertEquals("Issue to count the dropped documents", 3L, metrics.getGauges().get(
+        MetricRegistry.name(AnnotationStore.class, "dropped")).getValue());
+    Assert.assertEquals("Issue to fit in the maximum size", 108L, metrics.getGauges().get(
+        MetricRegistry.name(AnnotationStore.class, "bytes")).getValue());
+    Assert.assertEquals("Issue to delete the compacted segments", 2L, Files.list(
+        this.folder.getRoot().toPath()).count());
+
+    store.stop();
+
+    Assert.assertEquals("Issue to reopen a compacted store", 2, this.store(150, 1).size());
+  }
+
+  /**
+   * Test {@link AnnotationStore} class when it is disabled.
+   */
+  @Test
+  public final void testDisabled() {
+    final AnnotationStore store = new AnnotationStore(new StoreConfiguration());
+
+    store.put("a", new byte[10]);
+    store.compact();
+
+    Assert.assertFalse("Issue to disable the store by default", store.enabled());
+    Assert.assertNull("Issue to not store a document when disabled", store.get("a"));
+    Assert.assertEquals("Issue to describe the store", "AnnotationStore{directory=null, "
+        + "entries=0, bytes=0, segments=0, hits=0, misses=0, dropped=0}", store.toString());
+  }
+}